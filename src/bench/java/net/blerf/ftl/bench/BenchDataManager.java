@@ -0,0 +1,102 @@
+package net.blerf.ftl.bench;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.blerf.ftl.model.ShipLayout;
+import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.DatParser;
+import net.blerf.ftl.xml.Achievement;
+import net.blerf.ftl.xml.Blueprints;
+import net.blerf.ftl.xml.ShipBlueprint;
+import net.blerf.ftl.xml.SystemBlueprint;
+import net.blerf.ftl.xml.WeaponBlueprint;
+
+
+/**
+ * A DataManager backed by the synthetic fixtures, rather than FTL's dats.
+ *
+ * Only the lookups the parsers need are implemented. Anything else throws
+ * UnsupportedOperationException, as in the base class.
+ */
+public class BenchDataManager extends DataManager {
+
+	private Map<String, Achievement> achievementIdMap = new LinkedHashMap<String, Achievement>();
+	private Map<String, ShipBlueprint> shipIdMap = new HashMap<String, ShipBlueprint>();
+	private Map<String, SystemBlueprint> systemIdMap = new HashMap<String, SystemBlueprint>();
+	private Map<String, WeaponBlueprint> weaponIdMap = new HashMap<String, WeaponBlueprint>();
+	private Map<String, ShipLayout> shipLayouts = new HashMap<String, ShipLayout>();
+
+
+	public BenchDataManager( File fixturesDir ) throws Exception {
+		DatParser datParser = new DatParser();
+
+		InputStream in = null;
+		try {
+			in = new FileInputStream( new File( fixturesDir, BenchFixtures.ACHIEVEMENTS ) );
+			for ( Achievement ach : datParser.readAchievements( in, BenchFixtures.ACHIEVEMENTS ) ) {
+				// DefaultDataManager flags these by hardcoded ids.
+				if ( ach.getId().endsWith( "_VICTORY" ) ) ach.setVictory( true );
+				if ( ach.getId().endsWith( "_QUEST" ) ) ach.setQuest( true );
+				achievementIdMap.put( ach.getId(), ach );
+			}
+			in.close();
+
+			in = new FileInputStream( new File( fixturesDir, BenchFixtures.BLUEPRINTS ) );
+			Blueprints blueprints = datParser.readBlueprints( in, BenchFixtures.BLUEPRINTS );
+			for ( ShipBlueprint ship : blueprints.getShipBlueprint() ) {
+				shipIdMap.put( ship.getId(), ship );
+			}
+			for ( SystemBlueprint system : blueprints.getSystemBlueprint() ) {
+				systemIdMap.put( system.getId(), system );
+			}
+			for ( WeaponBlueprint weapon : blueprints.getWeaponBlueprint() ) {
+				weaponIdMap.put( weapon.getId(), weapon );
+			}
+			in.close();
+
+			in = new FileInputStream( new File( fixturesDir, BenchFixtures.LAYOUT ) );
+			shipLayouts.put( BenchFixtures.LAYOUT_ID, datParser.readLayout( in, BenchFixtures.LAYOUT ) );
+		}
+		finally {
+			try {if ( in != null ) in.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	public List<String> getAchievementIds() {
+		return new ArrayList<String>( achievementIdMap.keySet() );
+	}
+
+	@Override
+	public Achievement getAchievement( String id ) {
+		return achievementIdMap.get( id );
+	}
+
+	@Override
+	public SystemBlueprint getSystem( String id, boolean dlcEnabled ) {
+		return systemIdMap.get( id );
+	}
+
+	@Override
+	public WeaponBlueprint getWeapon( String id, boolean dlcEnabled ) {
+		return weaponIdMap.get( id );
+	}
+
+	@Override
+	public ShipBlueprint getShip( String id, boolean dlcEnabled ) {
+		return shipIdMap.get( id );
+	}
+
+	@Override
+	public ShipLayout getShipLayout( String id ) {
+		return shipLayouts.get( id );
+	}
+}
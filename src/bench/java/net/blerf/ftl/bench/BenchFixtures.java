@@ -0,0 +1,536 @@
+package net.blerf.ftl.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import net.vhati.ftldat.FTLPack;
+
+import net.blerf.ftl.constants.Difficulty;
+import net.blerf.ftl.constants.NewbieTipLevel;
+import net.blerf.ftl.model.AchievementRecord;
+import net.blerf.ftl.model.CrewRecord;
+import net.blerf.ftl.model.Profile;
+import net.blerf.ftl.model.Score;
+import net.blerf.ftl.model.ShipAvailability;
+import net.blerf.ftl.model.Stats;
+import net.blerf.ftl.model.Stats.StatType;
+import net.blerf.ftl.parser.ByteBufferInputStream;
+import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.ProfileParser;
+import net.blerf.ftl.parser.SavedGameParser;
+import net.blerf.ftl.parser.SavedGameParser.BeaconState;
+import net.blerf.ftl.parser.SavedGameParser.FleetPresence;
+import net.blerf.ftl.parser.SavedGameParser.RebelFlagshipState;
+import net.blerf.ftl.parser.SavedGameParser.SavedGameState;
+import net.blerf.ftl.parser.SavedGameParser.ShipState;
+import net.blerf.ftl.parser.SavedGameParser.SystemType;
+
+
+/**
+ * Writes synthetic inputs for the benchmarks.
+ *
+ * No copyrighted game files are needed. Everything is generated from a
+ * fixed seed: xml resembling FTL's, a ship layout, an FTL dat, a PKG dat,
+ * a profile, and a saved game.
+ *
+ * Maven's "bench" profile runs this during process-classes. The
+ * benchmarks will also call ensure() themselves, in case they were
+ * launched some other way.
+ */
+public class BenchFixtures {
+
+	public static final String DIR_PROPERTY = "ftl.bench.fixtures";
+
+	public static final String ACHIEVEMENTS = "achievements.xml";
+	public static final String BLUEPRINTS = "blueprints.xml";
+	public static final String EVENTS = "events.xml";
+	public static final String LAYOUT = "bench_ship.txt";
+	public static final String FTL_DAT = "data.dat";
+	public static final String PKG_DAT = "ftl.dat";
+	public static final String PROFILE = "ae_prof.sav";
+	public static final String SAVED_GAME = "continue.sav";
+
+	public static final String SHIP_ID = "BENCH_SHIP";
+	public static final String LAYOUT_ID = "bench_ship";
+
+	/** Synthetic innerFiles to pad the dats with, besides the xml. */
+	public static final int PADDING_ENTRY_COUNT = 2000;
+
+	private static final long SEED = 1337L;
+
+	private static final Charset UTF8 = Charset.forName( "UTF-8" );
+
+	private static final String[] VICTORY_SHIP_IDS = new String[] {
+		"PLAYER_SHIP_HARD", "PLAYER_SHIP_STEALTH", "PLAYER_SHIP_MANTIS",
+		"PLAYER_SHIP_CIRCLE", "PLAYER_SHIP_FED", "PLAYER_SHIP_JELLY",
+		"PLAYER_SHIP_ROCK", "PLAYER_SHIP_ENERGY", "PLAYER_SHIP_CRYSTAL",
+		"PLAYER_SHIP_ANAEROBIC"
+	};
+
+
+	public static void main( String[] args ) throws Exception {
+		File dir = getDir( (( args.length > 0 ) ? args[0] : null) );
+		generate( dir );
+		System.out.println( "Wrote benchmark fixtures: "+ dir.getAbsolutePath() );
+	}
+
+	/**
+	 * Returns the fixture dir from an arg, a system property, or a default.
+	 */
+	public static File getDir( String path ) {
+		if ( path == null ) path = System.getProperty( DIR_PROPERTY );
+		if ( path == null ) path = "target/bench-fixtures";
+		return new File( path );
+	}
+
+	/**
+	 * Returns the fixture dir, generating its contents if necessary.
+	 */
+	public static synchronized File ensure() throws Exception {
+		File dir = getDir( null );
+		if ( !new File( dir, SAVED_GAME ).exists() ) {
+			generate( dir );
+		}
+		return dir;
+	}
+
+	public static void generate( File dir ) throws Exception {
+		if ( !dir.exists() && !dir.mkdirs() ) {
+			throw new IOException( "Could not create fixture dir: "+ dir.getAbsolutePath() );
+		}
+		Random rng = new Random( SEED );
+
+		Map<String, byte[]> innerFiles = new LinkedHashMap<String, byte[]>();
+		innerFiles.put( "data/"+ ACHIEVEMENTS, createAchievementsXml().getBytes( UTF8 ) );
+		innerFiles.put( "data/"+ BLUEPRINTS, createBlueprintsXml( rng ).getBytes( UTF8 ) );
+		innerFiles.put( "data/"+ EVENTS, createEventsXml( rng ).getBytes( UTF8 ) );
+		innerFiles.put( "data/"+ LAYOUT, createLayoutText().getBytes( UTF8 ) );
+
+		for ( Map.Entry<String, byte[]> entry : innerFiles.entrySet() ) {
+			String name = entry.getKey().substring( entry.getKey().lastIndexOf( "/" )+1 );
+			writeBytes( new File( dir, name ), entry.getValue() );
+		}
+
+		for ( int i=0; i < PADDING_ENTRY_COUNT; i++ ) {
+			// Half noise, half repetitive, so deflated PKG entries vary in ratio.
+			byte[] data = new byte[256 + rng.nextInt( 16 * 1024 )];
+			if ( i % 2 == 0 ) {
+				rng.nextBytes( data );
+			} else {
+				for ( int j=0; j < data.length; j++ ) data[j] = (byte)(j % 61);
+			}
+			innerFiles.put( String.format( "img/bench/sprite_%04d.png", i ), data );
+		}
+
+		writeFTLPack( new File( dir, FTL_DAT ), innerFiles );
+		writePkgPack( new File( dir, PKG_DAT ), innerFiles );
+
+		// The parsers consult DataManager, so load what was just written.
+		DataManager prevManager = DataManager.get();
+		BenchDataManager benchManager = new BenchDataManager( dir );
+		DataManager.setInstance( benchManager );
+		try {
+			writeProfile( new File( dir, PROFILE ), benchManager, rng );
+			writeSavedGame( new File( dir, SAVED_GAME ), rng );
+		}
+		finally {
+			DataManager.setInstance( prevManager );
+		}
+	}
+
+
+	private static String createAchievementsXml() {
+		StringBuilder buf = new StringBuilder();
+		buf.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" );
+
+		for ( String shipId : VICTORY_SHIP_IDS ) {
+			String baseName = shipId.replaceFirst( "^PLAYER_SHIP_", "" );
+			for ( int i=1; i <= 3; i++ ) {
+				appendAchievement( buf, "SHIP_"+ baseName +"_"+ i, shipId );
+			}
+			appendAchievement( buf, shipId +"_QUEST", shipId );
+			appendAchievement( buf, shipId +"_VICTORY", shipId );
+		}
+		for ( int i=0; i < 40; i++ ) {
+			appendAchievement( buf, String.format( "ACH_BENCH_%02d", i ), null );
+		}
+		return buf.toString();
+	}
+
+	private static void appendAchievement( StringBuilder buf, String id, String shipId ) {
+		buf.append( "<achievement id=\"" ).append( id ).append( "\">\n" );
+		buf.append( "\t<name>" ).append( id ).append( "</name>\n" );
+		buf.append( "\t<desc>Synthetic achievement for benchmarks.</desc>\n" );
+		buf.append( "\t<img>achievements/" ).append( id.toLowerCase() ).append( ".png</img>\n" );
+		if ( shipId != null ) {
+			buf.append( "\t<ship>" ).append( shipId ).append( "</ship>\n" );
+		}
+		buf.append( "</achievement>\n" );
+	}
+
+	private static String createBlueprintsXml( Random rng ) {
+		StringBuilder buf = new StringBuilder();
+		buf.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" );
+
+		for ( SystemType systemType : SystemType.values() ) {
+			buf.append( "<systemBlueprint name=\"" ).append( systemType.getId() ).append( "\">\n" );
+			buf.append( "\t<type>" ).append( (systemType.isSubsystem() ? "subsystem" : "system") ).append( "</type>\n" );
+			buf.append( "\t<title>" ).append( systemType.getId() ).append( "</title>\n" );
+			buf.append( "\t<desc>Synthetic system.</desc>\n" );
+			buf.append( "\t<startPower>" ).append( 1 + rng.nextInt( 2 ) ).append( "</startPower>\n" );
+			buf.append( "\t<maxPower>8</maxPower>\n" );
+			buf.append( "\t<rarity>0</rarity>\n" );
+			buf.append( "\t<upgradeCost><level>20</level><level>30</level><level>40</level></upgradeCost>\n" );
+			buf.append( "\t<cost>50</cost>\n" );
+			buf.append( "</systemBlueprint>\n" );
+		}
+
+		for ( int i=0; i < 400; i++ ) {
+			buf.append( String.format( "<weaponBlueprint name=\"BENCH_WEAPON_%03d\">\n", i ) );
+			buf.append( "\t<type>LASER</type>\n" );
+			buf.append( "\t<title>Synthetic Laser</title>\n" );
+			buf.append( "\t<short>S-Laser</short>\n" );
+			buf.append( "\t<desc>Fires synthetic projectiles.</desc>\n" );
+			buf.append( "\t<tooltip>Synthetic.</tooltip>\n" );
+			buf.append( "\t<damage>" ).append( 1 + rng.nextInt( 3 ) ).append( "</damage>\n" );
+			buf.append( "\t<shots>" ).append( 1 + rng.nextInt( 3 ) ).append( "</shots>\n" );
+			buf.append( "\t<sp>0</sp>\n" );
+			buf.append( "\t<fireChance>1</fireChance>\n" );
+			buf.append( "\t<breachChance>0</breachChance>\n" );
+			buf.append( "\t<cooldown>" ).append( 8 + rng.nextInt( 12 ) ).append( "</cooldown>\n" );
+			buf.append( "\t<power>" ).append( 1 + rng.nextInt( 3 ) ).append( "</power>\n" );
+			buf.append( "\t<cost>" ).append( 30 + rng.nextInt( 70 ) ).append( "</cost>\n" );
+			buf.append( "\t<bp>0</bp>\n" );
+			buf.append( "\t<rarity>" ).append( rng.nextInt( 5 ) ).append( "</rarity>\n" );
+			buf.append( "\t<image>laser_light</image>\n" );
+			buf.append( "\t<launchSounds><sound>lightLaser1</sound><sound>lightLaser2</sound></launchSounds>\n" );
+			buf.append( "</weaponBlueprint>\n" );
+		}
+
+		buf.append( "<shipBlueprint name=\"" ).append( SHIP_ID ).append( "\" layout=\"" ).append( LAYOUT_ID ).append( "\" img=\"" ).append( LAYOUT_ID ).append( "\">\n" );
+		buf.append( "\t<class>Synthetic Cruiser</class>\n" );
+		buf.append( "\t<name>The Benchmark</name>\n" );
+		buf.append( "\t<desc>A ship that exists only to be parsed.</desc>\n" );
+		buf.append( "\t<systemList>\n" );
+		String[] systemIds = new String[] {"pilot", "doors", "sensors", "medbay", "oxygen", "shields", "engines", "weapons"};
+		for ( int i=0; i < systemIds.length; i++ ) {
+			buf.append( "\t\t<" ).append( systemIds[i] ).append( " power=\"" ).append( (i < 3 ? 1 : 2) ).append( "\" room=\"" ).append( i ).append( "\" start=\"true\"/>\n" );
+		}
+		buf.append( "\t</systemList>\n" );
+		buf.append( "\t<weaponSlots>4</weaponSlots>\n" );
+		buf.append( "\t<droneSlots>2</droneSlots>\n" );
+		buf.append( "\t<health amount=\"30\"/>\n" );
+		buf.append( "\t<maxPower amount=\"8\"/>\n" );
+		buf.append( "\t<crewCount amount=\"3\" class=\"human\"/>\n" );
+		buf.append( "</shipBlueprint>\n" );
+
+		return buf.toString();
+	}
+
+	private static String createEventsXml( Random rng ) {
+		StringBuilder buf = new StringBuilder();
+		buf.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" );
+
+		for ( int i=0; i < 1500; i++ ) {
+			buf.append( String.format( "<event name=\"BENCH_EVENT_%04d\">\n", i ) );
+			buf.append( "\t<text>Synthetic event text with enough words to resemble the real thing, number " ).append( i ).append( ".</text>\n" );
+			buf.append( "\t<choice hidden=\"true\">\n" );
+			buf.append( "\t\t<text>Continue...</text>\n" );
+			buf.append( String.format( "\t\t<event load=\"BENCH_EVENT_%04d\"/>\n", rng.nextInt( 1500 ) ) );
+			buf.append( "\t</choice>\n" );
+			buf.append( "</event>\n" );
+		}
+		for ( int i=0; i < 300; i++ ) {
+			buf.append( String.format( "<eventList name=\"BENCH_LIST_%03d\">\n", i ) );
+			for ( int j=0; j < 5; j++ ) {
+				buf.append( String.format( "\t<event load=\"BENCH_EVENT_%04d\"/>\n", rng.nextInt( 1500 ) ) );
+			}
+			buf.append( "</eventList>\n" );
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Returns a 4x2 grid of 2x2 rooms, with doors between neighbors.
+	 */
+	private static String createLayoutText() {
+		StringBuilder buf = new StringBuilder();
+		buf.append( "X_OFFSET\n2\nY_OFFSET\n3\nHORIZONTAL\n0\nVERTICAL\n0\n" );
+		buf.append( "ELLIPSE\n250\n150\n0\n0\n" );
+
+		int cols = 4, rows = 2;
+		for ( int r=0; r < rows; r++ ) {
+			for ( int c=0; c < cols; c++ ) {
+				buf.append( "ROOM\n" ).append( r*cols + c ).append( "\n" ).append( c*2 ).append( "\n" ).append( r*2 ).append( "\n2\n2\n" );
+			}
+		}
+		for ( int r=0; r < rows; r++ ) {
+			for ( int c=0; c < cols; c++ ) {
+				int roomId = r*cols + c;
+				if ( c+1 < cols ) {
+					buf.append( "DOOR\n" ).append( (c+1)*2 ).append( "\n" ).append( r*2 ).append( "\n" ).append( roomId ).append( "\n" ).append( roomId+1 ).append( "\n1\n" );
+				}
+				if ( r+1 < rows ) {
+					buf.append( "DOOR\n" ).append( c*2 ).append( "\n" ).append( (r+1)*2 ).append( "\n" ).append( roomId ).append( "\n" ).append( roomId+cols ).append( "\n0\n" );
+				}
+			}
+		}
+		// An airlock.
+		buf.append( "DOOR\n0\n0\n0\n-1\n1\n" );
+
+		return buf.toString();
+	}
+
+	private static void writeFTLPack( File datFile, Map<String, byte[]> innerFiles ) throws IOException {
+		if ( datFile.exists() ) datFile.delete();
+
+		FTLPack pack = null;
+		try {
+			pack = new FTLPack( datFile, "w+", innerFiles.size() );
+			for ( Map.Entry<String, byte[]> entry : innerFiles.entrySet() ) {
+				pack.add( entry.getKey(), new ByteArrayInputStream( entry.getValue() ) );
+			}
+			pack.repack();
+		}
+		finally {
+			try {if ( pack != null ) pack.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	/**
+	 * Writes a PKG dat directly, deflating every other innerFile.
+	 *
+	 * Layout follows PkgPack: header, index entries, null-terminated paths,
+	 * then each entry's data. All numbers are big-endian.
+	 */
+	private static void writePkgPack( File datFile, Map<String, byte[]> innerFiles ) throws IOException {
+		List<String> innerPaths = new ArrayList<String>( innerFiles.keySet() );
+		int entryCount = innerPaths.size();
+
+		ByteArrayOutputStream pathsBuf = new ByteArrayOutputStream();
+		int[] pathOffsets = new int[entryCount];
+		for ( int i=0; i < entryCount; i++ ) {
+			pathOffsets[i] = pathsBuf.size();
+			byte[] pathBytes = innerPaths.get( i ).getBytes( "US-ASCII" );
+			pathsBuf.write( pathBytes, 0, pathBytes.length );
+			pathsBuf.write( 0 );
+		}
+		while ( pathsBuf.size() % 4 != 0 ) pathsBuf.write( 0 );
+		byte[] pathsRegion = pathsBuf.toByteArray();
+
+		if ( datFile.exists() ) datFile.delete();
+
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile( datFile, "rw" );
+			raf.write( new byte[] {0x50, 0x4B, 0x47, 0x0A} );
+			raf.writeShort( 16 );
+			raf.writeShort( 20 );
+			raf.writeInt( entryCount );
+			raf.writeInt( pathsRegion.length );
+
+			long indexOffset = raf.getFilePointer();
+			long dataOffset = indexOffset + entryCount * 20L + pathsRegion.length;
+
+			raf.seek( indexOffset + entryCount * 20L );
+			raf.write( pathsRegion );
+
+			for ( int i=0; i < entryCount; i++ ) {
+				String innerPath = innerPaths.get( i );
+				byte[] unpacked = innerFiles.get( innerPath );
+				boolean deflated = ( i % 2 == 1 );
+				byte[] stored = ( deflated ? deflate( unpacked ) : unpacked );
+
+				raf.seek( dataOffset );
+				raf.write( stored );
+
+				raf.seek( indexOffset + i * 20L );
+				raf.writeInt( (int)calculatePathHash( innerPath ) );
+				raf.writeInt( pathOffsets[i] | (deflated ? 1 << 24 : 0) );
+				raf.writeInt( (int)dataOffset );
+				raf.writeInt( stored.length );
+				raf.writeInt( unpacked.length );
+
+				dataOffset += stored.length;
+			}
+		}
+		finally {
+			try {if ( raf != null ) raf.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	/**
+	 * Returns the hash PkgPack expects for a path.
+	 */
+	private static long calculatePathHash( String innerPath ) {
+		long hash = 0;
+		for ( char c : innerPath.toLowerCase().toCharArray() ) {
+			hash = hash << 27 | hash >>> 5;
+			hash ^= c;
+			hash &= 0x00000000FFFFFFFFL;
+		}
+		return hash;
+	}
+
+	private static byte[] deflate( byte[] data ) {
+		Deflater deflater = new Deflater();
+		deflater.setInput( data );
+		deflater.finish();
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream( data.length );
+		byte[] chunk = new byte[8192];
+		while ( !deflater.finished() ) {
+			int len = deflater.deflate( chunk );
+			result.write( chunk, 0, len );
+		}
+		deflater.end();
+		return result.toByteArray();
+	}
+
+	private static void writeProfile( File f, BenchDataManager benchManager, Random rng ) throws IOException {
+		Profile profile = Profile.createEmptyProfile();
+		profile.setFileFormat( 9 );
+		profile.setNewbieTipLevel( NewbieTipLevel.VETERAN );
+
+		List<AchievementRecord> achRecs = new ArrayList<AchievementRecord>();
+		for ( String achId : benchManager.getAchievementIds() ) {
+			AchievementRecord rec = new AchievementRecord( achId, Difficulty.values()[rng.nextInt( 3 )] );
+			if ( benchManager.getAchievement( achId ).isVictory() ) {
+				rec.setCompletedWithTypeA( Difficulty.NORMAL );
+				rec.setCompletedWithTypeC( Difficulty.HARD );
+			}
+			achRecs.add( rec );
+		}
+		profile.setAchievements( achRecs );
+
+		for ( String shipId : VICTORY_SHIP_IDS ) {
+			profile.getShipUnlockMap().put( shipId, new ShipAvailability( shipId, true, rng.nextBoolean() ) );
+		}
+
+		Stats stats = profile.getStats();
+		for ( int i=0; i < 5; i++ ) {
+			stats.getTopScores().add( createScore( rng ) );
+		}
+		for ( int i=0; i < VICTORY_SHIP_IDS.length * 2; i++ ) {
+			stats.getShipBest().add( createScore( rng ) );
+		}
+		for ( StatType type : new ArrayList<StatType>( stats.getIntRecordMap().keySet() ) ) {
+			stats.setIntRecord( type, rng.nextInt( 5000 ) );
+		}
+		for ( StatType type : new ArrayList<StatType>( stats.getCrewRecordMap().keySet() ) ) {
+			stats.setCrewRecord( type, new CrewRecord( "Bench", "human", rng.nextBoolean(), rng.nextInt( 500 ) ) );
+		}
+
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream( f );
+			new ProfileParser().writeProfile( out, profile );
+		}
+		finally {
+			try {if ( out != null ) out.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	private static Score createScore( Random rng ) {
+		String shipId = VICTORY_SHIP_IDS[rng.nextInt( VICTORY_SHIP_IDS.length )];
+		Difficulty difficulty = ( rng.nextBoolean() ? Difficulty.EASY : Difficulty.NORMAL );
+		return new Score( "The Benchmark", shipId, rng.nextInt( 9000 ), 1+rng.nextInt( 8 ), difficulty, rng.nextBoolean() );
+	}
+
+	/**
+	 * Writes an FTL 1.03.3 saved game (format 2).
+	 *
+	 * That format has no encounter, environment, or projectile sections,
+	 * which would otherwise need to be fabricated consistently.
+	 */
+	private static void writeSavedGame( File f, Random rng ) throws IOException {
+		SavedGameState gameState = new SavedGameState();
+		gameState.setFileFormat( 2 );
+		gameState.setDifficulty( Difficulty.NORMAL );
+		gameState.setTotalShipsDefeated( 12 );
+		gameState.setTotalBeaconsExplored( 40 );
+		gameState.setTotalScrapCollected( 900 );
+		gameState.setTotalCrewHired( 3 );
+		gameState.setPlayerShipName( "The Benchmark" );
+		gameState.setPlayerShipBlueprintId( SHIP_ID );
+		gameState.setSectorNumber( 3 );
+
+		for ( int i=0; i < 50; i++ ) {
+			gameState.setStateVar( String.format( "bench_var_%02d", i ), rng.nextInt( 100 ) );
+		}
+
+		ShipState shipState = new ShipState( "The Benchmark", DataManager.get().getShip( SHIP_ID ), false );
+		shipState.refit();
+		shipState.setHullAmt( 27 );
+		shipState.setFuelAmt( 14 );
+		shipState.setMissilesAmt( 6 );
+		shipState.setDronePartsAmt( 2 );
+		shipState.setScrapAmt( 150 );
+		gameState.setPlayerShipState( shipState );
+
+		gameState.addCargoItemId( "BENCH_WEAPON_000" );
+		gameState.setSectorTreeSeed( rng.nextInt() );
+		gameState.setSectorLayoutSeed( rng.nextInt() );
+
+		List<Boolean> route = new ArrayList<Boolean>();
+		for ( int i=0; i < 24; i++ ) route.add( i % 5 == 0 );
+		gameState.setSectorVisitation( route );
+
+		for ( int i=0; i < 24; i++ ) {
+			BeaconState beacon = new BeaconState();
+			if ( i < 8 ) {
+				beacon.setVisitCount( 1 + rng.nextInt( 2 ) );
+				beacon.setBgStarscapeImageInnerPath( "img/stars/bg_darknebula.png" );
+				beacon.setBgSpriteImageInnerPath( "img/planets/planet_gas_blue.png" );
+				beacon.setBgSpritePosX( rng.nextInt( 800 ) );
+				beacon.setBgSpritePosY( rng.nextInt( 600 ) );
+			}
+			beacon.setSeen( i < 12 );
+			beacon.setFleetPresence( ( i > 18 ) ? FleetPresence.REBEL : FleetPresence.NONE );
+			gameState.addBeacon( beacon );
+		}
+		gameState.setCurrentBeaconId( 7 );
+		gameState.setRebelFlagshipState( new RebelFlagshipState() );
+
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream( f );
+			new SavedGameParser().writeSavedGame( out, gameState );
+		}
+		finally {
+			try {if ( out != null ) out.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	public static byte[] readBytes( File f ) throws IOException {
+		return ByteBufferInputStream.readFully( f ).getBuffer().array();
+	}
+
+	private static void writeBytes( File f, byte[] data ) throws IOException {
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream( f );
+			out.write( data );
+		}
+		finally {
+			try {if ( out != null ) out.close();}
+			catch ( IOException e ) {}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package net.blerf.ftl.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.blerf.ftl.parser.DatParser;
+import net.blerf.ftl.xml.Blueprints;
+import net.blerf.ftl.xml.Encounters;
+
+
+/**
+ * Unmarshals synthetic blueprints and events xml.
+ *
+ * The blueprints are read under a name other than "blueprints.xml", so
+ * they take the streaming path, like most of FTL's blueprint files.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class DatParserBenchmark {
+
+	private DatParser datParser;
+	private byte[] blueprintsBytes;
+	private byte[] eventsBytes;
+
+
+	@Setup
+	public void setup() throws Exception {
+		File dir = BenchFixtures.ensure();
+
+		datParser = new DatParser();
+		blueprintsBytes = BenchFixtures.readBytes( new File( dir, BenchFixtures.BLUEPRINTS ) );
+		eventsBytes = BenchFixtures.readBytes( new File( dir, BenchFixtures.EVENTS ) );
+	}
+
+	@Benchmark
+	public Blueprints readBlueprints() throws Exception {
+		return datParser.readBlueprints( new ByteArrayInputStream( blueprintsBytes ), "bench_blueprints.xml" );
+	}
+
+	@Benchmark
+	public Encounters readEvents() throws Exception {
+		return datParser.readEvents( new ByteArrayInputStream( eventsBytes ), BenchFixtures.EVENTS );
+	}
+}
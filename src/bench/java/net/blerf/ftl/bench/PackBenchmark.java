@@ -0,0 +1,111 @@
+package net.blerf.ftl.bench;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.vhati.ftldat.AbstractPack;
+import net.vhati.ftldat.FTLPack;
+import net.vhati.ftldat.PkgPack;
+
+
+/**
+ * Opens synthetic dats and extracts their innerFiles.
+ *
+ * Each format is measured both with seeking reads and memory-mapped.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class PackBenchmark {
+
+	@Param( {"ftl", "pkg"} )
+	public String format;
+
+	@Param( {"r", "rm"} )
+	public String mode;
+
+	private File datFile;
+	private AbstractPack pack;
+	private List<String> innerPaths;
+	private int nextPath = 0;
+	private byte[] chunk = new byte[8192];
+
+
+	@Setup
+	public void setup() throws Exception {
+		File dir = BenchFixtures.ensure();
+		datFile = new File( dir, ("ftl".equals( format ) ? BenchFixtures.FTL_DAT : BenchFixtures.PKG_DAT) );
+		pack = openPack();
+		innerPaths = pack.list();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		if ( pack != null ) pack.close();
+	}
+
+	private AbstractPack openPack() throws IOException {
+		if ( "ftl".equals( format ) ) {
+			return new FTLPack( datFile, mode );
+		} else {
+			return new PkgPack( datFile, mode );
+		}
+	}
+
+	/**
+	 * Opens the dat and reads its index.
+	 */
+	@Benchmark
+	public int loadIndex() throws IOException {
+		AbstractPack tmpPack = openPack();
+		try {
+			return tmpPack.list().size();
+		}
+		finally {
+			tmpPack.close();
+		}
+	}
+
+	/**
+	 * Reads one innerFile fully, cycling through all of them.
+	 */
+	@Benchmark
+	public long extractEntry() throws IOException {
+		String innerPath = innerPaths.get( nextPath );
+		nextPath = (nextPath + 1) % innerPaths.size();
+
+		long total = 0;
+		InputStream is = null;
+		try {
+			is = pack.getInputStream( innerPath );
+			int len;
+			while ( (len = is.read( chunk )) != -1 ) {
+				total += len;
+			}
+		}
+		finally {
+			try {if ( is != null ) is.close();}
+			catch ( IOException e ) {}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,61 @@
+package net.blerf.ftl.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.blerf.ftl.model.Profile;
+import net.blerf.ftl.parser.ByteBufferInputStream;
+import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.ProfileParser;
+
+
+/**
+ * Reads and writes a synthetic profile.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class ProfileBenchmark {
+
+	private ProfileParser parser;
+	private byte[] profileBytes;
+	private Profile profile;
+
+
+	@Setup
+	public void setup() throws Exception {
+		File dir = BenchFixtures.ensure();
+		DataManager.setInstance( new BenchDataManager( dir ) );
+
+		parser = new ProfileParser();
+		profileBytes = BenchFixtures.readBytes( new File( dir, BenchFixtures.PROFILE ) );
+		profile = parser.readProfile( new ByteBufferInputStream( profileBytes ) );
+	}
+
+	@Benchmark
+	public Profile read() throws Exception {
+		return parser.readProfile( new ByteBufferInputStream( profileBytes ) );
+	}
+
+	@Benchmark
+	public byte[] write() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream( profileBytes.length );
+		parser.writeProfile( out, profile );
+		return out.toByteArray();
+	}
+}
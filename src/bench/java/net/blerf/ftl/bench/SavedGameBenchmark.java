@@ -0,0 +1,71 @@
+package net.blerf.ftl.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.blerf.ftl.parser.ByteBufferInputStream;
+import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.SavedGameParser;
+import net.blerf.ftl.parser.SavedGameParser.SavedGameState;
+
+
+/**
+ * Reads and writes a synthetic saved game.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class SavedGameBenchmark {
+
+	private SavedGameParser parser;
+	private byte[] savedGameBytes;
+	private SavedGameState gameState;
+
+
+	@Setup
+	public void setup() throws Exception {
+		File dir = BenchFixtures.ensure();
+		DataManager.setInstance( new BenchDataManager( dir ) );
+
+		parser = new SavedGameParser();
+		savedGameBytes = BenchFixtures.readBytes( new File( dir, BenchFixtures.SAVED_GAME ) );
+		gameState = parser.readSavedGame( new ByteBufferInputStream( savedGameBytes ) );
+	}
+
+	@Benchmark
+	public SavedGameState read() throws Exception {
+		return parser.readSavedGame( new ByteBufferInputStream( savedGameBytes ) );
+	}
+
+	@Benchmark
+	public byte[] write() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream( savedGameBytes.length );
+		parser.writeSavedGame( out, gameState );
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes with every section clean, as after a small top-level edit.
+	 */
+	@Benchmark
+	public byte[] writeIncremental() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream( savedGameBytes.length );
+		parser.writeSavedGame( out, gameState, true );
+		return out.toByteArray();
+	}
+}
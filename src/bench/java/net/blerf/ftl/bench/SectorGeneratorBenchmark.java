@@ -0,0 +1,62 @@
+package net.blerf.ftl.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.blerf.ftl.model.sectortree.SectorDot;
+import net.blerf.ftl.parser.random.FTL_1_6_Random;
+import net.blerf.ftl.parser.random.RandRNG;
+import net.blerf.ftl.parser.sectormap.GeneratedSectorMap;
+import net.blerf.ftl.parser.sectormap.RandomSectorMapGenerator;
+import net.blerf.ftl.parser.sectortree.RandomSectorTreeGenerator;
+
+
+/**
+ * Generates sector trees and sector maps from successive seeds.
+ *
+ * The tree generator uses its hardcoded test sectors, so no dats are
+ * needed.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class SectorGeneratorBenchmark {
+
+	private RandRNG rng;
+	private RandomSectorTreeGenerator treeGen;
+	private RandomSectorMapGenerator mapGen;
+	private int seed = 0;
+
+
+	@Setup
+	public void setup() {
+		rng = new FTL_1_6_Random();
+		treeGen = new RandomSectorTreeGenerator( rng );
+		mapGen = new RandomSectorMapGenerator();
+	}
+
+	@Benchmark
+	public List<List<SectorDot>> generateSectorTree() {
+		return treeGen.generateTestSectorTree( seed++, false, true );
+	}
+
+	@Benchmark
+	public GeneratedSectorMap generateSectorMap() {
+		rng.srand( seed++ );
+		return mapGen.generateSectorMap( rng, 9 );
+	}
+}
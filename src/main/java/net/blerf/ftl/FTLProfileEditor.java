@@ -8,6 +8,7 @@ import java.io.InputStreamReader;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Properties;
 import javax.swing.JOptionPane;
@@ -25,7 +26,9 @@ import org.slf4j.bridge.SLF4JBridgeHandler;
 
 import net.vhati.modmanager.core.FTLUtilities;
 
+import net.blerf.ftl.cli.FTLBatchCLI;
 import net.blerf.ftl.core.EditorConfig;
+import net.blerf.ftl.core.SafeFileWriter;
 import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.parser.DefaultDataManager;
 import net.blerf.ftl.ui.FTLFrame;
@@ -44,6 +47,12 @@ public class FTLProfileEditor {
 		SLF4JBridgeHandler.removeHandlersForRootLogger();
 		SLF4JBridgeHandler.install();
 
+		// A leading "batch" means a headless batch run instead of the GUI.
+		if ( args.length > 0 && ( "batch".equals( args[0] ) || "--batch".equals( args[0] ) ) ) {
+			FTLBatchCLI.main( Arrays.copyOfRange( args, 1, args.length ) );
+			return;
+		}
+
 		// Doing this here instead of in "logback.xml", allows for conditional log files.
 		// For example, the app could decide not to or in a different place.
 
@@ -92,6 +101,7 @@ public class FTLProfileEditor {
 			boolean writeConfig = false;
 			Properties props = new Properties();
 			props.setProperty( EditorConfig.USE_DEFAULT_UI, "false" );
+			props.setProperty( EditorConfig.MAP_DATS, "false" );
 
 			// Read the config file.
 			InputStream in = null;
@@ -238,7 +248,12 @@ public class FTLProfileEditor {
 
 			// Parse the dats.
 			try {
-				DefaultDataManager dataManager = new DefaultDataManager( datsDir );
+				boolean mapDats = "true".equals( appConfig.getProperty( EditorConfig.MAP_DATS, "false" ) );
+
+				// Unchanged dats can skip XML parsing by reusing the last run's results.
+				File snapshotFile = new File( "ftl-editor-dats.cache" );
+
+				DefaultDataManager dataManager = new DefaultDataManager( datsDir, mapDats, snapshotFile );
 				DataManager.setInstance( dataManager );
 				dataManager.setDLCEnabledByDefault( true );
 			}
@@ -249,8 +264,24 @@ public class FTLProfileEditor {
 				throw new ExitException();
 			}
 
+			int saveBackups = SafeFileWriter.DEFAULT_BACKUP_COUNT;
+			String saveBackupsString = appConfig.getProperty( EditorConfig.SAVE_BACKUPS );
+			if ( saveBackupsString != null ) {
+				try {
+					saveBackups = Integer.parseInt( saveBackupsString.trim() );
+					if ( saveBackups < 0 ) {
+						log.warn( String.format( "Config property \"%s\" was negative (%d), using 0", EditorConfig.SAVE_BACKUPS, saveBackups ) );
+						saveBackups = 0;
+					}
+				}
+				catch ( NumberFormatException e ) {
+					log.warn( String.format( "Config property \"%s\" was not a number (\"%s\"), using %d", EditorConfig.SAVE_BACKUPS, saveBackupsString, SafeFileWriter.DEFAULT_BACKUP_COUNT ) );
+				}
+			}
+
 			try {
-				FTLFrame frame = new FTLFrame( APP_NAME, APP_VERSION );
+				FTLFrame frame = new FTLFrame( APP_NAME, APP_VERSION, DataManager.get() );
+				frame.setSaveBackupCount( saveBackups );
 				frame.setVisible( true );
 			}
 			catch ( Exception e ) {
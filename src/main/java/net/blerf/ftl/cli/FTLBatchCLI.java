@@ -0,0 +1,606 @@
+package net.blerf.ftl.cli;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.Parameters;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.vhati.ftldat.AbstractPack;
+import net.vhati.ftldat.FTLPack;
+import net.vhati.ftldat.PackUtilities;
+import net.vhati.modmanager.core.FTLUtilities;
+
+import net.blerf.ftl.core.EditorConfig;
+import net.blerf.ftl.model.Profile;
+import net.blerf.ftl.parser.ByteBufferInputStream;
+import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.DefaultDataManager;
+import net.blerf.ftl.parser.PackShipLayoutProvider;
+import net.blerf.ftl.parser.ProfileParser;
+import net.blerf.ftl.parser.SavedGameChange;
+import net.blerf.ftl.parser.SavedGameDiffer;
+import net.blerf.ftl.parser.SavedGameParser;
+import net.blerf.ftl.parser.SavedGameParser.SavedGameState;
+import net.blerf.ftl.parser.ShipLayoutProvider;
+
+
+/**
+ * A headless mode that parses many profiles and saved games at once.
+ *
+ * Each file is read on a worker thread, then optionally written back out
+ * and compared against the original bytes, or dumped as text. Files are
+ * recognized by name: "*prof.sav" is a profile, anything else is a saved
+ * game.
+ *
+ * In diff mode, each saved game is compared to the one before it, in the
+ * order files were found (e.g., a directory of consecutive autosaves).
+ * Each file is still parsed only once: a task hands its parsed state on
+ * to the next file's task.
+ *
+ * Validating or round-tripping saved games alone doesn't load FTL's XML.
+ * Ship layouts and drone types are scanned from "data.dat" instead, by a
+ * PackShipLayoutProvider. Profiles (for achievements), and the dump and
+ * diff modes (for describing things), need a full DataManager.
+ */
+public class FTLBatchCLI {
+
+	private static final Logger log = LoggerFactory.getLogger( FTLBatchCLI.class );
+
+	public static final String MODE_VALIDATE = "validate";
+	public static final String MODE_ROUNDTRIP = "roundtrip";
+	public static final String MODE_DUMP = "dump";
+	public static final String MODE_DIFF = "diff";
+
+
+	public static void main( String[] args ) {
+		BatchCommand cmd = new BatchCommand();
+		JCommander jc = new JCommander( cmd );
+		jc.setProgramName( "FTLProfileEditor batch" );
+
+		try {
+			jc.parse( args );
+		}
+		catch ( ParameterException e ) {
+			System.err.println( e.getMessage() );
+			System.err.println( "Use --help for usage." );
+			System.exit( 1 );
+		}
+
+		if ( cmd.help ) {
+			jc.usage();
+			System.exit( 0 );
+		}
+
+		if ( !MODE_VALIDATE.equals( cmd.mode ) && !MODE_ROUNDTRIP.equals( cmd.mode ) && !MODE_DUMP.equals( cmd.mode ) && !MODE_DIFF.equals( cmd.mode ) ) {
+			System.err.println( "Unknown mode: "+ cmd.mode );
+			System.exit( 1 );
+		}
+
+		int exitCode;
+		try {
+			exitCode = runBatch( cmd );
+		}
+		catch ( Exception e ) {
+			log.error( "Batch run failed", e );
+			exitCode = 1;
+		}
+		System.exit( exitCode );
+	}
+
+	/**
+	 * Runs the batch and prints a summary.
+	 *
+	 * @return a process exit code: 0 if every file passed, 1 otherwise
+	 */
+	public static int runBatch( BatchCommand cmd ) throws Exception {
+		Pattern namePtn = globToPattern( cmd.glob );
+
+		List<File> files = new ArrayList<File>();
+		for ( String path : cmd.paths ) {
+			collectFiles( path, namePtn, files );
+		}
+		if ( files.isEmpty() ) {
+			System.err.println( "No files found." );
+			return 1;
+		}
+
+		File outDir = null;
+		if ( MODE_DUMP.equals( cmd.mode ) || MODE_DIFF.equals( cmd.mode ) ) {
+			outDir = new File( cmd.outPath );
+			if ( !outDir.isDirectory() && !outDir.mkdirs() ) {
+				System.err.println( "Could not create output directory: "+ outDir.getPath() );
+				return 1;
+			}
+		}
+
+		boolean hasProfiles = false;
+		boolean hasSavedGames = false;
+		for ( File f : files ) {
+			if ( isProfile( f ) ) hasProfiles = true;
+			else hasSavedGames = true;
+		}
+		boolean needDataManager = ( hasProfiles || MODE_DUMP.equals( cmd.mode ) || MODE_DIFF.equals( cmd.mode ) );
+
+		File datsDir = null;
+		if ( needDataManager || hasSavedGames ) {
+			datsDir = findDatsDir( cmd.datsPath );
+			if ( datsDir == null ) {
+				System.err.println( "FTL resources were not found. Use --dats to specify their location." );
+				return 1;
+			}
+		}
+
+		DataManager dataManager = null;
+		AbstractPack dataPack = null;
+		ShipLayoutProvider layoutProvider = null;
+		if ( needDataManager ) {
+			DefaultDataManager defaultDataManager = new DefaultDataManager( datsDir, cmd.mapDats, new File( "ftl-editor-dats.cache" ) );
+			defaultDataManager.setDLCEnabledByDefault( true );
+			dataManager = defaultDataManager;
+		}
+		else if ( hasSavedGames ) {
+			dataPack = new FTLPack( new File( datsDir, "data.dat" ), (cmd.mapDats ? "rm" : "r") );
+			layoutProvider = new PackShipLayoutProvider( dataPack, true );
+		}
+
+		int threadCount = ( cmd.threads > 0 ? cmd.threads : Runtime.getRuntime().availableProcessors() );
+		System.out.println( String.format( "Processing %d files with %d threads (%s)...", files.size(), threadCount, cmd.mode ) );
+
+		ExecutorService executor = Executors.newFixedThreadPool( threadCount );
+		CompletionService<BatchResult> completion = new ExecutorCompletionService<BatchResult>( executor );
+
+		// In diff mode, task i publishes its parsed state to handoffs[i] for task i+1.
+		// Tasks start in submission order and publish before waiting, so waits always end.
+		List<BlockingQueue<ParsedState>> handoffs = new ArrayList<BlockingQueue<ParsedState>>( files.size() );
+		if ( MODE_DIFF.equals( cmd.mode ) ) {
+			for ( int i=0; i < files.size(); i++ ) {
+				handoffs.add( new ArrayBlockingQueue<ParsedState>( 1 ) );
+			}
+		}
+
+		long startNanos = System.nanoTime();
+		try {
+			for ( int i=0; i < files.size(); i++ ) {
+				File dumpFile = null;
+				if ( outDir != null ) {
+					dumpFile = new File( outDir, String.format( "%04d_%s.txt", i, files.get( i ).getName() ) );
+				}
+				BlockingQueue<ParsedState> prevStates = null;
+				BlockingQueue<ParsedState> nextStates = null;
+				if ( MODE_DIFF.equals( cmd.mode ) ) {
+					if ( i > 0 ) prevStates = handoffs.get( i-1 );
+					if ( i+1 < files.size() ) nextStates = handoffs.get( i );
+				}
+				completion.submit( new BatchTask( dataManager, layoutProvider, files.get( i ), prevStates, nextStates, cmd.mode, dumpFile ) );
+			}
+
+			List<BatchResult> results = new ArrayList<BatchResult>( files.size() );
+			for ( int i=0; i < files.size(); i++ ) {
+				BatchResult result;
+				try {
+					result = completion.take().get();
+				}
+				catch ( ExecutionException e ) {
+					throw new IOException( "Batch task failed unexpectedly", e.getCause() );
+				}
+				results.add( result );
+
+				if ( !result.ok || cmd.verbose ) {
+					System.out.println( String.format( "%-4s %9.2f ms  %s%s", (result.ok ? "OK" : "FAIL"), result.nanos / 1000000.0, result.file.getPath(), (result.message != null ? "  "+ result.message : "") ) );
+				}
+			}
+			long wallNanos = System.nanoTime() - startNanos;
+
+			printSummary( results, wallNanos );
+
+			for ( BatchResult result : results ) {
+				if ( !result.ok ) return 1;
+			}
+			return 0;
+		}
+		finally {
+			executor.shutdownNow();
+
+			try {if ( dataPack != null ) dataPack.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	private static void printSummary( List<BatchResult> results, long wallNanos ) {
+		int okCount = 0;
+		long totalBytes = 0;
+		long busyNanos = 0;
+		BatchResult slowest = null;
+
+		for ( BatchResult result : results ) {
+			if ( result.ok ) okCount++;
+			totalBytes += result.bytes;
+			busyNanos += result.nanos;
+			if ( slowest == null || result.nanos > slowest.nanos ) slowest = result;
+		}
+		double wallSecs = wallNanos / 1000000000.0;
+
+		System.out.println();
+		System.out.println( String.format( "Files:      %d (%d ok, %d failed)", results.size(), okCount, results.size() - okCount ) );
+		System.out.println( String.format( "Bytes:      %s", PackUtilities.humanReadableByteCount( totalBytes, false ) ) );
+		System.out.println( String.format( "Wall time:  %.2f s (%.2f s busy across workers)", wallSecs, busyNanos / 1000000000.0 ) );
+		System.out.println( String.format( "Throughput: %.1f files/s, %s/s", results.size() / wallSecs, PackUtilities.humanReadableByteCount( (long)(totalBytes / wallSecs), false ) ) );
+		System.out.println( String.format( "Mean:       %.2f ms per file", busyNanos / 1000000.0 / results.size() ) );
+		System.out.println( String.format( "Slowest:    %.2f ms  %s", slowest.nanos / 1000000.0, slowest.file.getPath() ) );
+	}
+
+	/**
+	 * Adds files matching a path argument.
+	 *
+	 * Directories are searched recursively for names matching namePtn.
+	 * A path whose last component has wildcards is matched against its
+	 * parent directory's files.
+	 */
+	private static void collectFiles( String path, Pattern namePtn, List<File> files ) {
+		File f = new File( path );
+
+		if ( f.isDirectory() ) {
+			collectDirFiles( f, namePtn, files );
+		}
+		else if ( f.isFile() ) {
+			files.add( f );
+		}
+		else if ( f.getName().contains( "*" ) || f.getName().contains( "?" ) ) {
+			File parentDir = f.getAbsoluteFile().getParentFile();
+			Pattern argPtn = globToPattern( f.getName() );
+
+			File[] children = ( parentDir != null ? parentDir.listFiles() : null );
+			if ( children == null ) return;
+
+			List<File> matches = new ArrayList<File>();
+			for ( File child : children ) {
+				if ( child.isFile() && argPtn.matcher( child.getName() ).matches() ) matches.add( child );
+			}
+			Collections.sort( matches );
+			files.addAll( matches );
+		}
+		else {
+			log.warn( "No such file or directory: "+ path );
+		}
+	}
+
+	private static void collectDirFiles( File dir, Pattern namePtn, List<File> files ) {
+		File[] children = dir.listFiles();
+		if ( children == null ) return;
+
+		List<File> sortedChildren = new ArrayList<File>( children.length );
+		Collections.addAll( sortedChildren, children );
+		Collections.sort( sortedChildren );
+
+		for ( File child : sortedChildren ) {
+			if ( child.isDirectory() ) {
+				collectDirFiles( child, namePtn, files );
+			}
+			else if ( namePtn.matcher( child.getName() ).matches() ) {
+				files.add( child );
+			}
+		}
+	}
+
+	/**
+	 * Converts a simple glob ('*' and '?' wildcards) to a regex.
+	 */
+	private static Pattern globToPattern( String glob ) {
+		StringBuilder buf = new StringBuilder();
+		for ( String chunk : glob.split( "(?=[*?])|(?<=[*?])" ) ) {
+			if ( chunk.equals( "*" ) ) buf.append( ".*" );
+			else if ( chunk.equals( "?" ) ) buf.append( "." );
+			else if ( chunk.length() > 0 ) buf.append( Pattern.quote( chunk ) );
+		}
+		return Pattern.compile( buf.toString(), Pattern.CASE_INSENSITIVE );
+	}
+
+	private static boolean isProfile( File f ) {
+		return f.getName().toLowerCase().endsWith( "prof.sav" );
+	}
+
+	/**
+	 * Returns FTL's resources dir from an argument, the config, or a search.
+	 */
+	private static File findDatsDir( String datsPath ) {
+		if ( datsPath != null ) {
+			File datsDir = new File( datsPath );
+			return ( FTLUtilities.isDatsDirValid( datsDir ) ? datsDir : null );
+		}
+
+		File configFile = new File( "ftl-editor.cfg" );
+		if ( configFile.exists() ) {
+			Properties props = new Properties();
+			InputStream in = null;
+			try {
+				in = new FileInputStream( configFile );
+				props.load( new InputStreamReader( in, "UTF-8" ) );
+
+				String configPath = props.getProperty( EditorConfig.FTL_DATS_PATH, "" );
+				if ( configPath.length() > 0 && FTLUtilities.isDatsDirValid( new File( configPath ) ) ) {
+					return new File( configPath );
+				}
+			}
+			catch ( IOException e ) {
+				log.error( "Error loading config", e );
+			}
+			finally {
+				try {if ( in != null ) in.close();}
+				catch ( IOException e ) {}
+			}
+		}
+
+		return FTLUtilities.findDatsDir();
+	}
+
+
+
+	@Parameters(separators = " =")
+	public static class BatchCommand {
+		@Parameter(description = "Files, directories, or wildcards (e.g. saves/*.sav)")
+		public List<String> paths = new ArrayList<String>();
+
+		@Parameter(names = "--mode", description = "validate, roundtrip (rewrite and compare bytes), dump (write text), or diff (compare each save to the previous one)")
+		public String mode = MODE_VALIDATE;
+
+		@Parameter(names = "--glob", description = "File names to pick from directories")
+		public String glob = "*.sav";
+
+		@Parameter(names = "--threads", description = "Worker threads (default: all cores)")
+		public int threads = 0;
+
+		@Parameter(names = "--dats", description = "FTL's resources dir (default: from config, or searched)")
+		public String datsPath = null;
+
+		@Parameter(names = "--map-dats", description = "Memory-map FTL's dats")
+		public boolean mapDats = false;
+
+		@Parameter(names = "--out", description = "Directory for dump and diff modes' text files")
+		public String outPath = "dumps";
+
+		@Parameter(names = {"-v", "--verbose"}, description = "Print every file, not just failures")
+		public boolean verbose = false;
+
+		@Parameter(names = {"-h", "--help"}, description = "Show this help", help = true)
+		public boolean help = false;
+	}
+
+
+
+	private static class BatchTask implements Callable<BatchResult> {
+		private final DataManager dataManager;
+		private final ShipLayoutProvider layoutProvider;
+		private final File file;
+		private final BlockingQueue<ParsedState> prevStates;
+		private final BlockingQueue<ParsedState> nextStates;
+		private final String mode;
+		private final File dumpFile;
+		private boolean published = false;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param layoutProvider ship info for saved games, or null to use dataManager
+		 * @param prevStates where the previous file's task will publish its state to diff against, or null
+		 * @param nextStates where to publish this file's state for the next task, or null
+		 */
+		public BatchTask( DataManager dataManager, ShipLayoutProvider layoutProvider, File file, BlockingQueue<ParsedState> prevStates, BlockingQueue<ParsedState> nextStates, String mode, File dumpFile ) {
+			this.dataManager = dataManager;
+			this.layoutProvider = layoutProvider;
+			this.file = file;
+			this.prevStates = prevStates;
+			this.nextStates = nextStates;
+			this.mode = mode;
+			this.dumpFile = dumpFile;
+		}
+
+		@Override
+		public BatchResult call() {
+			BatchResult result = new BatchResult( file );
+			long startNanos = System.nanoTime();
+			try {
+				ByteBufferInputStream in = ByteBufferInputStream.readFully( file );
+				ByteBuffer originalBuf = in.getBuffer().duplicate();
+				result.bytes = in.size();
+
+				ByteArrayOutputStream rewritten = null;
+				String dumpText = null;
+
+				if ( isProfile( file ) ) {
+					ProfileParser parser = new ProfileParser( dataManager );
+					Profile p = parser.readProfile( in );
+
+					if ( MODE_ROUNDTRIP.equals( mode ) ) {
+						rewritten = new ByteArrayOutputStream( (int)result.bytes );
+						parser.writeProfile( rewritten, p );
+					}
+					else if ( MODE_DUMP.equals( mode ) ) {
+						dumpText = p.toString();
+					}
+				}
+				else {
+					SavedGameParser parser = new SavedGameParser( dataManager );
+					if ( layoutProvider != null ) parser.setShipLayoutProvider( layoutProvider );
+					SavedGameState gameState = parser.readSavedGame( in );
+
+					if ( MODE_ROUNDTRIP.equals( mode ) ) {
+						rewritten = new ByteArrayOutputStream( (int)result.bytes );
+						parser.writeSavedGame( rewritten, gameState );
+					}
+					else if ( MODE_DUMP.equals( mode ) ) {
+						writeDump( dumpFile, gameState );
+						result.message = "-> "+ dumpFile.getPath();
+					}
+					else if ( MODE_DIFF.equals( mode ) ) {
+						publishState( gameState );
+
+						ParsedState prev = ( prevStates != null ? prevStates.take() : null );
+						if ( prev != null && prev.state != null ) {
+							// Both were just read, so identical sections can be skipped.
+							SavedGameDiffer differ = new SavedGameDiffer();
+							differ.setRawSectionsCompared( true );
+							List<SavedGameChange> changes = differ.diff( prev.state, gameState );
+
+							writeChanges( dumpFile, prev.file, changes );
+							result.message = String.format( "%d changes since %s -> %s", changes.size(), prev.file.getName(), dumpFile.getPath() );
+						}
+					}
+				}
+
+				if ( rewritten != null ) {
+					result.message = compareBytes( originalBuf, rewritten.toByteArray() );
+				}
+				if ( dumpText != null ) {
+					writeText( dumpFile, dumpText );
+					result.message = "-> "+ dumpFile.getPath();
+				}
+				result.ok = ( rewritten == null || result.message == null );
+			}
+			catch ( Exception e ) {
+				log.debug( "Error processing "+ file.getPath(), e );
+				result.ok = false;
+				result.message = e.toString();
+			}
+			finally {
+				publishState( null );  // The next task must not wait forever.
+			}
+			result.nanos = System.nanoTime() - startNanos;
+
+			return result;
+		}
+
+		/**
+		 * Returns null if identical, or a description of the first difference.
+		 */
+		private String compareBytes( ByteBuffer originalBuf, byte[] rewrittenBytes ) {
+			int len = Math.min( originalBuf.remaining(), rewrittenBytes.length );
+			for ( int i=0; i < len; i++ ) {
+				if ( originalBuf.get( i ) != rewrittenBytes[i] ) {
+					return String.format( "Rewritten bytes differ at offset 0x%08X", i );
+				}
+			}
+			if ( originalBuf.remaining() != rewrittenBytes.length ) {
+				return String.format( "Rewritten size differs: %d bytes, originally %d", rewrittenBytes.length, originalBuf.remaining() );
+			}
+			return null;
+		}
+
+		private void writeText( File f, String text ) throws IOException {
+			Writer out = null;
+			try {
+				out = new OutputStreamWriter( new FileOutputStream( f ), "UTF-8" );
+				out.write( text );
+			}
+			finally {
+				try {if ( out != null ) out.close();}
+				catch ( IOException e ) {}
+			}
+		}
+
+		/**
+		 * Hands a parsed state to the next file's task, once.
+		 *
+		 * @param gameState the parsed state, or null if there isn't one
+		 */
+		private void publishState( SavedGameState gameState ) {
+			if ( nextStates == null || published ) return;
+			published = true;
+			nextStates.offer( new ParsedState( file, gameState ) );
+		}
+
+		private void writeChanges( File f, File prevFile, List<SavedGameChange> changes ) throws IOException {
+			Writer out = null;
+			try {
+				out = new BufferedWriter( new OutputStreamWriter( new FileOutputStream( f ), "UTF-8" ) );
+				out.write( String.format( "--- %s\n+++ %s\n", prevFile.getPath(), file.getPath() ) );
+				for ( SavedGameChange change : changes ) {
+					out.write( change.toString() );
+					out.write( "\n" );
+				}
+			}
+			finally {
+				try {if ( out != null ) out.close();}
+				catch ( IOException e ) {}
+			}
+		}
+
+		/**
+		 * Streams a game state's summary to a file, without building a string.
+		 *
+		 * Blueprints are described from this task's DataManager.
+		 */
+		private void writeDump( File f, SavedGameState gameState ) throws IOException {
+			Writer out = null;
+			try {
+				out = new BufferedWriter( new OutputStreamWriter( new FileOutputStream( f ), "UTF-8" ) );
+				gameState.dump( out, dataManager );
+			}
+			finally {
+				try {if ( out != null ) out.close();}
+				catch ( IOException e ) {}
+			}
+		}
+	}
+
+
+
+	/**
+	 * A file's parsed state, handed from one diff task to the next.
+	 */
+	private static class ParsedState {
+		public final File file;
+		public final SavedGameState state;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param state the parsed saved game, or null if it was a profile or failed
+		 */
+		public ParsedState( File file, SavedGameState state ) {
+			this.file = file;
+			this.state = state;
+		}
+	}
+
+
+
+	private static class BatchResult {
+		public final File file;
+		public boolean ok = false;
+		public String message = null;
+		public long bytes = 0;
+		public long nanos = 0;
+
+		public BatchResult( File file ) {
+			this.file = file;
+		}
+	}
+}
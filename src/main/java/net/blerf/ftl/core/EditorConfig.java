@@ -16,6 +16,8 @@ public class EditorConfig {
 
 	public static final String FTL_DATS_PATH = "ftl_dats_path";
 	public static final String USE_DEFAULT_UI = "use_default_ui";
+	public static final String MAP_DATS = "map_dats";
+	public static final String SAVE_BACKUPS = "save_backups";
 
 	private Properties config;
 	private File configFile;
@@ -73,6 +75,8 @@ public class EditorConfig {
 
 			userFieldsMap.put( FTL_DATS_PATH,     "The path to FTL's resources folder. If invalid, you'll be prompted." );
 			userFieldsMap.put( USE_DEFAULT_UI,    "If true, no attempt will be made to resemble a native GUI. Default: false." );
+			userFieldsMap.put( MAP_DATS,          "If true, FTL's dats will be memory-mapped for faster reads (keeps them in use until exit). Default: false." );
+			userFieldsMap.put( SAVE_BACKUPS,      "How many timestamped backups to keep of each file saved (0 for none). Default: 3." );
 
 			List<String> allFieldsList = new ArrayList<String>( userFieldsMap.size() + appFieldsMap.size() );
 			allFieldsList.addAll( userFieldsMap.keySet() );
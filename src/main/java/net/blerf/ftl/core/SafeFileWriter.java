@@ -0,0 +1,220 @@
+package net.blerf.ftl.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Replaces files without ever leaving a partial one in their place.
+ *
+ * New content is written to a temporary file in the same directory, in a
+ * single bulk write, and forced to disk. Only then is it renamed over the
+ * destination. A crash before that point leaves the old file intact. A
+ * crash after leaves the new one.
+ *
+ * Before replacing an existing file, it is copied to a timestamped backup
+ * alongside ("continue.sav.20140321-185005-123.bak"). Only the newest few
+ * backups are kept.
+ *
+ * On Windows, File.renameTo() won't replace an existing file. There, the
+ * destination is deleted first, which opens a brief window where only the
+ * temporary file and the backup (if any) exist. If the rename then fails,
+ * the temporary file is kept, and its path is given in the exception, so
+ * it can be recovered by hand.
+ */
+public class SafeFileWriter {
+
+	private static final Logger log = LoggerFactory.getLogger( SafeFileWriter.class );
+
+	public static final int DEFAULT_BACKUP_COUNT = 3;
+
+	private static final String BACKUP_SUFFIX = ".bak";
+	private static final String TIMESTAMP_FORMAT = "yyyyMMdd-HHmmss-SSS";
+	private static final Pattern TIMESTAMP_PTN = Pattern.compile( "\\d{8}-\\d{6}-\\d{3}" );
+
+	private int backupCount;
+
+
+	public SafeFileWriter() {
+		this( DEFAULT_BACKUP_COUNT );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param backupCount how many backups of each file to keep, or 0 for none
+	 */
+	public SafeFileWriter( int backupCount ) {
+		setBackupCount( backupCount );
+	}
+
+	public void setBackupCount( int n ) {
+		if ( n < 0 ) throw new IllegalArgumentException( "Backup count must not be negative: "+ n );
+		backupCount = n;
+	}
+
+	public int getBackupCount() { return backupCount; }
+
+
+	/**
+	 * Replaces a file's content.
+	 *
+	 * @return the backup made of the previous content, or null
+	 */
+	public File write( File dstFile, byte[] data ) throws IOException {
+		return write( dstFile, data, 0, data.length );
+	}
+
+	/**
+	 * Replaces a file's content with part of an array.
+	 *
+	 * @return the backup made of the previous content, or null
+	 */
+	public File write( File dstFile, byte[] data, int offset, int length ) throws IOException {
+		File dstDir = dstFile.getAbsoluteFile().getParentFile();
+		File tmpFile = File.createTempFile( dstFile.getName() +".", ".tmp", dstDir );
+		File bakFile = null;
+		boolean keepTmp = false;
+
+		try {
+			writeAndSync( tmpFile, data, offset, length );
+
+			if ( dstFile.exists() && backupCount > 0 ) {
+				bakFile = createBackup( dstFile );
+			}
+
+			if ( !tmpFile.renameTo( dstFile ) ) {
+				// Windows won't rename over an existing file.
+				if ( dstFile.exists() && !dstFile.delete() ) {
+					throw new IOException( "Could not replace existing file: "+ dstFile.getName() );
+				}
+
+				// The old content is gone. The temporary file may be the only copy left.
+				keepTmp = true;
+
+				if ( !tmpFile.renameTo( dstFile ) ) {
+					throw new IOException( String.format( "Could not rename temporary file to: %s (new content was kept in: %s)", dstFile.getName(), tmpFile.getAbsolutePath() ) );
+				}
+			}
+		}
+		finally {
+			if ( !keepTmp && tmpFile.exists() && !tmpFile.delete() ) {
+				log.warn( "Could not delete temporary file: "+ tmpFile.getAbsolutePath() );
+			}
+		}
+
+		if ( bakFile != null ) {
+			pruneBackups( dstFile );
+		}
+
+		return bakFile;
+	}
+
+	/**
+	 * Returns a file's timestamped backups, newest first.
+	 */
+	public List<File> listBackups( File dstFile ) {
+		File dstDir = dstFile.getAbsoluteFile().getParentFile();
+		String prefix = dstFile.getName() +".";
+
+		List<File> result = new ArrayList<File>();
+
+		String[] names = dstDir.list();
+		if ( names == null ) return result;
+		Arrays.sort( names, Collections.reverseOrder() );  // The timestamps sort.
+
+		for ( String name : names ) {
+			if ( !name.startsWith( prefix ) || !name.endsWith( BACKUP_SUFFIX ) ) continue;
+
+			String stamp = name.substring( prefix.length(), name.length() - BACKUP_SUFFIX.length() );
+			if ( TIMESTAMP_PTN.matcher( stamp ).matches() ) {
+				result.add( new File( dstDir, name ) );
+			}
+		}
+		return result;
+	}
+
+
+	private void writeAndSync( File f, byte[] data, int offset, int length ) throws IOException {
+		FileOutputStream out = null;
+		try {
+			out = new FileOutputStream( f );
+			FileChannel channel = out.getChannel();
+
+			ByteBuffer buf = ByteBuffer.wrap( data, offset, length );
+			while ( buf.hasRemaining() ) {
+				channel.write( buf );
+			}
+			channel.force( true );
+		}
+		finally {
+			try {if ( out != null ) out.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	/**
+	 * Copies a file to a new timestamped backup.
+	 *
+	 * The original stays in place until it's replaced.
+	 */
+	private File createBackup( File srcFile ) throws IOException {
+		File dstDir = srcFile.getAbsoluteFile().getParentFile();
+		String stamp = new SimpleDateFormat( TIMESTAMP_FORMAT ).format( new Date() );
+		File bakFile = new File( dstDir, srcFile.getName() +"."+ stamp + BACKUP_SUFFIX );
+
+		FileInputStream in = null;
+		FileOutputStream out = null;
+		try {
+			in = new FileInputStream( srcFile );
+			out = new FileOutputStream( bakFile );
+			FileChannel inChannel = in.getChannel();
+			FileChannel outChannel = out.getChannel();
+
+			long size = inChannel.size();
+			long pos = 0;
+			while ( pos < size ) {
+				pos += inChannel.transferTo( pos, size - pos, outChannel );
+			}
+			outChannel.force( true );
+		}
+		finally {
+			try {if ( in != null ) in.close();}
+			catch ( IOException e ) {}
+
+			try {if ( out != null ) out.close();}
+			catch ( IOException e ) {}
+		}
+
+		log.info( "File was backed up: "+ bakFile.getName() );
+		return bakFile;
+	}
+
+	/**
+	 * Deletes a file's oldest backups, beyond the number to keep.
+	 */
+	private void pruneBackups( File dstFile ) {
+		List<File> backups = listBackups( dstFile );
+
+		for ( int i=backupCount; i < backups.size(); i++ ) {
+			File oldFile = backups.get( i );
+			if ( !oldFile.delete() ) {
+				log.warn( "Could not delete old backup: "+ oldFile.getName() );
+			}
+		}
+	}
+}
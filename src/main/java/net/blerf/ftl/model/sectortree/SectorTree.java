@@ -1,6 +1,7 @@
 package net.blerf.ftl.model.sectortree;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 import net.blerf.ftl.model.sectortree.SectorDot;
@@ -15,6 +16,11 @@ public class SectorTree {
 
 	private List<List<SectorDot>> dotColumns;
 
+	// Cached results of isDotAccessible(), indexed by columnOffsets[c] + r.
+	// Null when any dot or visitation may have changed.
+	private BitSet accessibleDots = null;
+	private int[] columnOffsets = null;
+
 
 	public SectorTree() {
 		dotColumns = new ArrayList<List<SectorDot>>( 8 );
@@ -32,6 +38,7 @@ public class SectorTree {
 	 */
 	public void setSectorDots( List<List<SectorDot>> newColumns ) {
 		dotColumns = newColumns;
+		invalidateAccessibility();
 	}
 
 	/**
@@ -52,6 +59,7 @@ public class SectorTree {
 		}
 
 		dotColumns = newColumns;
+		invalidateAccessibility();
 	}
 
 	public List<List<SectorDot>> getSectorDots() {
@@ -76,6 +84,7 @@ public class SectorTree {
 
 			dotsSoFar += columnDots.size();
 		}
+		invalidateAccessibility();
 	}
 
 	/**
@@ -107,6 +116,7 @@ public class SectorTree {
 				dot.setVisited( false );
 			}
 		}
+		invalidateAccessibility();
 	}
 
 	/**
@@ -114,6 +124,7 @@ public class SectorTree {
 	 */
 	public void clear() {
 		dotColumns.clear();
+		invalidateAccessibility();
 	}
 
 	/**
@@ -132,7 +143,18 @@ public class SectorTree {
 		treeListenerList.remove( l );
 	}
 
+	/**
+	 * Notifies listeners of a change.
+	 *
+	 * Changes made to dots directly, rather than through this tree's
+	 * methods, must be announced this way. Until then, isDotAccessible()
+	 * may return stale results.
+	 */
 	public void fireTreeChanged( SectorTreeEvent e ) {
+		if ( e.getType() == SectorTreeEvent.COLUMNS_CHANGED || e.getType() == SectorTreeEvent.VISITATION_CHANGED ) {
+			invalidateAccessibility();
+		}
+
 		for ( SectorTreeListener l : treeListenerList ) {
 			l.sectorTreeChanged( new SectorTreeEvent( e ) );
 		}
@@ -241,6 +263,7 @@ public class SectorTree {
 
 		SectorDot dot = getDot( nextColumn, row );
 		dot.setVisited( true );
+		invalidateAccessibility();
 	}
 
 	/**
@@ -249,35 +272,78 @@ public class SectorTree {
 	 * A dot can be visited if it is:
 	 *   - already visited
 	 *   - in an unvisited column, connected to a prior accessible dot
+	 *
+	 * All dots are decided together on the first call, and remembered until
+	 * the tree changes.
 	 */
 	public boolean isDotAccessible( int column, int row ) {
 		if ( column < 0 || column >= dotColumns.size() ) return false;
 		if ( row < 0 || row >= dotColumns.get( column ).size() ) return false;
 
-		if ( column == 0 ) return true;
-
-		if ( getDot( column, row ).isVisited() ) {
-			return true;
+		if ( accessibleDots == null || columnOffsets.length != dotColumns.size()+1 ) {
+			buildAccessibility();
 		}
-		else if ( isColumnVisited( column ) ) {
-			return false;  // The column was visited, but not this particular dot.
+		return accessibleDots.get( columnOffsets[column] + row );
+	}
+
+	/**
+	 * Forgets cached accessibility, after dots or visitation have changed.
+	 */
+	private void invalidateAccessibility() {
+		accessibleDots = null;
+		columnOffsets = null;
+	}
+
+	/**
+	 * Decides every dot's accessibility, in a single pass from left to right.
+	 *
+	 * A dot in an unvisited column only depends on the dots it connects to in
+	 * the previous column, which will have been decided already.
+	 */
+	private void buildAccessibility() {
+		int columnCount = dotColumns.size();
+		int[] offsets = new int[columnCount+1];
+		for ( int c=0; c < columnCount; c++ ) {
+			offsets[c+1] = offsets[c] + dotColumns.get( c ).size();
 		}
-		else {
-			// The column was not visited, recurse through prior dots.
 
-			List<SectorDot> nearList = new ArrayList<SectorDot>( 4 );
+		BitSet result = new BitSet( offsets[columnCount] );
+		List<SectorDot> nearList = new ArrayList<SectorDot>( 4 );
 
-			getConnectedDots( column, row, false, nearList );
-			List<SectorDot> nearColumn = dotColumns.get( column-1 );
+		for ( int c=0; c < columnCount; c++ ) {
+			List<SectorDot> columnDots = dotColumns.get( c );
+			boolean columnVisited = isColumnVisited( c );
 
-			for ( SectorDot nearDot : nearList ) {
-				if ( isDotAccessible( column-1, nearColumn.indexOf( nearDot ) ) ) {
-					return true;
+			for ( int r=0; r < columnDots.size(); r++ ) {
+				boolean accessible = false;
+
+				if ( c == 0 ) {
+					accessible = true;
+				}
+				else if ( columnDots.get( r ).isVisited() ) {
+					accessible = true;
 				}
+				else if ( !columnVisited ) {
+					// The column was not visited, check connected prior dots.
+
+					getConnectedDots( c, r, false, nearList );
+					List<SectorDot> nearColumn = dotColumns.get( c-1 );
+
+					for ( SectorDot nearDot : nearList ) {
+						int nearRow = nearColumn.indexOf( nearDot );
+						if ( nearRow != -1 && result.get( offsets[c-1] + nearRow ) ) {
+							accessible = true;
+							break;
+						}
+					}
+				}
+
+				if ( accessible ) result.set( offsets[c] + r );
 			}
 		}
 
-		return false;
+		accessibleDots = result;
+		columnOffsets = offsets;
 	}
 
 
@@ -0,0 +1,127 @@
+package net.blerf.ftl.parser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * An InputStream over an in-memory little-endian ByteBuffer.
+ *
+ * Parser recognizes this class and decodes ints and strings directly
+ * from the buffer, rather than pulling a few bytes at a time.
+ *
+ * The buffer's position, relative to its start, is the stream's offset,
+ * which MysteryBytes will report.
+ */
+public class ByteBufferInputStream extends InputStream {
+
+	private ByteBuffer buf;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * The given buffer is not modified. A sliced view, spanning its
+	 * remaining bytes, will be read instead.
+	 */
+	public ByteBufferInputStream( ByteBuffer buf ) {
+		this.buf = buf.slice().order( ByteOrder.LITTLE_ENDIAN );
+	}
+
+	public ByteBufferInputStream( byte[] bytes ) {
+		this( ByteBuffer.wrap( bytes ) );
+	}
+
+	/**
+	 * Returns the underlying little-endian buffer.
+	 *
+	 * Relative gets will advance this stream.
+	 */
+	public ByteBuffer getBuffer() {
+		return buf;
+	}
+
+	/**
+	 * Returns the number of bytes read so far.
+	 */
+	public long position() {
+		return buf.position();
+	}
+
+	/**
+	 * Returns the total number of bytes in this stream.
+	 */
+	public long size() {
+		return buf.limit();
+	}
+
+	@Override
+	public int available() throws IOException {
+		return buf.remaining();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if ( !buf.hasRemaining() ) return -1;
+
+		return buf.get() & 0xff;
+	}
+
+	@Override
+	public int read( byte[] b, int bOff, int bLen ) throws IOException {
+		if ( bOff < 0 || bLen < 0 || bOff + bLen > b.length ) {
+			throw new IndexOutOfBoundsException( String.format( "Offset: %d, Length: %d, Size: %d", bOff, bLen, b.length ) );
+		}
+		if ( bLen == 0 ) return 0;
+		if ( !buf.hasRemaining() ) return -1;
+
+		int len = Math.min( bLen, buf.remaining() );
+		buf.get( b, bOff, len );
+		return len;
+	}
+
+	@Override
+	public long skip( long n ) throws IOException {
+		if ( n <= 0 ) return 0;
+
+		int len = (int)Math.min( n, buf.remaining() );
+		buf.position( buf.position() + len );
+		return len;
+	}
+
+
+	/**
+	 * Reads an entire file into a new stream with a single bulk read.
+	 */
+	public static ByteBufferInputStream readFully( File f ) throws IOException {
+		FileInputStream in = null;
+		try {
+			in = new FileInputStream( f );
+			FileChannel channel = in.getChannel();
+
+			long size = channel.size();
+			if ( size > Integer.MAX_VALUE ) {
+				throw new IOException( String.format( "File is too large to buffer (%d bytes): %s", size, f.getName() ) );
+			}
+
+			ByteBuffer bulkBuf = ByteBuffer.allocate( (int)size );
+			while ( bulkBuf.hasRemaining() ) {
+				if ( channel.read( bulkBuf ) < 0 ) {
+					throw new IOException( String.format( "End of stream reached before reading the whole file (%d of %d bytes): %s", bulkBuf.position(), size, f.getName() ) );
+				}
+			}
+			bulkBuf.flip();
+
+			return new ByteBufferInputStream( bulkBuf );
+		}
+		finally {
+			try {if ( in != null ) in.close();}
+			catch ( IOException e ) {}
+		}
+	}
+}
@@ -1,20 +1,31 @@
 package net.blerf.ftl.parser;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.IOException;
+import java.io.SequenceInputStream;
 import java.io.StringReader;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.jdom2.Document;
 import org.jdom2.JDOMException;
 import org.jdom2.output.DOMOutputter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import net.blerf.ftl.model.ShipLayout;
 import net.blerf.ftl.parser.TextUtilities;
 import net.blerf.ftl.xml.Achievement;
@@ -26,6 +37,7 @@ import net.blerf.ftl.xml.Blueprints;
 import net.blerf.ftl.xml.CrewNameList;
 import net.blerf.ftl.xml.CrewNameLists;
 import net.blerf.ftl.xml.Encounters;
+import net.blerf.ftl.xml.ExplosionAdapter;
 import net.blerf.ftl.xml.SectorData;
 import net.blerf.ftl.xml.ShipChassis;
 import net.blerf.ftl.xml.ShipEvent;
@@ -34,6 +46,22 @@ import net.blerf.ftl.xml.ShipEvents;
 
 public class DatParser {
 
+	private static final Logger log = LoggerFactory.getLogger( DatParser.class );
+
+	private static final Charset UTF8 = Charset.forName( "UTF-8" );
+
+	/** Guards lazy creation of the shared JAXBContext. */
+	private static final Object jaxbContextLock = new Object();
+
+	/** A JAXBContext aware of every root class this parser reads. */
+	private static JAXBContext jaxbContext = null;
+
+	/** Unmarshallers aren't thread-safe, so each thread gets its own. */
+	private static final ThreadLocal<Unmarshaller> threadUnmarshaller = new ThreadLocal<Unmarshaller>();
+
+	/** Creates StAX readers. Factories aren't guaranteed thread-safe, so it's also a lock. */
+	private static final XMLInputFactory xmlInputFactory = createXMLInputFactory();
+
 	private Pattern xmlDeclPtn = Pattern.compile( "<[?]xml [^>]*?[?]>\n*" );
 
 
@@ -41,17 +69,181 @@ public class DatParser {
 	}
 
 
-	public List<Achievement> readAchievements( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
+	/**
+	 * Returns a JAXBContext for all of the root classes this parser reads.
+	 *
+	 * Creating a context is expensive, so it is created once per process and
+	 * shared. JAXBContext is thread-safe.
+	 */
+	private static JAXBContext getJAXBContext() throws JAXBException {
+		synchronized ( jaxbContextLock ) {
+			if ( jaxbContext == null ) {
+				jaxbContext = JAXBContext.newInstance(
+					Achievements.class,
+					Animations.class,
+					BackgroundImageLists.class,
+					Blueprints.class,
+					CrewNameLists.class,
+					Encounters.class,
+					SectorData.class,
+					ShipChassis.class,
+					ShipChassis.Gib.class,  // Only reachable through ExplosionAdapter.
+					ShipEvents.class
+				);
+			}
+			return jaxbContext;
+		}
+	}
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher(streamText).replaceFirst( "" );
-		streamText = "<achievements>"+ streamText +"</achievements>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
+	/**
+	 * Returns an Unmarshaller for the calling thread.
+	 *
+	 * It is created on first use and reused by later calls on that thread.
+	 */
+	private static Unmarshaller getUnmarshaller() throws JAXBException {
+		Unmarshaller u = threadUnmarshaller.get();
+		if ( u == null ) {
+			u = getJAXBContext().createUnmarshaller();
+
+			// Let gibs be unmarshalled with the shared context, rather than a new one each.
+			u.setAdapter( ExplosionAdapter.class, new ExplosionAdapter( getJAXBContext() ) );
+
+			threadUnmarshaller.set( u );
+		}
+		return u;
+	}
+
+
+	private static XMLInputFactory createXMLInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty( XMLInputFactory.SUPPORT_DTD, Boolean.FALSE );
+		factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
+		return factory;
+	}
+
+	/**
+	 * Reads a stream's remaining bytes into an array.
+	 */
+	private static byte[] readBytes( InputStream stream ) throws IOException {
+		byte[] buf = new byte[4096];
+		int len;
+		ByteArrayOutputStream tmpData = new ByteArrayOutputStream();
+		while ( (len = stream.read( buf )) >= 0 ) {
+			tmpData.write( buf, 0, len );
+		}
+		return tmpData.toByteArray();
+	}
+
+	/**
+	 * Returns the offset after any UTF-8 BOM and XML declaration.
+	 *
+	 * Returns -1 if the bytes begin with a UTF-16 BOM.
+	 */
+	private static int getPrologueLength( byte[] bytes ) {
+		int offset = 0;
+
+		if ( bytes.length >= 2 && ((bytes[0] == (byte)0xFF && bytes[1] == (byte)0xFE) || (bytes[0] == (byte)0xFE && bytes[1] == (byte)0xFF)) ) {
+			return -1;
+		}
+		if ( bytes.length >= 3 && bytes[0] == (byte)0xEF && bytes[1] == (byte)0xBB && bytes[2] == (byte)0xBF ) {
+			offset = 3;
+		}
+
+		int declStart = offset;
+		while ( declStart < bytes.length && Character.isWhitespace( (char)bytes[declStart] ) ) declStart++;
+
+		if ( declStart + 5 < bytes.length && bytes[declStart] == '<' && bytes[declStart+1] == '?' && bytes[declStart+2] == 'x' && bytes[declStart+3] == 'm' && bytes[declStart+4] == 'l' && Character.isWhitespace( (char)bytes[declStart+5] ) ) {
+			for ( int i=declStart+6; i+1 < bytes.length; i++ ) {
+				if ( bytes[i] == '?' && bytes[i+1] == '>' ) {
+					offset = i+2;
+					break;
+				}
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * Unmarshals FTL's rootless XML by streaming it straight into JAXB.
+	 *
+	 * The content is wrapped in a synthetic root element and decoded as
+	 * strict UTF-8, without building any intermediate text or trees.
+	 *
+	 * @return the unmarshalled root object, or null if the bytes aren't UTF-8 with an optional BOM
+	 * @throws XMLStreamException if the content isn't well-formed, or isn't UTF-8 after all
+	 */
+	private static Object unmarshalStreaming( byte[] bytes, String rootName ) throws XMLStreamException, JAXBException {
+		int offset = getPrologueLength( bytes );
+		if ( offset < 0 ) return null;
+
+		InputStream in = new SequenceInputStream(
+			new SequenceInputStream(
+				new ByteArrayInputStream( ("<"+ rootName +">").getBytes( UTF8 ) ),
+				new ByteArrayInputStream( bytes, offset, bytes.length - offset )
+			),
+			new ByteArrayInputStream( ("</"+ rootName +">").getBytes( UTF8 ) )
+		);
+
+		XMLStreamReader reader;
+		synchronized ( xmlInputFactory ) {
+			// A decoder, rather than a Charset, so malformed bytes are reported.
+			reader = xmlInputFactory.createXMLStreamReader( new InputStreamReader( in, UTF8.newDecoder() ) );
+		}
+		try {
+			return getUnmarshaller().unmarshal( reader );
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Unmarshals FTL's rootless XML, which may be malformed.
+	 *
+	 * The content is decoded (guessing its encoding), wrapped in a synthetic
+	 * root element, parsed strictly or sloppily with JDOM, and converted to
+	 * a W3C DOM for JAXB.
+	 */
+	private Object unmarshalSloppy( CharSequence streamText, String rootName, String fileName ) throws IOException, JAXBException, JDOMException {
+		String wrappedText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
+		wrappedText = "<"+ rootName +">"+ wrappedText +"</"+ rootName +">";
+		Document doc = TextUtilities.parseStrictOrSloppyXML( wrappedText, fileName );
 		DOMOutputter domOutputter = new DOMOutputter();
 
-		JAXBContext jc = JAXBContext.newInstance( Achievements.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		Achievements ach = (Achievements)u.unmarshal( domOutputter.output( doc ) );
+		Unmarshaller u = getUnmarshaller();
+		return u.unmarshal( domOutputter.output( doc ) );
+	}
+
+	/**
+	 * Unmarshals FTL's rootless XML.
+	 *
+	 * A streaming parse is tried first. Only if that fails will the slower
+	 * sloppy parser be used.
+	 */
+	private Object unmarshalStrictOrSloppy( InputStream stream, String rootName, String fileName ) throws IOException, JAXBException, JDOMException {
+		byte[] bytes = readBytes( stream );
+
+		try {
+			Object result = unmarshalStreaming( bytes, rootName );
+			if ( result != null ) return result;
+		}
+		catch ( XMLStreamException e ) {
+			log.debug( String.format( "Streaming parse of \"%s\" failed, falling back to sloppy parsing: %s", fileName, e.getMessage() ) );
+		}
+		catch ( JAXBException e ) {
+			log.debug( String.format( "Streaming parse of \"%s\" failed, falling back to sloppy parsing: %s", fileName, e.toString() ) );
+		}
+
+		String streamText = TextUtilities.decodeText( new ByteArrayInputStream( bytes ), fileName ).text;
+		bytes = null;  // GC hint.
+
+		return unmarshalSloppy( streamText, rootName, fileName );
+	}
+
+
+	public List<Achievement> readAchievements( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
+
+		Achievements ach = (Achievements)unmarshalStrictOrSloppy( stream, "achievements", fileName );
 
 		return ach.getAchievements();
 	}
@@ -59,9 +251,14 @@ public class DatParser {
 
 	public Blueprints readBlueprints( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
+		if ( !"blueprints.xml".equals( fileName ) ) {
+			// No text fixes needed; stream it.
+			Blueprints bps = (Blueprints)unmarshalStrictOrSloppy( stream, "blueprints", fileName );
+
+			return bps;
+		}
+
 		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher(streamText).replaceFirst( "" );
-		streamText = "<blueprints>"+ streamText +"</blueprints>";
 		StringBuilder sb = new StringBuilder( streamText );
 		String ptn; Pattern p; Matcher m;
 
@@ -85,12 +282,7 @@ public class DatParser {
 			}
 		}
 
-		Document doc = TextUtilities.parseStrictOrSloppyXML( sb.toString(), fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( Blueprints.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		Blueprints bps = (Blueprints)u.unmarshal( domOutputter.output( doc ) );
+		Blueprints bps = (Blueprints)unmarshalSloppy( sb, "blueprints", fileName );
 
 		return bps;
 	}
@@ -152,30 +344,14 @@ public class DatParser {
 
 	public ShipChassis readChassis( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
-		streamText = "<shipChassis>"+ streamText +"</shipChassis>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( ShipChassis.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		ShipChassis sch = (ShipChassis)u.unmarshal( domOutputter.output( doc ) );
+		ShipChassis sch = (ShipChassis)unmarshalStrictOrSloppy( stream, "shipChassis", fileName );
 
 		return sch;
 	}
 
 	public List<CrewNameList> readCrewNames( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
-		streamText = "<nameLists>"+ streamText +"</nameLists>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( CrewNameLists.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		CrewNameLists cnl = (CrewNameLists)u.unmarshal( domOutputter.output( doc ) );
+		CrewNameLists cnl = (CrewNameLists)unmarshalStrictOrSloppy( stream, "nameLists", fileName );
 
 		return cnl.getCrewNameLists();
 	}
@@ -183,15 +359,7 @@ public class DatParser {
 
 	public SectorData readSectorData( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
-		streamText = "<sectorData>"+ streamText +"</sectorData>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( SectorData.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		SectorData sectorData = (SectorData)u.unmarshal( domOutputter.output( doc ) );
+		SectorData sectorData = (SectorData)unmarshalStrictOrSloppy( stream, "sectorData", fileName );
 
 		return sectorData;
 	}
@@ -199,15 +367,7 @@ public class DatParser {
 
 	public Encounters readEvents( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
-		streamText = "<events>"+ streamText +"</events>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( Encounters.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		Encounters evts = (Encounters)u.unmarshal( domOutputter.output( doc ) );
+		Encounters evts = (Encounters)unmarshalStrictOrSloppy( stream, "events", fileName );
 
 		return evts;
 	}
@@ -215,15 +375,7 @@ public class DatParser {
 
 	public List<ShipEvent> readShipEvents( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
-		streamText = "<shipEvents>"+ streamText +"</shipEvents>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( ShipEvents.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		ShipEvents shvts = (ShipEvents)u.unmarshal( domOutputter.output( doc ) );
+		ShipEvents shvts = (ShipEvents)unmarshalStrictOrSloppy( stream, "shipEvents", fileName );
 
 		return shvts.getShipEvents();
 	}
@@ -231,15 +383,7 @@ public class DatParser {
 
 	public List<BackgroundImageList> readImageLists( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
-		streamText = "<imageLists>"+ streamText +"</imageLists>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( BackgroundImageLists.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		BackgroundImageLists imgs = (BackgroundImageLists)u.unmarshal( domOutputter.output( doc ) );
+		BackgroundImageLists imgs = (BackgroundImageLists)unmarshalStrictOrSloppy( stream, "imageLists", fileName );
 
 		return imgs.getImageLists();
 	}
@@ -247,15 +391,7 @@ public class DatParser {
 
 	public Animations readAnimations( InputStream stream, String fileName ) throws IOException, JAXBException, JDOMException {
 
-		String streamText = TextUtilities.decodeText( stream, fileName ).text;
-		streamText = xmlDeclPtn.matcher( streamText ).replaceFirst( "" );
-		streamText = "<animations>"+ streamText +"</animations>";
-		Document doc = TextUtilities.parseStrictOrSloppyXML( streamText, fileName );
-		DOMOutputter domOutputter = new DOMOutputter();
-
-		JAXBContext jc = JAXBContext.newInstance( Animations.class );
-		Unmarshaller u = jc.createUnmarshaller();
-		Animations animations = (Animations)u.unmarshal( domOutputter.output( doc ) );
+		Animations animations = (Animations)unmarshalStrictOrSloppy( stream, "animations", fileName );
 
 		return animations;
 	}
@@ -24,13 +24,27 @@ import net.blerf.ftl.xml.ShipChassis;
 import net.blerf.ftl.xml.SystemBlueprint;
 import net.blerf.ftl.xml.WeaponBlueprint;
 
+/**
+ * Access to one version of FTL's resources.
+ *
+ * Several instances may be in use at once (e.g., vanilla 1.03.3, 1.5.13, and
+ * a mod, side by side). Parsers, generators and the editor's frame can be
+ * given one explicitly. Anything that isn't falls back to the default
+ * instance, from get().
+ *
+ * Once constructed, an instance is effectively read-only. Collections it
+ * returns are unmodifiable, and lookups are safe to make from any thread.
+ */
 public abstract class DataManager implements Closeable {
 
-	private static DataManager instance = null;
+	private static volatile DataManager instance = null;
 
-	protected boolean dlcEnabledByDefault = false;
+	protected volatile boolean dlcEnabledByDefault = false;
 
 
+	/**
+	 * Sets the default instance, for code not given one explicitly.
+	 */
 	public static void setInstance( DataManager dataManager ) {
 		instance = dataManager;
 	}
@@ -39,6 +53,9 @@ public abstract class DataManager implements Closeable {
 		return instance;
 	}
 
+	/**
+	 * Returns the default instance.
+	 */
 	public static DataManager get() {
 		return instance;
 	}
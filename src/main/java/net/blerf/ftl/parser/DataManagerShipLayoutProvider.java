@@ -0,0 +1,65 @@
+package net.blerf.ftl.parser;
+
+import net.blerf.ftl.model.ShipLayout;
+import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.SavedGameParser.SystemType;
+import net.blerf.ftl.parser.ShipLayoutProvider;
+import net.blerf.ftl.xml.DroneBlueprint;
+import net.blerf.ftl.xml.ShipBlueprint;
+
+
+/**
+ * Looks up ship layouts through a DataManager.
+ *
+ * Without an explicit DataManager, DataManager.get() is consulted on each
+ * call, so a later setInstance() takes effect.
+ */
+public class DataManagerShipLayoutProvider implements ShipLayoutProvider {
+
+	private final DataManager dataManager;
+
+
+	public DataManagerShipLayoutProvider() {
+		this( null );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataManager the resources to use, or null for the default instance
+	 */
+	public DataManagerShipLayoutProvider( DataManager dataManager ) {
+		this.dataManager = dataManager;
+	}
+
+
+	@Override
+	public String getShipLayoutId( String shipBlueprintId ) {
+		ShipBlueprint shipBlueprint = getDataManager().getShip( shipBlueprintId );
+		return ( shipBlueprint != null ? shipBlueprint.getLayout() : null );
+	}
+
+	@Override
+	public int getSystemRoomCount( String shipBlueprintId, SystemType systemType ) {
+		ShipBlueprint shipBlueprint = getDataManager().getShip( shipBlueprintId );
+		if ( shipBlueprint == null ) return 0;
+
+		ShipBlueprint.SystemList.SystemRoom[] rooms = shipBlueprint.getSystemList().getSystemRoom( systemType );
+		return ( rooms != null ? rooms.length : 0 );
+	}
+
+	@Override
+	public ShipLayout getShipLayout( String shipLayoutId ) {
+		return getDataManager().getShipLayout( shipLayoutId );
+	}
+
+	@Override
+	public String getDroneType( String droneId ) {
+		DroneBlueprint droneBlueprint = getDataManager().getDrone( droneId );
+		return ( droneBlueprint != null ? droneBlueprint.getType() : null );
+	}
+
+	private DataManager getDataManager() {
+		return ( dataManager != null ? dataManager : DataManager.get() );
+	}
+}
@@ -0,0 +1,267 @@
+package net.blerf.ftl.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.vhati.ftldat.PackUtilities;
+
+import net.blerf.ftl.xml.Achievement;
+import net.blerf.ftl.xml.BackgroundImageList;
+import net.blerf.ftl.xml.Blueprints;
+import net.blerf.ftl.xml.CrewNameList;
+import net.blerf.ftl.xml.Encounters;
+import net.blerf.ftl.xml.SectorData;
+
+
+/**
+ * A serialized copy of the XML that DefaultDataManager parsed from FTL's dats.
+ *
+ * Unmarshalling all that XML takes a few seconds on every launch. When the
+ * dats haven't changed since the last run, this snapshot can be read back
+ * instead, and the id maps rebuilt from it.
+ *
+ * The snapshot remembers each dat's size, modification time, and MD5 hash.
+ * A dat with a different mtime will be hashed again, so merely touching a
+ * file won't discard the snapshot. A different size always will. If the
+ * hash still matches, the new mtime is written back, so the next launch
+ * doesn't hash the dat again.
+ *
+ * The snapshot also records FORMAT_VERSION. Snapshots from builds that
+ * parsed the XML differently are ignored.
+ */
+public class DataSnapshot implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger log = LoggerFactory.getLogger( DataSnapshot.class );
+
+	/**
+	 * The version of the snapshot's content.
+	 *
+	 * Bump this whenever DatParser or DefaultDataManager changes what it
+	 * makes of FTL's XML, or an xml class's fields change. Otherwise older
+	 * snapshots would be loaded as if they were current.
+	 */
+	public static final int FORMAT_VERSION = 2;
+
+	private int formatVersion = FORMAT_VERSION;
+	private List<DatKey> datKeys = new ArrayList<DatKey>();
+	private transient boolean datKeysRefreshed = false;
+
+	private List<Achievement> achievements;
+	private Map<String, Blueprints> allBlueprints;
+	private Map<String, Encounters> allEvents;
+	private List<CrewNameList> crewNameLists;
+	private SectorData sectorData;
+	private List<BackgroundImageList> imageLists;
+
+
+	public DataSnapshot() {
+	}
+
+	/**
+	 * Records the identity of a dat the snapshot's contents came from.
+	 */
+	public void addDatFile( File datFile ) throws IOException {
+		try {
+			datKeys.add( new DatKey( datFile.getName(), datFile.length(), datFile.lastModified(), PackUtilities.calcFileMD5( datFile ) ) );
+		}
+		catch ( NoSuchAlgorithmException e ) {
+			throw new IOException( "Could not hash dat: "+ datFile.getName(), e );
+		}
+	}
+
+	/**
+	 * Returns true if the snapshot is of the current format, and the given
+	 * dats match those it was made from.
+	 *
+	 * A dat whose mtime changed but whose hash didn't has its key updated.
+	 *
+	 * @see #isDatKeysRefreshed()
+	 */
+	public boolean isCurrentFor( List<File> datFiles ) {
+		if ( formatVersion != FORMAT_VERSION ) return false;
+		if ( datFiles.size() != datKeys.size() ) return false;
+
+		for ( int i=0; i < datFiles.size(); i++ ) {
+			File datFile = datFiles.get( i );
+			DatKey key = datKeys.get( i );
+
+			if ( !key.name.equals( datFile.getName() ) ) return false;
+			if ( !datFile.exists() || key.size != datFile.length() ) return false;
+			if ( key.lastModified == datFile.lastModified() ) continue;
+
+			try {
+				if ( !key.md5.equals( PackUtilities.calcFileMD5( datFile ) ) ) return false;
+			}
+			catch ( Exception e ) {
+				log.warn( "Could not hash dat: "+ datFile.getName(), e );
+				return false;
+			}
+			key.lastModified = datFile.lastModified();
+			datKeysRefreshed = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if isCurrentFor() updated any dat's mtime, in which case
+	 * the snapshot should be written again.
+	 */
+	public boolean isDatKeysRefreshed() {
+		return datKeysRefreshed;
+	}
+
+	public void setAchievements( List<Achievement> achievements ) {
+		this.achievements = achievements;
+	}
+
+	public List<Achievement> getAchievements() {
+		return achievements;
+	}
+
+	public void setAllBlueprints( Map<String, Blueprints> allBlueprints ) {
+		this.allBlueprints = allBlueprints;
+	}
+
+	public Map<String, Blueprints> getAllBlueprints() {
+		return allBlueprints;
+	}
+
+	public void setAllEvents( Map<String, Encounters> allEvents ) {
+		this.allEvents = allEvents;
+	}
+
+	public Map<String, Encounters> getAllEvents() {
+		return allEvents;
+	}
+
+	public void setCrewNameLists( List<CrewNameList> crewNameLists ) {
+		this.crewNameLists = crewNameLists;
+	}
+
+	public List<CrewNameList> getCrewNameLists() {
+		return crewNameLists;
+	}
+
+	public void setSectorData( SectorData sectorData ) {
+		this.sectorData = sectorData;
+	}
+
+	public SectorData getSectorData() {
+		return sectorData;
+	}
+
+	public void setImageLists( List<BackgroundImageList> imageLists ) {
+		this.imageLists = imageLists;
+	}
+
+	public List<BackgroundImageList> getImageLists() {
+		return imageLists;
+	}
+
+
+	/**
+	 * Reads a snapshot, if one exists and still matches the given dats.
+	 *
+	 * Any problem (missing, stale, truncated, or written by an incompatible
+	 * build) is logged, and null is returned so the caller can parse the
+	 * dats normally.
+	 */
+	public static DataSnapshot read( File snapshotFile, List<File> datFiles ) {
+		if ( !snapshotFile.exists() ) return null;
+
+		ObjectInputStream in = null;
+		try {
+			in = new ObjectInputStream( new BufferedInputStream( new FileInputStream( snapshotFile ) ) );
+			DataSnapshot snapshot = (DataSnapshot)in.readObject();
+
+			if ( !snapshot.isCurrentFor( datFiles ) ) {
+				log.info( "Snapshot of FTL resources is out of date: "+ snapshotFile.getName() );
+				return null;
+			}
+			in.close();
+			in = null;
+
+			if ( snapshot.isDatKeysRefreshed() ) {
+				try {
+					write( snapshot, snapshotFile );
+				}
+				catch ( IOException e ) {
+					log.warn( "Could not update snapshot of FTL resources: "+ snapshotFile.getName(), e );
+				}
+			}
+			return snapshot;
+		}
+		catch ( Exception e ) {
+			log.warn( "Could not read snapshot of FTL resources: "+ snapshotFile.getName(), e );
+			return null;
+		}
+		finally {
+			try {if ( in != null ) in.close();}
+			catch ( IOException e ) {}
+		}
+	}
+
+	/**
+	 * Writes a snapshot.
+	 *
+	 * The data is written to a temporary file alongside, then renamed, so a
+	 * reader will never see a partial snapshot.
+	 */
+	public static void write( DataSnapshot snapshot, File snapshotFile ) throws IOException {
+		File tmpFile = new File( snapshotFile.getPath() +".tmp" );
+
+		ObjectOutputStream out = null;
+		try {
+			out = new ObjectOutputStream( new BufferedOutputStream( new FileOutputStream( tmpFile ) ) );
+			out.writeObject( snapshot );
+			out.close();
+			out = null;
+
+			if ( snapshotFile.exists() && !snapshotFile.delete() ) {
+				throw new IOException( "Could not replace existing snapshot: "+ snapshotFile.getName() );
+			}
+			if ( !tmpFile.renameTo( snapshotFile ) ) {
+				throw new IOException( "Could not rename temporary snapshot: "+ tmpFile.getName() );
+			}
+		}
+		finally {
+			try {if ( out != null ) out.close();}
+			catch ( IOException e ) {}
+
+			if ( tmpFile.exists() ) tmpFile.delete();
+		}
+	}
+
+
+
+	private static class DatKey implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		public final String name;
+		public final long size;
+		public long lastModified;
+		public final String md5;
+
+		public DatKey( String name, long size, long lastModified, String md5 ) {
+			this.name = name;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.md5 = md5;
+		}
+	}
+}
@@ -5,10 +5,17 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.bind.JAXBException;
@@ -49,6 +56,22 @@ public class DefaultDataManager extends DataManager {
 
 	private static final Logger log = LoggerFactory.getLogger( DefaultDataManager.class );
 
+	private static final EncountersIndexer<FTLEvent> EVENT_INDEXER = new EncountersIndexer<FTLEvent>() {
+		@Override
+		protected List<FTLEvent> getItems( Encounters encounters ) { return encounters.getEvents(); }
+
+		@Override
+		protected String getId( FTLEvent event ) { return event.getId(); }
+	};
+
+	private static final EncountersIndexer<FTLEventList> EVENT_LIST_INDEXER = new EncountersIndexer<FTLEventList>() {
+		@Override
+		protected List<FTLEventList> getItems( Encounters encounters ) { return encounters.getEventLists(); }
+
+		@Override
+		protected String getId( FTLEventList eventList ) { return eventList.getId(); }
+	};
+
 	private List<String> stdBlueprintsFileNames;
 	private List<String> dlcBlueprintsFileNames;
 	private List<String> stdEventsFileNames;
@@ -93,6 +116,11 @@ public class DefaultDataManager extends DataManager {
 	private Map<String, ShipBlueprint> stdAutoShipIdMap;
 	private Map<String, ShipBlueprint> dlcAutoShipIdMap;
 
+	private Map<String, FTLEvent> stdEventIdMap;
+	private Map<String, FTLEvent> dlcEventIdMap;
+	private Map<String, FTLEventList> stdEventListIdMap;
+	private Map<String, FTLEventList> dlcEventListIdMap;
+
 	private Map<String, ShipEvent> stdShipEventIdMap;
 	private Map<String, ShipEvent> dlcShipEventIdMap;
 
@@ -101,8 +129,8 @@ public class DefaultDataManager extends DataManager {
 	private Map<ShipBlueprint, List<Achievement>> dlcShipAchievementIdMap;
 	private List<Achievement> generalAchievements;
 
-	private Map<String, ShipLayout> shipLayouts;
-	private Map<String, ShipChassis> shipChassisMap;
+	private Map<String, ShipLayout> shipLayouts;      // Lazily filled; guarded by this.
+	private Map<String, ShipChassis> shipChassisMap;  // Lazily filled; guarded by this.
 	private List<CrewNameList.CrewName> crewNamesMale;
 	private List<CrewNameList.CrewName> crewNamesFemale;
 
@@ -115,20 +143,47 @@ public class DefaultDataManager extends DataManager {
 
 
 	public DefaultDataManager( File datsDir ) throws IOException, JAXBException, JDOMException {
+		this( datsDir, false );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param datsDir a directory containing FTL's dats
+	 * @param mapDats true to memory-map the dats read-only, false to read them through seeks
+	 */
+	public DefaultDataManager( File datsDir, boolean mapDats ) throws IOException, JAXBException, JDOMException {
+		this( datsDir, mapDats, null );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * If a snapshot file is given, and it still matches the dats, the XML
+	 * will be read from it rather than parsed. Otherwise, the freshly parsed
+	 * XML will be written there for next time.
+	 *
+	 * @param datsDir a directory containing FTL's dats
+	 * @param mapDats true to memory-map the dats read-only, false to read them through seeks
+	 * @param snapshotFile a file to cache parsed XML in, or null
+	 */
+	public DefaultDataManager( File datsDir, boolean mapDats, File snapshotFile ) throws IOException, JAXBException, JDOMException {
 
 		boolean meltdown = false;
-		List<InputStream> streams = new ArrayList<InputStream>();
+		ExecutorService loadExecutor = null;
 
 		try {
 			File dataDatFile = new File( datsDir, "data.dat" );
 			File resourceDatFile = new File( datsDir, "resource.dat" );
 
+			String packMode = ( mapDats ? "rm" : "r" );
+
 			packContainer = new PackContainer();
 			if ( dataDatFile.exists() && resourceDatFile.exists() ) {  // FTL 1.01-1.5.13.
-				AbstractPack dataPack = new FTLPack( dataDatFile, "r" );
+				AbstractPack dataPack = new FTLPack( dataDatFile, packMode );
 				packContainer.setPackFor( "data/", dataPack );
 
-				AbstractPack resourcePack = new FTLPack( resourceDatFile, "r" );
+				AbstractPack resourcePack = new FTLPack( resourceDatFile, packMode );
 				packContainer.setPackFor( "audio/", resourcePack );
 				packContainer.setPackFor( "fonts/", resourcePack );
 				packContainer.setPackFor( "img/", resourcePack );
@@ -137,15 +192,6 @@ public class DefaultDataManager extends DataManager {
 				throw new IOException( String.format( "Could not find both \"%s\" and \"%s\"", dataDatFile.getName(), resourceDatFile.getName() ) );
 			}
 
-			datParser = new DatParser();
-
-			log.info( "Reading Achievements..." );
-			log.debug( "Reading \"data/achievements.xml\"..." );
-			InputStream achStream = getResourceInputStream( "data/achievements.xml" );
-			streams.add( achStream );
-			List<Achievement> achievements = datParser.readAchievements( achStream, "achievements.xml" );
-
-			log.info( "Reading Blueprints..." );
 			stdBlueprintsFileNames = new ArrayList<String>();
 			stdBlueprintsFileNames.add( "blueprints.xml" );
 			stdBlueprintsFileNames.add( "autoBlueprints.xml" );
@@ -156,28 +202,6 @@ public class DefaultDataManager extends DataManager {
 			dlcBlueprintsFileNames.add( "dlcBlueprintsOverwrite.xml" );
 			dlcBlueprintsFileNames.add( "dlcPirateBlueprints.xml" );
 
-			allBlueprints = new LinkedHashMap<String, Blueprints>();
-			for ( String blueprintsFileName : stdBlueprintsFileNames ) {
-				if ( !hasResourceInputStream( "data/"+ blueprintsFileName ) ) continue;
-
-				log.debug( String.format( "Reading \"data/%s\"...", blueprintsFileName ) );
-				InputStream tmpStream = getResourceInputStream( "data/"+ blueprintsFileName );
-				streams.add( tmpStream );
-				Blueprints tmpBlueprints = datParser.readBlueprints( tmpStream, blueprintsFileName );
-				allBlueprints.put( blueprintsFileName, tmpBlueprints );
-			}
-
-			for ( String blueprintsFileName : dlcBlueprintsFileNames ) {
-				if ( !hasResourceInputStream( "data/"+ blueprintsFileName ) ) continue;
-
-				log.debug( String.format( "Reading \"data/%s\"...", blueprintsFileName ) );
-				InputStream tmpStream = getResourceInputStream( "data/"+ blueprintsFileName );
-				streams.add( tmpStream );
-				Blueprints tmpBlueprints = datParser.readBlueprints( tmpStream, blueprintsFileName );
-				allBlueprints.put( blueprintsFileName, tmpBlueprints );
-			}
-
-			log.info( "Reading Events..." );
 			stdEventsFileNames = new ArrayList<String>();
 			stdEventsFileNames.add( "events.xml" );
 			stdEventsFileNames.add( "newEvents.xml" );
@@ -199,36 +223,134 @@ public class DefaultDataManager extends DataManager {
 			dlcEventsFileNames.add( "dlcEvents.xml" );
 			dlcEventsFileNames.add( "dlcEvents_anaerobic.xml" );
 
-			allEvents = new LinkedHashMap<String, Encounters>();
-			for ( String eventsFileName : stdEventsFileNames ) {
-				log.debug( String.format( "Reading \"data/%s\"...", eventsFileName ) );
-				InputStream tmpStream = getResourceInputStream( "data/"+ eventsFileName );
-				streams.add( tmpStream );
-				Encounters tmpEncounters = datParser.readEvents( tmpStream, eventsFileName );
-				allEvents.put( eventsFileName, tmpEncounters );
+			List<File> datFiles = new ArrayList<File>();
+			datFiles.add( dataDatFile );
+			datFiles.add( resourceDatFile );
+
+			datParser = new DatParser();
+
+			DataSnapshot snapshot = null;
+			if ( snapshotFile != null ) {
+				snapshot = DataSnapshot.read( snapshotFile, datFiles );
 			}
 
-			for ( String eventsFileName : dlcEventsFileNames ) {
-				if ( !hasResourceInputStream( "data/"+ eventsFileName ) ) continue;
+			List<Achievement> achievements;
+			List<CrewNameList> crewNameLists;
+			SectorData tmpSectorData;
+			List<BackgroundImageList> imageLists;
+
+			if ( snapshot != null ) {
+				log.info( "Reading FTL resources from snapshot: "+ snapshotFile.getName() );
+				achievements = snapshot.getAchievements();
+				allBlueprints = snapshot.getAllBlueprints();
+				allEvents = snapshot.getAllEvents();
+				crewNameLists = snapshot.getCrewNameLists();
+				tmpSectorData = snapshot.getSectorData();
+				imageLists = snapshot.getImageLists();
+			}
+			else {
+				// The XML files are independent, so parse them concurrently.
+				// Results are joined below in the original order.
+				int loadThreadCount = Math.max( 1, Runtime.getRuntime().availableProcessors() );
+				loadExecutor = Executors.newFixedThreadPool( loadThreadCount );
+				log.debug( String.format( "Reading FTL resources with %d threads...", loadThreadCount ) );
+
+				log.info( "Reading Achievements..." );
+				Future<List<Achievement>> achFuture = loadExecutor.submit( new ResourceParseTask<List<Achievement>>( "data/", "achievements.xml" ) {
+					@Override
+					protected List<Achievement> parse( InputStream is, String fileName ) throws IOException, JAXBException, JDOMException {
+						return datParser.readAchievements( is, fileName );
+					}
+				});
+
+				log.info( "Reading Blueprints..." );
+				List<String> allBlueprintsFileNames = new ArrayList<String>();
+				allBlueprintsFileNames.addAll( stdBlueprintsFileNames );
+				allBlueprintsFileNames.addAll( dlcBlueprintsFileNames );
+
+				Map<String, Future<Blueprints>> blueprintsFutures = new LinkedHashMap<String, Future<Blueprints>>();
+				for ( String blueprintsFileName : allBlueprintsFileNames ) {
+					if ( !hasResourceInputStream( "data/"+ blueprintsFileName ) ) continue;
+
+					blueprintsFutures.put( blueprintsFileName, loadExecutor.submit( new BlueprintsParseTask( blueprintsFileName ) ) );
+				}
+
+				log.info( "Reading Events..." );
+				Map<String, Future<Encounters>> eventsFutures = new LinkedHashMap<String, Future<Encounters>>();
+				for ( String eventsFileName : stdEventsFileNames ) {
+					// Standard events are mandatory; a missing file will fail when joined.
+					eventsFutures.put( eventsFileName, loadExecutor.submit( new EventsParseTask( eventsFileName ) ) );
+				}
+				for ( String eventsFileName : dlcEventsFileNames ) {
+					if ( !hasResourceInputStream( "data/"+ eventsFileName ) ) continue;
+
+					eventsFutures.put( eventsFileName, loadExecutor.submit( new EventsParseTask( eventsFileName ) ) );
+				}
+
+				log.info( "Reading Crew Names..." );
+				Future<List<CrewNameList>> crewNamesFuture = loadExecutor.submit( new ResourceParseTask<List<CrewNameList>>( "data/", "names.xml" ) {
+					@Override
+					protected List<CrewNameList> parse( InputStream is, String fileName ) throws IOException, JAXBException, JDOMException {
+						return datParser.readCrewNames( is, fileName );
+					}
+				});
 
-				log.debug( String.format( "Reading \"data/%s\"...", eventsFileName ) );
-				InputStream tmpStream = getResourceInputStream( "data/"+ eventsFileName );
-				streams.add( tmpStream );
-				Encounters tmpEncounters = datParser.readEvents( tmpStream, eventsFileName );
-				allEvents.put( eventsFileName, tmpEncounters );
+				log.info( "Reading Sector Data..." );
+				Future<SectorData> sectorDataFuture = loadExecutor.submit( new ResourceParseTask<SectorData>( "data/", "sector_data.xml" ) {
+					@Override
+					protected SectorData parse( InputStream is, String fileName ) throws IOException, JAXBException, JDOMException {
+						return datParser.readSectorData( is, fileName );
+					}
+				});
+
+				log.info( "Reading Background Image Lists..." );
+				Future<List<BackgroundImageList>> imageListsFuture = loadExecutor.submit( new ResourceParseTask<List<BackgroundImageList>>( "data/", "events_imageList.xml" ) {
+					@Override
+					protected List<BackgroundImageList> parse( InputStream is, String fileName ) throws IOException, JAXBException, JDOMException {
+						return datParser.readImageLists( is, fileName );
+					}
+				});
+
+				// Join, in the same order the files were submitted.
+
+				achievements = joinParseTask( achFuture );
+
+				allBlueprints = new LinkedHashMap<String, Blueprints>();
+				for ( Map.Entry<String, Future<Blueprints>> entry : blueprintsFutures.entrySet() ) {
+					allBlueprints.put( entry.getKey(), joinParseTask( entry.getValue() ) );
+				}
+
+				allEvents = new LinkedHashMap<String, Encounters>();
+				for ( Map.Entry<String, Future<Encounters>> entry : eventsFutures.entrySet() ) {
+					allEvents.put( entry.getKey(), joinParseTask( entry.getValue() ) );
+				}
+
+				crewNameLists = joinParseTask( crewNamesFuture );
+				tmpSectorData = joinParseTask( sectorDataFuture );
+				imageLists = joinParseTask( imageListsFuture );
+
+				if ( snapshotFile != null ) {
+					log.info( "Writing snapshot of FTL resources: "+ snapshotFile.getName() );
+					try {
+						DataSnapshot newSnapshot = new DataSnapshot();
+						for ( File datFile : datFiles ) {
+							newSnapshot.addDatFile( datFile );
+						}
+						newSnapshot.setAchievements( achievements );
+						newSnapshot.setAllBlueprints( allBlueprints );
+						newSnapshot.setAllEvents( allEvents );
+						newSnapshot.setCrewNameLists( crewNameLists );
+						newSnapshot.setSectorData( tmpSectorData );
+						newSnapshot.setImageLists( imageLists );
+
+						DataSnapshot.write( newSnapshot, snapshotFile );
+					}
+					catch ( IOException e ) {
+						log.warn( "Could not write snapshot of FTL resources", e );
+					}
+				}
 			}
 
-			log.info( "Reading Crew Names..." );
-			log.debug( "Reading \"data/names.xml\"..." );
-			InputStream crewNamesStream = getResourceInputStream( "data/names.xml" );
-			streams.add( crewNamesStream );
-			List<CrewNameList> crewNameLists = datParser.readCrewNames( crewNamesStream, "names.xml" );
-
-			log.info( "Reading Sector Data..." );
-			log.debug( "Reading \"data/sector_data.xml\"..." );
-			InputStream sectorDataStream = getResourceInputStream( "data/sector_data.xml" );
-			streams.add( sectorDataStream );
-			SectorData tmpSectorData = datParser.readSectorData( sectorDataStream, "sector_data.xml" );
 			sectorDescriptionIdMap = new LinkedHashMap<String, SectorDescription>();
 			for ( SectorDescription tmpDesc : tmpSectorData.getSectorDescriptions() ) {
 				sectorDescriptionIdMap.put( tmpDesc.getId(), tmpDesc );
@@ -249,12 +371,6 @@ public class DefaultDataManager extends DataManager {
 				dlcSectorTypeIdMap.put( baseId, tmpType );
 			}
 
-			log.info( "Reading Background Image Lists..." );
-			log.debug( "Reading \"data/events_imageList.xml\"..." );
-			InputStream imageListsStream = getResourceInputStream( "data/events_imageList.xml" );
-			streams.add( imageListsStream );
-			List<BackgroundImageList> imageLists = datParser.readImageLists( imageListsStream, "events_imageList.xml" );
-
 			log.info( "Finished reading FTL resources." );
 
 			achievementIdMap = new LinkedHashMap<String, Achievement>();
@@ -580,6 +696,12 @@ public class DefaultDataManager extends DataManager {
 				dlcEvents.put( eventsFileName, tmpEncounters );
 			}
 
+			// Index events by id. Later files override earlier ones.
+			stdEventIdMap = EVENT_INDEXER.index( stdEvents.values() );
+			dlcEventIdMap = EVENT_INDEXER.index( dlcEvents.values() );
+			stdEventListIdMap = EVENT_LIST_INDEXER.index( stdEvents.values() );
+			dlcEventListIdMap = EVENT_LIST_INDEXER.index( dlcEvents.values() );
+
 			stdShipEventIdMap = new LinkedHashMap<String, ShipEvent>();
 			for ( Map.Entry<String, Encounters> entry : stdEvents.entrySet() ) {
 				Encounters tmpEncounters = entry.getValue();
@@ -612,10 +734,7 @@ public class DefaultDataManager extends DataManager {
 			throw e;
 		}
 		finally {
-			for ( InputStream stream : streams ) {
-				try {if ( stream != null ) stream.close();}
-				catch ( IOException f ) {}
-			}
+			if ( loadExecutor != null ) loadExecutor.shutdownNow();
 
 			if ( meltdown ) this.close();
 		}
@@ -697,7 +816,7 @@ public class DefaultDataManager extends DataManager {
 
 	@Override
 	public Map<String, Achievement> getAchievements() {
-		return achievementIdMap;
+		return Collections.unmodifiableMap( achievementIdMap );
 	}
 
 	@Override
@@ -724,7 +843,7 @@ public class DefaultDataManager extends DataManager {
 			augments = stdAugmentIdMap;
 		}
 
-		return augments;
+		return Collections.unmodifiableMap( augments );
 	}
 
 	@Override
@@ -751,7 +870,7 @@ public class DefaultDataManager extends DataManager {
 			crews = stdCrewIdMap;
 		}
 
-		return crews;
+		return Collections.unmodifiableMap( crews );
 	}
 
 	@Override
@@ -778,7 +897,7 @@ public class DefaultDataManager extends DataManager {
 			drones = stdDroneIdMap;
 		}
 
-		return drones;
+		return Collections.unmodifiableMap( drones );
 	}
 
 	@Override
@@ -820,7 +939,7 @@ public class DefaultDataManager extends DataManager {
 			weapons = stdWeaponIdMap;
 		}
 
-		return weapons;
+		return Collections.unmodifiableMap( weapons );
 	}
 
 	@Override
@@ -847,7 +966,7 @@ public class DefaultDataManager extends DataManager {
 			ships = stdShipIdMap;
 		}
 
-		return ships;
+		return Collections.unmodifiableMap( ships );
 	}
 
 	@Override
@@ -859,7 +978,7 @@ public class DefaultDataManager extends DataManager {
 			autoShips = stdAutoShipIdMap;
 		}
 
-		return autoShips;
+		return Collections.unmodifiableMap( autoShips );
 	}
 
 	@Override
@@ -871,7 +990,7 @@ public class DefaultDataManager extends DataManager {
 			playerShips = stdPlayerShipIdMap;
 		}
 
-		return playerShips;
+		return Collections.unmodifiableMap( playerShips );
 	}
 
 	/**
@@ -886,7 +1005,7 @@ public class DefaultDataManager extends DataManager {
 			playerShipBaseIds = stdPlayerShipBaseIds;
 		}
 
-		return playerShipBaseIds;
+		return Collections.unmodifiableList( playerShipBaseIds );
 	}
 
 	/**
@@ -920,16 +1039,17 @@ public class DefaultDataManager extends DataManager {
 			shipAchievements = stdShipAchievementIdMap;
 		}
 
-		return shipAchievements.get( ship );
+		List<Achievement> result = shipAchievements.get( ship );
+		return ( result != null ? Collections.unmodifiableList( result ) : null );
 	}
 
 	@Override
 	public List<Achievement> getGeneralAchievements() {
-		return generalAchievements;
+		return Collections.unmodifiableList( generalAchievements );
 	}
 
 	@Override
-	public ShipLayout getShipLayout( String id ) {
+	public synchronized ShipLayout getShipLayout( String id ) {
 		ShipLayout result = shipLayouts.get(id);
 
 		if ( result == null ) {  // Wasn't cached; try parsing it.
@@ -955,7 +1075,7 @@ public class DefaultDataManager extends DataManager {
 	}
 
 	@Override
-	public ShipChassis getShipChassis( String id ) {
+	public synchronized ShipChassis getShipChassis( String id ) {
 		ShipChassis result = shipChassisMap.get(id);
 
 		if ( result == null ) {  // Wasn't cached; try parsing it.
@@ -989,50 +1109,42 @@ public class DefaultDataManager extends DataManager {
 
 	/**
 	 * Returns an Event with a given id.
-	 * All event xml files are searched.
+	 * All event xml files were indexed at load, with later files winning.
 	 *
 	 * Events and EventLists share a namespace,
 	 * so an id could belong to either.
 	 */
 	@Override
 	public FTLEvent getEventById( String id, boolean dlcEnabled ) {
-		Map<String, Encounters> events = null;
+		Map<String, FTLEvent> eventIdMap = null;
 		if ( dlcEnabled ) {
-			events = dlcEvents;
+			eventIdMap = dlcEventIdMap;
 		} else {
-			events = stdEvents;
+			eventIdMap = stdEventIdMap;
 		}
 
-		FTLEvent result = null;
-		for ( Map.Entry<String, Encounters> entry : events.entrySet() ) {
-			FTLEvent tmpEvent = entry.getValue().getEventById(id);
-			if ( tmpEvent != null ) result = tmpEvent;
-		}
-		return result;
+		if ( id == null ) return null;
+		return eventIdMap.get( id );
 	}
 
 	/**
 	 * Returns an EventList with a given id.
-	 * All event xml files are searched.
+	 * All event xml files were indexed at load, with later files winning.
 	 *
 	 * Events and EventLists share a namespace,
 	 * so an id could belong to either.
 	 */
 	@Override
 	public FTLEventList getEventListById( String id, boolean dlcEnabled ) {
-		Map<String, Encounters> events = null;
+		Map<String, FTLEventList> eventListIdMap = null;
 		if ( dlcEnabled ) {
-			events = dlcEvents;
+			eventListIdMap = dlcEventListIdMap;
 		} else {
-			events = stdEvents;
+			eventListIdMap = stdEventListIdMap;
 		}
 
-		FTLEventList result = null;
-		for ( Map.Entry<String, Encounters> entry : events.entrySet() ) {
-			FTLEventList tmpEventList = entry.getValue().getEventListById(id);
-			if ( tmpEventList != null ) result = tmpEventList;
-		}
-		return result;
+		if ( id == null ) return null;
+		return eventListIdMap.get( id );
 	}
 
 	/**
@@ -1049,7 +1161,7 @@ public class DefaultDataManager extends DataManager {
 			events = stdEvents;
 		}
 
-		return events;
+		return Collections.unmodifiableMap( events );
 	}
 
 	@Override
@@ -1076,7 +1188,7 @@ public class DefaultDataManager extends DataManager {
 			shipEvents = stdShipEventIdMap;
 		}
 
-		return shipEvents;
+		return Collections.unmodifiableMap( shipEvents );
 	}
 
 	/**
@@ -1136,6 +1248,118 @@ public class DefaultDataManager extends DataManager {
 	 */
 	@Override
 	public Map<String, BackgroundImageList> getBackgroundImageLists() {
-		return backgroundImageLists;
+		return Collections.unmodifiableMap( backgroundImageLists );
+	}
+
+
+
+	/**
+	 * Waits for a parse task and returns its result.
+	 *
+	 * Any exception thrown by the task is rethrown as-is.
+	 */
+	private <T> T joinParseTask( Future<T> future ) throws IOException, JAXBException, JDOMException {
+		try {
+			return future.get();
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IOException( "Interrupted while reading FTL resources", e );
+		}
+		catch ( ExecutionException e ) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof IOException ) throw (IOException)cause;
+			if ( cause instanceof JAXBException ) throw (JAXBException)cause;
+			if ( cause instanceof JDOMException ) throw (JDOMException)cause;
+			if ( cause instanceof RuntimeException ) throw (RuntimeException)cause;
+			if ( cause instanceof Error ) throw (Error)cause;
+			throw new IOException( cause );
+		}
+	}
+
+
+
+	/**
+	 * A task to open a resource and parse it on a worker thread.
+	 */
+	private abstract class ResourceParseTask<T> implements Callable<T> {
+		private final String innerDir;
+		private final String fileName;
+
+		public ResourceParseTask( String innerDir, String fileName ) {
+			this.innerDir = innerDir;
+			this.fileName = fileName;
+		}
+
+		@Override
+		public T call() throws IOException, JAXBException, JDOMException {
+			log.debug( String.format( "Reading \"%s%s\"...", innerDir, fileName ) );
+
+			InputStream is = null;
+			try {
+				is = getResourceInputStream( innerDir + fileName );
+				return parse( is, fileName );
+			}
+			finally {
+				try {if ( is != null ) is.close();}
+				catch ( IOException e ) {}
+			}
+		}
+
+		protected abstract T parse( InputStream is, String fileName ) throws IOException, JAXBException, JDOMException;
+	}
+
+	private class BlueprintsParseTask extends ResourceParseTask<Blueprints> {
+		public BlueprintsParseTask( String fileName ) {
+			super( "data/", fileName );
+		}
+
+		@Override
+		protected Blueprints parse( InputStream is, String fileName ) throws IOException, JAXBException, JDOMException {
+			return datParser.readBlueprints( is, fileName );
+		}
+	}
+
+	private class EventsParseTask extends ResourceParseTask<Encounters> {
+		public EventsParseTask( String fileName ) {
+			super( "data/", fileName );
+		}
+
+		@Override
+		protected Encounters parse( InputStream is, String fileName ) throws IOException, JAXBException, JDOMException {
+			return datParser.readEvents( is, fileName );
+		}
+	}
+
+
+
+	/**
+	 * Builds an id lookup map from a kind of item found in Encounters.
+	 */
+	private static abstract class EncountersIndexer<T> {
+
+		/**
+		 * Returns an unmodifiable id map of the items in some Encounters.
+		 *
+		 * Items are added in iteration order, so later ones override earlier
+		 * ones with the same id. Items without an id are skipped.
+		 */
+		public Map<String, T> index( Collection<Encounters> encountersList ) {
+			Map<String, T> result = new HashMap<String, T>();
+			for ( Encounters encounters : encountersList ) {
+				List<T> items = getItems( encounters );
+				if ( items == null ) continue;
+				for ( T item : items ) {
+					String id = getId( item );
+					if ( id == null ) continue;
+					result.put( id, item );
+				}
+			}
+			return Collections.unmodifiableMap( result );
+		}
+
+		protected abstract List<T> getItems( Encounters encounters );
+
+		protected abstract String getId( T item );
 	}
 }
@@ -0,0 +1,95 @@
+package net.blerf.ftl.parser;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Raw file content, held aside to be rendered as hex only if needed.
+ *
+ * Parser error reports include the whole file as hex. Rendering that up
+ * front, for every file opened, costs more than parsing. Instead, keep one
+ * of these, and ask for the text after something has gone wrong.
+ *
+ * The bytes are not copied. The original buffer or array must not be
+ * modified while this is in use.
+ *
+ * Text is encoded through a lookup table, two chars per byte, rather than
+ * by formatting each byte.
+ *
+ * @see MysteryBytes
+ */
+public class HexDump {
+
+	/** Bytes rendered on each line of text. */
+	public static final int BYTES_PER_LINE = 32;
+
+	private static final char[] HEX_PAIRS = new char[256 * 2];
+
+	static {
+		char[] digits = "0123456789abcdef".toCharArray();
+		for ( int i=0; i < 256; i++ ) {
+			HEX_PAIRS[i*2] = digits[i >> 4];
+			HEX_PAIRS[i*2+1] = digits[i & 0x0F];
+		}
+	}
+
+	private final ByteBuffer buf;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * The buffer's remaining bytes will be dumped. Its position is not
+	 * affected.
+	 */
+	public HexDump( ByteBuffer buf ) {
+		this.buf = buf.slice();
+	}
+
+	public HexDump( byte[] bytes ) {
+		this( ByteBuffer.wrap( bytes ) );
+	}
+
+	/**
+	 * Returns the number of bytes to be dumped.
+	 */
+	public int length() {
+		return buf.limit();
+	}
+
+	/**
+	 * Appends lowercase hex to a StringBuilder, with a line break after
+	 * every BYTES_PER_LINE bytes.
+	 */
+	public void appendTo( StringBuilder dst ) {
+		int len = buf.limit();
+		dst.ensureCapacity( dst.length() + len*2 + len/BYTES_PER_LINE );
+
+		char[] line = new char[BYTES_PER_LINE * 2 + 1];
+		line[line.length-1] = '\n';
+
+		int i = 0;
+		while ( i < len ) {
+			int lineLen = Math.min( BYTES_PER_LINE, len - i );
+			for ( int j=0; j < lineLen; j++ ) {
+				int pair = (buf.get( i + j ) & 0xFF) * 2;
+				line[j*2] = HEX_PAIRS[pair];
+				line[j*2+1] = HEX_PAIRS[pair+1];
+			}
+			i += lineLen;
+
+			if ( lineLen == BYTES_PER_LINE ) {
+				dst.append( line );
+			} else {
+				dst.append( line, 0, lineLen*2 );
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		appendTo( result );
+		return result.toString();
+	}
+}
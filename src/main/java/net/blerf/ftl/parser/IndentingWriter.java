@@ -0,0 +1,79 @@
+package net.blerf.ftl.parser;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * A Writer that prefixes every non-empty line passing through it.
+ *
+ * This streams the equivalent of the toString() idiom,
+ * s.replaceAll( "(^|\n)(.+)", "$1  $2" ), without building either string.
+ * Lines that are empty, or that begin with some other line terminator
+ * ('\r', etc), are left alone, as that regex would.
+ *
+ * Nothing is buffered here. Flushing and closing pass through to the
+ * underlying Writer.
+ */
+public class IndentingWriter extends FilterWriter {
+
+	private final String indent;
+	private boolean lineStart = true;
+
+
+	public IndentingWriter( Writer out, String indent ) {
+		super( out );
+		this.indent = indent;
+	}
+
+	@Override
+	public void write( int c ) throws IOException {
+		if ( lineStart ) {
+			if ( !isLineTerminator( (char)c ) ) out.write( indent );
+			lineStart = false;
+		}
+		out.write( c );
+		if ( c == '\n' ) lineStart = true;
+	}
+
+	@Override
+	public void write( char[] cbuf, int off, int len ) throws IOException {
+		int end = off + len;
+		int runStart = off;
+		for ( int i=off; i < end; i++ ) {
+			if ( lineStart ) {
+				out.write( cbuf, runStart, i - runStart );
+				runStart = i;
+				if ( !isLineTerminator( cbuf[i] ) ) out.write( indent );
+				lineStart = false;
+			}
+			if ( cbuf[i] == '\n' ) lineStart = true;
+		}
+		out.write( cbuf, runStart, end - runStart );
+	}
+
+	@Override
+	public void write( String str, int off, int len ) throws IOException {
+		int end = off + len;
+		int runStart = off;
+		for ( int i=off; i < end; i++ ) {
+			if ( lineStart ) {
+				out.write( str, runStart, i - runStart );
+				runStart = i;
+				if ( !isLineTerminator( str.charAt( i ) ) ) out.write( indent );
+				lineStart = false;
+			}
+			if ( str.charAt( i ) == '\n' ) lineStart = true;
+		}
+		out.write( str, runStart, end - runStart );
+	}
+
+
+	/**
+	 * Returns true for chars that regex's '.' won't match.
+	 */
+	private static boolean isLineTerminator( char c ) {
+		return ( c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029' );
+	}
+}
@@ -21,8 +21,8 @@ public class MysteryBytes {
 	/**
 	 * Constructor using bytes from an InputStream.
 	 *
-	 * @param in a stream to read from. Instances of
-	 *           FileInputStream will be interrogated for an offset.
+	 * @param in a stream to read from. Instances of FileInputStream
+	 *           and ByteBufferInputStream will be interrogated for an offset.
 	 * @param length the number of bytes to read.
 	 */
 	public MysteryBytes( InputStream in, int length ) throws IOException {
@@ -36,6 +36,9 @@ public class MysteryBytes {
 		if ( in instanceof FileInputStream ) {
 			this.offset = ((FileInputStream)in).getChannel().position()-unBytes.length;
 		}
+		else if ( in instanceof ByteBufferInputStream ) {
+			this.offset = ((ByteBufferInputStream)in).position()-unBytes.length;
+		}
 		this.bytes = unBytes;
 	}
 
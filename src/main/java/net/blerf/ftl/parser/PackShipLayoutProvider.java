@@ -0,0 +1,292 @@
+package net.blerf.ftl.parser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.vhati.ftldat.AbstractPack;
+import net.vhati.ftldat.FTLPack;
+
+import net.blerf.ftl.model.ShipLayout;
+import net.blerf.ftl.parser.DatParser;
+import net.blerf.ftl.parser.SavedGameParser.SystemType;
+import net.blerf.ftl.parser.ShipLayoutProvider;
+import net.blerf.ftl.parser.TextUtilities;
+
+
+/**
+ * Looks up ship layouts directly in FTL's data pack, without a DataManager.
+ *
+ * Only what SavedGameParser needs is read. On first use, the blueprints
+ * files are scanned as text for each shipBlueprint's name, layout, and
+ * systemList, and each droneBlueprint's name and type. Nothing else in
+ * them is parsed, and JAXB is never involved.
+ * Layouts are read from "data/*.txt" when first requested, then cached.
+ *
+ * Later blueprints files override earlier ones, as in DefaultDataManager.
+ *
+ * All methods are thread-safe.
+ *
+ * Usage:
+ *   PackShipLayoutProvider layoutProvider = new PackShipLayoutProvider( datsDir, true );
+ *   SavedGameParser parser = new SavedGameParser();
+ *   parser.setShipLayoutProvider( layoutProvider );
+ *   ...
+ *   layoutProvider.close();
+ */
+public class PackShipLayoutProvider implements ShipLayoutProvider, Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger( PackShipLayoutProvider.class );
+
+	private static final Pattern COMMENT_PTN = Pattern.compile( "<!--.*?-->", Pattern.DOTALL );
+	private static final Pattern BLUEPRINT_PTN = Pattern.compile( "<shipBlueprint\\b([^>]*?)(/?)>" );
+	private static final Pattern ATTRIBUTE_PTN = Pattern.compile( "([A-Za-z_]+)\\s*=\\s*\"([^\"]*)\"" );
+	private static final Pattern SYSTEM_LIST_PTN = Pattern.compile( "<systemList\\b[^>]*>(.*?)</systemList>", Pattern.DOTALL );
+	private static final Pattern ELEMENT_PTN = Pattern.compile( "<([A-Za-z_]+)\\b" );
+	private static final Pattern DRONE_BLUEPRINT_PTN = Pattern.compile( "<droneBlueprint\\b([^>]*?)(/?)>" );
+	private static final Pattern TYPE_PTN = Pattern.compile( "<type>\\s*([^<]*?)\\s*</type>" );
+
+	private final AbstractPack dataPack;
+	private final boolean ownsPack;
+	private final List<String> blueprintsFileNames = new ArrayList<String>();
+	private final DatParser datParser = new DatParser();
+
+	private Map<String, BlueprintInfo> blueprintInfoMap = null;  // Lazily filled; guarded by this.
+	private Map<String, String> droneTypeMap = null;  // Filled alongside blueprintInfoMap.
+	private final Map<String, ShipLayout> shipLayouts = new HashMap<String, ShipLayout>();  // Guarded by this.
+
+
+	/**
+	 * Constructor.
+	 *
+	 * Opens "data.dat", which will be closed by close().
+	 *
+	 * @param datsDir a directory containing FTL's dats
+	 * @param dlcEnabled true to include the AE blueprints files
+	 */
+	public PackShipLayoutProvider( File datsDir, boolean dlcEnabled ) throws IOException {
+		this( new FTLPack( new File( datsDir, "data.dat" ), "r" ), dlcEnabled, true );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * The pack is not closed by close().
+	 *
+	 * @param dataPack a pack holding "data/" innerPaths
+	 * @param dlcEnabled true to include the AE blueprints files
+	 */
+	public PackShipLayoutProvider( AbstractPack dataPack, boolean dlcEnabled ) {
+		this( dataPack, dlcEnabled, false );
+	}
+
+	private PackShipLayoutProvider( AbstractPack dataPack, boolean dlcEnabled, boolean ownsPack ) {
+		this.dataPack = dataPack;
+		this.ownsPack = ownsPack;
+
+		blueprintsFileNames.add( "blueprints.xml" );
+		blueprintsFileNames.add( "autoBlueprints.xml" );
+		blueprintsFileNames.add( "bosses.xml" );  // FTL 1.5.4+
+
+		if ( dlcEnabled ) {
+			blueprintsFileNames.add( "dlcBlueprints.xml" );
+			blueprintsFileNames.add( "dlcBlueprintsOverwrite.xml" );
+			blueprintsFileNames.add( "dlcPirateBlueprints.xml" );
+		}
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		if ( ownsPack ) dataPack.close();
+	}
+
+	@Override
+	public synchronized String getShipLayoutId( String shipBlueprintId ) {
+		BlueprintInfo info = getBlueprintInfo( shipBlueprintId );
+		return ( info != null ? info.layoutId : null );
+	}
+
+	@Override
+	public synchronized int getSystemRoomCount( String shipBlueprintId, SystemType systemType ) {
+		BlueprintInfo info = getBlueprintInfo( shipBlueprintId );
+		if ( info == null ) return 0;
+
+		Integer count = info.systemRoomCounts.get( systemType );
+		return ( count != null ? count.intValue() : 0 );
+	}
+
+	@Override
+	public synchronized ShipLayout getShipLayout( String shipLayoutId ) {
+		ShipLayout result = shipLayouts.get( shipLayoutId );
+
+		if ( result == null ) {  // Wasn't cached; try parsing it.
+			InputStream in = null;
+			try {
+				in = dataPack.getInputStream( "data/"+ shipLayoutId +".txt" );
+				result = datParser.readLayout( in, shipLayoutId +".txt" );
+				shipLayouts.put( shipLayoutId, result );
+			}
+			catch ( FileNotFoundException e ) {
+				log.error( "No ShipLayout found for id: "+ shipLayoutId );
+			}
+			catch ( IOException e ) {
+				log.error( "An error occurred while parsing ShipLayout: "+ shipLayoutId, e );
+			}
+			finally {
+				try {if ( in != null ) in.close();}
+				catch ( IOException f ) {}
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public synchronized String getDroneType( String droneId ) {
+		scanBlueprintsFiles();
+
+		String result = droneTypeMap.get( droneId );
+		if ( result == null ) {
+			log.error( "No DroneBlueprint found for id: "+ droneId );
+		}
+		return result;
+	}
+
+
+	private BlueprintInfo getBlueprintInfo( String shipBlueprintId ) {
+		scanBlueprintsFiles();
+
+		BlueprintInfo result = blueprintInfoMap.get( shipBlueprintId );
+		if ( result == null ) {
+			log.error( "No ShipBlueprint found for id: "+ shipBlueprintId );
+		}
+		return result;
+	}
+
+	/**
+	 * Scans the blueprints files, if that hasn't been done already.
+	 */
+	private void scanBlueprintsFiles() {
+		if ( blueprintInfoMap == null ) {
+			blueprintInfoMap = new HashMap<String, BlueprintInfo>();
+			droneTypeMap = new HashMap<String, String>();
+
+			for ( String fileName : blueprintsFileNames ) {
+				String innerPath = "data/"+ fileName;
+				if ( !dataPack.contains( innerPath ) ) continue;
+
+				InputStream in = null;
+				try {
+					in = dataPack.getInputStream( innerPath );
+					String text = COMMENT_PTN.matcher( TextUtilities.decodeText( in, fileName ).text ).replaceAll( "" );
+					scanShipBlueprints( text, blueprintInfoMap );
+					scanDroneBlueprints( text, droneTypeMap );
+				}
+				catch ( IOException e ) {
+					log.error( "An error occurred while scanning blueprints: "+ fileName, e );
+				}
+				finally {
+					try {if ( in != null ) in.close();}
+					catch ( IOException f ) {}
+				}
+			}
+			log.debug( String.format( "Indexed %d ship blueprints, %d drone blueprints", blueprintInfoMap.size(), droneTypeMap.size() ) );
+		}
+	}
+
+	/**
+	 * Finds shipBlueprint tags in XML text, adding their info to a map.
+	 *
+	 * Comments must already have been removed. Within each blueprint's
+	 * systemList, any element named after a SystemType counts as a room
+	 * for that system.
+	 */
+	private static void scanShipBlueprints( String text, Map<String, BlueprintInfo> resultMap ) {
+		Matcher blueprintMatcher = BLUEPRINT_PTN.matcher( text );
+		while ( blueprintMatcher.find() ) {
+			String id = null;
+			String layoutId = null;
+
+			Matcher attrMatcher = ATTRIBUTE_PTN.matcher( blueprintMatcher.group( 1 ) );
+			while ( attrMatcher.find() ) {
+				if ( "name".equals( attrMatcher.group( 1 ) ) ) id = attrMatcher.group( 2 );
+				else if ( "layout".equals( attrMatcher.group( 1 ) ) ) layoutId = attrMatcher.group( 2 );
+			}
+			if ( id == null ) continue;
+
+			BlueprintInfo info = new BlueprintInfo( layoutId );
+
+			if ( blueprintMatcher.group( 2 ).length() == 0 ) {  // Not self-closing.
+				int bodyEnd = text.indexOf( "</shipBlueprint>", blueprintMatcher.end() );
+				if ( bodyEnd == -1 ) bodyEnd = text.length();
+				String body = text.substring( blueprintMatcher.end(), bodyEnd );
+
+				Matcher systemListMatcher = SYSTEM_LIST_PTN.matcher( body );
+				if ( systemListMatcher.find() ) {
+					Matcher elementMatcher = ELEMENT_PTN.matcher( systemListMatcher.group( 1 ) );
+					while ( elementMatcher.find() ) {
+						SystemType systemType = SystemType.findById( elementMatcher.group( 1 ) );
+						if ( systemType == null ) continue;
+
+						Integer count = info.systemRoomCounts.get( systemType );
+						info.systemRoomCounts.put( systemType, (count != null ? count+1 : 1) );
+					}
+				}
+			}
+
+			resultMap.put( id, info );
+		}
+	}
+
+	/**
+	 * Finds droneBlueprint tags in XML text, mapping their names to types.
+	 *
+	 * Comments must already have been removed.
+	 */
+	private static void scanDroneBlueprints( String text, Map<String, String> resultMap ) {
+		Matcher blueprintMatcher = DRONE_BLUEPRINT_PTN.matcher( text );
+		while ( blueprintMatcher.find() ) {
+			if ( blueprintMatcher.group( 2 ).length() > 0 ) continue;  // Self-closing, no type.
+
+			String id = null;
+			Matcher attrMatcher = ATTRIBUTE_PTN.matcher( blueprintMatcher.group( 1 ) );
+			while ( attrMatcher.find() ) {
+				if ( "name".equals( attrMatcher.group( 1 ) ) ) id = attrMatcher.group( 2 );
+			}
+			if ( id == null ) continue;
+
+			int bodyEnd = text.indexOf( "</droneBlueprint>", blueprintMatcher.end() );
+			if ( bodyEnd == -1 ) bodyEnd = text.length();
+			String body = text.substring( blueprintMatcher.end(), bodyEnd );
+
+			Matcher typeMatcher = TYPE_PTN.matcher( body );
+			if ( typeMatcher.find() ) {
+				resultMap.put( id, typeMatcher.group( 1 ) );
+			}
+		}
+	}
+
+
+
+	private static class BlueprintInfo {
+		public final String layoutId;
+		public final EnumMap<SystemType, Integer> systemRoomCounts = new EnumMap<SystemType, Integer>( SystemType.class );
+
+		public BlueprintInfo( String layoutId ) {
+			this.layoutId = layoutId;
+		}
+	}
+}
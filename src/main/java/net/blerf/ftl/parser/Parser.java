@@ -5,11 +5,44 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 
+/**
+ * Primitive decoding shared by the binary parsers.
+ *
+ * Parsers hold no per-instance state, so a single instance may be used
+ * from several threads at once. Scratch space for reads and writes comes
+ * from a per-thread buffer, which is reused rather than allocated for
+ * every field.
+ *
+ * Short strings are looked up in a shared cache before a new String is
+ * made. Saved games repeat a small set of ids (blueprints, weapons, crew
+ * races, state vars) many times, so most of them will be hits.
+ */
 public class Parser {
 
-	private byte[] intbuf = new byte[4];
+	/** Strings longer than this are decoded without consulting the cache. */
+	private static final int CACHED_STRING_MAX_LENGTH = 64;
+
+	/** Slot count in the string cache. Must be a power of two. */
+	private static final int STRING_CACHE_SIZE = 2048;
+
+	/**
+	 * Recently decoded short strings, indexed by hash.
+	 *
+	 * Slots are read and replaced without locking. That's harmless: Strings
+	 * are immutable, and a lost update only costs a later cache miss.
+	 */
+	private static final String[] stringCache = new String[STRING_CACHE_SIZE];
+
+	private static final ThreadLocal<Scratch> scratchLocal = new ThreadLocal<Scratch>() {
+		@Override
+		protected Scratch initialValue() {
+			return new Scratch();
+		}
+	};
+
 
 	/**
 	 * Reads a little-endian int from a stream, as a boolean.
@@ -35,36 +68,34 @@ public class Parser {
 	 * Reads a little-endian int from a stream.
 	 */
 	protected int readInt( InputStream in ) throws IOException {
-		int numRead = 0;
-		int offset = 0;
-		while ( offset < intbuf.length && (numRead = in.read( intbuf, offset, intbuf.length )) >= 0 ) {
-			offset += numRead;
-		}
-		if ( offset < intbuf.length ) {
-			throw new IOException( "End of stream reached before reading enough bytes for an int" );
+		if ( in instanceof ByteBufferInputStream ) {
+			ByteBuffer buf = ((ByteBufferInputStream)in).getBuffer();
+			if ( buf.remaining() < 4 ) {
+				throw new IOException( "End of stream reached before reading enough bytes for an int" );
+			}
+			return buf.getInt();
 		}
 
-		int v = 0;
-		for ( int i = 0; i < intbuf.length; i++ ) {
-			v |= (((int)intbuf[i]) & 0xff) << (i*8);
-		}
+		byte[] intbuf = scratchLocal.get().bytes( 4 );
+		readFully( in, intbuf, 4, "End of stream reached before reading enough bytes for an int" );
 
-		return v;
+		return (intbuf[0] & 0xff) | (intbuf[1] & 0xff) << 8 | (intbuf[2] & 0xff) << 16 | (intbuf[3] & 0xff) << 24;
 	}
 
 	/**
 	 * Writes a little-endian int to a stream.
 	 */
 	protected void writeInt( OutputStream out, int value ) throws IOException {
-		for ( int i = 0; i < intbuf.length; i++ ) {
-			intbuf[i] = (byte)(value >> (i*8));
-		}
+		byte[] intbuf = scratchLocal.get().bytes( 4 );
+		putInt( intbuf, 0, value );
 
-		out.write( intbuf );
+		out.write( intbuf, 0, 4 );
 	}
 
 	/**
 	 * Reads a little-endian int length + ascii string from a stream.
+	 *
+	 * Non-ascii bytes decode as U+FFFD, the replacement character.
 	 */
 	protected String readString( InputStream in ) throws IOException {
 		int length = readInt( in );
@@ -73,10 +104,29 @@ public class Parser {
 		// But InputStreams don't universally track position/size.
 		// And available() might only mean blocking, not the end.
 		// So try some special cases...
-		if ( in instanceof FileInputStream ) {
+		if ( in instanceof ByteBufferInputStream ) {
+			ByteBuffer buf = ((ByteBufferInputStream)in).getBuffer();
+			if ( length < 0 || length > buf.remaining() ) {
+				throw new IOException( String.format( "Expected string length (%d) would extend beyond the end of the stream, from current position (%d)", length, buf.position() ) );
+			}
+
+			String result;
+			if ( buf.hasArray() ) {
+				// Decode in place, without copying.
+				result = decodeAscii( buf.array(), buf.arrayOffset() + buf.position(), length );
+				buf.position( buf.position() + length );
+			}
+			else {
+				byte[] strBytes = scratchLocal.get().bytes( length );
+				buf.get( strBytes, 0, length );
+				result = decodeAscii( strBytes, 0, length );
+			}
+			return result;
+		}
+		else if ( in instanceof FileInputStream ) {
 			FileInputStream fin = (FileInputStream)in;
 			long position = fin.getChannel().position();
-			if ( position + length  > fin.getChannel().size() ) {
+			if ( length < 0 || position + length  > fin.getChannel().size() ) {
 				throw new IOException( String.format( "Expected string length (%d) would extend beyond the end of the stream, from current position (%d)", length, position ) );
 			}
 		}
@@ -86,26 +136,133 @@ public class Parser {
 			if ( in instanceof ByteArrayInputStream ) {
 				remaining = ((ByteArrayInputStream)in).available();
 			}
-			if ( remaining != -1 && length > remaining ) {
+			if ( length < 0 || (remaining != -1 && length > remaining) ) {
 				throw new IOException( String.format( "Expected string length (%d) would extend beyond the end of the stream", length ) );
 			}
 		}
 
+		byte[] strBytes = scratchLocal.get().bytes( length );
+		readFully( in, strBytes, length, String.format( "End of stream reached before reading enough bytes for string of length %d", length ) );
+
+		return decodeAscii( strBytes, 0, length );
+	}
+
+	/**
+	 * Writes a little-endian int length + ascii string to a stream.
+	 *
+	 * Non-ascii chars are written as '?'.
+	 */
+	protected void writeString( OutputStream out, String str ) throws IOException {
+		int length = str.length();
+		byte[] strBytes = scratchLocal.get().bytes( 4 + length );
+		putInt( strBytes, 0, length );
+
+		for ( int i=0; i < length; i++ ) {
+			char c = str.charAt( i );
+			strBytes[4+i] = (byte)(( c < 0x80 ) ? c : '?');
+		}
+
+		out.write( strBytes, 0, 4 + length );
+	}
+
+
+	/**
+	 * Fills the start of an array from a stream, or throws an IOException.
+	 */
+	private static void readFully( InputStream in, byte[] dst, int length, String eofMessage ) throws IOException {
 		int numRead = 0;
 		int offset = 0;
-		byte[] strBytes = new byte[length];
-		while ( offset < strBytes.length && (numRead = in.read(strBytes, offset, strBytes.length)) >= 0 )
+		while ( offset < length && (numRead = in.read( dst, offset, length - offset )) >= 0 ) {
 			offset += numRead;
+		}
+		if ( offset < length ) {
+			throw new IOException( eofMessage );
+		}
+	}
+
+	private static void putInt( byte[] dst, int offset, int value ) {
+		dst[offset]   = (byte)value;
+		dst[offset+1] = (byte)(value >> 8);
+		dst[offset+2] = (byte)(value >> 16);
+		dst[offset+3] = (byte)(value >> 24);
+	}
 
-		if ( offset < strBytes.length ) {
-			throw new IOException( String.format( "End of stream reached before reading enough bytes for string of length %d", length ) );
+	/**
+	 * Returns a String for a range of ascii bytes, cached if it's short.
+	 */
+	private static String decodeAscii( byte[] src, int offset, int length ) {
+		if ( length == 0 ) return "";
+
+		if ( length > CACHED_STRING_MAX_LENGTH ) {
+			return newAsciiString( src, offset, length );
 		}
 
-		return new String( strBytes, "US-ASCII" );
+		int hash = 0;
+		for ( int i=0; i < length; i++ ) {
+			hash = 31 * hash + src[offset+i];
+		}
+		hash ^= (hash >>> 16);
+		int slot = hash & (STRING_CACHE_SIZE - 1);
+
+		String cached = stringCache[slot];
+		if ( cached != null && asciiEquals( cached, src, offset, length ) ) {
+			return cached;
+		}
+
+		String result = newAsciiString( src, offset, length );
+		stringCache[slot] = result;
+		return result;
 	}
 
-	protected void writeString( OutputStream out, String str ) throws IOException {
-		writeInt( out, str.length() );
-		out.write( str.getBytes( "US-ASCII" ) );
+	private static boolean asciiEquals( String s, byte[] src, int offset, int length ) {
+		if ( s.length() != length ) return false;
+
+		for ( int i=0; i < length; i++ ) {
+			if ( s.charAt( i ) != asciiChar( src[offset+i] ) ) return false;
+		}
+		return true;
+	}
+
+	private static String newAsciiString( byte[] src, int offset, int length ) {
+		char[] chars = scratchLocal.get().chars( length );
+		for ( int i=0; i < length; i++ ) {
+			chars[i] = asciiChar( src[offset+i] );
+		}
+		return new String( chars, 0, length );
+	}
+
+	private static char asciiChar( byte b ) {
+		return ( b >= 0 ) ? (char)b : '\uFFFD';
+	}
+
+
+
+	/**
+	 * Per-thread buffers, grown as needed and kept for reuse.
+	 *
+	 * Requests beyond RETAINED_MAX_LENGTH get a temporary array instead, so
+	 * one freak string won't pin a large buffer to the thread.
+	 */
+	private static class Scratch {
+		private static final int RETAINED_MAX_LENGTH = 64 * 1024;
+
+		private byte[] bytes = new byte[256];
+		private char[] chars = new char[256];
+
+		public byte[] bytes( int minLength ) {
+			if ( bytes.length < minLength ) {
+				if ( minLength > RETAINED_MAX_LENGTH ) return new byte[minLength];
+				bytes = new byte[Math.max( minLength, Math.min( bytes.length * 2, RETAINED_MAX_LENGTH ) )];
+			}
+			return bytes;
+		}
+
+		public char[] chars( int minLength ) {
+			if ( chars.length < minLength ) {
+				if ( minLength > RETAINED_MAX_LENGTH ) return new char[minLength];
+				chars = new char[Math.max( minLength, Math.min( chars.length * 2, RETAINED_MAX_LENGTH ) )];
+			}
+			return chars;
+		}
 	}
 }
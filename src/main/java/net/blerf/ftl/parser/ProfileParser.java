@@ -29,8 +29,27 @@ public class ProfileParser extends Parser {
 
 	private static final Logger log = LoggerFactory.getLogger( ProfileParser.class );
 
+	private final DataManager dataManager;
+
 
 	public ProfileParser() {
+		this( null );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataManager the resources to look up achievements in, or null for the default instance
+	 */
+	public ProfileParser( DataManager dataManager ) {
+		this.dataManager = dataManager;
+	}
+
+	/**
+	 * Returns the DataManager this parser was given, or the default instance.
+	 */
+	public DataManager getDataManager() {
+		return ( dataManager != null ? dataManager : DataManager.get() );
 	}
 
 	public Profile readProfile( File savFile ) throws IOException {
@@ -140,7 +159,7 @@ public class ProfileParser extends Parser {
 				throw new IOException( String.format( "Unsupported difficulty flag for achievement %d (\"%s\"): %d", i, achId, diffFlag ) );
 			}
 
-			Achievement ach = DataManager.get().getAchievement( achId );
+			Achievement ach = getDataManager().getAchievement( achId );
 			if ( ach == null ) {
 				log.warn( "Skipping unsupported achievement id: "+ achId );
 				continue;
@@ -209,7 +228,7 @@ public class ProfileParser extends Parser {
 
 		for ( AchievementRecord rec : achievements ) {
 
-			Achievement ach = DataManager.get().getAchievement( rec.getAchievementId() );
+			Achievement ach = getDataManager().getAchievement( rec.getAchievementId() );
 			if ( ach == null ) {
 				log.warn( "Omitting unsupported achievement id: "+ rec.getAchievementId() );
 				continue;
@@ -251,7 +270,7 @@ public class ProfileParser extends Parser {
 			writeInt( out, diffFlag );
 
 			if ( fileFormat == 9 ) {
-				boolean needsVariantFlags = DataManager.get().getAchievement( rec.getAchievementId() ).isVictory();
+				boolean needsVariantFlags = getDataManager().getAchievement( rec.getAchievementId() ).isVictory();
 
 				if ( needsVariantFlags ) {
 					Difficulty[] variantDiffs = new Difficulty[3];
@@ -0,0 +1,87 @@
+package net.blerf.ftl.parser;
+
+
+/**
+ * One difference between two SavedGameStates.
+ *
+ * The path names the fields, list indices, and map keys that lead to the
+ * value, from the SavedGameState (e.g., "playerShipState.crewList[2].health").
+ *
+ * Values are the objects themselves, not copies. A whole object that was
+ * added or removed (a crew member, a beacon's store) is a single change.
+ *
+ * @see SavedGameDiffer
+ */
+public class SavedGameChange {
+
+	private final ChangeType type;
+	private final Category category;
+	private final String path;
+	private final Object oldValue;
+	private final Object newValue;
+
+
+	public SavedGameChange( ChangeType type, Category category, String path, Object oldValue, Object newValue ) {
+		this.type = type;
+		this.category = category;
+		this.path = path;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+
+	public ChangeType getType() { return type; }
+
+	/**
+	 * Returns the innermost part of the game that the path passes through.
+	 */
+	public Category getCategory() { return category; }
+
+	public String getPath() { return path; }
+
+	/**
+	 * Returns the value before, or null if ADDED.
+	 */
+	public Object getOldValue() { return oldValue; }
+
+	/**
+	 * Returns the value after, or null if REMOVED.
+	 */
+	public Object getNewValue() { return newValue; }
+
+
+	@Override
+	public String toString() {
+		switch ( type ) {
+			case ADDED: return String.format( "%-11s + %s: %s", category, path, describe( newValue ) );
+			case REMOVED: return String.format( "%-11s - %s: %s", category, path, describe( oldValue ) );
+			default: return String.format( "%-11s ~ %s: %s -> %s", category, path, describe( oldValue ), describe( newValue ) );
+		}
+	}
+
+	/**
+	 * Returns a short description of a value.
+	 *
+	 * Game objects are named by class, since their toString()s are long (and
+	 * some need a DataManager).
+	 */
+	private static String describe( Object o ) {
+		if ( o == null ) return "null";
+		if ( o instanceof String ) return "\""+ o +"\"";
+		if ( o instanceof Number || o instanceof Boolean || o instanceof Enum ) return o.toString();
+		if ( o instanceof byte[] ) return String.format( "(%d bytes)", ((byte[])o).length );
+		if ( o instanceof int[] ) return String.format( "(%d ints)", ((int[])o).length );
+		if ( o.getClass().getName().startsWith( "net.blerf.ftl." ) ) return "("+ o.getClass().getSimpleName() +")";
+		return o.toString();
+	}
+
+
+
+	public static enum ChangeType { ADDED, REMOVED, CHANGED }
+
+	/**
+	 * Broad areas of a saved game, for filtering changes.
+	 */
+	public static enum Category {
+		GAME, STATE_VARS, SHIP, CREW, SYSTEMS, ROOMS, WEAPONS, DRONES, BEACONS, STORE, PROJECTILES
+	}
+}
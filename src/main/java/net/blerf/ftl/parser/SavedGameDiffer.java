@@ -0,0 +1,393 @@
+package net.blerf.ftl.parser;
+
+import java.awt.Point;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.blerf.ftl.parser.SavedGameChange;
+import net.blerf.ftl.parser.SavedGameChange.Category;
+import net.blerf.ftl.parser.SavedGameChange.ChangeType;
+import net.blerf.ftl.parser.SavedGameParser.SavedGameSection;
+import net.blerf.ftl.parser.SavedGameParser.SavedGameState;
+
+
+/**
+ * Finds the differences between two SavedGameStates.
+ *
+ * Both object graphs are walked together, once, field by field. Lists are
+ * compared by index, and maps by key. Strings, numbers, enums and such are
+ * compared by equals(). Any other class from this editor is descended
+ * into.
+ *
+ * Each class's fields are looked up by reflection once, then cached for
+ * every differ. A differ holds no state between calls, so one instance may
+ * be used from several threads.
+ *
+ * Optionally, sections can be compared by the raw bytes they were read
+ * from, without walking their objects at all.
+ *
+ * Usage:
+ *   SavedGameDiffer differ = new SavedGameDiffer();
+ *   differ.setRawSectionsCompared( true );
+ *   for ( SavedGameChange change : differ.diff( oldState, newState ) ) {
+ *     ...
+ *   }
+ *
+ * @see SavedGameChange
+ */
+public class SavedGameDiffer {
+
+	private static final Map<String, Category> FIELD_CATEGORIES = new HashMap<String, Category>();
+	private static final Map<String, SavedGameSection> FIELD_SECTIONS = new HashMap<String, SavedGameSection>();
+	private static final Set<String> SKIPPED_FIELDS = new HashSet<String>();
+
+	static {
+		FIELD_CATEGORIES.put( "SavedGameState.stateVars", Category.STATE_VARS );
+		FIELD_CATEGORIES.put( "SavedGameState.playerShipState", Category.SHIP );
+		FIELD_CATEGORIES.put( "SavedGameState.nearbyShipState", Category.SHIP );
+		FIELD_CATEGORIES.put( "SavedGameState.beaconList", Category.BEACONS );
+		FIELD_CATEGORIES.put( "SavedGameState.projectileList", Category.PROJECTILES );
+		FIELD_CATEGORIES.put( "ShipState.startingCrewList", Category.CREW );
+		FIELD_CATEGORIES.put( "ShipState.crewList", Category.CREW );
+		FIELD_CATEGORIES.put( "ShipState.systemsMap", Category.SYSTEMS );
+		FIELD_CATEGORIES.put( "ShipState.extendedSystemInfoList", Category.SYSTEMS );
+		FIELD_CATEGORIES.put( "ShipState.roomList", Category.ROOMS );
+		FIELD_CATEGORIES.put( "ShipState.breachMap", Category.ROOMS );
+		FIELD_CATEGORIES.put( "ShipState.doorMap", Category.ROOMS );
+		FIELD_CATEGORIES.put( "ShipState.lockdownCrystalList", Category.ROOMS );
+		FIELD_CATEGORIES.put( "ShipState.weaponList", Category.WEAPONS );
+		FIELD_CATEGORIES.put( "ShipState.droneList", Category.DRONES );
+		FIELD_CATEGORIES.put( "ShipState.standaloneDroneList", Category.DRONES );
+		FIELD_CATEGORIES.put( "BeaconState.store", Category.STORE );
+		FIELD_CATEGORIES.put( "WeaponModuleState.pendingProjectiles", Category.PROJECTILES );
+
+		FIELD_SECTIONS.put( "SavedGameState.playerShipState", SavedGameSection.PLAYER_SHIP );
+		FIELD_SECTIONS.put( "SavedGameState.beaconList", SavedGameSection.BEACONS );
+		FIELD_SECTIONS.put( "SavedGameState.nearbyShipState", SavedGameSection.NEARBY_SHIP );
+		FIELD_SECTIONS.put( "SavedGameState.projectileList", SavedGameSection.PROJECTILES );
+		FIELD_SECTIONS.put( "SavedGameState.rebelFlagshipState", SavedGameSection.REBEL_FLAGSHIP );
+
+		// Bookkeeping for incremental writes, not game state.
+		SKIPPED_FIELDS.add( "SavedGameState.originalBytes" );
+		SKIPPED_FIELDS.add( "SavedGameState.originalRangeMap" );
+		SKIPPED_FIELDS.add( "SavedGameState.dirtySections" );
+	}
+
+	private static final ConcurrentMap<Class<?>, FieldInfo[]> fieldInfoCache = new ConcurrentHashMap<Class<?>, FieldInfo[]>();
+
+	private boolean rawSectionsCompared = false;
+
+
+	public SavedGameDiffer() {
+	}
+
+	/**
+	 * Toggles comparing sections by their original bytes.
+	 *
+	 * If true, when both states were read from a buffer, in the same file
+	 * format, a section whose bytes are identical in both is skipped. And if
+	 * the files are identical overall, there's nothing to walk at all.
+	 *
+	 * This assumes neither state was modified after it was read, except as
+	 * flagged with markSectionDirty(), as for incremental writes. Changes to
+	 * the small fields between sections would go unnoticed.
+	 *
+	 * @see SavedGameParser#writeSavedGame(java.io.OutputStream, SavedGameState, boolean)
+	 */
+	public void setRawSectionsCompared( boolean b ) {
+		rawSectionsCompared = b;
+	}
+
+	public boolean isRawSectionsCompared() { return rawSectionsCompared; }
+
+
+	/**
+	 * Returns every difference from one game state to another.
+	 */
+	public List<SavedGameChange> diff( SavedGameState oldState, SavedGameState newState ) {
+		Set<SavedGameSection> skippedSections = EnumSet.noneOf( SavedGameSection.class );
+
+		if ( rawSectionsCompared && isRawComparable( oldState, newState ) ) {
+			if ( !oldState.hasDirtySections() && !newState.hasDirtySections() ) {
+				if ( Arrays.equals( oldState.getOriginalBytes(), newState.getOriginalBytes() ) ) {
+					return new ArrayList<SavedGameChange>( 0 );
+				}
+			}
+			skippedSections = EnumSet.complementOf( EnumSet.copyOf( diffRawSections( oldState, newState ) ) );
+		}
+
+		Walk walk = new Walk( skippedSections );
+		try {
+			walk.compareFields( oldState, newState, Category.GAME );
+		}
+		catch ( IllegalAccessException e ) {
+			throw new RuntimeException( "Could not read a game state field", e );
+		}
+		return walk.changes;
+	}
+
+	/**
+	 * Returns the sections whose original bytes differ between two states.
+	 *
+	 * No objects are walked. A section is also returned if it can't be
+	 * compared: absent, marked dirty, or from states that weren't read from
+	 * a buffer in the same file format.
+	 *
+	 * FTL's saved games don't record section lengths, so the states must
+	 * still have been parsed to know where each section was.
+	 */
+	public static Set<SavedGameSection> diffRawSections( SavedGameState oldState, SavedGameState newState ) {
+		Set<SavedGameSection> result = EnumSet.allOf( SavedGameSection.class );
+		if ( !isRawComparable( oldState, newState ) ) return result;
+
+		byte[] oldBytes = oldState.getOriginalBytes();
+		byte[] newBytes = newState.getOriginalBytes();
+
+		for ( SavedGameSection section : SavedGameSection.values() ) {
+			if ( oldState.isSectionDirty( section ) || newState.isSectionDirty( section ) ) continue;
+
+			boolean same = true;
+			for ( int i=0; same; i++ ) {
+				int[] oldRange = oldState.getOriginalRange( section, i );
+				int[] newRange = newState.getOriginalRange( section, i );
+				if ( oldRange == null || newRange == null ) {
+					same = ( oldRange == newRange );
+					break;
+				}
+				same = rangesEqual( oldBytes, oldRange, newBytes, newRange );
+			}
+			if ( same ) result.remove( section );
+		}
+		return result;
+	}
+
+	/**
+	 * Returns true if both states' original bytes can be compared.
+	 *
+	 * Sections are decoded differently depending on format and AE content.
+	 */
+	private static boolean isRawComparable( SavedGameState oldState, SavedGameState newState ) {
+		if ( oldState.getOriginalBytes() == null || newState.getOriginalBytes() == null ) return false;
+		if ( oldState.getFileFormat() != newState.getFileFormat() ) return false;
+		if ( oldState.isDLCEnabled() != newState.isDLCEnabled() ) return false;
+		return true;
+	}
+
+	private static boolean rangesEqual( byte[] aBytes, int[] aRange, byte[] bBytes, int[] bRange ) {
+		int len = aRange[1] - aRange[0];
+		if ( len != bRange[1] - bRange[0] ) return false;
+
+		for ( int i=0; i < len; i++ ) {
+			if ( aBytes[aRange[0] + i] != bBytes[bRange[0] + i] ) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a class's instance fields, superclasses' first.
+	 */
+	private static FieldInfo[] getFieldInfos( Class<?> c ) {
+		FieldInfo[] result = fieldInfoCache.get( c );
+		if ( result != null ) return result;
+
+		List<Class<?>> lineage = new ArrayList<Class<?>>();
+		for ( Class<?> k=c; k != null && k != Object.class; k=k.getSuperclass() ) {
+			lineage.add( 0, k );
+		}
+
+		List<FieldInfo> infos = new ArrayList<FieldInfo>();
+		for ( Class<?> k : lineage ) {
+			for ( Field f : k.getDeclaredFields() ) {
+				if ( Modifier.isStatic( f.getModifiers() ) || f.isSynthetic() ) continue;
+
+				String key = k.getSimpleName() +"."+ f.getName();
+				if ( SKIPPED_FIELDS.contains( key ) ) continue;
+
+				f.setAccessible( true );
+				infos.add( new FieldInfo( f, FIELD_CATEGORIES.get( key ), FIELD_SECTIONS.get( key ) ) );
+			}
+		}
+		result = infos.toArray( new FieldInfo[infos.size()] );
+
+		FieldInfo[] prev = fieldInfoCache.putIfAbsent( c, result );
+		return ( prev != null ? prev : result );
+	}
+
+	/**
+	 * Returns true if objects of a class should be compared field by field.
+	 */
+	private static boolean isWalkable( Class<?> c ) {
+		return ( c.getName().startsWith( "net.blerf.ftl." ) && !Enum.class.isAssignableFrom( c ) );
+	}
+
+
+
+	private static class FieldInfo {
+		public final Field field;
+		public final Class<?> type;
+		public final String name;
+		public final Category category;
+		public final SavedGameSection section;
+
+
+		public FieldInfo( Field field, Category category, SavedGameSection section ) {
+			this.field = field;
+			this.type = field.getType();
+			this.name = field.getName();
+			this.category = category;
+			this.section = section;
+		}
+	}
+
+
+
+	/**
+	 * The state of a single diff() call.
+	 *
+	 * The current path is kept in one buffer, extended while descending and
+	 * truncated on the way back, so strings are only made for changes.
+	 */
+	private static class Walk {
+		public final List<SavedGameChange> changes = new ArrayList<SavedGameChange>();
+		private final Set<SavedGameSection> skippedSections;
+		private final StringBuilder pathBuf = new StringBuilder();
+
+
+		public Walk( Set<SavedGameSection> skippedSections ) {
+			this.skippedSections = skippedSections;
+		}
+
+		public void compareFields( Object a, Object b, Category category ) throws IllegalAccessException {
+			for ( FieldInfo info : getFieldInfos( a.getClass() ) ) {
+				if ( info.section != null && skippedSections.contains( info.section ) ) continue;
+
+				Field f = info.field;
+				Category fieldCategory = ( info.category != null ? info.category : category );
+				int pathLen = pathBuf.length();
+				if ( pathLen > 0 ) pathBuf.append( '.' );
+				pathBuf.append( info.name );
+
+				if ( info.type == int.class ) {
+					int x = f.getInt( a ), y = f.getInt( b );
+					if ( x != y ) addChange( ChangeType.CHANGED, fieldCategory, x, y );
+				}
+				else if ( info.type == boolean.class ) {
+					boolean x = f.getBoolean( a ), y = f.getBoolean( b );
+					if ( x != y ) addChange( ChangeType.CHANGED, fieldCategory, x, y );
+				}
+				else if ( info.type == long.class ) {
+					long x = f.getLong( a ), y = f.getLong( b );
+					if ( x != y ) addChange( ChangeType.CHANGED, fieldCategory, x, y );
+				}
+				else if ( info.type.isPrimitive() ) {
+					Object x = f.get( a ), y = f.get( b );
+					if ( !x.equals( y ) ) addChange( ChangeType.CHANGED, fieldCategory, x, y );
+				}
+				else {
+					compareValues( f.get( a ), f.get( b ), fieldCategory );
+				}
+
+				pathBuf.setLength( pathLen );
+			}
+		}
+
+		public void compareValues( Object a, Object b, Category category ) throws IllegalAccessException {
+			if ( a == b ) return;
+
+			if ( a == null ) {
+				addChange( ChangeType.ADDED, category, null, b );
+			}
+			else if ( b == null ) {
+				addChange( ChangeType.REMOVED, category, a, null );
+			}
+			else if ( a.getClass() != b.getClass() ) {
+				addChange( ChangeType.CHANGED, category, a, b );
+			}
+			else if ( a instanceof List ) {
+				compareLists( (List<?>)a, (List<?>)b, category );
+			}
+			else if ( a instanceof Map ) {
+				compareMaps( (Map<?, ?>)a, (Map<?, ?>)b, category );
+			}
+			else if ( a instanceof byte[] ) {
+				if ( !Arrays.equals( (byte[])a, (byte[])b ) ) addChange( ChangeType.CHANGED, category, a, b );
+			}
+			else if ( a instanceof int[] ) {
+				if ( !Arrays.equals( (int[])a, (int[])b ) ) addChange( ChangeType.CHANGED, category, a, b );
+			}
+			else if ( isWalkable( a.getClass() ) ) {
+				compareFields( a, b, category );
+			}
+			else if ( !a.equals( b ) ) {
+				addChange( ChangeType.CHANGED, category, a, b );
+			}
+		}
+
+		private void compareLists( List<?> a, List<?> b, Category category ) throws IllegalAccessException {
+			int pathLen = pathBuf.length();
+			int commonSize = Math.min( a.size(), b.size() );
+
+			for ( int i=0; i < commonSize; i++ ) {
+				pathBuf.append( '[' ).append( i ).append( ']' );
+				compareValues( a.get( i ), b.get( i ), category );
+				pathBuf.setLength( pathLen );
+			}
+			for ( int i=commonSize; i < a.size(); i++ ) {
+				pathBuf.append( '[' ).append( i ).append( ']' );
+				addChange( ChangeType.REMOVED, category, a.get( i ), null );
+				pathBuf.setLength( pathLen );
+			}
+			for ( int i=commonSize; i < b.size(); i++ ) {
+				pathBuf.append( '[' ).append( i ).append( ']' );
+				addChange( ChangeType.ADDED, category, null, b.get( i ) );
+				pathBuf.setLength( pathLen );
+			}
+		}
+
+		private void compareMaps( Map<?, ?> a, Map<?, ?> b, Category category ) throws IllegalAccessException {
+			int pathLen = pathBuf.length();
+
+			for ( Map.Entry<?, ?> entry : a.entrySet() ) {
+				appendKey( entry.getKey() );
+				if ( b.containsKey( entry.getKey() ) ) {
+					compareValues( entry.getValue(), b.get( entry.getKey() ), category );
+				} else {
+					addChange( ChangeType.REMOVED, category, entry.getValue(), null );
+				}
+				pathBuf.setLength( pathLen );
+			}
+			for ( Map.Entry<?, ?> entry : b.entrySet() ) {
+				if ( a.containsKey( entry.getKey() ) ) continue;
+
+				appendKey( entry.getKey() );
+				addChange( ChangeType.ADDED, category, null, entry.getValue() );
+				pathBuf.setLength( pathLen );
+			}
+		}
+
+		private void appendKey( Object key ) {
+			pathBuf.append( '[' );
+			if ( key instanceof Point ) {
+				Point p = (Point)key;
+				pathBuf.append( p.x ).append( ',' ).append( p.y );
+			} else {
+				pathBuf.append( key );
+			}
+			pathBuf.append( ']' );
+		}
+
+		private void addChange( ChangeType type, Category category, Object oldValue, Object newValue ) {
+			changes.add( new SavedGameChange( type, category, pathBuf.toString(), oldValue, newValue ) );
+		}
+	}
+}
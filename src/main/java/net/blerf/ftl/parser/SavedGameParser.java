@@ -9,17 +9,25 @@
 package net.blerf.ftl.parser;
 
 import java.awt.Point;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Formatter;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,9 +38,10 @@ import net.blerf.ftl.constants.FTLConstants;
 import net.blerf.ftl.constants.OriginalFTLConstants;
 import net.blerf.ftl.model.ShipLayout;
 import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.DataManagerShipLayoutProvider;
 import net.blerf.ftl.parser.MysteryBytes;
+import net.blerf.ftl.parser.ShipLayoutProvider;
 import net.blerf.ftl.xml.CrewBlueprint;
-import net.blerf.ftl.xml.DroneBlueprint;
 import net.blerf.ftl.xml.ShipBlueprint;
 import net.blerf.ftl.xml.SystemBlueprint;
 import net.blerf.ftl.xml.WeaponBlueprint;
@@ -42,27 +51,77 @@ public class SavedGameParser extends Parser {
 
 	private static final Logger log = LoggerFactory.getLogger( SavedGameParser.class );
 
+	/** Size of the buffer that writes are gathered into. */
+	private static final int WRITE_BUFFER_SIZE = 8 * 1024;
+
+	private final DataManager dataManager;
+	private ShipLayoutProvider shipLayoutProvider;
+
 
 	public SavedGameParser() {
+		this( null );
 	}
 
-	public SavedGameState readSavedGame( File savFile ) throws IOException {
-		SavedGameState gameState = null;
+	/**
+	 * Constructor.
+	 *
+	 * @param dataManager the resources to look up blueprints in, or null for the default instance
+	 */
+	public SavedGameParser( DataManager dataManager ) {
+		this.dataManager = dataManager;
+		shipLayoutProvider = new DataManagerShipLayoutProvider( dataManager );
+	}
 
-		FileInputStream in = null;
-		try {
-			in = new FileInputStream( savFile );
-			gameState = readSavedGame( in );
-		}
-		finally {
-			try {if ( in != null ) in.close();}
-			catch ( IOException e ) {}
-		}
+	/**
+	 * Returns the DataManager this parser was given, or the default instance.
+	 */
+	public DataManager getDataManager() {
+		return ( dataManager != null ? dataManager : DataManager.get() );
+	}
 
-		return gameState;
+	/**
+	 * Sets where ship blueprints' layouts, and drone blueprints' types, are
+	 * looked up, to read and write ships.
+	 *
+	 * By default, that's this parser's DataManager. A lighter provider lets
+	 * saved games be parsed without loading all of FTL's resources.
+	 *
+	 * @see PackShipLayoutProvider
+	 */
+	public void setShipLayoutProvider( ShipLayoutProvider p ) {
+		shipLayoutProvider = p;
+	}
+
+	public ShipLayoutProvider getShipLayoutProvider() { return shipLayoutProvider; }
+
+	/**
+	 * Reads a saved game file.
+	 *
+	 * The whole file is read into memory with a single bulk read, then
+	 * decoded from there.
+	 */
+	public SavedGameState readSavedGame( File savFile ) throws IOException {
+		return readSavedGame( ByteBufferInputStream.readFully( savFile ) );
 	}
 
-	public SavedGameState readSavedGame( FileInputStream in ) throws IOException {
+	/**
+	 * Reads a saved game from a stream.
+	 *
+	 * The stream must be either a FileInputStream or a
+	 * ByteBufferInputStream, in order to detect trailing MysteryBytes.
+	 * The latter decodes from memory and is much faster.
+	 *
+	 * When reading from a ByteBufferInputStream, the original bytes of each
+	 * SavedGameSection are kept, so unmodified sections can be copied
+	 * verbatim when the state is written back.
+	 *
+	 * @see #writeSavedGame(OutputStream, SavedGameState, boolean)
+	 */
+	public SavedGameState readSavedGame( InputStream in ) throws IOException {
+		if ( !(in instanceof ByteBufferInputStream) && !(in instanceof FileInputStream) ) {
+			throw new IOException( "Unsupported stream type for a SAVED GAME: "+ in.getClass().getName() );
+		}
+
 		InputStream layoutStream = null;
 		try {
 			SavedGameState gameState = new SavedGameState();
@@ -121,8 +180,10 @@ public class SavedGameParser extends Parser {
 				gameState.setStateVar( stateVarId, stateVarValue );
 			}
 
+			int sectionStart = streamPosition( in );
 			ShipState playerShipState = readShip( in, false, fileFormat, gameState.isDLCEnabled() );
 			gameState.setPlayerShipState( playerShipState );
+			gameState.addOriginalRange( SavedGameSection.PLAYER_SHIP, sectionStart, streamPosition( in ) );
 
 			// Nearby ships have no cargo, so this isn't in readShip().
 			int cargoCount = readInt( in );
@@ -175,10 +236,12 @@ public class SavedGameParser extends Parser {
 
 			gameState.setSectorIsHiddenCrystalWorlds( readBool( in ) );
 
+			sectionStart = streamPosition( in );
 			int beaconCount = readInt( in );
 			for ( int i=0; i < beaconCount; i++ ) {
 				gameState.addBeacon( readBeacon( in, fileFormat ) );
 			}
+			gameState.addOriginalRange( SavedGameSection.BEACONS, sectionStart, streamPosition( in ) );
 
 			int questEventCount = readInt( in );
 			for ( int i=0; i < questEventCount; i++ ) {
@@ -198,12 +261,16 @@ public class SavedGameParser extends Parser {
 
 				boolean shipNearby = readBool( in );
 				if ( shipNearby ) {
+					sectionStart = streamPosition( in );
 					ShipState nearbyShipState = readShip( in, true, fileFormat, gameState.isDLCEnabled() );
 					gameState.setNearbyShipState( nearbyShipState );
+					gameState.addOriginalRange( SavedGameSection.NEARBY_SHIP, sectionStart, streamPosition( in ) );
 				}
 
+				sectionStart = streamPosition( in );
 				RebelFlagshipState flagshipState = readRebelFlagship( in );
 				gameState.setRebelFlagshipState( flagshipState );
+				gameState.addOriginalRange( SavedGameSection.REBEL_FLAGSHIP, sectionStart, streamPosition( in ) );
 			}
 			else if ( fileFormat == 7 || fileFormat == 8 || fileFormat == 9 ) {
 				// Current beaconId was set earlier.
@@ -217,8 +284,10 @@ public class SavedGameParser extends Parser {
 				if ( shipNearby ) {
 					gameState.setRebelFlagshipNearby( readBool( in ) );
 
+					sectionStart = streamPosition( in );
 					ShipState nearbyShipState = readShip( in, true, fileFormat, gameState.isDLCEnabled() );
 					gameState.setNearbyShipState( nearbyShipState );
+					gameState.addOriginalRange( SavedGameSection.NEARBY_SHIP, sectionStart, streamPosition( in ) );
 
 					gameState.setNearbyShipAI( readNearbyShipAI( in ) );
 				}
@@ -227,15 +296,21 @@ public class SavedGameParser extends Parser {
 
 				// Flagship state is set much later.
 
+				sectionStart = streamPosition( in );
 				int projectileCount = readInt( in );
 				for ( int i=0; i < projectileCount; i++ ) {
 					gameState.addProjectile( readProjectile( in ) );
 				}
+				gameState.addOriginalRange( SavedGameSection.PROJECTILES, sectionStart, streamPosition( in ) );
 
+				sectionStart = streamPosition( in );
 				readExtendedShipInfo( in, gameState.getPlayerShipState(), fileFormat );
+				gameState.addOriginalRange( SavedGameSection.PLAYER_SHIP, sectionStart, streamPosition( in ) );
 
 				if ( gameState.getNearbyShipState() != null ) {
+					sectionStart = streamPosition( in );
 					readExtendedShipInfo( in, gameState.getNearbyShipState(), fileFormat );
+					gameState.addOriginalRange( SavedGameSection.NEARBY_SHIP, sectionStart, streamPosition( in ) );
 				}
 
 				gameState.setUnknownNu( readInt( in ) );
@@ -246,6 +321,7 @@ public class SavedGameParser extends Parser {
 
 				gameState.setAutofire( readBool( in ) );
 
+				sectionStart = streamPosition( in );
 				RebelFlagshipState flagship = new RebelFlagshipState();
 
 				flagship.setUnknownAlpha( readInt( in ) );
@@ -259,15 +335,35 @@ public class SavedGameParser extends Parser {
 				}
 
 				gameState.setRebelFlagshipState( flagship );
+				gameState.addOriginalRange( SavedGameSection.REBEL_FLAGSHIP, sectionStart, streamPosition( in ) );
 			}
 
 			// The stream should end here.
 
-			int bytesRemaining = (int)(in.getChannel().size() - in.getChannel().position());
+			int bytesRemaining = 0;
+			if ( in instanceof ByteBufferInputStream ) {
+				bytesRemaining = ((ByteBufferInputStream)in).getBuffer().remaining();
+			}
+			else if ( in instanceof FileInputStream ) {
+				FileInputStream fin = (FileInputStream)in;
+				bytesRemaining = (int)(fin.getChannel().size() - fin.getChannel().position());
+			}
 			if ( bytesRemaining > 0 ) {
 				gameState.addMysteryBytes( new MysteryBytes(in, bytesRemaining) );
 			}
 
+			if ( in instanceof ByteBufferInputStream ) {
+				// Keep a copy, in case the caller reuses the buffer.
+				ByteBuffer buf = ((ByteBufferInputStream)in).getBuffer().duplicate();
+				buf.clear();
+				byte[] originalBytes = new byte[buf.remaining()];
+				buf.get( originalBytes );
+				gameState.setOriginalBytes( originalBytes );
+			}
+
+			// Setters called while reading don't count as modifications.
+			gameState.clearDirtySections();
+
 			return gameState;  // The finally block will still be executed.
 		}
 		finally {
@@ -277,11 +373,33 @@ public class SavedGameParser extends Parser {
 	}
 
 	/**
-	 * Writes a gameState to a stream.
+	 * Writes a gameState to a stream, encoding every section.
 	 *
 	 * Any MysteryBytes will be omitted.
 	 */
 	public void writeSavedGame( OutputStream out, SavedGameState gameState ) throws IOException {
+		writeSavedGame( out, gameState, false );
+	}
+
+	/**
+	 * Writes a gameState to a stream.
+	 *
+	 * If reuseCleanSections is true, sections that were read from a buffer
+	 * and have not been marked dirty since are copied from the original
+	 * bytes instead of being re-encoded. Everything else (including the
+	 * small fields between sections) is always encoded.
+	 *
+	 * Writes are gathered into a buffer, which is flushed (but not closed)
+	 * at the end, so an unbuffered stream will see few, large writes.
+	 *
+	 * Any MysteryBytes will be omitted.
+	 *
+	 * @see SavedGameState#markSectionDirty(SavedGameSection)
+	 */
+	public void writeSavedGame( OutputStream dst, SavedGameState gameState, boolean reuseCleanSections ) throws IOException {
+
+		OutputStream out = new BufferedOutputStream( dst, WRITE_BUFFER_SIZE );
+		SectionCopier copier = new SectionCopier( gameState, reuseCleanSections );
 
 		int fileFormat = gameState.getFileFormat();
 
@@ -332,7 +450,9 @@ public class SavedGameParser extends Parser {
 			writeInt( out, entry.getValue());
 		}
 
-		writeShip( out, gameState.getPlayerShipState(), fileFormat );
+		if ( !copier.copy( out, SavedGameSection.PLAYER_SHIP ) ) {
+			writeShip( out, gameState.getPlayerShipState(), fileFormat );
+		}
 
 		writeInt( out, gameState.getCargoIdList().size() );
 		for ( String cargoItemId : gameState.getCargoIdList() ) {
@@ -373,9 +493,11 @@ public class SavedGameParser extends Parser {
 		writeInt( out, gameState.getSectorNumber() );
 		writeBool( out, gameState.isSectorHiddenCrystalWorlds() );
 
-		writeInt( out, gameState.getBeaconList().size() );
-		for ( BeaconState beacon : gameState.getBeaconList() ) {
-			writeBeacon( out, beacon, fileFormat );
+		if ( !copier.copy( out, SavedGameSection.BEACONS ) ) {
+			writeInt( out, gameState.getBeaconList().size() );
+			for ( BeaconState beacon : gameState.getBeaconList() ) {
+				writeBeacon( out, beacon, fileFormat );
+			}
 		}
 
 		writeInt( out, gameState.getQuestEventMap().size() );
@@ -395,10 +517,14 @@ public class SavedGameParser extends Parser {
 			ShipState nearbyShip = gameState.getNearbyShipState();
 			writeBool( out, (nearbyShip != null) );
 			if ( nearbyShip != null ) {
-				writeShip( out, nearbyShip, fileFormat );
+				if ( !copier.copy( out, SavedGameSection.NEARBY_SHIP ) ) {
+					writeShip( out, nearbyShip, fileFormat );
+				}
 			}
 
-			writeRebelFlagship( out, gameState.getRebelFlagshipState() );
+			if ( !copier.copy( out, SavedGameSection.REBEL_FLAGSHIP ) ) {
+				writeRebelFlagship( out, gameState.getRebelFlagshipState() );
+			}
 		}
 		else if ( fileFormat == 7 || fileFormat == 8 || fileFormat == 9 ) {
 			// Current beaconId was set earlier.
@@ -412,7 +538,9 @@ public class SavedGameParser extends Parser {
 			if ( nearbyShip != null ) {
 				writeBool( out, gameState.isRebelFlagshipNearby() );
 
-				writeShip( out, nearbyShip, fileFormat );
+				if ( !copier.copy( out, SavedGameSection.NEARBY_SHIP ) ) {
+					writeShip( out, nearbyShip, fileFormat );
+				}
 
 				writeNearbyShipAI( out, gameState.getNearbyShipAI() );
 			}
@@ -421,15 +549,21 @@ public class SavedGameParser extends Parser {
 
 			// Flagship state is set much later.
 
-			writeInt( out, gameState.getProjectileList().size() );
-			for ( ProjectileState projectile : gameState.getProjectileList() ) {
-				writeProjectile( out, projectile );
+			if ( !copier.copy( out, SavedGameSection.PROJECTILES ) ) {
+				writeInt( out, gameState.getProjectileList().size() );
+				for ( ProjectileState projectile : gameState.getProjectileList() ) {
+					writeProjectile( out, projectile );
+				}
 			}
 
-			writeExtendedShipInfo( out, gameState.getPlayerShipState(), fileFormat );
+			if ( !copier.copy( out, SavedGameSection.PLAYER_SHIP ) ) {
+				writeExtendedShipInfo( out, gameState.getPlayerShipState(), fileFormat );
+			}
 
 			if ( gameState.getNearbyShipState() != null ) {
-				writeExtendedShipInfo( out, gameState.getNearbyShipState(), fileFormat );
+				if ( !copier.copy( out, SavedGameSection.NEARBY_SHIP ) ) {
+					writeExtendedShipInfo( out, gameState.getNearbyShipState(), fileFormat );
+				}
 			}
 
 			writeInt( out, gameState.getUnknownNu() );
@@ -440,19 +574,36 @@ public class SavedGameParser extends Parser {
 
 			writeBool( out, gameState.getAutofire() );
 
-			RebelFlagshipState flagship = gameState.getRebelFlagshipState();
+			if ( !copier.copy( out, SavedGameSection.REBEL_FLAGSHIP ) ) {
+				RebelFlagshipState flagship = gameState.getRebelFlagshipState();
 
-			writeInt( out, flagship.getUnknownAlpha() );
-			writeInt( out, flagship.getPendingStage() );
-			writeInt( out, flagship.getUnknownGamma() );
-			writeInt( out, flagship.getUnknownDelta() );
+				writeInt( out, flagship.getUnknownAlpha() );
+				writeInt( out, flagship.getPendingStage() );
+				writeInt( out, flagship.getUnknownGamma() );
+				writeInt( out, flagship.getUnknownDelta() );
 
-			writeInt( out, flagship.getOccupancyMap().size() );
-			for (Map.Entry<Integer, Integer> entry : flagship.getOccupancyMap().entrySet()) {
-				int occupantCount = entry.getValue();
-				writeInt( out, occupantCount );
+				writeInt( out, flagship.getOccupancyMap().size() );
+				for (Map.Entry<Integer, Integer> entry : flagship.getOccupancyMap().entrySet()) {
+					int occupantCount = entry.getValue();
+					writeInt( out, occupantCount );
+				}
 			}
 		}
+
+		out.flush();
+	}
+
+	/**
+	 * Returns a stream's offset, or -1 if it can't be determined cheaply.
+	 *
+	 * Only ByteBufferInputStreams are tracked, since their bytes can be
+	 * kept for SavedGameState's original sections.
+	 */
+	private int streamPosition( InputStream in ) {
+		if ( in instanceof ByteBufferInputStream ) {
+			return (int)((ByteBufferInputStream)in).position();
+		}
+		return -1;
 	}
 
 	private ShipState readShip( InputStream in, boolean auto, int fileFormat, boolean dlcEnabled ) throws IOException {
@@ -461,15 +612,13 @@ public class SavedGameParser extends Parser {
 		String shipName = readString( in );
 		String shipGfxBaseName = readString( in );
 
-		ShipBlueprint shipBlueprint = DataManager.get().getShip(shipBlueprintId);
-		if ( shipBlueprint == null ) {
+		String shipLayoutId = shipLayoutProvider.getShipLayoutId( shipBlueprintId );
+		if ( shipLayoutId == null ) {
 			throw new RuntimeException( String.format( "Could not find blueprint for%s ship: %s", (auto ? " auto" : ""), shipName ) );
 		}
 
-		String shipLayoutId = shipBlueprint.getLayout();
-
 		// Use this for room and door info later.
-		ShipLayout shipLayout = DataManager.get().getShipLayout(shipLayoutId);
+		ShipLayout shipLayout = shipLayoutProvider.getShipLayout( shipLayoutId );
 		if ( shipLayout == null ) {
 			throw new RuntimeException( String.format( "Could not find layout for%s ship: %s", (auto ? " auto" : ""), shipName ) );
 		}
@@ -531,11 +680,9 @@ public class SavedGameParser extends Parser {
 			// So this never occurred. TODO: There may also have been changes in
 			// 1.5.4 to allow multi-room systems on non-boss ships.
 
-			ShipBlueprint.SystemList.SystemRoom[] rooms = shipBlueprint.getSystemList().getSystemRoom( systemType );
-			if ( rooms != null && rooms.length > 1 ) {
-				for ( int q=1; q < rooms.length; q++ ) {
-					shipState.addSystem( readSystem(in, systemType, fileFormat ) );
-				}
+			int systemRoomCount = shipLayoutProvider.getSystemRoomCount( shipBlueprintId, systemType );
+			for ( int q=1; q < systemRoomCount; q++ ) {
+				shipState.addSystem( readSystem(in, systemType, fileFormat ) );
 			}
 		}
 
@@ -689,13 +836,11 @@ public class SavedGameParser extends Parser {
 	public void writeShip( OutputStream out, ShipState shipState, int fileFormat ) throws IOException {
 		String shipBlueprintId = shipState.getShipBlueprintId();
 
-		ShipBlueprint shipBlueprint = DataManager.get().getShip(shipBlueprintId);
-		if ( shipBlueprint == null )
+		String shipLayoutId = shipLayoutProvider.getShipLayoutId( shipBlueprintId );
+		if ( shipLayoutId == null )
 			throw new RuntimeException( String.format( "Could not find blueprint for%s ship: %s", (shipState.isAuto() ? " auto" : ""), shipState.getShipName() ) );
 
-		String shipLayoutId = shipBlueprint.getLayout();
-
-		ShipLayout shipLayout = DataManager.get().getShipLayout(shipLayoutId);
+		ShipLayout shipLayout = shipLayoutProvider.getShipLayout( shipLayoutId );
 		if ( shipLayout == null )
 			throw new RuntimeException( String.format( "Could not find layout for%s ship: %s", (shipState.isAuto() ? " auto" : ""), shipState.getShipName() ) );
 
@@ -1534,7 +1679,7 @@ public class SavedGameParser extends Parser {
 		}
 	}
 
-	private NearbyShipAIState readNearbyShipAI( FileInputStream in ) throws IOException {
+	private NearbyShipAIState readNearbyShipAI( InputStream in ) throws IOException {
 		NearbyShipAIState ai = new NearbyShipAIState();
 
 		ai.setSurrendered( readBool( in ) );
@@ -1564,7 +1709,7 @@ public class SavedGameParser extends Parser {
 		writeInt( out, ai.getBoardersNeeded() );
 	}
 
-	private EnvironmentState readEnvironment( FileInputStream in ) throws IOException {
+	private EnvironmentState readEnvironment( InputStream in ) throws IOException {
 		EnvironmentState env = new EnvironmentState();
 
 		env.setRedGiantPresent( readBool( in ) );
@@ -1687,7 +1832,7 @@ public class SavedGameParser extends Parser {
 		writeInt( out, anim.getY() );
 	}
 
-	private ProjectileState readProjectile( FileInputStream in ) throws IOException {
+	private ProjectileState readProjectile( InputStream in ) throws IOException {
 		//log.debug( String.format( "Projectile: @%d", in.getChannel().position() ) );
 
 		ProjectileState projectile = new ProjectileState();
@@ -1915,7 +2060,7 @@ public class SavedGameParser extends Parser {
 		writeInt( out, damage.getStunAmount() );
 	}
 
-	private BeamProjectileInfo readBeamProjectileInfo( FileInputStream in ) throws IOException {
+	private BeamProjectileInfo readBeamProjectileInfo( InputStream in ) throws IOException {
 		BeamProjectileInfo beamInfo = new BeamProjectileInfo();
 
 		beamInfo.setFiringShipEndX( readInt( in ) );
@@ -1987,7 +2132,7 @@ public class SavedGameParser extends Parser {
 		writeBool( out, beamInfo.getUnknownNu() );
 	}
 
-	private BombProjectileInfo readBombProjectileInfo( FileInputStream in ) throws IOException {
+	private BombProjectileInfo readBombProjectileInfo( InputStream in ) throws IOException {
 		BombProjectileInfo bombInfo = new BombProjectileInfo();
 
 		bombInfo.setUnknownAlpha( readInt( in ) );
@@ -2007,7 +2152,7 @@ public class SavedGameParser extends Parser {
 		writeBool( out, bombInfo.hasArrived() );
 	}
 
-	private LaserProjectileInfo readLaserProjectileInfo( FileInputStream in ) throws IOException {
+	private LaserProjectileInfo readLaserProjectileInfo( InputStream in ) throws IOException {
 		LaserProjectileInfo laserInfo = new LaserProjectileInfo();
 
 		laserInfo.setUnknownAlpha( readInt( in ) );
@@ -2021,6 +2166,13 @@ public class SavedGameParser extends Parser {
 		writeInt( out, laserInfo.getSpin() );
 	}
 
+	/**
+	 * Writes an object's toString(), with each non-empty line indented.
+	 */
+	private static void writeIndented( Writer out, String s ) throws IOException {
+		new IndentingWriter( out, "  " ).write( s );
+	}
+
 
 
 	/**
@@ -2074,6 +2226,57 @@ public class SavedGameParser extends Parser {
 		}
 	}
 
+	/**
+	 * Large top-level parts of a saved game, tracked for incremental writes.
+	 *
+	 * A section may be split across several places in the file. A ship's
+	 * extended info, for instance, is stored far from the rest of it.
+	 *
+	 * The small fields in between are not tracked; they're always encoded.
+	 *
+	 * @see SavedGameState#markSectionDirty(SavedGameSection)
+	 */
+	public static enum SavedGameSection {
+		PLAYER_SHIP, BEACONS, NEARBY_SHIP, PROJECTILES, REBEL_FLAGSHIP
+	}
+
+	/**
+	 * Copies a SavedGameState's clean sections from its original bytes.
+	 *
+	 * Each call for a section copies that section's next range, in file
+	 * order, which is also the order the writer reaches them in.
+	 */
+	private static class SectionCopier {
+		private final SavedGameState gameState;
+		private final boolean enabled;
+		private final Map<SavedGameSection, Integer> nextRangeIndexes = new EnumMap<SavedGameSection, Integer>( SavedGameSection.class );
+
+
+		public SectionCopier( SavedGameState gameState, boolean enabled ) {
+			this.gameState = gameState;
+			this.enabled = enabled;
+		}
+
+		/**
+		 * Writes the next original range of a section, if it's clean.
+		 *
+		 * @return true if copied, false if the caller must encode it instead
+		 */
+		public boolean copy( OutputStream out, SavedGameSection section ) throws IOException {
+			Integer index = nextRangeIndexes.get( section );
+			if ( index == null ) index = 0;
+			nextRangeIndexes.put( section, index + 1 );
+
+			if ( !enabled || gameState.isSectionDirty( section ) ) return false;
+
+			int[] range = gameState.getOriginalRange( section, index );
+			if ( range == null ) return false;
+
+			out.write( gameState.originalBytes, range[0], range[1] - range[0] );
+			return true;
+		}
+	}
+
 	public static class SavedGameState {
 		private int fileFormat = 0;
 		private boolean dlcEnabled = false;
@@ -2122,6 +2325,10 @@ public class SavedGameParser extends Parser {
 		private RebelFlagshipState rebelFlagshipState = null;
 		private List<MysteryBytes> mysteryList = new ArrayList<MysteryBytes>();
 
+		private byte[] originalBytes = null;
+		private Map<SavedGameSection, List<int[]>> originalRangeMap = new EnumMap<SavedGameSection, List<int[]>>( SavedGameSection.class );
+		private Set<SavedGameSection> dirtySections = EnumSet.noneOf( SavedGameSection.class );
+
 
 		public SavedGameState() {
 		}
@@ -2135,7 +2342,10 @@ public class SavedGameParser extends Parser {
 		 *   8 = Saved Game, FTL 1.5.12
 		 *   9 = Saved Game, FTL 1.5.13
 		 */
-		public void setFileFormat( int n ) { fileFormat = n; }
+		public void setFileFormat( int n ) {
+			if ( n != fileFormat ) markAllSectionsDirty();
+			fileFormat = n;
+		}
 		public int getFileFormat() { return fileFormat; }
 
 		/**
@@ -2264,7 +2474,10 @@ public class SavedGameParser extends Parser {
 		 *
 		 * @see #setSectorLayoutSeed(int)
 		 */
-		public void setDLCEnabled( boolean b ) { dlcEnabled = b; }
+		public void setDLCEnabled( boolean b ) {
+			if ( b != dlcEnabled ) markAllSectionsDirty();
+			dlcEnabled = b;
+		}
 		public boolean isDLCEnabled() { return dlcEnabled; }
 
 		/**
@@ -2307,6 +2520,7 @@ public class SavedGameParser extends Parser {
 		public Map<String, Integer> getStateVars() { return stateVars; }
 
 		public void setPlayerShipState( ShipState shipState ) {
+			if ( shipState != playerShipState ) markSectionDirty( SavedGameSection.PLAYER_SHIP );
 			this.playerShipState = shipState;
 		}
 		public ShipState getPlayerShipState() { return playerShipState; }
@@ -2575,10 +2789,19 @@ public class SavedGameParser extends Parser {
 		 * @see #setSectorLayoutSeed(int)
 		 */
 		public void addBeacon( BeaconState beacon ) {
+			markSectionDirty( SavedGameSection.BEACONS );
 			beaconList.add( beacon );
 		}
 
-		public List<BeaconState> getBeaconList() { return beaconList; }
+		/**
+		 * Returns the beacon list.
+		 *
+		 * Adding, removing, or replacing elements marks the BEACONS section
+		 * dirty. Edits made to a BeaconState in place do not.
+		 */
+		public List<BeaconState> getBeaconList() {
+			return new SectionList<BeaconState>( beaconList, SavedGameSection.BEACONS );
+		}
 
 		public void addQuestEvent( String questEventId, int questBeaconId ) {
 			questEventMap.put( questEventId, questBeaconId);
@@ -2644,6 +2867,7 @@ public class SavedGameParser extends Parser {
 		 * @see #setNearbyShipAI(NearbyShipAIState)
 		 */
 		public void setNearbyShipState( ShipState shipState ) {
+			if ( shipState != nearbyShipState ) markSectionDirty( SavedGameSection.NEARBY_SHIP );
 			this.nearbyShipState = shipState;
 		}
 		public ShipState getNearbyShipState() { return nearbyShipState; }
@@ -2675,10 +2899,19 @@ public class SavedGameParser extends Parser {
 		 * This was introduced in FTL 1.5.4.
 		 */
 		public void addProjectile( ProjectileState projectile ) {
+			markSectionDirty( SavedGameSection.PROJECTILES );
 			projectileList.add( projectile );
 		}
 
-		public List<ProjectileState> getProjectileList() { return projectileList; }
+		/**
+		 * Returns the projectile list.
+		 *
+		 * Adding, removing, or replacing elements marks the PROJECTILES
+		 * section dirty.
+		 */
+		public List<ProjectileState> getProjectileList() {
+			return new SectionList<ProjectileState>( projectileList, SavedGameSection.PROJECTILES );
+		}
 
 
 		/**
@@ -2715,6 +2948,7 @@ public class SavedGameParser extends Parser {
 		 * Sets info about the next encounter with the rebel flagship.
 		 */
 		public void setRebelFlagshipState( RebelFlagshipState flagshipState ) {
+			if ( flagshipState != rebelFlagshipState ) markSectionDirty( SavedGameSection.REBEL_FLAGSHIP );
 			this.rebelFlagshipState = flagshipState;
 		}
 		public RebelFlagshipState getRebelFlagshipState() {
@@ -2728,9 +2962,131 @@ public class SavedGameParser extends Parser {
 		public List<MysteryBytes> getMysteryList() { return mysteryList; }
 
 
-		@Override
-		public String toString() {
-			StringBuilder result = new StringBuilder();
+		/**
+		 * Flags a section as modified since it was read.
+		 *
+		 * Replacing a ship or flagship, or changing the beacon or projectile
+		 * lists, does this automatically. But changes made in place (to a
+		 * ShipState's crew, or a BeaconState, etc) go unnoticed. Whoever
+		 * makes those changes must call this, or an incremental write will
+		 * copy the section's stale original bytes.
+		 *
+		 * @see SavedGameParser#writeSavedGame(OutputStream, SavedGameState, boolean)
+		 */
+		public void markSectionDirty( SavedGameSection section ) {
+			dirtySections.add( section );
+		}
+
+		public void markAllSectionsDirty() {
+			dirtySections.addAll( EnumSet.allOf( SavedGameSection.class ) );
+		}
+
+		/**
+		 * Returns true if a section has no original bytes to reuse, or has
+		 * been marked dirty.
+		 */
+		public boolean isSectionDirty( SavedGameSection section ) {
+			if ( originalBytes == null || !originalRangeMap.containsKey( section ) ) return true;
+			return dirtySections.contains( section );
+		}
+
+		void setOriginalBytes( byte[] bytes ) { originalBytes = bytes; }
+
+		byte[] getOriginalBytes() { return originalBytes; }
+
+		boolean hasDirtySections() { return !dirtySections.isEmpty(); }
+
+		/**
+		 * Records where part of a section was found in the original bytes.
+		 *
+		 * Offsets of -1, from streams that don't track position, are ignored.
+		 */
+		void addOriginalRange( SavedGameSection section, int start, int end ) {
+			if ( start < 0 || end < start ) return;
+
+			List<int[]> ranges = originalRangeMap.get( section );
+			if ( ranges == null ) {
+				ranges = new ArrayList<int[]>( 3 );
+				originalRangeMap.put( section, ranges );
+			}
+			ranges.add( new int[] {start, end} );
+		}
+
+		/**
+		 * Returns the nth {start, end} range of a section, or null.
+		 */
+		int[] getOriginalRange( SavedGameSection section, int index ) {
+			List<int[]> ranges = originalRangeMap.get( section );
+			if ( ranges == null || index >= ranges.size() ) return null;
+			return ranges.get( index );
+		}
+
+		void clearDirtySections() { dirtySections.clear(); }
+
+
+		/**
+		 * A view of a section's list that marks the section dirty on writes.
+		 *
+		 * AbstractList routes clear(), removeAll(), and iterator removal
+		 * through remove(int), so they're caught as well.
+		 */
+		private class SectionList<T> extends AbstractList<T> {
+			private final List<T> list;
+			private final SavedGameSection section;
+
+
+			public SectionList( List<T> list, SavedGameSection section ) {
+				this.list = list;
+				this.section = section;
+			}
+
+			@Override
+			public T get( int index ) { return list.get( index ); }
+
+			@Override
+			public int size() { return list.size(); }
+
+			@Override
+			public T set( int index, T element ) {
+				markSectionDirty( section );
+				return list.set( index, element );
+			}
+
+			@Override
+			public void add( int index, T element ) {
+				markSectionDirty( section );
+				list.add( index, element );
+			}
+
+			@Override
+			public T remove( int index ) {
+				markSectionDirty( section );
+				return list.remove( index );
+			}
+		}
+
+
+		/**
+		 * Writes a human-readable summary of this game, section by section.
+		 *
+		 * Blueprints are looked up in the default DataManager.
+		 *
+		 * @see #dump(Writer, DataManager)
+		 */
+		public void dump( Writer out ) throws IOException {
+			dump( out, DataManager.get() );
+		}
+
+		/**
+		 * Writes a human-readable summary of this game, section by section.
+		 *
+		 * Nothing is accumulated here. Large games can be dumped straight to
+		 * a file, or a text component, without one enormous string.
+		 *
+		 * @param dataManager the resources to look up blueprints in
+		 */
+		public void dump( Writer out, DataManager dataManager ) throws IOException {
+			Formatter fmt = new Formatter( out );
 
 			String formatDesc = null;
 			switch ( fileFormat ) {
@@ -2742,137 +3098,149 @@ public class SavedGameParser extends Parser {
 			}
 
 			boolean first = true;
-			result.append( String.format( "File Format:            %5d (%s)\n", fileFormat, formatDesc ) );
-			result.append( String.format( "AE Content:             %5s\n", (dlcEnabled ? "Enabled" : "Disabled" ) ) );
-			result.append( String.format( "Ship Name:              %s\n", playerShipName ) );
-			result.append( String.format( "Ship Type:              %s\n", playerShipBlueprintId ) );
-			result.append( String.format( "Difficulty:             %s\n", difficulty.toString() ) );
-			result.append( String.format( "Sector:                 %5d (%d)\n", sectorNumber, sectorNumber+1 ) );
-			result.append( String.format( "Beta?:                  %5d (Always 0?)\n", unknownBeta ) );
-			result.append( String.format( "Total Ships Defeated:   %5d\n", totalShipsDefeated ) );
-			result.append( String.format( "Total Beacons Explored: %5d\n", totalBeaconsExplored ) );
-			result.append( String.format( "Total Scrap Collected:  %5d\n", totalScrapCollected ) );
-			result.append( String.format( "Total Crew Hired:       %5d\n", totalCrewHired ) );
-
-			result.append( "\nState Vars...\n" );
+			fmt.format( "File Format:            %5d (%s)\n", fileFormat, formatDesc );
+			fmt.format( "AE Content:             %5s\n", (dlcEnabled ? "Enabled" : "Disabled" ) );
+			fmt.format( "Ship Name:              %s\n", playerShipName );
+			fmt.format( "Ship Type:              %s\n", playerShipBlueprintId );
+			fmt.format( "Difficulty:             %s\n", difficulty.toString() );
+			fmt.format( "Sector:                 %5d (%d)\n", sectorNumber, sectorNumber+1 );
+			fmt.format( "Beta?:                  %5d (Always 0?)\n", unknownBeta );
+			fmt.format( "Total Ships Defeated:   %5d\n", totalShipsDefeated );
+			fmt.format( "Total Beacons Explored: %5d\n", totalBeaconsExplored );
+			fmt.format( "Total Scrap Collected:  %5d\n", totalScrapCollected );
+			fmt.format( "Total Crew Hired:       %5d\n", totalCrewHired );
+
+			out.write( "\nState Vars...\n" );
 			for ( Map.Entry<String, Integer> entry : stateVars.entrySet() ) {
-				result.append( String.format( "%-16s %4d\n", entry.getKey() +":", entry.getValue()) );
+				fmt.format( "%-16s %4d\n", entry.getKey() +":", entry.getValue() );
 			}
 
-			result.append( "\nPlayer Ship...\n" );
+			out.write( "\nPlayer Ship...\n" );
 			if ( playerShipState != null )
-				result.append( playerShipState.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				playerShipState.dump( new IndentingWriter( out, "  " ), dataManager );
 
-			result.append( "\nCargo...\n" );
+			out.write( "\nCargo...\n" );
 			for ( String cargoItemId : cargoIdList ) {
-				result.append( String.format( "CargoItemId: %s\n", cargoItemId ) );
-			}
-
-			result.append( "\nSector Data...\n" );
-			result.append( String.format( "Sector Tree Seed:   %5d\n", sectorTreeSeed ) );
-			result.append( String.format( "Sector Layout Seed: %5d\n", sectorLayoutSeed ) );
-			result.append( String.format( "Rebel Fleet Offset: %5d\n", rebelFleetOffset ) );
-			result.append( String.format( "Rebel Fleet Fudge:  %5d\n", rebelFleetFudge ) );
-			result.append( String.format( "Rebel Pursuit Mod:  %5d\n", rebelPursuitMod ) );
-			result.append( String.format( "Player BeaconId:    %5d\n", currentBeaconId ) );
-			result.append( String.format( "Waiting:            %5b\n", waiting ) );
-			result.append( String.format( "Wait Event Seed:    %5d\n", waitEventSeed ) );
-			result.append( String.format( "Epsilon?:           %s\n", unknownEpsilon ) );
-			result.append( String.format( "Sector Hazards Map: %5b\n", sectorHazardsVisible ) );
-			result.append( String.format( "In Hidden Sector:   %5b\n", sectorIsHiddenCrystalWorlds ) );
-			result.append( "\n" );
-			result.append( String.format( "Rebel Flagship On:  %5b\n", rebelFlagshipVisible ) );
-			result.append( String.format( "Flagship Nth Hop:   %5d\n", rebelFlagshipHop ) );
-			result.append( String.format( "Flagship Moving:    %5b\n", rebelFlagshipMoving ) );
-			result.append( String.format( "Kappa?:             %5d\n", unknownKappa ) );
-			result.append( String.format( "Flagship Base Turns:%5d\n", rebelFlagshipBaseTurns ) );
-
-			result.append( "\nSector Tree Breadcrumbs...\n" );
+				fmt.format( "CargoItemId: %s\n", cargoItemId );
+			}
+
+			out.write( "\nSector Data...\n" );
+			fmt.format( "Sector Tree Seed:   %5d\n", sectorTreeSeed );
+			fmt.format( "Sector Layout Seed: %5d\n", sectorLayoutSeed );
+			fmt.format( "Rebel Fleet Offset: %5d\n", rebelFleetOffset );
+			fmt.format( "Rebel Fleet Fudge:  %5d\n", rebelFleetFudge );
+			fmt.format( "Rebel Pursuit Mod:  %5d\n", rebelPursuitMod );
+			fmt.format( "Player BeaconId:    %5d\n", currentBeaconId );
+			fmt.format( "Waiting:            %5b\n", waiting );
+			fmt.format( "Wait Event Seed:    %5d\n", waitEventSeed );
+			fmt.format( "Epsilon?:           %s\n", unknownEpsilon );
+			fmt.format( "Sector Hazards Map: %5b\n", sectorHazardsVisible );
+			fmt.format( "In Hidden Sector:   %5b\n", sectorIsHiddenCrystalWorlds );
+			out.write( "\n" );
+			fmt.format( "Rebel Flagship On:  %5b\n", rebelFlagshipVisible );
+			fmt.format( "Flagship Nth Hop:   %5d\n", rebelFlagshipHop );
+			fmt.format( "Flagship Moving:    %5b\n", rebelFlagshipMoving );
+			fmt.format( "Kappa?:             %5d\n", unknownKappa );
+			fmt.format( "Flagship Base Turns:%5d\n", rebelFlagshipBaseTurns );
+
+			out.write( "\nSector Tree Breadcrumbs...\n" );
 			first = true;
 			for ( Boolean b : sectorVisitationList ) {
 				if ( first ) { first = false; }
-				else { result.append( "," ); }
-				result.append( (b ? "T" : "F") );
+				else { out.write( "," ); }
+				out.write( (b ? "T" : "F") );
 			}
-			result.append( "\n" );
+			out.write( "\n" );
 
-			result.append( "\nSector Beacons...\n" );
+			out.write( "\nSector Beacons...\n" );
 			int beaconId = 0;
 			first = true;
 			for( BeaconState beacon : beaconList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( String.format( "BeaconId: %2d\n", beaconId++ ) );
-				result.append( beacon.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				fmt.format( "BeaconId: %2d\n", beaconId++ );
+				writeIndented( out, beacon.toString() );
 			}
 
-			result.append( "\nQuests...\n" );
+			out.write( "\nQuests...\n" );
 			for ( Map.Entry<String, Integer> entry : questEventMap.entrySet() ) {
 				String questEventId = entry.getKey();
 				int questBeaconId = entry.getValue();
-				result.append( String.format( "QuestEventId: %s, BeaconId: %d\n", questEventId, questBeaconId ) );
+				fmt.format( "QuestEventId: %s, BeaconId: %d\n", questEventId, questBeaconId );
 			}
 
-			result.append( "\nNext Sector Quests...\n" );
+			out.write( "\nNext Sector Quests...\n" );
 			for ( String questEventId : distantQuestEventList ) {
-				result.append( String.format( "QuestEventId: %s\n", questEventId ) );
+				fmt.format( "QuestEventId: %s\n", questEventId );
 			}
 
-			result.append( "\n" );
-			result.append( String.format( "Mu?:                %5d\n", unknownMu ) );
+			out.write( "\n" );
+			fmt.format( "Mu?:                %5d\n", unknownMu );
 
-			result.append( "\nCurrent Encounter...\n" );
+			out.write( "\nCurrent Encounter...\n" );
 			if ( encounter != null ) {
-				result.append( encounter.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				writeIndented( out, encounter.toString() );
 			}
 
-			result.append( "\n" );
-			result.append( String.format( "Flagship Nearby:    %5b (Only set when a nearby ship is present)\n", rebelFlagshipNearby ) );
+			out.write( "\n" );
+			fmt.format( "Flagship Nearby:    %5b (Only set when a nearby ship is present)\n", rebelFlagshipNearby );
 
-			result.append( "\nNearby Ship...\n" );
+			out.write( "\nNearby Ship...\n" );
 			if ( nearbyShipState != null ) {
-				result.append( nearbyShipState.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				nearbyShipState.dump( new IndentingWriter( out, "  " ), dataManager );
 			}
 
-			result.append( "\nNearby Ship AI...\n" );
+			out.write( "\nNearby Ship AI...\n" );
 			if ( nearbyShipAI != null ) {
-				result.append( nearbyShipAI.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				writeIndented( out, nearbyShipAI.toString() );
 			}
 
-			result.append( "\nEnvironment Hazards...\n" );
+			out.write( "\nEnvironment Hazards...\n" );
 			if ( environment != null ) {
-				result.append( environment.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				writeIndented( out, environment.toString() );
 			}
 
-			result.append( "\nProjectiles...\n" );
+			out.write( "\nProjectiles...\n" );
 			int projectileIndex = 0;
 			first = true;
 			for ( ProjectileState projectile : projectileList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( String.format( "Projectile # %2d:\n", projectileIndex++ ) );
-				result.append( projectile.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				fmt.format( "Projectile # %2d:\n", projectileIndex++ );
+				writeIndented( out, projectile.toString() );
 			}
 
-			result.append( "\n" );
-			result.append( String.format( "Nu?:          %11d (Player Ship)\n", unknownNu ) );
-			result.append( String.format( "Xi?:          %11s (Nearby Ship)\n", (unknownXi != null ? unknownXi.intValue() : "N/A") ) );
-			result.append( String.format( "Autofire:           %5b\n", autofire ) );
+			out.write( "\n" );
+			fmt.format( "Nu?:          %11d (Player Ship)\n", unknownNu );
+			fmt.format( "Xi?:          %11s (Nearby Ship)\n", (unknownXi != null ? unknownXi.intValue() : "N/A") );
+			fmt.format( "Autofire:           %5b\n", autofire );
 
-			result.append( "\nRebel Flagship...\n" );
+			out.write( "\nRebel Flagship...\n" );
 			if ( rebelFlagshipState != null ) {
-				result.append( rebelFlagshipState.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				writeIndented( out, rebelFlagshipState.toString() );
 			}
 
-			result.append( "\nMystery Bytes...\n" );
+			out.write( "\nMystery Bytes...\n" );
 			first = true;
 			for ( MysteryBytes m : mysteryList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( m.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				writeIndented( out, m.toString() );
 			}
 
 			// ...
+			if ( fmt.ioException() != null ) throw fmt.ioException();
+		}
+
+		@Override
+		public String toString() {
+			StringWriter result = new StringWriter();
+			try {
+				dump( result );
+			}
+			catch ( IOException e ) {
+				throw new RuntimeException( e );  // StringWriter doesn't throw.
+			}
 			return result.toString();
 		}
 	}
@@ -2936,8 +3304,18 @@ public class SavedGameParser extends Parser {
 		 * maxPower.
 		 */
 		public void refit() {
-			ShipBlueprint shipBlueprint = DataManager.get().getShip( shipBlueprintId );
-			ShipLayout shipLayout = DataManager.get().getShipLayout( shipBlueprint.getLayout() );
+			refit( DataManager.get() );
+		}
+
+		/**
+		 * Assigns the missing defaults of an incomplete ship, from a given
+		 * DataManager's blueprints.
+		 *
+		 * @see #refit()
+		 */
+		public void refit( DataManager dataManager ) {
+			ShipBlueprint shipBlueprint = dataManager.getShip( shipBlueprintId );
+			ShipLayout shipLayout = dataManager.getShipLayout( shipBlueprint.getLayout() );
 
 			// Systems.
 			systemsMap.clear();
@@ -2950,7 +3328,7 @@ public class SavedGameParser extends Parser {
 				if ( systemRoom != null ) {
 					Boolean start = systemRoom[0].getStart();
 					if ( start == null || start == true ) {
-						SystemBlueprint systemBlueprint = DataManager.get().getSystem( systemType.getId() );
+						SystemBlueprint systemBlueprint = dataManager.getSystem( systemType.getId() );
 						systemState.setCapacity( systemBlueprint.getStartPower() );
 
 						// The optional room max attribute caps randomly generated ships' system capacity.
@@ -3469,157 +3847,185 @@ public class SavedGameParser extends Parser {
 		public List<StandaloneDroneState> getStandaloneDroneList() { return standaloneDroneList; }
 
 
-		@Override
-		public String toString() {
+		/**
+		 * Writes a human-readable summary of this ship.
+		 *
+		 * Blueprints are looked up in the default DataManager.
+		 *
+		 * @see #dump(Writer, DataManager)
+		 */
+		public void dump( Writer out ) throws IOException {
+			dump( out, DataManager.get() );
+		}
+
+		/**
+		 * Writes a human-readable summary of this ship.
+		 *
+		 * @param dataManager the resources to look up blueprints in
+		 * @see SavedGameState#dump(Writer, DataManager)
+		 */
+		public void dump( Writer out, DataManager dataManager ) throws IOException {
 			// The blueprint fetching might vary if auto == true.
 			// See autoBlueprints.xml vs blueprints.xml.
-			ShipBlueprint shipBlueprint = DataManager.get().getShip( shipBlueprintId );
+			ShipBlueprint shipBlueprint = dataManager.getShip( shipBlueprintId );
 			ShipBlueprint.SystemList blueprintSystems = shipBlueprint.getSystemList();
 
-			ShipLayout shipLayout = DataManager.get().getShipLayout(shipLayoutId);
+			ShipLayout shipLayout = dataManager.getShipLayout(shipLayoutId);
 			if ( shipLayout == null )
 				throw new RuntimeException( String.format( "Could not find layout for%s ship: %s", (auto ? " auto" : ""), shipName ) );
 
-			StringBuilder result = new StringBuilder();
+			Formatter fmt = new Formatter( out );
 			boolean first = true;
-			result.append( String.format( "Ship Name:    %s\n", shipName ) );
-			result.append( String.format( "Ship Type:    %s\n", shipBlueprintId ) );
-			result.append( String.format( "Ship Layout:  %s\n", shipLayoutId ) );
-			result.append( String.format( "Gfx BaseName: %s\n", shipGfxBaseName ) );
-
-			result.append( "\nSupplies...\n" );
-			result.append( String.format( "Hull:        %3d\n", hullAmt ) );
-			result.append( String.format( "Fuel:        %3d\n", fuelAmt ) );
-			result.append( String.format( "Drone Parts: %3d\n", dronePartsAmt ) );
-			result.append( String.format( "Missiles:    %3d\n", missilesAmt ) );
-			result.append( String.format( "Scrap:       %3d\n", scrapAmt ) );
-			result.append( "\n" );
-			result.append( String.format( "Hostile:           %7b\n", hostile ) );
-			result.append( String.format( "Jump Charge Ticks: %7d (85000 is fully charged)\n", jumpChargeTicks ) );
-			result.append( String.format( "Jumping:           %7b\n", jumping ) );
-			result.append( String.format( "Jump Anim Ticks:   %7d (0=Normal to 2000=Gone)\n", jumpAnimTicks ) );
-
-			result.append( "\nStarting Crew...\n" );
+			fmt.format( "Ship Name:    %s\n", shipName );
+			fmt.format( "Ship Type:    %s\n", shipBlueprintId );
+			fmt.format( "Ship Layout:  %s\n", shipLayoutId );
+			fmt.format( "Gfx BaseName: %s\n", shipGfxBaseName );
+
+			out.write( "\nSupplies...\n" );
+			fmt.format( "Hull:        %3d\n", hullAmt );
+			fmt.format( "Fuel:        %3d\n", fuelAmt );
+			fmt.format( "Drone Parts: %3d\n", dronePartsAmt );
+			fmt.format( "Missiles:    %3d\n", missilesAmt );
+			fmt.format( "Scrap:       %3d\n", scrapAmt );
+			out.write( "\n" );
+			fmt.format( "Hostile:           %7b\n", hostile );
+			fmt.format( "Jump Charge Ticks: %7d (85000 is fully charged)\n", jumpChargeTicks );
+			fmt.format( "Jumping:           %7b\n", jumping );
+			fmt.format( "Jump Anim Ticks:   %7d (0=Normal to 2000=Gone)\n", jumpAnimTicks );
+
+			out.write( "\nStarting Crew...\n" );
 			first = true;
 			for ( StartingCrewState sc : startingCrewList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( sc.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				writeIndented( out, sc.toString() );
 			}
 
-			result.append( "\nCurrent Crew...\n" );
+			out.write( "\nCurrent Crew...\n" );
 			first = true;
 			for ( CrewState c : crewList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( c.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				writeIndented( out, c.toString( dataManager ) );
 			}
 
-			result.append( "\nSystems...\n" );
-			result.append( String.format( "  Reserve Power Capacity: %2d\n", reservePowerCapacity ) );
-			result.append( "\n" );
+			out.write( "\nSystems...\n" );
+			fmt.format( "  Reserve Power Capacity: %2d\n", reservePowerCapacity );
+			out.write( "\n" );
 			first = true;
 			for ( Map.Entry<SystemType, List<SystemState>> entry : systemsMap.entrySet() ) {
 				for ( SystemState s : entry.getValue() ) {
 					if ( first ) { first = false; }
-					else { result.append( ",\n" ); }
-					result.append( s.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+					else { out.write( ",\n" ); }
+					writeIndented( out, s.toString() );
 				}
 			}
 
-			result.append( "\nExtended System Info...\n" );
+			out.write( "\nExtended System Info...\n" );
 			first = true;
 			for ( ExtendedSystemInfo info : extendedSystemInfoList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( info.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				writeIndented( out, info.toString() );
 			}
 
-			result.append( "\nRooms...\n" );
+			out.write( "\nRooms...\n" );
 			first = true;
 			for (ListIterator<RoomState> it=roomList.listIterator(); it.hasNext(); ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
+				else { out.write( ",\n" ); }
 				int roomId = it.nextIndex();
 
 				SystemType systemType = blueprintSystems.getSystemTypeByRoomId( roomId );
 				String systemId = (systemType != null) ? systemType.getId() : "empty";
 
-				result.append( String.format( "Room Id: %2d (%s)\n", roomId, systemId ) );
-				result.append( it.next().toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				fmt.format( "Room Id: %2d (%s)\n", roomId, systemId );
+				writeIndented( out, it.next().toString() );
 			}
 
-			result.append( "\nHull Breaches...\n" );
+			out.write( "\nHull Breaches...\n" );
 			int breachId = -1;
 			first = true;
 			for ( Map.Entry<Point, Integer> entry : breachMap.entrySet() ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
+				else { out.write( ",\n" ); }
 
 				Point breachCoord = entry.getKey();
 				int breachHealth = entry.getValue();
 
-				result.append( String.format( "BreachId: %2d, Raw Coords: %2d,%2d (-Layout Offset: %2d,%2d)\n", ++breachId, breachCoord.x, breachCoord.y, breachCoord.x-shipLayout.getOffsetX(), breachCoord.y-shipLayout.getOffsetY() ) );
-				result.append( String.format( "  Breach HP: %3d\n", breachHealth ) );
+				fmt.format( "BreachId: %2d, Raw Coords: %2d,%2d (-Layout Offset: %2d,%2d)\n", ++breachId, breachCoord.x, breachCoord.y, breachCoord.x-shipLayout.getOffsetX(), breachCoord.y-shipLayout.getOffsetY() );
+				fmt.format( "  Breach HP: %3d\n", breachHealth );
 			}
 
-			result.append( "\nDoors...\n" );
+			out.write( "\nDoors...\n" );
 			int doorId = -1;
 			first = true;
 			for ( Map.Entry<ShipLayout.DoorCoordinate, DoorState> entry : doorMap.entrySet() ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
+				else { out.write( ",\n" ); }
 
 				ShipLayout.DoorCoordinate doorCoord = entry.getKey();
 				DoorState d = entry.getValue();
 				String orientation = ( doorCoord.v == 1 ) ? "V" : "H";
 
-				result.append( String.format( "DoorId: %2d (%2d,%2d,%2s)\n", ++doorId, doorCoord.x, doorCoord.y, orientation ) );
-				result.append( d.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				fmt.format( "DoorId: %2d (%2d,%2d,%2s)\n", ++doorId, doorCoord.x, doorCoord.y, orientation );
+				writeIndented( out, d.toString() );
 			}
 
-			result.append( String.format( "\nCloak Anim Ticks:  %3d (0=Uncloaked to 500=Cloaked)\n", cloakAnimTicks ) );
+			fmt.format( "\nCloak Anim Ticks:  %3d (0=Uncloaked to 500=Cloaked)\n", cloakAnimTicks );
 
-			result.append( "\nLockdown Crystals...\n" );
+			out.write( "\nLockdown Crystals...\n" );
 			first = true;
 			for ( LockdownCrystal c : lockdownCrystalList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( c.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				writeIndented( out, c.toString() );
 			}
 
-			result.append( "\nWeapons...\n" );
+			out.write( "\nWeapons...\n" );
 			first = true;
 			for ( WeaponState w : weaponList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( w.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				writeIndented( out, w.toString( dataManager ) );
 			}
 
-			result.append( "\nDrones...\n" );
+			out.write( "\nDrones...\n" );
 			first = true;
 			for ( DroneState d : droneList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( d.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				writeIndented( out, d.toString() );
 			}
 
 
-			result.append( "\nStandalone Drones... (Surge)\n" );
+			out.write( "\nStandalone Drones... (Surge)\n" );
 			int standaloneDroneIndex = 0;
 			first = true;
 			for ( StandaloneDroneState standaloneDrone : standaloneDroneList ) {
 				if ( first ) { first = false; }
-				else { result.append( ",\n" ); }
-				result.append( String.format( "Surge Drone # %2d:\n", standaloneDroneIndex++ ) );
-				result.append( standaloneDrone.toString().replaceAll( "(^|\n)(.+)", "$1  $2" ) );
+				else { out.write( ",\n" ); }
+				fmt.format( "Surge Drone # %2d:\n", standaloneDroneIndex++ );
+				writeIndented( out, standaloneDrone.toString() );
 			}
 
-			result.append( "\nAugments...\n" );
+			out.write( "\nAugments...\n" );
 			for ( String augmentId : augmentIdList ) {
-				result.append( String.format( "AugmentId: %s\n", augmentId ) );
+				fmt.format( "AugmentId: %s\n", augmentId );
 			}
 
+			if ( fmt.ioException() != null ) throw fmt.ioException();
+		}
+
+		@Override
+		public String toString() {
+			StringWriter result = new StringWriter();
+			try {
+				dump( result );
+			}
+			catch ( IOException e ) {
+				throw new RuntimeException( e );  // StringWriter doesn't throw.
+			}
 			return result.toString();
 		}
 	}
@@ -4258,10 +4664,18 @@ public class SavedGameParser extends Parser {
 
 		@Override
 		public String toString() {
+			return toString( DataManager.get() );
+		}
+
+		/**
+		 * Returns a human-readable summary, with tint colors from the race's
+		 * blueprint in the given DataManager.
+		 */
+		public String toString( DataManager dataManager ) {
 			StringBuilder result = new StringBuilder();
 			boolean first = true;
 
-			CrewBlueprint crewBlueprint = DataManager.get().getCrew( race );
+			CrewBlueprint crewBlueprint = dataManager.getCrew( race );
 
 			List<CrewBlueprint.SpriteTintLayer> tintLayerList = null;
 			if ( crewBlueprint != null ) {
@@ -5204,9 +5618,17 @@ public class SavedGameParser extends Parser {
 
 		@Override
 		public String toString() {
+			return toString( DataManager.get() );
+		}
+
+		/**
+		 * Returns a human-readable summary, with the cooldown from the
+		 * weapon's blueprint in the given DataManager.
+		 */
+		public String toString( DataManager dataManager ) {
 			StringBuilder result = new StringBuilder();
 
-			WeaponBlueprint weaponBlueprint = DataManager.get().getWeapon( weaponId );
+			WeaponBlueprint weaponBlueprint = dataManager.getWeapon( weaponId );
 			String cooldownString = ( weaponBlueprint!=null ? weaponBlueprint.getCooldown()+"" : "?" );
 
 			result.append( String.format( "WeaponId:       %s\n", weaponId ) );
@@ -9725,7 +10147,7 @@ public class SavedGameParser extends Parser {
 	 *
 	 * This method does not involve a dedicated class.
 	 */
-	private void readExtendedShipInfo( FileInputStream in, ShipState shipState, int fileFormat ) throws IOException {
+	private void readExtendedShipInfo( InputStream in, ShipState shipState, int fileFormat ) throws IOException {
 		// There is no explicit list count for drones.
 		for ( DroneState drone : shipState.getDroneList() ) {
 			ExtendedDroneInfo droneInfo = new ExtendedDroneInfo();
@@ -9734,11 +10156,11 @@ public class SavedGameParser extends Parser {
 			droneInfo.setArmed( readBool( in ) );
 
 			String droneId = drone.getDroneId();
-			DroneBlueprint droneBlueprint = DataManager.get().getDrone( droneId );
-			if ( droneBlueprint == null ) throw new IOException( "Unrecognized DroneBlueprint: "+ droneId );
+			String droneTypeId = shipLayoutProvider.getDroneType( droneId );
+			if ( droneTypeId == null ) throw new IOException( "Unrecognized DroneBlueprint: "+ droneId );
 
-			DroneType droneType = DroneType.findById( droneBlueprint.getType() );
-			if ( droneType == null ) throw new IOException( String.format( "DroneBlueprint \"%s\" has an unrecognized type: %s", droneId, droneBlueprint.getType() ) );
+			DroneType droneType = DroneType.findById( droneTypeId );
+			if ( droneType == null ) throw new IOException( String.format( "DroneBlueprint \"%s\" has an unrecognized type: %s", droneId, droneTypeId ) );
 
 			if ( DroneType.REPAIR.equals( droneType ) ||
 			     DroneType.BATTLE.equals( droneType ) ) {
@@ -9815,14 +10237,14 @@ public class SavedGameParser extends Parser {
 		int standaloneDroneCount = readInt( in );
 		for ( int i=0; i < standaloneDroneCount; i++ ) {
 			String droneId = readString( in );
-			DroneBlueprint droneBlueprint = DataManager.get().getDrone( droneId );
-			if ( droneBlueprint == null ) throw new IOException( "Unrecognized DroneBlueprint: "+ droneId );
+			String droneTypeId = shipLayoutProvider.getDroneType( droneId );
+			if ( droneTypeId == null ) throw new IOException( "Unrecognized DroneBlueprint: "+ droneId );
 
 			StandaloneDroneState standaloneDrone = new StandaloneDroneState();
 			standaloneDrone.setDroneId( droneId );
 
-			DroneType droneType = DroneType.findById( droneBlueprint.getType() );
-			if ( droneType == null ) throw new IOException( String.format( "DroneBlueprint \"%s\" has an unrecognized type: %s", droneId, droneBlueprint.getType() ) );
+			DroneType droneType = DroneType.findById( droneTypeId );
+			if ( droneType == null ) throw new IOException( String.format( "DroneBlueprint \"%s\" has an unrecognized type: %s", droneId, droneTypeId ) );
 
 			DronePodState dronePod = readDronePod( in, droneType );
 			standaloneDrone.setDronePod( dronePod );
@@ -9907,7 +10329,7 @@ public class SavedGameParser extends Parser {
 		}
 	}
 
-	private DronePodState readDronePod( FileInputStream in, DroneType droneType ) throws IOException {
+	private DronePodState readDronePod( InputStream in, DroneType droneType ) throws IOException {
 		if ( droneType == null ) throw new IllegalArgumentException( "DroneType cannot be null." );
 
 		//log.debug( String.format( "Drone Pod: @%d", in.getChannel().position() ) );
@@ -10094,7 +10516,7 @@ public class SavedGameParser extends Parser {
 		}
 	}
 
-	private WeaponModuleState readWeaponModule( FileInputStream in, int fileFormat ) throws IOException {
+	private WeaponModuleState readWeaponModule( InputStream in, int fileFormat ) throws IOException {
 		WeaponModuleState weaponMod = new WeaponModuleState();
 
 		weaponMod.setCooldownTicks( readInt( in ) );
@@ -10187,7 +10609,7 @@ public class SavedGameParser extends Parser {
 		}
 	}
 
-	private ReticleCoordinate readReticleCoordinate( FileInputStream in ) throws IOException {
+	private ReticleCoordinate readReticleCoordinate( InputStream in ) throws IOException {
 		ReticleCoordinate reticle = new ReticleCoordinate();
 
 		reticle.setX( readInt( in ) );
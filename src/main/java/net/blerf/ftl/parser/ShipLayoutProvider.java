@@ -0,0 +1,43 @@
+package net.blerf.ftl.parser;
+
+import net.blerf.ftl.model.ShipLayout;
+import net.blerf.ftl.parser.SavedGameParser.SystemType;
+
+
+/**
+ * The ship information SavedGameParser needs to decode a ship.
+ *
+ * A saved ship only names its blueprint. How many rooms, doors, and
+ * multi-room systems follow depends on the blueprint's layout. Likewise,
+ * which fields follow a drone depend on its blueprint's type.
+ *
+ * @see SavedGameParser#setShipLayoutProvider(ShipLayoutProvider)
+ */
+public interface ShipLayoutProvider {
+
+	/**
+	 * Returns the id of the layout a ship blueprint uses, or null if the
+	 * blueprint is unknown.
+	 */
+	public String getShipLayoutId( String shipBlueprintId );
+
+	/**
+	 * Returns how many rooms a ship blueprint dedicates to a system, or 0.
+	 *
+	 * This is usually 0 or 1. The boss' artillery is an exception.
+	 */
+	public int getSystemRoomCount( String shipBlueprintId, SystemType systemType );
+
+	/**
+	 * Returns a layout, or null if it is unknown.
+	 */
+	public ShipLayout getShipLayout( String shipLayoutId );
+
+	/**
+	 * Returns the type of a drone blueprint (e.g., "COMBAT"), or null if
+	 * the blueprint is unknown.
+	 *
+	 * @see SavedGameParser.DroneType#findById(String)
+	 */
+	public String getDroneType( String droneId );
+}
@@ -0,0 +1,293 @@
+package net.blerf.ftl.parser.random;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.blerf.ftl.parser.random.NativeRandom;
+import net.blerf.ftl.parser.random.RandRNG;
+
+
+/**
+ * Sweeps a range of seeds on several threads, reporting those whose
+ * generated results satisfy a predicate.
+ *
+ * Subclasses supply a generator for each worker, built around an RNG from
+ * the given factory. Nothing else is shared between workers unless the
+ * subclass shares it (read-only).
+ *
+ * Seeds are handed out in fixed-size chunks, so workers stay busy without
+ * contending over every seed. Matches are passed to the sink as they're
+ * found, on whichever worker found them, so they will not arrive in seed
+ * order.
+ *
+ * NativeRandom is rejected: its state is global to the process, so
+ * workers would corrupt each other's sequences.
+ *
+ * @param <T> the type of result generated from each seed
+ */
+public abstract class AbstractSeedSearch<T> {
+
+	private static final Logger log = LoggerFactory.getLogger( AbstractSeedSearch.class );
+
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	/** How many seeds a worker tries between checks for cancellation. */
+	private static final int CANCEL_CHECK_INTERVAL = 256;
+
+	private final RNGFactory rngFactory;
+
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	private SeedPredicate<? super T> predicate = null;
+	private SeedSink<? super T> sink = null;
+	private SearchProgressListener progressListener = null;
+
+	private volatile boolean cancelled = false;
+	private final AtomicLong seedsSearched = new AtomicLong( 0 );
+	private final AtomicLong matchCount = new AtomicLong( 0 );
+
+
+	protected AbstractSeedSearch( RNGFactory rngFactory ) {
+		RandRNG sampleRNG = rngFactory.createRNG();
+		if ( sampleRNG instanceof NativeRandom ) {
+			throw new IllegalArgumentException( "NativeRandom shares global state and cannot be used by parallel workers" );
+		}
+
+		this.rngFactory = rngFactory;
+	}
+
+	/**
+	 * Returns a new generator for a single worker's exclusive use.
+	 */
+	protected abstract SeedGenerator<T> createGenerator( RandRNG rng );
+
+
+	/**
+	 * Sets the number of worker threads. (Default: one per processor)
+	 */
+	public void setThreadCount( int n ) {
+		if ( n < 1 ) throw new IllegalArgumentException( "Thread count must be positive: "+ n );
+		threadCount = n;
+	}
+
+	public int getThreadCount() { return threadCount; }
+
+	/**
+	 * Sets how many consecutive seeds a worker claims at a time.
+	 *
+	 * Progress is reported after each chunk.
+	 */
+	public void setChunkSize( int n ) {
+		if ( n < 1 ) throw new IllegalArgumentException( "Chunk size must be positive: "+ n );
+		chunkSize = n;
+	}
+
+	public int getChunkSize() { return chunkSize; }
+
+	/**
+	 * Sets the test a result must pass to be reported.
+	 *
+	 * The predicate will be called concurrently from all workers.
+	 */
+	public void setPredicate( SeedPredicate<? super T> predicate ) { this.predicate = predicate; }
+
+	/**
+	 * Sets the receiver of matching seeds.
+	 *
+	 * The sink will be called concurrently from all workers.
+	 */
+	public void setSink( SeedSink<? super T> sink ) { this.sink = sink; }
+
+	/**
+	 * Sets a listener to notify after each chunk, or null.
+	 *
+	 * The listener will be called concurrently from all workers. A Swing
+	 * listener should hand off to the EDT.
+	 */
+	public void setProgressListener( SearchProgressListener l ) { this.progressListener = l; }
+
+	/**
+	 * Asks a running search to stop.
+	 *
+	 * Workers only check for cancellation every CANCEL_CHECK_INTERVAL seeds,
+	 * so each may try up to that many more before it exits. Matches found
+	 * meanwhile are still reported. This may be called from any thread.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() { return cancelled; }
+
+	public long getSeedsSearched() { return seedsSearched.get(); }
+
+	public long getMatchCount() { return matchCount.get(); }
+
+
+	/**
+	 * Searches seeds from firstSeed to lastSeed (both inclusive), blocking
+	 * until done.
+	 *
+	 * The entire signed range can be covered with Integer.MIN_VALUE and
+	 * Integer.MAX_VALUE.
+	 *
+	 * If the calling thread is interrupted, the workers are cancelled and
+	 * InterruptedException is thrown. An exception from the generator,
+	 * predicate, sink, or listener also cancels the search, and is rethrown
+	 * here.
+	 *
+	 * @return true if every seed was searched, false if cancelled
+	 */
+	public boolean run( int firstSeed, int lastSeed ) throws InterruptedException {
+		if ( predicate == null ) throw new IllegalStateException( "No predicate was set" );
+		if ( sink == null ) throw new IllegalStateException( "No sink was set" );
+		if ( lastSeed < firstSeed ) throw new IllegalArgumentException( String.format( "Last seed (%d) precedes first seed (%d)", lastSeed, firstSeed ) );
+
+		cancelled = false;
+		seedsSearched.set( 0 );
+		matchCount.set( 0 );
+
+		long seedsTotal = (long)lastSeed - (long)firstSeed + 1;
+		AtomicLong nextChunkStart = new AtomicLong( firstSeed );
+
+		int workerCount = (int)Math.min( threadCount, (seedsTotal + chunkSize - 1) / chunkSize );
+		log.debug( String.format( "Searching %d seeds with %d threads...", seedsTotal, workerCount ) );
+
+		ExecutorService executor = Executors.newFixedThreadPool( workerCount );
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>( workerCount );
+			for ( int i=0; i < workerCount; i++ ) {
+				SearchWorker worker = new SearchWorker( createGenerator( rngFactory.createRNG() ), nextChunkStart, lastSeed, seedsTotal );
+				futures.add( executor.submit( worker ) );
+			}
+
+			for ( Future<?> future : futures ) {
+				try {
+					future.get();
+				}
+				catch ( ExecutionException e ) {
+					cancelled = true;
+					Throwable cause = e.getCause();
+					if ( cause instanceof RuntimeException ) throw (RuntimeException)cause;
+					if ( cause instanceof Error ) throw (Error)cause;
+					throw new RuntimeException( cause );
+				}
+			}
+		}
+		catch ( InterruptedException e ) {
+			cancelled = true;
+			throw e;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		return !cancelled;
+	}
+
+
+	/**
+	 * Returns a predicate that passes only when all the given ones do.
+	 *
+	 * They're tested in order, so put cheap ones first.
+	 */
+	public static <T> SeedPredicate<T> allOf( final List<? extends SeedPredicate<? super T>> predicates ) {
+		final List<SeedPredicate<? super T>> predicateList = new ArrayList<SeedPredicate<? super T>>( predicates );
+
+		return new SeedPredicate<T>() {
+			@Override
+			public boolean matches( int seed, T result ) {
+				for ( SeedPredicate<? super T> p : predicateList ) {
+					if ( !p.matches( seed, result ) ) return false;
+				}
+				return true;
+			}
+		};
+	}
+
+
+
+	private class SearchWorker implements Runnable {
+		private final SeedGenerator<T> generator;
+		private final AtomicLong nextChunkStart;
+		private final long lastSeed;
+		private final long seedsTotal;
+
+
+		public SearchWorker( SeedGenerator<T> generator, AtomicLong nextChunkStart, long lastSeed, long seedsTotal ) {
+			this.generator = generator;
+			this.nextChunkStart = nextChunkStart;
+			this.lastSeed = lastSeed;
+			this.seedsTotal = seedsTotal;
+		}
+
+		@Override
+		public void run() {
+			while ( !cancelled ) {
+				long chunkStart = nextChunkStart.getAndAdd( chunkSize );
+				if ( chunkStart > lastSeed ) break;
+				long chunkEnd = Math.min( chunkStart + chunkSize - 1, lastSeed );
+
+				long searched = 0;
+				for ( long s=chunkStart; s <= chunkEnd; s++ ) {
+					if ( searched % CANCEL_CHECK_INTERVAL == 0 && (cancelled || Thread.currentThread().isInterrupted()) ) {
+						cancelled = true;
+						break;
+					}
+
+					int seed = (int)s;
+					T result = generator.generate( seed );
+					searched++;
+
+					if ( result != null && predicate.matches( seed, result ) ) {
+						matchCount.incrementAndGet();
+						sink.seedFound( seed, result );
+					}
+				}
+
+				long totalSearched = seedsSearched.addAndGet( searched );
+				if ( progressListener != null ) {
+					progressListener.searchProgressed( totalSearched, seedsTotal, matchCount.get() );
+				}
+			}
+		}
+	}
+
+
+
+	/**
+	 * A source of independent RNGs, one per worker.
+	 */
+	public interface RNGFactory {
+		RandRNG createRNG();
+	}
+
+	/**
+	 * Produces a result from a seed, or null if that seed yields nothing.
+	 *
+	 * Each worker has its own, so implementations needn't be thread-safe.
+	 */
+	public interface SeedGenerator<T> {
+		T generate( int seed );
+	}
+
+	public interface SeedPredicate<T> {
+		boolean matches( int seed, T result );
+	}
+
+	public interface SeedSink<T> {
+		void seedFound( int seed, T result );
+	}
+
+	public interface SearchProgressListener {
+		void searchProgressed( long seedsSearched, long seedsTotal, long matchCount );
+	}
+}
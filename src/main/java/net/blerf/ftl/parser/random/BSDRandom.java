@@ -39,6 +39,15 @@ public class BSDRandom implements RandRNG {
 		return seed = (seed * 1103515245 + 12345) & RAND_MAX;
 	}
 
+	@Override
+	public void rand( int[] dst, int off, int len ) {
+		int s = seed;
+		for ( int i=off; i < off + len; i++ ) {
+			dst[i] = s = (s * 1103515245 + 12345) & RAND_MAX;
+		}
+		seed = s;
+	}
+
 	@Override
 	public void setName( String newName ) {
 		name = newName;
@@ -1,7 +1,5 @@
 package net.blerf.ftl.parser.random;
 
-import java.math.BigInteger;
-
 import net.blerf.ftl.parser.random.RandRNG;
 
 
@@ -12,6 +10,11 @@ import net.blerf.ftl.parser.random.RandRNG;
  * across platforms. Previous editions relied on native OS calls to
  * srand()/rand().
  *
+ * It's a 64bit linear congruential generator (Knuth's MMIX constants),
+ * returning the high 31 bits of the state. Java's long arithmetic wraps
+ * at 64 bits, same as the unsigned math in the game, so no masking is
+ * needed. A negative seed sign-extends into the high half.
+ *
  * FTL 1.6.1+ will fall back to using the native RNG for legacy saved
  * games migrated from an older edition.
  *
@@ -20,13 +23,11 @@ import net.blerf.ftl.parser.random.RandRNG;
  */
 public class FTL_1_6_Random implements RandRNG {
 
-	protected static final BigInteger UINT_MASK = new BigInteger( "ffffffff", 16 );
-	protected static final BigInteger HIGH_MASK = new BigInteger( "ffffffff00000000", 16 );
-	protected static final BigInteger LOW_MASK = new BigInteger( "00000000ffffffff", 16 );
-	protected static final BigInteger FULL_MASK = new BigInteger( "ffffffffffffffff", 16 );
+	/** 0x5851F42D_4C957F2D, or 1481765933 and 1284865837 as high/low halves. */
+	protected static final long MULTIPLIER = 6364136223846793005L;
+	protected static final long INCREMENT = 1L;
 
-	// Math is gonna reach 64bit unsigned long territory.
-	protected BigInteger seed = new BigInteger( "1" );
+	protected long seed = 1;
 
 	protected String name = null;
 
@@ -41,28 +42,25 @@ public class FTL_1_6_Random implements RandRNG {
 
 	@Override
 	public void srand( int newSeed ) {
-		seed = new BigInteger( Integer.toString( newSeed ) );
+		seed = newSeed;
 	}
 
 	@Override
 	public int rand() {
-		BigInteger seedHigh = seed.shiftRight( 32 ).and( UINT_MASK );
-		BigInteger seedLow = seed.and( UINT_MASK );
-
-		// Isolate high bits, then mask and bitwise-or them back onto the var.
-		BigInteger z = new BigInteger( "1284865837" ).multiply( seedLow );
-		BigInteger zHigh = z.shiftRight( 32 ).and( UINT_MASK );
-		zHigh = zHigh.add( new BigInteger( "1481765933" ).multiply( seedLow ) );
-		zHigh = zHigh.add( new BigInteger( "1284865837" ).multiply( seedHigh ) );
+		seed = seed * MULTIPLIER + INCREMENT;
 
-		z = zHigh.shiftLeft( 32 ).and( HIGH_MASK ).or( z.and( LOW_MASK ) );
-		z = z.add( new BigInteger( "1" ) ).and( FULL_MASK );
-
-		seed = z;
-		return z.shiftRight( 32 ).shiftRight( 1 ).intValue();
+		// Unsigned shifting 33 bits leaves 31, safe to hold in a 32bit signed int.
+		return (int)(seed >>> 33);
+	}
 
-		// After masking 64 bits, shifting 32, and shifting 1 bit more,
-		// return value should be 31 bits, safe to hold in a 32bit signed int.
+	@Override
+	public void rand( int[] dst, int off, int len ) {
+		long s = seed;
+		for ( int i=off; i < off + len; i++ ) {
+			s = s * MULTIPLIER + INCREMENT;
+			dst[i] = (int)(s >>> 33);
+		}
+		seed = s;
 	}
 
 
@@ -76,6 +76,11 @@ public class GNULibCRandom implements RandRNG {
 		return random_r( unsafeState );
 	}
 
+	@Override
+	public void rand( int[] dst, int off, int len ) {
+		random_r( unsafeState, dst, off, len );
+	}
+
 	@Override
 	public void setName( String newName ) {
 		name = newName;
@@ -187,6 +192,45 @@ public class GNULibCRandom implements RandRNG {
 	}
 
 
+	/**
+	 * Fills part of an array with 31-bit random numbers.
+	 *
+	 * This is equivalent to calling random_r() len times, but the table and
+	 * pointers are held in locals until the end.
+	 */
+	public void random_r( RandState buf, int[] dst, int off, int len ) {
+		int[] tbl = buf.randtbl;
+		int statePtr = buf.getStatePtr();
+
+		if ( buf.randType == TYPE_0 ) {
+			int val = tbl[statePtr];
+			for ( int i=off; i < off + len; i++ ) {
+				dst[i] = val = ((val * 1103515245) + 12345) & 0x7fffffff;
+			}
+			tbl[statePtr] = val;
+			return;
+		}
+
+		int fPtr = buf.getFPtr();
+		int rPtr = buf.getRPtr();
+		int endPtr = buf.getEndPtr();
+
+		for ( int i=off; i < off + len; i++ ) {
+			int val = tbl[fPtr] += tbl[rPtr];
+			dst[i] = (val >> 1) & 0x7fffffff;
+
+			if ( ++fPtr >= endPtr ) {
+				fPtr = statePtr;
+				++rPtr;
+			}
+			else if ( ++rPtr >= endPtr ) {
+				rPtr = statePtr;
+			}
+		}
+		buf.setFPtr( fPtr );
+		buf.setRPtr( rPtr );
+	}
+
 
 	public static class RandState {
 		protected int[] randtbl = new int[] {
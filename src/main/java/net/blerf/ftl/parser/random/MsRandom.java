@@ -38,6 +38,15 @@ public class MsRandom implements RandRNG {
 		return (seed = (seed * 214013 + 2531011) & RAND_MAX_32) >> 16;
 	}
 
+	@Override
+	public void rand( int[] dst, int off, int len ) {
+		int s = seed;
+		for ( int i=off; i < off + len; i++ ) {
+			dst[i] = (s = (s * 214013 + 2531011) & RAND_MAX_32) >> 16;
+		}
+		seed = s;
+	}
+
 	@Override
 	public void setName( String newName ) {
 		name = newName;
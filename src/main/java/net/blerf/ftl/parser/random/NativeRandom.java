@@ -39,6 +39,14 @@ public class NativeRandom implements RandRNG {
 		return CLibrary.INSTANCE.rand();
 	}
 
+	@Override
+	public void rand( int[] dst, int off, int len ) {
+		CLibrary lib = CLibrary.INSTANCE;
+		for ( int i=off; i < off + len; i++ ) {
+			dst[i] = lib.rand();
+		}
+	}
+
 	@Override
 	public void setName( String newName ) {
 		name = newName;
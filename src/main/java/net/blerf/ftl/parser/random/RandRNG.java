@@ -7,5 +7,17 @@ public interface RandRNG {
 
 	int rand();
 
+	/**
+	 * Fills part of an array with the next values from rand().
+	 *
+	 * This is equivalent to calling rand() len times, but implementations
+	 * can keep their state in locals for the duration.
+	 *
+	 * @param dst an array to fill
+	 * @param off the first index to fill
+	 * @param len the number of values to generate
+	 */
+	void rand(int[] dst, int off, int len);
+
 	void setName(String newName);
 }
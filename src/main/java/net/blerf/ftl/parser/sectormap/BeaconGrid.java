@@ -0,0 +1,267 @@
+package net.blerf.ftl.parser.sectormap;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.blerf.ftl.parser.sectormap.GeneratedBeacon;
+
+
+/**
+ * A spatial index over a sector map's beacons, for neighbor queries.
+ *
+ * Beacons are bucketed into square cells. A query only visits cells that
+ * could hold an answer, rather than comparing against every beacon.
+ *
+ * Beacons are referred to by their index in the list given to the
+ * constructor. Later changes to that list or its beacons are not seen.
+ *
+ * This class is not thread-safe, but instances are cheap enough to build
+ * one per map.
+ */
+public class BeaconGrid {
+
+	private final int beaconCount;
+	private final int[] xs;
+	private final int[] ys;
+
+	private final int cellSize;
+	private final int originX;
+	private final int originY;
+	private final int cols;
+	private final int rows;
+
+	/** Index of the first beacon in each cell, or -1. */
+	private final int[] cellHeads;
+
+	/** Index of the next beacon in the same cell, or -1. */
+	private final int[] cellNexts;
+
+
+	/**
+	 * Constructs a grid with cells the size of the isolation threshold.
+	 *
+	 * @see RandomSectorMapGenerator#ISOLATION_THRESHOLD
+	 */
+	public BeaconGrid( List<GeneratedBeacon> genBeaconList ) {
+		this( genBeaconList, (int)Math.ceil( RandomSectorMapGenerator.ISOLATION_THRESHOLD ) );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * Queries are fastest when the cell size is close to the distances being
+	 * asked about.
+	 */
+	public BeaconGrid( List<GeneratedBeacon> genBeaconList, int cellSize ) {
+		if ( cellSize < 1 ) throw new IllegalArgumentException( "Cell size must be positive: "+ cellSize );
+
+		this.cellSize = cellSize;
+
+		beaconCount = genBeaconList.size();
+		xs = new int[beaconCount];
+		ys = new int[beaconCount];
+
+		int minX = 0, minY = 0, maxX = 0, maxY = 0;
+		for ( int i=0; i < beaconCount; i++ ) {
+			GeneratedBeacon genBeacon = genBeaconList.get( i );
+			xs[i] = genBeacon.getX();
+			ys[i] = genBeacon.getY();
+
+			if ( i == 0 || xs[i] < minX ) minX = xs[i];
+			if ( i == 0 || ys[i] < minY ) minY = ys[i];
+			if ( i == 0 || xs[i] > maxX ) maxX = xs[i];
+			if ( i == 0 || ys[i] > maxY ) maxY = ys[i];
+		}
+		originX = minX;
+		originY = minY;
+		cols = (maxX - minX) / cellSize + 1;
+		rows = (maxY - minY) / cellSize + 1;
+
+		cellHeads = new int[cols * rows];
+		Arrays.fill( cellHeads, -1 );
+		cellNexts = new int[beaconCount];
+
+		// Insert in reverse, so each cell lists its beacons in index order.
+		for ( int i=beaconCount-1; i >= 0; i-- ) {
+			int cell = cellRow( ys[i] ) * cols + cellCol( xs[i] );
+			cellNexts[i] = cellHeads[cell];
+			cellHeads[cell] = i;
+		}
+	}
+
+	public int getBeaconCount() { return beaconCount; }
+
+	public int getX( int index ) { return xs[index]; }
+	public int getY( int index ) { return ys[index]; }
+
+	/**
+	 * Returns the distance between two beacons.
+	 */
+	public double getDistance( int a, int b ) {
+		return Math.sqrt( distanceSq( a, b ) );
+	}
+
+	/**
+	 * Returns the distance from a beacon to its nearest neighbor, or -1 if
+	 * there are no other beacons.
+	 *
+	 * Cells are searched in rings of increasing size around the beacon's own,
+	 * stopping once no farther ring could hold anything closer.
+	 */
+	public double getNearestNeighborDistance( int index ) {
+		int bestSq = -1;
+
+		int cx = cellCol( xs[index] );
+		int cy = cellRow( ys[index] );
+		int maxRing = Math.max( cols, rows );
+
+		for ( int k=0; k <= maxRing; k++ ) {
+			for ( int r=cy-k; r <= cy+k; r++ ) {
+				if ( r < 0 || r >= rows ) continue;
+
+				// Edge rows of the ring are scanned whole, others only at each end.
+				int step = ( r == cy-k || r == cy+k ) ? 1 : Math.max( 1, 2*k );
+
+				for ( int c=cx-k; c <= cx+k; c += step ) {
+					if ( c < 0 || c >= cols ) continue;
+
+					for ( int j=cellHeads[r * cols + c]; j != -1; j=cellNexts[j] ) {
+						if ( j == index ) continue;
+
+						int dSq = distanceSq( index, j );
+						if ( bestSq == -1 || dSq < bestSq ) bestSq = dSq;
+					}
+				}
+			}
+
+			// Beacons in farther rings are at least k cells away on some axis.
+			long ringGap = (long)k * cellSize;
+			if ( bestSq != -1 && bestSq <= ringGap * ringGap ) break;
+		}
+
+		return ( bestSq == -1 ? -1d : Math.sqrt( bestSq ) );
+	}
+
+	/**
+	 * Returns true if any other beacon is within a distance (inclusive) of a
+	 * beacon.
+	 */
+	public boolean hasNeighborWithin( int index, double dist ) {
+		double distSq = dist * dist;
+
+		int minC = Math.max( 0, cellCol( (int)Math.floor( xs[index] - dist ) ) );
+		int maxC = Math.min( cols-1, cellCol( (int)Math.ceil( xs[index] + dist ) ) );
+		int minR = Math.max( 0, cellRow( (int)Math.floor( ys[index] - dist ) ) );
+		int maxR = Math.min( rows-1, cellRow( (int)Math.ceil( ys[index] + dist ) ) );
+
+		for ( int r=minR; r <= maxR; r++ ) {
+			for ( int c=minC; c <= maxC; c++ ) {
+				for ( int j=cellHeads[r * cols + c]; j != -1; j=cellNexts[j] ) {
+					if ( j != index && distanceSq( index, j ) <= distSq ) return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the most isolated beacon's distance to its nearest neighbor.
+	 *
+	 * This will be 0 if there are fewer than two beacons.
+	 *
+	 * @see RandomSectorMapGenerator#calculateIsolation(GeneratedSectorMap)
+	 */
+	public double getIsolation() {
+		double result = 0;
+
+		for ( int i=0; i < beaconCount; i++ ) {
+			result = Math.max( result, getNearestNeighborDistance( i ) );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns true if getIsolation() would exceed a threshold.
+	 *
+	 * This stops at the first isolated beacon, and never takes a square
+	 * root.
+	 */
+	public boolean isIsolated( double threshold ) {
+		if ( beaconCount < 2 ) return false;
+
+		for ( int i=0; i < beaconCount; i++ ) {
+			if ( !hasNeighborWithin( i, threshold ) ) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the fewest jumps needed to get from one beacon to another, or
+	 * -1 if there's no route.
+	 *
+	 * Each jump may cover up to the given distance (inclusive).
+	 */
+	public int getHopCount( int from, int to, double jumpDist ) {
+		if ( from == to ) return 0;
+
+		double jumpDistSq = jumpDist * jumpDist;
+		int cellReach = (int)Math.ceil( jumpDist / cellSize );
+
+		int[] hops = new int[beaconCount];
+		Arrays.fill( hops, -1 );
+		int[] queue = new int[beaconCount];
+		int queueHead = 0;
+		int queueTail = 0;
+
+		hops[from] = 0;
+		queue[queueTail++] = from;
+
+		while ( queueHead < queueTail ) {
+			int i = queue[queueHead++];
+			int cx = cellCol( xs[i] );
+			int cy = cellRow( ys[i] );
+
+			for ( int r=Math.max( 0, cy-cellReach ); r <= Math.min( rows-1, cy+cellReach ); r++ ) {
+				for ( int c=Math.max( 0, cx-cellReach ); c <= Math.min( cols-1, cx+cellReach ); c++ ) {
+					for ( int j=cellHeads[r * cols + c]; j != -1; j=cellNexts[j] ) {
+						if ( hops[j] != -1 || distanceSq( i, j ) > jumpDistSq ) continue;
+
+						hops[j] = hops[i] + 1;
+						if ( j == to ) return hops[j];
+						queue[queueTail++] = j;
+					}
+				}
+			}
+		}
+
+		return -1;
+	}
+
+
+	private int distanceSq( int a, int b ) {
+		int dx = xs[a] - xs[b];
+		int dy = ys[a] - ys[b];
+		return dx*dx + dy*dy;
+	}
+
+	/**
+	 * Returns the column a coordinate falls in, possibly outside the grid.
+	 */
+	private int cellCol( int x ) {
+		return floorDiv( x - originX, cellSize );
+	}
+
+	/**
+	 * Returns the row a coordinate falls in, possibly outside the grid.
+	 */
+	private int cellRow( int y ) {
+		return floorDiv( y - originY, cellSize );
+	}
+
+	private static int floorDiv( int a, int b ) {
+		int q = a / b;
+		if ( (a % b != 0) && ((a < 0) != (b < 0)) ) q--;
+		return q;
+	}
+}
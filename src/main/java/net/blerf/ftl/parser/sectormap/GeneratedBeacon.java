@@ -39,4 +39,14 @@ public class GeneratedBeacon {
 	 */
 	public void setLocation( int newX, int newY ) { x = newX; y = newY; }
 	public Point getLocation() { return new Point( x, y ); }
+
+	/**
+	 * Returns the x component of the location, without allocating a Point.
+	 */
+	public int getX() { return x; }
+
+	/**
+	 * Returns the y component of the location, without allocating a Point.
+	 */
+	public int getY() { return y; }
 }
@@ -1,13 +1,13 @@
 package net.blerf.ftl.parser.sectormap;
 
 import java.awt.Dimension;
-import java.awt.Point;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.blerf.ftl.parser.sectormap.BeaconGrid;
 import net.blerf.ftl.parser.sectormap.GeneratedBeacon;
 import net.blerf.ftl.parser.sectormap.GeneratedSectorMap;
 import net.blerf.ftl.parser.random.RandRNG;
@@ -172,9 +172,11 @@ public class RandomSectorMapGenerator {
 				genMap.setGeneratedBeaconList( genBeaconList );
 				generations++;
 
-				double isolation = calculateIsolation( genMap );
-				if ( isolation > ISOLATION_THRESHOLD ) {
-					log.info( String.format( "Re-rolling sector map because attempt #%d has isolated beacons (threshold dist %5.2f): %5.2f", generations, ISOLATION_THRESHOLD, isolation ) );
+				BeaconGrid beaconGrid = new BeaconGrid( genBeaconList );
+				if ( beaconGrid.isIsolated( ISOLATION_THRESHOLD ) ) {
+					if ( log.isDebugEnabled() ) {
+						log.debug( String.format( "Re-rolling sector map because attempt #%d has isolated beacons (threshold dist %5.2f): %5.2f", generations, ISOLATION_THRESHOLD, beaconGrid.getIsolation() ) );
+					}
 					genMap.setGeneratedBeaconList( null );
 				}
 				else {
@@ -202,40 +204,12 @@ public class RandomSectorMapGenerator {
 	 *
 	 * TODO: This code's a guess. The exact algorithm and threshold have not
 	 * been verified, but it seems to work.
+	 *
+	 * @see BeaconGrid#getIsolation()
 	 */
 	public double calculateIsolation( GeneratedSectorMap genMap ) {
-		double result = 0;
-
-		List<GeneratedBeacon> genBeaconList = genMap.getGeneratedBeaconList();
-
-		for ( int i=0; i < genBeaconList.size(); i++ ) {
-			double minDist = 0d;
-			boolean measured = false;
-
-			for ( int j=0; j < genBeaconList.size(); j++ ) {
-				if ( i == j ) continue;
-
-				GeneratedBeacon a = genBeaconList.get( i );
-				GeneratedBeacon b = genBeaconList.get( j );
-				Point aLoc = a.getLocation();
-				Point bLoc = b.getLocation();
-
-				double d = Math.hypot( aLoc.x - bLoc.x, aLoc.y - bLoc.y );
-				if ( !measured ) {
-					minDist = d;
-					measured = true;
-				} else {
-					minDist = Math.min( minDist, d );
-				}
-			}
-
-			//if ( measured ) log.info( String.format( "%5.2f", minDist ) );
-
-			if ( measured ) {
-				result = Math.max( result, minDist );
-			}
-		}
+		BeaconGrid beaconGrid = new BeaconGrid( genMap.getGeneratedBeaconList() );
 
-		return result;
+		return beaconGrid.getIsolation();
 	}
 }
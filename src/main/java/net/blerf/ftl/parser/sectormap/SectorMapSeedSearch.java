@@ -0,0 +1,164 @@
+package net.blerf.ftl.parser.sectormap;
+
+import java.util.List;
+
+import net.blerf.ftl.parser.random.AbstractSeedSearch;
+import net.blerf.ftl.parser.random.RandRNG;
+import net.blerf.ftl.parser.sectormap.BeaconGrid;
+import net.blerf.ftl.parser.sectormap.GeneratedBeacon;
+import net.blerf.ftl.parser.sectormap.GeneratedSectorMap;
+import net.blerf.ftl.parser.sectormap.RandomSectorMapGenerator;
+
+
+/**
+ * Sweeps a range of sector layout seeds through RandomSectorMapGenerator on
+ * several threads, reporting those whose maps satisfy a predicate.
+ *
+ * Each worker owns a generator and an RNG from the given factory. The RNG
+ * is seeded immediately before each map, as FTL would.
+ *
+ * Seeds for which no valid map could be generated are skipped.
+ *
+ * Spatial predicates here treat the westmost beacon as the start and the
+ * eastmost as the exit. FTL decides those at runtime, so this is only an
+ * approximation.
+ *
+ * Usage:
+ *   SectorMapSeedSearch search = new SectorMapSeedSearch( factory, 9 );
+ *   search.setPredicate( SectorMapSeedSearch.hopCountBetween( 5, 5, 150 ) );
+ *   search.setSink( sink );
+ *   search.run( 0, Integer.MAX_VALUE );
+ *
+ * @see RandomSectorMapGenerator
+ * @see AbstractSeedSearch
+ */
+public class SectorMapSeedSearch extends AbstractSeedSearch<GeneratedSectorMap> {
+
+	private final int fileFormat;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param fileFormat the saved game format whose map algorithm to use
+	 * @see net.blerf.ftl.parser.SavedGameParser.SavedGameState#getFileFormat()
+	 */
+	public SectorMapSeedSearch( RNGFactory rngFactory, int fileFormat ) {
+		super( rngFactory );
+		this.fileFormat = fileFormat;
+	}
+
+	public int getFileFormat() { return fileFormat; }
+
+
+	@Override
+	protected SeedGenerator<GeneratedSectorMap> createGenerator( final RandRNG rng ) {
+		final RandomSectorMapGenerator generator = new RandomSectorMapGenerator();
+
+		return new SeedGenerator<GeneratedSectorMap>() {
+			@Override
+			public GeneratedSectorMap generate( int seed ) {
+				rng.srand( seed );
+				try {
+					return generator.generateSectorMap( rng, fileFormat );
+				}
+				catch ( IllegalStateException e ) {
+					return null;  // Too many re-rolls.
+				}
+			}
+		};
+	}
+
+
+	/**
+	 * Returns the index of the beacon with the lowest x, or -1 if there are
+	 * none.
+	 *
+	 * Ties go to the earliest beacon.
+	 */
+	public static int getWestmostBeaconIndex( List<GeneratedBeacon> genBeaconList ) {
+		int result = -1;
+		for ( int i=0; i < genBeaconList.size(); i++ ) {
+			if ( result == -1 || genBeaconList.get( i ).getX() < genBeaconList.get( result ).getX() ) {
+				result = i;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the index of the beacon with the highest x, or -1 if there are
+	 * none.
+	 *
+	 * Ties go to the earliest beacon.
+	 */
+	public static int getEastmostBeaconIndex( List<GeneratedBeacon> genBeaconList ) {
+		int result = -1;
+		for ( int i=0; i < genBeaconList.size(); i++ ) {
+			if ( result == -1 || genBeaconList.get( i ).getX() > genBeaconList.get( result ).getX() ) {
+				result = i;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a predicate requiring the beacon count to be within a range
+	 * (inclusive).
+	 */
+	public static SeedPredicate<GeneratedSectorMap> beaconCountBetween( final int min, final int max ) {
+		return new SeedPredicate<GeneratedSectorMap>() {
+			@Override
+			public boolean matches( int seed, GeneratedSectorMap genMap ) {
+				int count = genMap.getGeneratedBeaconList().size();
+				return ( count >= min && count <= max );
+			}
+		};
+	}
+
+	/**
+	 * Returns a predicate requiring the straight-line distance from start to
+	 * exit to be at least a given value.
+	 */
+	public static SeedPredicate<GeneratedSectorMap> exitDistanceAtLeast( final double minDist ) {
+		return new SeedPredicate<GeneratedSectorMap>() {
+			@Override
+			public boolean matches( int seed, GeneratedSectorMap genMap ) {
+				List<GeneratedBeacon> genBeaconList = genMap.getGeneratedBeaconList();
+				int start = getWestmostBeaconIndex( genBeaconList );
+				int exit = getEastmostBeaconIndex( genBeaconList );
+				if ( start == -1 ) return false;
+
+				GeneratedBeacon a = genBeaconList.get( start );
+				GeneratedBeacon b = genBeaconList.get( exit );
+				double dx = a.getX() - b.getX();
+				double dy = a.getY() - b.getY();
+				return ( dx*dx + dy*dy >= minDist * minDist );
+			}
+		};
+	}
+
+	/**
+	 * Returns a predicate requiring the fewest jumps from start to exit to be
+	 * within a range (inclusive).
+	 *
+	 * Maps with no route at all never match.
+	 *
+	 * @param jumpDist the farthest a single jump may reach
+	 */
+	public static SeedPredicate<GeneratedSectorMap> hopCountBetween( final int min, final int max, final double jumpDist ) {
+		return new SeedPredicate<GeneratedSectorMap>() {
+			@Override
+			public boolean matches( int seed, GeneratedSectorMap genMap ) {
+				List<GeneratedBeacon> genBeaconList = genMap.getGeneratedBeaconList();
+				int start = getWestmostBeaconIndex( genBeaconList );
+				int exit = getEastmostBeaconIndex( genBeaconList );
+				if ( start == -1 ) return false;
+
+				BeaconGrid beaconGrid = new BeaconGrid( genBeaconList, Math.max( 1, (int)Math.ceil( jumpDist ) ) );
+				int hops = beaconGrid.getHopCount( start, exit, jumpDist );
+				return ( hops != -1 && hops >= min && hops <= max );
+			}
+		};
+	}
+}
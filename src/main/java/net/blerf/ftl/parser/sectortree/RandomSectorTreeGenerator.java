@@ -30,10 +30,22 @@ import net.blerf.ftl.xml.SectorType;
 public class RandomSectorTreeGenerator {
 
 	protected RandRNG rng;
+	protected final DataManager dataManager;
 
 
 	public RandomSectorTreeGenerator( RandRNG rng ) {
+		this( rng, null );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param rng a provider for random ints
+	 * @param dataManager the resources to look up sectors in, or null for the default instance
+	 */
+	public RandomSectorTreeGenerator( RandRNG rng, DataManager dataManager ) {
 		this.rng = rng;
+		this.dataManager = dataManager;
 	}
 
 
@@ -69,7 +81,13 @@ public class RandomSectorTreeGenerator {
 		return generateSectorTree( seed, civilianSectors, nebulaSectors, hostileSectors );
 	}
 
-	private List<List<SectorDot>> generateSectorTree( int seed, List<Sector> civilianSectors, List<Sector> nebulaSectors, List<Sector> hostileSectors ) {
+	/**
+	 * Generates a sector tree from already resolved pools of sectors.
+	 *
+	 * The pools are only read, so they may be shared by generators on
+	 * several threads (each with its own RNG).
+	 */
+	protected List<List<SectorDot>> generateSectorTree( int seed, List<Sector> civilianSectors, List<Sector> nebulaSectors, List<Sector> hostileSectors ) {
 
 		rng.srand( seed );
 
@@ -187,11 +205,13 @@ public class RandomSectorTreeGenerator {
 
 
 	protected List<Sector> getDatSectors( String sectorTypeId, boolean dlcEnabled ) {
+		DataManager dm = ( dataManager != null ? dataManager : DataManager.getInstance() );
+
 		List<Sector> result = new ArrayList<Sector>();
-		SectorType tmpType = DataManager.getInstance().getSectorTypeById( sectorTypeId, dlcEnabled );
+		SectorType tmpType = dm.getSectorTypeById( sectorTypeId, dlcEnabled );
 
 		for ( String sectorId : tmpType.getSectorIds() ) {
-			SectorDescription tmpDesc = DataManager.getInstance().getSectorDescriptionById( sectorId );
+			SectorDescription tmpDesc = dm.getSectorDescriptionById( sectorId );
 
 			Sector tmpSector = new Sector( tmpDesc.isUnique(), tmpDesc.getMinSector(), tmpDesc.getId(), new ArrayList<String>( tmpDesc.getNameList().names ) );
 			result.add( tmpSector );
@@ -200,7 +220,7 @@ public class RandomSectorTreeGenerator {
 		return result;
 	}
 
-	private List<Sector> getTestCivilianSectors( boolean preAE, boolean dlcEnabled ) {
+	protected List<Sector> getTestCivilianSectors( boolean preAE, boolean dlcEnabled ) {
 		List<Sector> civilianSectors = new ArrayList<Sector>();
 		civilianSectors.add( new Sector( false, 0, "CIVILIAN_SECTOR", Arrays.asList( "Civilian Sector" ) ) );
 		civilianSectors.add( new Sector( false, 0, "ENGI_SECTOR", Arrays.asList( "Engi Controlled Sector" ) ) );
@@ -221,7 +241,7 @@ public class RandomSectorTreeGenerator {
 		return civilianSectors;
 	}
 
-	private List<Sector> getTestNebulaSectors( boolean preAE, boolean dlcEnabled ) {
+	protected List<Sector> getTestNebulaSectors( boolean preAE, boolean dlcEnabled ) {
 		List<Sector> nebulaSectors = new ArrayList<Sector>();
 		nebulaSectors.add( new Sector( false, 0, "NEBULA_SECTOR", Arrays.asList( "Uncharted Nebula" ) ) );
 		nebulaSectors.add( new Sector( true, 3, "SLUG_HOME", Arrays.asList( "Slug Home Nebula" ) ) );
@@ -230,7 +250,7 @@ public class RandomSectorTreeGenerator {
 		return nebulaSectors;
 	}
 
-	private List<Sector> getTestHostileSectors( boolean preAE, boolean dlcEnabled ) {
+	protected List<Sector> getTestHostileSectors( boolean preAE, boolean dlcEnabled ) {
 		List<Sector> hostileSectors = new ArrayList<Sector>();
 		hostileSectors.add( new Sector( false, 0, "REBEL_SECTOR", Arrays.asList( "Rebel Controlled Sector" ) ) );
 		hostileSectors.add( new Sector( true, 4, "REBEL_SECTOR_MINIBOSS", Arrays.asList( "Rebel Stronghold" ) ) );
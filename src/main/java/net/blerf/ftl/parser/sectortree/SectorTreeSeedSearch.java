@@ -0,0 +1,127 @@
+package net.blerf.ftl.parser.sectortree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.blerf.ftl.model.sectortree.SectorDot;
+import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.random.AbstractSeedSearch;
+import net.blerf.ftl.parser.random.RandRNG;
+import net.blerf.ftl.parser.sectortree.RandomSectorTreeGenerator.Sector;
+
+
+/**
+ * Sweeps a range of seeds through RandomSectorTreeGenerator on several
+ * threads, reporting those whose sector trees satisfy a predicate.
+ *
+ * Each worker owns a generator and an RNG from the given factory. The
+ * sector pools are resolved once, up front, and shared read-only.
+ *
+ * Usage:
+ *   SectorTreeSeedSearch search = SectorTreeSeedSearch.createDatSearch( factory, true );
+ *   search.setPredicate( SectorTreeSeedSearch.sectorsBeforeColumn( 5, "SLUG_HOME", "ROCK_HOME" ) );
+ *   search.setSink( sink );
+ *   search.run( 0, Integer.MAX_VALUE );
+ *
+ * @see RandomSectorTreeGenerator
+ * @see AbstractSeedSearch
+ */
+public class SectorTreeSeedSearch extends AbstractSeedSearch<List<List<SectorDot>>> {
+
+	private final List<Sector> civilianSectors;
+	private final List<Sector> nebulaSectors;
+	private final List<Sector> hostileSectors;
+
+
+	protected SectorTreeSeedSearch( RNGFactory rngFactory, List<Sector> civilianSectors, List<Sector> nebulaSectors, List<Sector> hostileSectors ) {
+		super( rngFactory );
+		this.civilianSectors = civilianSectors;
+		this.nebulaSectors = nebulaSectors;
+		this.hostileSectors = hostileSectors;
+	}
+
+	/**
+	 * Creates a search over the sectors defined in FTL's dats.
+	 *
+	 * The default DataManager is consulted once, on the calling thread.
+	 */
+	public static SectorTreeSeedSearch createDatSearch( RNGFactory rngFactory, boolean dlcEnabled ) {
+		return createDatSearch( rngFactory, null, dlcEnabled );
+	}
+
+	/**
+	 * Creates a search over the sectors defined in a given DataManager.
+	 *
+	 * @param dataManager the resources to look up sectors in, or null for the default instance
+	 */
+	public static SectorTreeSeedSearch createDatSearch( RNGFactory rngFactory, DataManager dataManager, boolean dlcEnabled ) {
+		RandomSectorTreeGenerator poolGen = new RandomSectorTreeGenerator( null, dataManager );
+
+		List<Sector> civilianSectors = poolGen.getDatSectors( "CIVILIAN", dlcEnabled );
+		List<Sector> nebulaSectors = poolGen.getDatSectors( "NEBULA", dlcEnabled );
+		List<Sector> hostileSectors = poolGen.getDatSectors( "HOSTILE", dlcEnabled );
+
+		return new SectorTreeSeedSearch( rngFactory, civilianSectors, nebulaSectors, hostileSectors );
+	}
+
+	/**
+	 * Creates a search over RandomSectorTreeGenerator's hardcoded test sectors.
+	 *
+	 * @see RandomSectorTreeGenerator#generateTestSectorTree(int, boolean, boolean)
+	 */
+	public static SectorTreeSeedSearch createTestSearch( RNGFactory rngFactory, boolean preAE, boolean dlcEnabled ) {
+		RandomSectorTreeGenerator poolGen = new RandomSectorTreeGenerator( null );
+
+		List<Sector> civilianSectors = poolGen.getTestCivilianSectors( preAE, dlcEnabled );
+		List<Sector> nebulaSectors = poolGen.getTestNebulaSectors( preAE, dlcEnabled );
+		List<Sector> hostileSectors = poolGen.getTestHostileSectors( preAE, dlcEnabled );
+
+		return new SectorTreeSeedSearch( rngFactory, civilianSectors, nebulaSectors, hostileSectors );
+	}
+
+
+	@Override
+	protected SeedGenerator<List<List<SectorDot>>> createGenerator( RandRNG rng ) {
+		final RandomSectorTreeGenerator generator = new RandomSectorTreeGenerator( rng );
+
+		return new SeedGenerator<List<List<SectorDot>>>() {
+			@Override
+			public List<List<SectorDot>> generate( int seed ) {
+				return generator.generateSectorTree( seed, civilianSectors, nebulaSectors, hostileSectors );
+			}
+		};
+	}
+
+
+	/**
+	 * Returns a predicate requiring every given sector id to appear in the
+	 * columns before a zero-based column index.
+	 *
+	 * For example, (5, "SLUG_HOME", "ROCK_HOME") accepts trees with both
+	 * homeworlds somewhere in columns 0-4.
+	 */
+	public static SeedPredicate<List<List<SectorDot>>> sectorsBeforeColumn( final int column, String... sectorIds ) {
+		final List<String> requiredIds = new ArrayList<String>( Arrays.asList( sectorIds ) );
+
+		return new SeedPredicate<List<List<SectorDot>>>() {
+			@Override
+			public boolean matches( int seed, List<List<SectorDot>> dotColumns ) {
+				for ( String sectorId : requiredIds ) {
+					boolean present = false;
+					for ( int c=0; !present && c < column && c < dotColumns.size(); c++ ) {
+						for ( SectorDot dot : dotColumns.get( c ) ) {
+							if ( sectorId.equals( dot.getSectorId() ) ) {
+								present = true;
+								break;
+							}
+						}
+					}
+					if ( !present ) return false;
+				}
+				return true;
+			}
+		};
+	}
+
+}
@@ -3,15 +3,52 @@ package net.blerf.ftl.ui;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Font;
-
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 
+/**
+ * A read-only view of a long text summary.
+ *
+ * Text can be supplied as a DumpSource, which won't be written until this
+ * panel is first shown (e.g., when its tab is selected). A source that's
+ * replaced before then costs nothing.
+ *
+ * The text is split into pages of PAGE_LINES lines, and only the current
+ * page is given to the text area.
+ */
 public class DumpPanel extends JPanel {
 
+	private static final Logger log = LoggerFactory.getLogger( DumpPanel.class );
+
+	/** Lines of text shown at a time. */
+	public static final int PAGE_LINES = 2000;
+
 	private JTextArea dumpArea = null;
+	private JPanel pageCtrlPanel = null;
+	private JButton prevPageBtn = null;
+	private JButton nextPageBtn = null;
+	private JLabel pageLbl = null;
+
+	private DumpSource pendingSource = null;
+	private List<String> pages = new ArrayList<String>();
+	private int pageIndex = 0;
 
 
 	public DumpPanel() {
@@ -24,11 +61,181 @@ public class DumpPanel extends JPanel {
 		dumpArea.setBackground( new Color( 212, 208, 200 ) );
 		JScrollPane dumpScrollPane = new JScrollPane( dumpArea );
 		this.add( dumpScrollPane, BorderLayout.CENTER );
+
+		pageCtrlPanel = new JPanel();
+		pageCtrlPanel.setLayout( new BoxLayout( pageCtrlPanel, BoxLayout.X_AXIS ) );
+		prevPageBtn = new JButton( "<" );
+		pageCtrlPanel.add( prevPageBtn );
+		pageCtrlPanel.add( Box.createHorizontalStrut( 10 ) );
+		pageLbl = new JLabel( "" );
+		pageCtrlPanel.add( pageLbl );
+		pageCtrlPanel.add( Box.createHorizontalStrut( 10 ) );
+		nextPageBtn = new JButton( ">" );
+		pageCtrlPanel.add( nextPageBtn );
+		pageCtrlPanel.add( Box.createHorizontalGlue() );
+		pageCtrlPanel.setVisible( false );
+		this.add( pageCtrlPanel, BorderLayout.SOUTH );
+
+		ActionListener pageListener = new ActionListener() {
+			@Override
+			public void actionPerformed( ActionEvent e ) {
+				Object source = e.getSource();
+				if ( source == prevPageBtn ) {
+					showPage( pageIndex - 1 );
+				}
+				else if ( source == nextPageBtn ) {
+					showPage( pageIndex + 1 );
+				}
+			}
+		};
+		prevPageBtn.addActionListener( pageListener );
+		nextPageBtn.addActionListener( pageListener );
+
+		this.addHierarchyListener( new HierarchyListener() {
+			@Override
+			public void hierarchyChanged( HierarchyEvent e ) {
+				if ( (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing() ) {
+					writePendingSource();
+				}
+			}
+		});
 	}
 
 	public void setText( String s ) {
-		dumpArea.setText( s );
+		pendingSource = null;
+
+		PageWriter pageWriter = new PageWriter( PAGE_LINES );
+		pageWriter.write( s, 0, s.length() );
+		setPages( pageWriter.getPages() );
+	}
+
+	/**
+	 * Sets where text will come from, the next time this panel is shown.
+	 *
+	 * If the panel is already showing, the text is written immediately.
+	 */
+	public void setDumpSource( DumpSource source ) {
+		pendingSource = source;
+		setPages( new ArrayList<String>() );
+
+		if ( isShowing() ) writePendingSource();
+	}
+
+	private void writePendingSource() {
+		if ( pendingSource == null ) return;
+
+		DumpSource source = pendingSource;
+		pendingSource = null;
+
+		PageWriter pageWriter = new PageWriter( PAGE_LINES );
+		try {
+			source.writeDump( pageWriter );
+		}
+		catch ( Exception e ) {
+			log.error( "Error writing dump text", e );
+			pageWriter.write( String.format( "\n\nError writing dump text: %s", e.toString() ) );
+		}
+		setPages( pageWriter.getPages() );
+	}
+
+	private void setPages( List<String> newPages ) {
+		pages = newPages;
+		pageCtrlPanel.setVisible( pages.size() > 1 );
+		showPage( 0 );
+	}
+
+	private void showPage( int n ) {
+		pageIndex = Math.max( 0, Math.min( n, pages.size()-1 ) );
+
+		dumpArea.setText( (pages.isEmpty() ? "" : pages.get( pageIndex )) );
 		dumpArea.setCaretPosition( 0 );
 		dumpArea.repaint();
+
+		pageLbl.setText( String.format( "Page %d of %d", pageIndex+1, pages.size() ) );
+		prevPageBtn.setEnabled( pageIndex > 0 );
+		nextPageBtn.setEnabled( pageIndex < pages.size()-1 );
+	}
+
+
+
+	/**
+	 * Text to be written when a DumpPanel is shown.
+	 */
+	public static interface DumpSource {
+		public void writeDump( Writer out ) throws IOException;
+	}
+
+
+
+	/**
+	 * A Writer that collects text in pages of a fixed number of lines.
+	 */
+	private static class PageWriter extends Writer {
+		private final int pageLines;
+		private final List<String> pages = new ArrayList<String>();
+		private StringBuilder pageBuf = new StringBuilder();
+		private int lineCount = 0;
+
+
+		public PageWriter( int pageLines ) {
+			this.pageLines = pageLines;
+		}
+
+		@Override
+		public void write( int c ) {
+			pageBuf.append( (char)c );
+			if ( c == '\n' && ++lineCount == pageLines ) {
+				endPage();
+			}
+		}
+
+		@Override
+		public void write( char[] cbuf, int off, int len ) {
+			write( new String( cbuf, off, len ), 0, len );
+		}
+
+		@Override
+		public void write( String str ) {
+			write( str, 0, str.length() );
+		}
+
+		@Override
+		public void write( String str, int off, int len ) {
+			int end = off + len;
+			int runStart = off;
+			for ( int i=off; i < end; i++ ) {
+				if ( str.charAt( i ) == '\n' && ++lineCount == pageLines ) {
+					pageBuf.append( str, runStart, i+1 );
+					runStart = i+1;
+					endPage();
+				}
+			}
+			pageBuf.append( str, runStart, end );
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+		/**
+		 * Returns all pages written so far, including a partial last page.
+		 */
+		public List<String> getPages() {
+			List<String> result = new ArrayList<String>( pages );
+			if ( pageBuf.length() > 0 || result.isEmpty() ) {
+				result.add( pageBuf.toString() );
+			}
+			return result;
+		}
+
+		private void endPage() {
+			pages.add( pageBuf.toString() );
+			pageBuf.setLength( 0 );
+			lineCount = 0;
+		}
 	}
 }
@@ -8,17 +8,19 @@ import java.awt.Font;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
@@ -29,12 +31,12 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
-import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JDialog;
@@ -44,12 +46,14 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.JToolBar;
 import javax.swing.ScrollPaneConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
@@ -61,14 +65,19 @@ import org.slf4j.LoggerFactory;
 import net.vhati.ftldat.PackUtilities;
 import net.vhati.modmanager.core.FTLUtilities;
 
+import net.blerf.ftl.core.SafeFileWriter;
+
 import net.blerf.ftl.model.Profile;
+import net.blerf.ftl.parser.ByteBufferInputStream;
 import net.blerf.ftl.parser.DataManager;
+import net.blerf.ftl.parser.HexDump;
 import net.blerf.ftl.parser.MysteryBytes;
 import net.blerf.ftl.parser.ProfileParser;
 import net.blerf.ftl.parser.SavedGameParser;
 import net.blerf.ftl.ui.DumpPanel;
 import net.blerf.ftl.ui.ExtensionFileFilter;
 import net.blerf.ftl.ui.HTMLEditorTransferHandler;
+import net.blerf.ftl.ui.ImageUtilities;
 import net.blerf.ftl.ui.ProfileGeneralAchievementsPanel;
 import net.blerf.ftl.ui.ProfileGeneralStatsPanel;
 import net.blerf.ftl.ui.ProfileShipStatsPanel;
@@ -122,6 +131,8 @@ public class FTLFrame extends JFrame implements Statusbar {
 	private String bugReportUrl = "https://github.com/Vhati/ftl-profile-editor/issues/new";
 	private String forumThreadUrl = "http://subsetgames.com/forum/viewtopic.php?f=7&t=10959";
 
+	private SafeFileWriter saveWriter = new SafeFileWriter();
+
 	private List<JButton> updatesButtonList = new ArrayList<JButton>();
 	private Runnable updatesCallback;
 
@@ -146,15 +157,29 @@ public class FTLFrame extends JFrame implements Statusbar {
 	private SavedGameSectorTreePanel savedGameSectorTreePanel;
 	private SavedGameStateVarsPanel savedGameStateVarsPanel;
 	private JLabel statusLbl;
+	private LoadSlot profileLoadSlot;
+	private LoadSlot gameStateLoadSlot;
+	private int gameStateLoadSerial = 0;  // Bumped when a saved game starts loading.
 	private final HyperlinkListener linkListener;
 
 	private final String appName;
 	private final int appVersion;
+	private final DataManager dataManager;
 
 
 	public FTLFrame( String appName, int appVersion ) {
+		this( appName, appVersion, DataManager.get() );
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataManager the resources to look up blueprints, etc in
+	 */
+	public FTLFrame( String appName, int appVersion, DataManager dataManager ) {
 		this.appName = appName;
 		this.appVersion = appVersion;
+		this.dataManager = dataManager;
 
 		this.setDefaultCloseOperation( EXIT_ON_CLOSE );
 		this.setSize( 800, 700 );
@@ -181,6 +206,9 @@ public class FTLFrame extends JFrame implements Statusbar {
 
 		initCheckboxIcons();
 
+		profileLoadSlot = new LoadSlot();
+		gameStateLoadSlot = new LoadSlot();
+
 		JPanel contentPane = new JPanel( new BorderLayout() );
 		this.setContentPane( contentPane );
 
@@ -257,14 +285,14 @@ public class FTLFrame extends JFrame implements Statusbar {
 		savedGameTabsPane.addTab( SAVE_SECTOR_TREE, savedGameSectorTreeScroll );
 		savedGameTabsPane.addTab( SAVE_STATE_VARS, savedGameStateVarsPanel );
 
-		JPanel statusPanel = new JPanel();
-		statusPanel.setLayout( new BoxLayout( statusPanel, BoxLayout.Y_AXIS ) );
+		JPanel statusPanel = new JPanel( new BorderLayout() );
 		statusPanel.setBorder( BorderFactory.createLoweredBevelBorder() );
 		statusLbl = new JLabel( " " );
 		//statusLbl.setFont( statusLbl.getFont().deriveFont(Font.PLAIN) );
 		statusLbl.setBorder( BorderFactory.createEmptyBorder( 2, 4, 2, 4 ) );
 		statusLbl.setAlignmentX( Component.LEFT_ALIGNMENT );
-		statusPanel.add( statusLbl );
+		statusPanel.add( statusLbl, BorderLayout.CENTER );
+
 		contentPane.add( statusPanel, BorderLayout.SOUTH );
 
 		// Load blank profile (sets Kestrel unlock).
@@ -292,7 +320,7 @@ public class FTLFrame extends JFrame implements Statusbar {
 	private void initCheckboxIcons() {
 		InputStream stream = null;
 		try {
-			stream = DataManager.get().getResourceInputStream( "img/customizeUI/box_lock_on.png" );
+			stream = dataManager.getResourceInputStream( "img/customizeUI/box_lock_on.png" );
 			ImageUtilities.setLockImage( ImageIO.read( stream ) );
 		}
 		catch ( IOException e ) {
@@ -362,123 +390,7 @@ public class FTLFrame extends JFrame implements Statusbar {
 				}
 
 				if ( chooserResponse == JFileChooser.APPROVE_OPTION && !sillyMistake ) {
-					FileInputStream in = null;
-					StringBuilder hexBuf = new StringBuilder();
-					boolean hashFailed = false;
-					Exception exception = null;
-
-					try {
-						log.info( "Opening profile: "+ chosenFile.getAbsolutePath() );
-
-						in = new FileInputStream( chosenFile );
-
-						// Hash whole file, then go back to the beginning.
-						String readHash = PackUtilities.calcStreamMD5( in );
-						in.getChannel().position( 0 );
-
-						// Read the content in advance, in case an error ocurs.
-						byte[] buf = new byte[4096];
-						int len = 0;
-						while ( (len = in.read(buf)) >= 0 ) {
-							for ( int j=0; j < len; j++ ) {
-								hexBuf.append( String.format( "%02x", buf[j] ) );
-								if ( (j+1) % 32 == 0 ) {
-									hexBuf.append( "\n" );
-								}
-							}
-						}
-						in.getChannel().position( 0 );
-
-						// Parse file data.
-						ProfileParser parser = new ProfileParser();
-						Profile p = parser.readProfile( in );
-						log.debug( "Profile read successfully." );
-
-						Profile mockProfile = new Profile( p );
-						FTLFrame.this.loadProfile( mockProfile );
-
-						// Perform mock write.
-						// The update() incidentally triggers load() of the modified profile.
-						ByteArrayOutputStream mockOut = new ByteArrayOutputStream();
-						FTLFrame.this.updateProfile( mockProfile );
-						parser.writeProfile( mockOut, mockProfile );
-						mockOut.close();
-
-						// Hash result.
-						ByteArrayInputStream mockIn = new ByteArrayInputStream( mockOut.toByteArray() );
-						String writeHash = PackUtilities.calcStreamMD5( mockIn );
-						mockIn.close();
-
-						// Compare hashes.
-						if ( !writeHash.equals( readHash ) ) {
-							log.error( "Hashes did not match after a mock write; editing may not be safe" );
-							hashFailed = true;
-						}
-
-						// Reload the original unmodified profile.
-						FTLFrame.this.loadProfile( p );
-					}
-					catch( Exception f ) {
-						log.error( String.format( "Error reading profile (\"%s\").", chosenFile.getName() ), f );
-						showErrorDialog( String.format( "Error reading profile (\"%s\"):\n%s: %s", chosenFile.getName(), f.getClass().getSimpleName(), f.getMessage() ) );
-						exception = f;
-					}
-					finally {
-						try {if ( in != null ) in.close();}
-						catch ( IOException f ) {}
-					}
-
-					if ( hashFailed || exception != null ) {
-						if ( hexBuf.length() > 0 ) {
-							StringBuilder errBuf = new StringBuilder();
-
-							if ( hashFailed && exception == null ) {
-								errBuf.append( "Your profile loaded, but re-saving will not create an identical file.<br/>");
-								errBuf.append( "You CAN technically proceed anyway, but there is risk of corruption.<br/>" );
-							}
-							else {
-								errBuf.append( "Your profile could not be interpreted correctly.<br/>" );
-							}
-
-							errBuf.append( "<br/>" );
-							errBuf.append( "To submit a bug report, you can use <a href='"+ bugReportUrl +"'>GitHub</a>.<br/>" );
-							errBuf.append( "Or post to the FTL forums <a href='"+ forumThreadUrl +"'>here</a>.<br/>" );
-							errBuf.append( "<br/>" );
-							errBuf.append( "On GitHub, set the issue title as \"Profile Parser Error\".<br/>" );
-							errBuf.append( "<br/>" );
-							errBuf.append( "I will fix the problem and release a new version as soon as I can.<br/>" );
-							errBuf.append( "<br/><br/>" );
-							errBuf.append( "Copy (Ctrl-A, Ctrl-C) the following text, including \"[ code ] tags\"." );
-							errBuf.append( "<br/><br/>" );
-
-							StringBuilder reportBuf = new StringBuilder();
-							reportBuf.append( "[code]\n" );
-							reportBuf.append( "Profile Parser Error\n" );
-							reportBuf.append( "\n" );
-
-							if ( hashFailed ) {
-								reportBuf.append( "Hashes did not match after a mock write.\n" );
-								reportBuf.append( "\n" );
-							}
-
-							if ( exception != null ) {
-								appendStackTrace( reportBuf, exception );
-							}
-
-							reportBuf.append( String.format( "Editor Version: %s\n", appVersion ) );
-							reportBuf.append( String.format( "OS: %s %s\n", System.getProperty( "os.name" ), System.getProperty( "os.version" ) ) );
-							reportBuf.append( String.format( "VM: %s, %s, %s\n", System.getProperty( "java.vm.name" ), System.getProperty( "java.version" ), System.getProperty( "os.arch" ) ) );
-							reportBuf.append( "[/code]\n" );
-							reportBuf.append( "\n" );
-							reportBuf.append( String.format( "File (\"%s\")...\n", chosenFile.getName() ) );
-							reportBuf.append( "[code]\n" );
-							reportBuf.append( hexBuf );
-							reportBuf.append( "\n[/code]\n" );
-
-							JDialog failDialog = createBugReportDialog( "Profile Parser Error", errBuf.toString(), reportBuf.toString() );
-							failDialog.setVisible( true );
-						}
-					}
+					startLoading( profileLoadSlot, new ProfileLoader( chosenFile ), "Opening profile..." );
 				}
 			}
 		});
@@ -524,43 +436,21 @@ public class FTLFrame extends JFrame implements Statusbar {
 				}
 
 				if ( chooserResponse == JFileChooser.APPROVE_OPTION && !sillyMistake ) {
-					FileOutputStream out = null;
 					try {
 						log.info( "Saving profile: "+ chosenFile.getAbsolutePath() );
 
-						if ( chosenFile.exists() ) {
-							String bakName = chosenFile.getName() +".bak";
-							File bakFile = new File( chosenFile.getParentFile(), bakName );
-							boolean bakValid = true;
-
-							if ( bakFile.exists() ) {
-								bakValid = bakFile.delete();
-								if ( !bakValid ) log.warn( "Profile will be overwritten. Could not delete existing backup: "+ bakName );
-							}
-							if ( bakValid ) {
-								bakValid = chosenFile.renameTo( bakFile );
-								if ( !bakValid ) log.warn( "Profile will be overwritten. Could not rename existing file: "+ chosenFile.getName() );
-							}
-
-							if ( bakValid ) {
-								log.info( "Profile was backed up: "+ bakName );
-							}
-						}
-
-						out = new FileOutputStream( chosenFile );
+						ByteArrayOutputStream bout = new ByteArrayOutputStream( 16*1024 );
 
-						ProfileParser parser = new ProfileParser();
+						ProfileParser parser = new ProfileParser( dataManager );
 						FTLFrame.this.updateProfile( profile );
-						parser.writeProfile( out, profile );
+						parser.writeProfile( bout, profile );
+
+						saveWriter.write( chosenFile, bout.toByteArray() );
 					}
 					catch( IOException f ) {
 						log.error( String.format( "Error saving profile (\"%s\")", chosenFile.getName() ), f );
 						showErrorDialog( String.format( "Error saving profile (\"%s\"):\n%s: %s", chosenFile.getName(), f.getClass().getSimpleName(), f.getMessage() ) );
 					}
-					finally {
-						try {if ( out != null ) out.close();}
-						catch ( IOException f ) {}
-					}
 				}
 			}
 		});
@@ -630,6 +520,8 @@ public class FTLFrame extends JFrame implements Statusbar {
 		profileDumpBtn.addMouseListener( new StatusbarMouseListener( this, "Dump unmodified profile info to a text file." ) );
 		toolbar.add( profileDumpBtn );
 
+		toolbar.add( profileLoadSlot.panel );
+
 		toolbar.add( Box.createHorizontalGlue() );
 
 		JButton profileUnlockShipsBtn = new JButton( "Unlock All Ships", unlockIcon );
@@ -675,7 +567,7 @@ public class FTLFrame extends JFrame implements Statusbar {
 
 						JOptionPane.showMessageDialog( FTLFrame.this, "This may take a few seconds.\nClick OK to proceed.", "About to Extract", JOptionPane.PLAIN_MESSAGE );
 
-						DataManager.get().extractResources( extractDir );
+						dataManager.extractResources( extractDir );
 
 						JOptionPane.showMessageDialog( FTLFrame.this, "All dat content extracted successfully.", "Extraction Complete", JOptionPane.PLAIN_MESSAGE );
 					}
@@ -749,93 +641,8 @@ public class FTLFrame extends JFrame implements Statusbar {
 				}
 
 				if ( chooserResponse == JFileChooser.APPROVE_OPTION && !sillyMistake ) {
-					FileInputStream in = null;
-					StringBuilder hexBuf = new StringBuilder();
-					Exception exception = null;
-
-					try {
-						log.info( "Opening game state: "+ chosenFile.getAbsolutePath() );
-
-						in = new FileInputStream( chosenFile );
-
-						// Read the content in advance, in case an error ocurs.
-						byte[] buf = new byte[4096];
-						int len = 0;
-						while ( (len = in.read(buf)) >= 0 ) {
-							for ( int j=0; j < len; j++ ) {
-								hexBuf.append( String.format( "%02x", buf[j] ) );
-								if ( (j+1) % 32 == 0 ) {
-									hexBuf.append( "\n" );
-								}
-							}
-						}
-						in.getChannel().position( 0 );
-
-						SavedGameParser parser = new SavedGameParser();
-						SavedGameParser.SavedGameState gs = parser.readSavedGame( in );
-						loadGameState( gs );
-
-						log.debug( "Game state read successfully" );
-
-						if ( gameState.getMysteryList().size() > 0 ) {
-							StringBuilder musteryBuf = new StringBuilder();
-							musteryBuf.append( "This saved game file contains mystery bytes the developers hadn't anticipated!\n" );
-							boolean first = true;
-							for ( MysteryBytes m : gameState.getMysteryList() ) {
-								if ( first ) { first = false; }
-								else { musteryBuf.append( ",\n" ); }
-								musteryBuf.append( m.toString().replaceAll( "(^|\n)(.+)", "$1  $2") );
-							}
-							log.warn( musteryBuf.toString() );
-						}
-					}
-					catch( Exception f ) {
-						log.error( String.format( "Reading game state (\"%s\") failed", chosenFile.getName() ), f );
-						showErrorDialog( String.format( "Error reading game state (\"%s\"):\n%s: %s", chosenFile.getName(), f.getClass().getSimpleName(), f.getMessage() ) );
-						exception = f;
-					}
-					finally {
-						try {if ( in != null ) in.close();}
-						catch ( IOException f ) {}
-					}
-
-					if ( exception != null ) {
-						if ( hexBuf.length() > 0 ) {
-							String errBuf = "Your saved game could not be interpreted correctly.<br/>" +
-									"<br/>" +
-									"To submit a bug report, you can use <a href='" + bugReportUrl + "'>GitHub</a>.<br/>" +
-									"Or post to the FTL forums <a href='" + forumThreadUrl + "'>here</a>.<br/>" +
-									"<br/>" +
-									"On GitHub, set the issue title as \"SavedGame Parser Error\".<br/>" +
-									"<br/>" +
-									"I will fix the problem and release a new version as soon as I can.<br/>" +
-									"<br/><br/>" +
-									"Copy (Ctrl-A, Ctrl-C) the following text, including \"[ code ] tags\"." +
-									"<br/><br/>";
-
-							StringBuilder reportBuf = new StringBuilder();
-							reportBuf.append( "[code]\n" );
-							reportBuf.append( "SavedGame Parser Error\n" );
-							reportBuf.append( "\n" );
-
-							if ( exception != null ) {
-								appendStackTrace( reportBuf, exception );
-							}
-
-							reportBuf.append( String.format( "Editor Version: %s\n", appVersion ) );
-							reportBuf.append( String.format( "OS: %s %s\n", System.getProperty( "os.name" ), System.getProperty( "os.version" ) ) );
-							reportBuf.append( String.format( "VM: %s, %s, %s\n", System.getProperty( "java.vm.name" ), System.getProperty( "java.version" ), System.getProperty( "os.arch" ) ) );
-							reportBuf.append( "[/code]\n" );
-							reportBuf.append( "\n" );
-							reportBuf.append( String.format( "File (\"%s\")...\n", chosenFile.getName() ) );
-							reportBuf.append( "[code]\n" );
-							reportBuf.append( hexBuf );
-							reportBuf.append( "\n[/code]\n" );
-
-							JDialog failDialog = createBugReportDialog( "SavedGame Parser Error", errBuf, reportBuf.toString() );
-							failDialog.setVisible( true );
-						}
-					}
+					gameStateLoadSerial++;
+					startLoading( gameStateLoadSlot, new GameStateLoader( chosenFile ), "Opening saved game..." );
 				}
 			}
 		});
@@ -867,43 +674,21 @@ public class FTLFrame extends JFrame implements Statusbar {
 				}
 
 				if ( chooserResponse == JFileChooser.APPROVE_OPTION && !sillyMistake ) {
-					FileOutputStream out = null;
 					try {
 						log.info( "Saving game state: "+ chosenFile.getAbsolutePath() );
 
-						if ( chosenFile.exists() ) {
-							String bakName = chosenFile.getName() +".bak";
-							File bakFile = new File( chosenFile.getParentFile(), bakName );
-							boolean bakValid = true;
-
-							if ( bakFile.exists() ) {
-								bakValid = bakFile.delete();
-								if ( !bakValid ) log.warn( "Saved game will be overwritten. Could not delete existing backup: "+ bakName );
-							}
-							if ( bakValid ) {
-								bakValid = chosenFile.renameTo( bakFile );
-								if ( !bakValid ) log.warn( "Saved game will be overwritten. Could not rename existing file: "+ chosenFile.getName() );
-							}
-
-							if ( bakValid ) {
-								log.info( "Saved game was backed up: "+ bakName );
-							}
-						}
-
-						out = new FileOutputStream( chosenFile );
+						ByteArrayOutputStream bout = new ByteArrayOutputStream( 16*1024 );
 
-						SavedGameParser parser = new SavedGameParser();
+						SavedGameParser parser = new SavedGameParser( dataManager );
 						FTLFrame.this.updateGameState(gameState);
-						parser.writeSavedGame( out, gameState );
+						parser.writeSavedGame( bout, gameState, true );
+
+						saveWriter.write( chosenFile, bout.toByteArray() );
 					}
 					catch( IOException f ) {
 						log.error( String.format( "Error saving game state (\"%s\").", chosenFile.getName() ), f );
 						showErrorDialog( String.format( "Error saving game state (\"%s\"):\n%s: %s", chosenFile.getName(), f.getClass().getSimpleName(), f.getMessage() ) );
 					}
-					finally {
-						try {if ( out != null ) out.close();}
-						catch ( IOException f ) {}
-					}
 				}
 			}
 		});
@@ -951,7 +736,7 @@ public class FTLFrame extends JFrame implements Statusbar {
 						log.info( "Dumping game state: "+ chosenFile.getAbsolutePath() );
 
 						out = new BufferedWriter( new OutputStreamWriter( new FileOutputStream( chosenFile ) ) );
-						out.write( gameState.toString() );
+						gameState.dump( out, dataManager );
 						out.close();
 					}
 					catch( IOException f ) {
@@ -968,6 +753,8 @@ public class FTLFrame extends JFrame implements Statusbar {
 		gameStateDumpBtn.addMouseListener( new StatusbarMouseListener( this, "Dump unmodified game state info to a text file." ) );
 		toolbar.add( gameStateDumpBtn );
 
+		toolbar.add( gameStateLoadSlot.panel );
+
 		toolbar.add( Box.createHorizontalGlue() );
 
 		JButton gameStateAboutBtn = createAboutButton();
@@ -1215,6 +1002,98 @@ public class FTLFrame extends JFrame implements Statusbar {
 		return historyBuf.toString();
 	}
 
+	/**
+	 * Offers a bug report after a profile failed to load cleanly.
+	 */
+	private void showProfileErrorReport( File chosenFile, HexDump hexDump, boolean hashFailed, Exception exception ) {
+		StringBuilder errBuf = new StringBuilder();
+
+		if ( hashFailed && exception == null ) {
+			errBuf.append( "Your profile loaded, but re-saving will not create an identical file.<br/>");
+			errBuf.append( "You CAN technically proceed anyway, but there is risk of corruption.<br/>" );
+		}
+		else {
+			errBuf.append( "Your profile could not be interpreted correctly.<br/>" );
+		}
+
+		errBuf.append( "<br/>" );
+		errBuf.append( "To submit a bug report, you can use <a href='"+ bugReportUrl +"'>GitHub</a>.<br/>" );
+		errBuf.append( "Or post to the FTL forums <a href='"+ forumThreadUrl +"'>here</a>.<br/>" );
+		errBuf.append( "<br/>" );
+		errBuf.append( "On GitHub, set the issue title as \"Profile Parser Error\".<br/>" );
+		errBuf.append( "<br/>" );
+		errBuf.append( "I will fix the problem and release a new version as soon as I can.<br/>" );
+		errBuf.append( "<br/><br/>" );
+		errBuf.append( "Copy (Ctrl-A, Ctrl-C) the following text, including \"[ code ] tags\"." );
+		errBuf.append( "<br/><br/>" );
+
+		StringBuilder reportBuf = new StringBuilder();
+		reportBuf.append( "[code]\n" );
+		reportBuf.append( "Profile Parser Error\n" );
+		reportBuf.append( "\n" );
+
+		if ( hashFailed ) {
+			reportBuf.append( "Hashes did not match after a mock write.\n" );
+			reportBuf.append( "\n" );
+		}
+
+		if ( exception != null ) {
+			appendStackTrace( reportBuf, exception );
+		}
+
+		reportBuf.append( String.format( "Editor Version: %s\n", appVersion ) );
+		reportBuf.append( String.format( "OS: %s %s\n", System.getProperty( "os.name" ), System.getProperty( "os.version" ) ) );
+		reportBuf.append( String.format( "VM: %s, %s, %s\n", System.getProperty( "java.vm.name" ), System.getProperty( "java.version" ), System.getProperty( "os.arch" ) ) );
+		reportBuf.append( "[/code]\n" );
+		reportBuf.append( "\n" );
+		reportBuf.append( String.format( "File (\"%s\")...\n", chosenFile.getName() ) );
+		reportBuf.append( "[code]\n" );
+		hexDump.appendTo( reportBuf );
+		reportBuf.append( "\n[/code]\n" );
+
+		JDialog failDialog = createBugReportDialog( "Profile Parser Error", errBuf.toString(), reportBuf.toString() );
+		failDialog.setVisible( true );
+	}
+
+	/**
+	 * Offers a bug report after a saved game failed to load.
+	 */
+	private void showGameStateErrorReport( File chosenFile, HexDump hexDump, Exception exception ) {
+		String errBuf = "Your saved game could not be interpreted correctly.<br/>" +
+				"<br/>" +
+				"To submit a bug report, you can use <a href='" + bugReportUrl + "'>GitHub</a>.<br/>" +
+				"Or post to the FTL forums <a href='" + forumThreadUrl + "'>here</a>.<br/>" +
+				"<br/>" +
+				"On GitHub, set the issue title as \"SavedGame Parser Error\".<br/>" +
+				"<br/>" +
+				"I will fix the problem and release a new version as soon as I can.<br/>" +
+				"<br/><br/>" +
+				"Copy (Ctrl-A, Ctrl-C) the following text, including \"[ code ] tags\"." +
+				"<br/><br/>";
+
+		StringBuilder reportBuf = new StringBuilder();
+		reportBuf.append( "[code]\n" );
+		reportBuf.append( "SavedGame Parser Error\n" );
+		reportBuf.append( "\n" );
+
+		if ( exception != null ) {
+			appendStackTrace( reportBuf, exception );
+		}
+
+		reportBuf.append( String.format( "Editor Version: %s\n", appVersion ) );
+		reportBuf.append( String.format( "OS: %s %s\n", System.getProperty( "os.name" ), System.getProperty( "os.version" ) ) );
+		reportBuf.append( String.format( "VM: %s, %s, %s\n", System.getProperty( "java.vm.name" ), System.getProperty( "java.version" ), System.getProperty( "os.arch" ) ) );
+		reportBuf.append( "[/code]\n" );
+		reportBuf.append( "\n" );
+		reportBuf.append( String.format( "File (\"%s\")...\n", chosenFile.getName() ) );
+		reportBuf.append( "[code]\n" );
+		hexDump.appendTo( reportBuf );
+		reportBuf.append( "\n[/code]\n" );
+
+		JDialog failDialog = createBugReportDialog( "SavedGame Parser Error", errBuf, reportBuf.toString() );
+		failDialog.setVisible( true );
+	}
+
 	/**
 	 * Formats an exception, appending lines to a bug report buffer.
 	 */
@@ -1336,6 +1215,13 @@ public class FTLFrame extends JFrame implements Statusbar {
 		loadProfile( p );
 	}
 
+	/**
+	 * Returns the resources that panels should look up blueprints, etc in.
+	 */
+	public DataManager getDataManager() {
+		return dataManager;
+	}
+
 	/**
 	 * Returns the currently loaded game state.
 	 *
@@ -1373,7 +1259,6 @@ public class FTLFrame extends JFrame implements Statusbar {
 			gameState = null;
 		}
 		else if ( Arrays.binarySearch( new int[] {2, 7, 8, 9}, gs.getFileFormat() ) >= 0 ) {
-			savedGameDumpPanel.setText( gs.toString() );
 			savedGameGeneralPanel.setGameState( gs );
 			savedGamePlayerFloorplanPanel.setShipState( gs, gs.getPlayerShipState() );
 			savedGameNearbyFloorplanPanel.setShipState( gs, gs.getNearbyShipState() );
@@ -1389,7 +1274,8 @@ public class FTLFrame extends JFrame implements Statusbar {
 			savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_SECTOR_MAP ), true );
 			savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_SECTOR_TREE ), true );
 			savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_STATE_VARS ), true );
-			savedGameTabsPane.setSelectedIndex( savedGameTabsPane.indexOfTab( SAVE_DUMP ) );
+			savedGameTabsPane.setSelectedIndex( savedGameTabsPane.indexOfTab( SAVE_GENERAL ) );
+			savedGameDumpPanel.setDumpSource( createDumpSource( gs ) );  // Written when viewed.
 			gameStateSaveBtn.setEnabled( true );
 			gameStateDumpBtn.setEnabled( true );
 
@@ -1408,6 +1294,14 @@ public class FTLFrame extends JFrame implements Statusbar {
 		if ( gs == null ) {
 		}
 		else if ( Arrays.binarySearch( new int[] {2, 7, 8, 9}, gs.getFileFormat() ) >= 0 ) {
+			// Floorplans only see ships, so note their edits here.
+			if ( savedGamePlayerFloorplanPanel.isShipEdited() ) {
+				gs.markSectionDirty( SavedGameParser.SavedGameSection.PLAYER_SHIP );
+			}
+			if ( savedGameNearbyFloorplanPanel.isShipEdited() ) {
+				gs.markSectionDirty( SavedGameParser.SavedGameSection.NEARBY_SHIP );
+			}
+
 			// savedGameDumpPanel doesn't modify anything.
 			savedGameGeneralPanel.updateGameState( gs );
 			savedGamePlayerFloorplanPanel.updateShipState( gs.getPlayerShipState() );
@@ -1425,6 +1319,13 @@ public class FTLFrame extends JFrame implements Statusbar {
 		loadGameState( gs );
 	}
 
+	/**
+	 * Sets how many timestamped backups to keep when saving over a file.
+	 */
+	public void setSaveBackupCount( int n ) {
+		saveWriter.setBackupCount( n );
+	}
+
 	@Override
 	public void setStatusText( String text ) {
 		if ( text.length() > 0 ) {
@@ -1433,4 +1334,426 @@ public class FTLFrame extends JFrame implements Statusbar {
 			statusLbl.setText( " " );
 		}
 	}
+
+	/**
+	 * Runs a background load, replacing (and cancelling) any already running
+	 * in the same slot.
+	 *
+	 * Profiles and saved games have separate slots, so opening one doesn't
+	 * interrupt the other. Progress the worker reports is shown on the
+	 * slot's toolbar.
+	 */
+	private void startLoading( final LoadSlot slot, SwingWorker<?, ?> worker, String statusText ) {
+		if ( slot.worker != null ) slot.worker.cancel( true );
+		slot.worker = worker;
+
+		worker.addPropertyChangeListener( new PropertyChangeListener() {
+			@Override
+			public void propertyChange( PropertyChangeEvent e ) {
+				if ( "progress".equals( e.getPropertyName() ) && e.getSource() == slot.worker ) {
+					slot.progressBar.setValue( (Integer)e.getNewValue() );
+				}
+			}
+		});
+
+		slot.progressBar.setValue( 0 );
+		slot.cancelBtn.setEnabled( true );
+		slot.panel.setVisible( true );
+		setStatusText( statusText );
+
+		worker.execute();
+	}
+
+	/**
+	 * Notes that a background load has finished, one way or another.
+	 *
+	 * This must be called from the worker's done(), on the EDT.
+	 *
+	 * @return true if the worker was the slot's current load, false if superseded
+	 */
+	private boolean finishLoading( LoadSlot slot, SwingWorker<?, ?> worker ) {
+		if ( worker != slot.worker ) return false;
+
+		slot.worker = null;
+		slot.panel.setVisible( false );
+		return true;
+	}
+
+	/**
+	 * Returns a DumpSource that writes a game state's summary.
+	 */
+	private DumpPanel.DumpSource createDumpSource( final SavedGameParser.SavedGameState gs ) {
+		return new DumpPanel.DumpSource() {
+			@Override
+			public void writeDump( Writer out ) throws IOException {
+				gs.dump( out, dataManager );
+			}
+		};
+	}
+
+	/**
+	 * Returns the cause of a failed background task, if it was an Exception.
+	 */
+	private static Exception unwrapLoadException( Exception e ) {
+		if ( e instanceof ExecutionException && e.getCause() instanceof Exception ) {
+			return (Exception)e.getCause();
+		}
+		return e;
+	}
+
+	/**
+	 * Loads a parsed game state into the GUI one panel at a time.
+	 *
+	 * Each panel is populated in its own EDT event, so the window can repaint
+	 * in between, and the statusbar's progress advances as they go. If
+	 * another saved game starts loading in the meantime, this stops. Loading
+	 * a profile doesn't interrupt it.
+	 *
+	 * The dump tab's text isn't written until that tab is viewed.
+	 *
+	 * If a panel fails to populate (e.g., a modded ship's blueprint is
+	 * missing), the error is reported, with a bug report for the file, and
+	 * the saved game is unloaded.
+	 *
+	 * @param chosenFile the file the game state was read from
+	 * @param hexDump the file's content, for a bug report
+	 */
+	private void loadGameStateInSteps( final SavedGameParser.SavedGameState gs, final File chosenFile, final HexDump hexDump ) {
+		if ( Arrays.binarySearch( new int[] {2, 7, 8, 9}, gs.getFileFormat() ) < 0 ) {
+			loadGameState( gs );  // Let the usual path complain.
+			return;
+		}
+
+		// Nothing should save a half-loaded game.
+		gameState = null;
+		gameStateSaveBtn.setEnabled( false );
+		gameStateDumpBtn.setEnabled( false );
+
+		final List<Runnable> steps = new ArrayList<Runnable>();
+		steps.add( new Runnable() {
+			@Override
+			public void run() {
+				savedGameGeneralPanel.setGameState( gs );
+				savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_GENERAL ), true );
+				savedGameTabsPane.setSelectedIndex( savedGameTabsPane.indexOfTab( SAVE_GENERAL ) );
+
+				// Hidden now, so this costs nothing until the tab is viewed.
+				savedGameDumpPanel.setDumpSource( createDumpSource( gs ) );
+			}
+		});
+		steps.add( new Runnable() {
+			@Override
+			public void run() {
+				savedGamePlayerFloorplanPanel.setShipState( gs, gs.getPlayerShipState() );
+				savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_PLAYER_SHIP ), true );
+			}
+		});
+		steps.add( new Runnable() {
+			@Override
+			public void run() {
+				savedGameNearbyFloorplanPanel.setShipState( gs, gs.getNearbyShipState() );
+				savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_NEARBY_SHIP ), true );
+			}
+		});
+		steps.add( new Runnable() {
+			@Override
+			public void run() {
+				savedGameHangarPanel.setGameState( gs );
+				savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_CHANGE_SHIP ), true );
+			}
+		});
+		steps.add( new Runnable() {
+			@Override
+			public void run() {
+				savedGameSectorMapPanel.setGameState( gs );
+				savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_SECTOR_MAP ), true );
+			}
+		});
+		steps.add( new Runnable() {
+			@Override
+			public void run() {
+				savedGameSectorTreePanel.setGameState( gs );
+				savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_SECTOR_TREE ), true );
+			}
+		});
+		steps.add( new Runnable() {
+			@Override
+			public void run() {
+				savedGameStateVarsPanel.setGameState( gs );
+				savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( SAVE_STATE_VARS ), true );
+			}
+		});
+
+		// Tabs are re-enabled as their panels fill.
+		for ( String title : new String[] {SAVE_GENERAL, SAVE_PLAYER_SHIP, SAVE_NEARBY_SHIP, SAVE_CHANGE_SHIP, SAVE_SECTOR_MAP, SAVE_SECTOR_TREE, SAVE_STATE_VARS} ) {
+			savedGameTabsPane.setEnabledAt( savedGameTabsPane.indexOfTab( title ), false );
+		}
+
+		final int serial = gameStateLoadSerial;
+		gameStateLoadSlot.progressBar.setValue( 0 );
+		gameStateLoadSlot.cancelBtn.setEnabled( false );  // Past the point of no return.
+		gameStateLoadSlot.panel.setVisible( true );
+		setStatusText( "Populating saved game panels..." );
+
+		Runnable stepper = new Runnable() {
+			private int stepIndex = 0;
+
+			@Override
+			public void run() {
+				if ( serial != gameStateLoadSerial ) return;  // Superseded.
+
+				try {
+					steps.get( stepIndex++ ).run();
+				}
+				catch ( Exception e ) {
+					log.error( String.format( "Populating panels for game state (\"%s\") failed", chosenFile.getName() ), e );
+					showErrorDialog( String.format( "Error loading game state (\"%s\"):\n%s: %s", chosenFile.getName(), e.getClass().getSimpleName(), e.getMessage() ) );
+
+					loadGameState( null );
+					if ( gameStateLoadSlot.worker == null ) gameStateLoadSlot.panel.setVisible( false );
+					setStatusText( "" );
+
+					if ( hexDump != null && hexDump.length() > 0 ) {
+						showGameStateErrorReport( chosenFile, hexDump, e );
+					}
+					return;
+				}
+				gameStateLoadSlot.progressBar.setValue( 100 * stepIndex / steps.size() );
+
+				if ( stepIndex < steps.size() ) {
+					SwingUtilities.invokeLater( this );
+				}
+				else {
+					gameState = gs;
+					gameStateSaveBtn.setEnabled( true );
+					gameStateDumpBtn.setEnabled( true );
+					if ( gameStateLoadSlot.worker == null ) gameStateLoadSlot.panel.setVisible( false );
+					setStatusText( "Saved game loaded." );
+					log.debug( ImageUtilities.getImageCache().getStats() );
+				}
+			}
+		};
+		SwingUtilities.invokeLater( stepper );
+	}
+
+
+
+	/**
+	 * A toolbar's background load, with its progress bar and cancel button.
+	 */
+	private class LoadSlot {
+		public final JPanel panel;
+		public final JProgressBar progressBar;
+		public final JButton cancelBtn;
+		public SwingWorker<?, ?> worker = null;
+
+
+		public LoadSlot() {
+			panel = new JPanel( new BorderLayout( 4, 0 ) );
+			panel.setBorder( BorderFactory.createEmptyBorder( 0, 8, 0, 0 ) );
+			progressBar = new JProgressBar( 0, 100 );
+			panel.add( progressBar, BorderLayout.CENTER );
+			cancelBtn = new JButton( "Cancel" );
+			cancelBtn.setMargin( new Insets( 0, 4, 0, 4 ) );
+			cancelBtn.addActionListener( new ActionListener() {
+				@Override
+				public void actionPerformed( ActionEvent e ) {
+					if ( worker != null ) worker.cancel( true );
+				}
+			});
+			panel.add( cancelBtn, BorderLayout.EAST );
+			panel.setMaximumSize( panel.getPreferredSize() );  // Don't stretch in the toolbar.
+			panel.setVisible( false );
+		}
+	}
+
+
+
+	/**
+	 * Reads and parses a profile off the EDT.
+	 *
+	 * The mock write, which verifies the editor can reproduce the file, needs
+	 * the profile panels, so it happens in done().
+	 */
+	private class ProfileLoader extends SwingWorker<Profile, Void> {
+		private final File chosenFile;
+		private HexDump hexDump = null;
+		private String readHash = null;
+
+
+		public ProfileLoader( File chosenFile ) {
+			this.chosenFile = chosenFile;
+		}
+
+		@Override
+		protected Profile doInBackground() throws Exception {
+			log.info( "Opening profile: "+ chosenFile.getAbsolutePath() );
+
+			ByteBufferInputStream in = null;
+			try {
+				// Read the whole file at once, to be decoded from memory.
+				in = ByteBufferInputStream.readFully( chosenFile );
+
+				// Keep the content aside, in case an error ocurs.
+				hexDump = new HexDump( in.getBuffer() );
+				setProgress( 25 );
+
+				// Hash whole file, through a separate view of the buffer.
+				readHash = PackUtilities.calcStreamMD5( new ByteBufferInputStream( in.getBuffer() ) );
+				setProgress( 50 );
+
+				if ( isCancelled() ) return null;
+
+				// Parse file data.
+				ProfileParser parser = new ProfileParser( dataManager );
+				Profile p = parser.readProfile( in );
+				log.debug( "Profile read successfully." );
+				setProgress( 75 );
+
+				return p;
+			}
+			finally {
+				try {if ( in != null ) in.close();}
+				catch ( IOException f ) {}
+			}
+		}
+
+		@Override
+		protected void done() {
+			if ( !finishLoading( profileLoadSlot, this ) ) return;
+
+			if ( isCancelled() ) {
+				log.info( "Opening profile was cancelled" );
+				setStatusText( "Opening profile was cancelled." );
+				return;
+			}
+
+			boolean hashFailed = false;
+			Exception exception = null;
+
+			try {
+				Profile p = get();
+
+				Profile mockProfile = new Profile( p );
+				FTLFrame.this.loadProfile( mockProfile );
+
+				// Perform mock write.
+				// The update() incidentally triggers load() of the modified profile.
+				ByteArrayOutputStream mockOut = new ByteArrayOutputStream();
+				FTLFrame.this.updateProfile( mockProfile );
+				new ProfileParser( dataManager ).writeProfile( mockOut, mockProfile );
+				mockOut.close();
+
+				// Hash result.
+				ByteArrayInputStream mockIn = new ByteArrayInputStream( mockOut.toByteArray() );
+				String writeHash = PackUtilities.calcStreamMD5( mockIn );
+				mockIn.close();
+
+				// Compare hashes.
+				if ( !writeHash.equals( readHash ) ) {
+					log.error( "Hashes did not match after a mock write; editing may not be safe" );
+					hashFailed = true;
+				}
+
+				// Reload the original unmodified profile.
+				FTLFrame.this.loadProfile( p );
+				setStatusText( "Profile loaded." );
+			}
+			catch( Exception e ) {
+				Exception f = unwrapLoadException( e );
+				log.error( String.format( "Error reading profile (\"%s\").", chosenFile.getName() ), f );
+				showErrorDialog( String.format( "Error reading profile (\"%s\"):\n%s: %s", chosenFile.getName(), f.getClass().getSimpleName(), f.getMessage() ) );
+				setStatusText( "" );
+				exception = f;
+			}
+
+			if ( hashFailed || exception != null ) {
+				if ( hexDump != null && hexDump.length() > 0 ) {
+					showProfileErrorReport( chosenFile, hexDump, hashFailed, exception );
+				}
+			}
+		}
+	}
+
+
+
+	/**
+	 * Reads and parses a saved game off the EDT.
+	 *
+	 * The panels are then populated in steps, on the EDT.
+	 */
+	private class GameStateLoader extends SwingWorker<SavedGameParser.SavedGameState, Void> {
+		private final File chosenFile;
+		private HexDump hexDump = null;
+
+
+		public GameStateLoader( File chosenFile ) {
+			this.chosenFile = chosenFile;
+		}
+
+		@Override
+		protected SavedGameParser.SavedGameState doInBackground() throws Exception {
+			log.info( "Opening game state: "+ chosenFile.getAbsolutePath() );
+
+			ByteBufferInputStream in = null;
+			try {
+				// Read the whole file at once, to be decoded from memory.
+				in = ByteBufferInputStream.readFully( chosenFile );
+				setProgress( 20 );
+
+				// Keep the content aside, in case an error ocurs.
+				hexDump = new HexDump( in.getBuffer() );
+
+				if ( isCancelled() ) return null;
+
+				SavedGameParser parser = new SavedGameParser( dataManager );
+				SavedGameParser.SavedGameState gs = parser.readSavedGame( in );
+				log.debug( "Game state read successfully" );
+				setProgress( 100 );
+
+				if ( gs.getMysteryList().size() > 0 ) {
+					StringBuilder musteryBuf = new StringBuilder();
+					musteryBuf.append( "This saved game file contains mystery bytes the developers hadn't anticipated!\n" );
+					boolean first = true;
+					for ( MysteryBytes m : gs.getMysteryList() ) {
+						if ( first ) { first = false; }
+						else { musteryBuf.append( ",\n" ); }
+						musteryBuf.append( m.toString().replaceAll( "(^|\n)(.+)", "$1  $2") );
+					}
+					log.warn( musteryBuf.toString() );
+				}
+
+				return gs;
+			}
+			finally {
+				try {if ( in != null ) in.close();}
+				catch ( IOException f ) {}
+			}
+		}
+
+		@Override
+		protected void done() {
+			if ( !finishLoading( gameStateLoadSlot, this ) ) return;
+
+			if ( isCancelled() ) {
+				log.info( "Opening game state was cancelled" );
+				setStatusText( "Opening saved game was cancelled." );
+				return;
+			}
+
+			try {
+				loadGameStateInSteps( get(), chosenFile, hexDump );
+			}
+			catch( Exception e ) {
+				Exception f = unwrapLoadException( e );
+				log.error( String.format( "Reading game state (\"%s\") failed", chosenFile.getName() ), f );
+				showErrorDialog( String.format( "Error reading game state (\"%s\"):\n%s: %s", chosenFile.getName(), f.getClass().getSimpleName(), f.getMessage() ) );
+				setStatusText( "" );
+
+				if ( hexDump != null && hexDump.length() > 0 ) {
+					showGameStateErrorReport( chosenFile, hexDump, f );
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,241 @@
+package net.blerf.ftl.ui;
+
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * An application-wide cache of decoded and transformed images.
+ *
+ * Entries are keyed by a source and a transform description. The source is
+ * usually a resource innerPath, with transforms like "crop:0,0,35,35". An
+ * image derived from a cached image (tinted, trimmed, etc) gets its
+ * parent's key, with a further transform appended, so equivalent
+ * derivations share an entry however the parent was obtained. An image
+ * derived from an uncached one isn't cached at all.
+ *
+ * Hits and misses are counted by get(), once per requested image. Lookups
+ * made while producing that image use peek(), which isn't counted.
+ *
+ * The cache is bounded by an estimate of pixel memory (4 bytes per pixel).
+ * When a put exceeds the budget, the least recently used entries are
+ * evicted. An image larger than the whole budget is returned but not kept.
+ *
+ * All methods are thread-safe. Loading is done by callers, outside any
+ * lock, so two threads may occasionally decode the same image. Whichever
+ * finishes last wins.
+ *
+ * @see ImageUtilities#getImageCache()
+ */
+public class ImageCache {
+
+	private static final Logger log = LoggerFactory.getLogger( ImageCache.class );
+
+	public static final long DEFAULT_BYTE_BUDGET = 64L * 1024 * 1024;
+
+	private final LinkedHashMap<ImageKey, BufferedImage> entryMap = new LinkedHashMap<ImageKey, BufferedImage>( 256, 0.75f, true );
+	private final Map<BufferedImage, ImageKey> keysByImage = new IdentityHashMap<BufferedImage, ImageKey>();
+
+	private long byteBudget;
+	private long byteCount = 0;
+
+	private long hitCount = 0;
+	private long missCount = 0;
+	private long evictionCount = 0;
+
+
+	public ImageCache() {
+		this( DEFAULT_BYTE_BUDGET );
+	}
+
+	public ImageCache( long byteBudget ) {
+		setByteBudget( byteBudget );
+	}
+
+	/**
+	 * Sets the estimated pixel memory to keep, evicting entries if needed.
+	 */
+	public synchronized void setByteBudget( long n ) {
+		if ( n < 0 ) throw new IllegalArgumentException( "Byte budget must not be negative: "+ n );
+		byteBudget = n;
+		evict( 0 );
+	}
+
+	public synchronized long getByteBudget() { return byteBudget; }
+
+
+	/**
+	 * Returns a cached image, or null.
+	 *
+	 * This counts as a hit or a miss.
+	 */
+	public synchronized BufferedImage get( Object source, String transform ) {
+		BufferedImage result = entryMap.get( new ImageKey( source, transform ) );
+		if ( result != null ) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a cached image, or null, without counting a hit or a miss.
+	 *
+	 * This is for lookups nested within another that was already counted.
+	 */
+	public synchronized BufferedImage peek( Object source, String transform ) {
+		return entryMap.get( new ImageKey( source, transform ) );
+	}
+
+	/**
+	 * Caches an image, replacing any previous entry for the same key.
+	 *
+	 * @return the image, for convenience
+	 */
+	public synchronized BufferedImage put( Object source, String transform, BufferedImage image ) {
+		ImageKey key = new ImageKey( source, transform );
+		long imageBytes = estimateBytes( image );
+
+		remove( key );
+		if ( imageBytes > byteBudget ) {
+			log.debug( String.format( "Image is too large to cache (%d bytes): %s", imageBytes, key ) );
+			return image;
+		}
+
+		evict( imageBytes );
+		entryMap.put( key, image );
+		keysByImage.put( image, key );
+		byteCount += imageBytes;
+
+		return image;
+	}
+
+	/**
+	 * Returns the source to derive a key from, for images made from another.
+	 *
+	 * If the image is cached, this is its own source (e.g., an innerPath).
+	 * Otherwise, null. Keying by the uncached image itself would pin it in
+	 * memory without counting it against the budget, so images derived
+	 * from one shouldn't be cached.
+	 *
+	 * @see #getDerivedTransform(BufferedImage, String)
+	 */
+	public synchronized Object getDerivedSource( BufferedImage srcImage ) {
+		ImageKey srcKey = keysByImage.get( srcImage );
+		return ( srcKey != null ? srcKey.source : null );
+	}
+
+	/**
+	 * Returns the transform to key an image made from another.
+	 *
+	 * If the image is cached, this is its transform with another appended.
+	 * Otherwise, null.
+	 */
+	public synchronized String getDerivedTransform( BufferedImage srcImage, String transform ) {
+		ImageKey srcKey = keysByImage.get( srcImage );
+		return ( srcKey != null ? srcKey.transform +"|"+ transform : null );
+	}
+
+	/**
+	 * Discards all entries. Statistics are kept.
+	 */
+	public synchronized void clear() {
+		entryMap.clear();
+		keysByImage.clear();
+		byteCount = 0;
+	}
+
+	public synchronized int getEntryCount() { return entryMap.size(); }
+
+	public synchronized long getByteCount() { return byteCount; }
+
+	public synchronized long getHitCount() { return hitCount; }
+
+	public synchronized long getMissCount() { return missCount; }
+
+	public synchronized long getEvictionCount() { return evictionCount; }
+
+	/**
+	 * Returns a one-line summary of the cache's statistics.
+	 */
+	public synchronized String getStats() {
+		long lookups = hitCount + missCount;
+		return String.format( "Images: %d, Bytes: %d/%d, Hits: %d, Misses: %d (%.1f%% hit), Evictions: %d", entryMap.size(), byteCount, byteBudget, hitCount, missCount, (lookups > 0 ? 100.0 * hitCount / lookups : 0.0), evictionCount );
+	}
+
+
+	private void remove( ImageKey key ) {
+		BufferedImage oldImage = entryMap.remove( key );
+		if ( oldImage != null ) {
+			forgetImage( key, oldImage );
+		}
+	}
+
+	/**
+	 * Evicts least recently used entries until some space is free.
+	 */
+	private void evict( long bytesNeeded ) {
+		Iterator<Map.Entry<ImageKey, BufferedImage>> it = entryMap.entrySet().iterator();
+		while ( byteCount + bytesNeeded > byteBudget && it.hasNext() ) {
+			Map.Entry<ImageKey, BufferedImage> entry = it.next();
+			it.remove();
+			forgetImage( entry.getKey(), entry.getValue() );
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * Updates bookkeeping after an entry has left the map.
+	 */
+	private void forgetImage( ImageKey key, BufferedImage image ) {
+		// The same image may have been cached under several keys.
+		if ( key.equals( keysByImage.get( image ) ) ) {
+			keysByImage.remove( image );
+		}
+		byteCount -= estimateBytes( image );
+	}
+
+	private static long estimateBytes( BufferedImage image ) {
+		return 4L * image.getWidth() * image.getHeight();
+	}
+
+
+
+	private static class ImageKey {
+		private final Object source;
+		private final String transform;
+
+
+		public ImageKey( Object source, String transform ) {
+			this.source = source;
+			this.transform = transform;
+		}
+
+		@Override
+		public boolean equals( Object o ) {
+			if ( o == this ) return true;
+			if ( o instanceof ImageKey ) {
+				ImageKey other = (ImageKey)o;
+				return ( source.equals( other.source ) && transform.equals( other.transform ) );
+			}
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return ( source.hashCode() * 31 + transform.hashCode() );
+		}
+
+		@Override
+		public String toString() {
+			return source +" "+ transform;
+		}
+	}
+}
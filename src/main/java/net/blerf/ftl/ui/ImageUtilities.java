@@ -7,7 +7,6 @@ import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
-import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Transparency;
 import java.awt.font.LineMetrics;
@@ -17,8 +16,8 @@ import java.awt.image.RescaleOp;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
@@ -45,6 +44,9 @@ public class ImageUtilities {
 	private static GraphicsDevice gs = ge.getDefaultScreenDevice();
 	private static GraphicsConfiguration gc = gs.getDefaultConfiguration();
 
+	private static final ImageCache imageCache = new ImageCache();
+	private static final ConcurrentMap<String, Object> sheetLocks = new ConcurrentHashMap<String, Object>();
+
 
 	private static Icon dummyIcon = new Icon() {
 		@Override
@@ -89,7 +91,7 @@ public class ImageUtilities {
 	 * @param cycleDifficulty
 	 */
 	public static IconCycleButton createCycleButton( String baseImagePath, boolean cycleDifficulty ) {
-		BufferedImage origImage = getProportionallyScaledImage( baseImagePath, maxIconWidth, maxIconHeight, null );
+		BufferedImage origImage = getProportionallyScaledImage( baseImagePath, maxIconWidth, maxIconHeight );
 
 		BufferedImage baseImage;
 		if ( origImage.getWidth() == maxIconWidth && origImage.getHeight() == maxIconHeight ) {
@@ -187,6 +189,14 @@ public class ImageUtilities {
 	}
 
 
+	/**
+	 * Returns the application-wide cache used by the methods below.
+	 */
+	public static ImageCache getImageCache() {
+		return imageCache;
+	}
+
+
 	/**
 	 * Gets an image, stretching if necessary, and caches the result.
 	 *
@@ -200,19 +210,12 @@ public class ImageUtilities {
 	 * @param innerPath
 	 * @param w
 	 * @param h
-	 * @param cachedImages an existing cache to use, or null for no caching
 	 */
-	public static BufferedImage getScaledImage( String innerPath, int w, int h, Map<String, Map<Rectangle, BufferedImage>> cachedImages ) {
-		Rectangle keyRect = new Rectangle( 0, 0, w, h );
-		BufferedImage result = null;
-		Map<Rectangle, BufferedImage> cacheMap = null;
-
-		if ( cachedImages != null ) {
-			cacheMap = cachedImages.get( innerPath );
-			if ( cacheMap != null ) result = cacheMap.get( keyRect );
-			if ( result != null ) return result;
-			log.trace( "Image not in cache, loading and scaling...: "+ innerPath );
-		}
+	public static BufferedImage getScaledImage( String innerPath, int w, int h ) {
+		String transform = "scale:"+ w +"x"+ h;
+		BufferedImage result = imageCache.get( innerPath, transform );
+		if ( result != null ) return result;
+		log.trace( "Image not in cache, loading and scaling...: "+ innerPath );
 
 		InputStream in = null;
 		try {
@@ -254,15 +257,7 @@ public class ImageUtilities {
 			g2d.dispose();
 		}
 
-		if ( cachedImages != null ) {
-			if ( cacheMap == null ) {
-				cacheMap = new HashMap<Rectangle, BufferedImage>();
-				cachedImages.put( innerPath, cacheMap );
-			}
-			cacheMap.put( keyRect, result );
-		}
-
-		return result;
+		return imageCache.put( innerPath, transform, result );
 	}
 
 
@@ -277,26 +272,12 @@ public class ImageUtilities {
 	 * @param innerPath
 	 * @param w
 	 * @param h
-	 * @param cachedImages an existing cache to use, or null for no caching
 	 */
-	public static BufferedImage getProportionallyScaledImage( String innerPath, int maxW, int maxH, Map<String, Map<Rectangle, BufferedImage>> cachedImages ) {
-		Rectangle widthKeyRect = new Rectangle( 0, 0, maxW, 0 );
-		Rectangle heightKeyRect = new Rectangle( 0, 0, 0, maxH );
-		BufferedImage result = null;
-		Map<Rectangle, BufferedImage> cacheMap = null;
-
-		if ( cachedImages != null ) {
-			cacheMap = cachedImages.get( innerPath );
-			if ( cacheMap != null ) {
-				// Look up the smaller axis first.
-				Rectangle[] maxRects = ((maxW < maxH) ? new Rectangle[] {widthKeyRect, heightKeyRect} : new Rectangle[] {heightKeyRect, widthKeyRect});
-				for ( Rectangle maxRect : maxRects ) {
-					result = cacheMap.get( maxRect );
-					if ( result != null ) return result;
-				}
-			}
-			log.trace( "Image not in cache, loading and proportionally scaling...: "+ innerPath );
-		}
+	public static BufferedImage getProportionallyScaledImage( String innerPath, int maxW, int maxH ) {
+		String transform = "fit:"+ maxW +"x"+ maxH;
+		BufferedImage result = imageCache.get( innerPath, transform );
+		if ( result != null ) return result;
+		log.trace( "Image not in cache, loading and proportionally scaling...: "+ innerPath );
 
 		InputStream in = null;
 		try {
@@ -347,15 +328,68 @@ public class ImageUtilities {
 			g2d.dispose();
 		}
 
-		if ( cachedImages != null ) {
-			if ( cacheMap == null ) {
-				cacheMap = new HashMap<Rectangle, BufferedImage>();
-				cachedImages.put( innerPath, cacheMap );
+		return imageCache.put( innerPath, transform, result );
+	}
+
+
+	/**
+	 * Gets a whole sprite sheet, decoded once, and caches the result.
+	 *
+	 * The sheet is copied into an image compatible with the screen, so
+	 * areas cropped from it draw quickly.
+	 *
+	 * Concurrent requests for the same sheet wait for a single decode.
+	 *
+	 * @param innerPath
+	 * @return the sheet, or null if it could not be read
+	 */
+	public static BufferedImage getSheetImage( String innerPath ) {
+		BufferedImage result = imageCache.get( innerPath, "sheet" );
+		if ( result != null ) return result;
+
+		return decodeSheetImage( innerPath );
+	}
+
+	/**
+	 * Decodes a sprite sheet, unless another thread already has.
+	 */
+	private static BufferedImage decodeSheetImage( String innerPath ) {
+		BufferedImage result = null;
+
+		Object sheetLock = new Object();
+		Object prevLock = sheetLocks.putIfAbsent( innerPath, sheetLock );
+		if ( prevLock != null ) sheetLock = prevLock;
+
+		synchronized ( sheetLock ) {
+			// Another thread may have finished decoding while this one waited.
+			result = imageCache.peek( innerPath, "sheet" );
+			if ( result != null ) return result;
+			log.trace( "Sheet not in cache, decoding...: "+ innerPath );
+
+			InputStream in = null;
+			try {
+				in = DataManager.get().getResourceInputStream( innerPath );
+				BufferedImage origImage = ImageIO.read( in );
+				if ( origImage == null ) throw new IOException( "No image reader could decode the data" );
+
+				result = gc.createCompatibleImage( origImage.getWidth(), origImage.getHeight(), Transparency.TRANSLUCENT );
+				Graphics2D g2d = result.createGraphics();
+				g2d.drawImage( origImage, 0, 0, null );
+				g2d.dispose();
 			}
-			if ( maxW < maxH ) {
-				cacheMap.put( widthKeyRect, result );
-			} else {
-				cacheMap.put( heightKeyRect, result );
+			catch ( FileNotFoundException e ) {
+				log.error( String.format( "Failed to load sprite sheet (\"%s\"). Its innerPath was not found.", innerPath ) );
+			}
+			catch ( IOException e ) {
+				log.error( "Failed to load sprite sheet: "+ innerPath, e );
+			}
+			finally {
+				try {if ( in != null ) in.close();}
+				catch ( IOException e ) {}
+			}
+
+			if ( result != null ) {
+				imageCache.put( innerPath, "sheet", result );
 			}
 		}
 
@@ -366,6 +400,11 @@ public class ImageUtilities {
 	/**
 	 * Gets a cropped area of an image and caches the result.
 	 *
+	 * The area is copied out of the sheet from getSheetImage(), so cropping
+	 * many areas of one sheet only decodes it once. Being a copy, a cached
+	 * crop doesn't keep the whole sheet in memory after the sheet has been
+	 * evicted.
+	 *
 	 * If something goes wrong, a dummy image will be created with
 	 * the expected dimensions.
 	 *
@@ -374,38 +413,39 @@ public class ImageUtilities {
 	 * @param y
 	 * @param w
 	 * @param h
-	 * @param cachedImages an existing cache to use, or null for no caching
 	 */
-	public static BufferedImage getCroppedImage( String innerPath, int x, int y, int w, int h, Map<String, Map<Rectangle, BufferedImage>> cachedImages ) {
-		Rectangle keyRect = new Rectangle( x, y, w, h );
-		BufferedImage result = null;
-		Map<Rectangle, BufferedImage> cacheMap = null;
+	public static BufferedImage getCroppedImage( String innerPath, int x, int y, int w, int h ) {
+		String transform = "crop:"+ x +","+ y +","+ w +","+ h;
+		BufferedImage result = imageCache.get( innerPath, transform );
+		if ( result != null ) return result;
 
-		if ( cachedImages != null ) {
-			cacheMap = cachedImages.get( innerPath );
-			if ( cacheMap != null ) result = cacheMap.get( keyRect );
-			if ( result != null ) return result;
-			log.trace( "Image not in cache, loading and cropping...: "+ innerPath );
-		}
+		return cropImage( innerPath, x, y, w, h );
+	}
 
-		InputStream in = null;
-		try {
-			in = DataManager.get().getResourceInputStream( innerPath );
-			BufferedImage bigImage = ImageIO.read( in );
-			result = bigImage.getSubimage( x, y, w, h );
-		}
-		catch ( RasterFormatException e ) {
-			log.error( "Failed to load and crop image: "+ innerPath, e );
-		}
-		catch ( FileNotFoundException e ) {
-			log.error( String.format( "Failed to load and crop image (\"%s\"). Its innerPath was not found.", innerPath ) );
-		}
-		catch ( IOException e ) {
-			log.error( "Failed to load and crop image: "+ innerPath, e );
-		}
-		finally {
-			try {if ( in != null ) in.close();}
-			catch ( IOException e ) {}
+	/**
+	 * Returns a cached crop without counting the lookup, or makes one.
+	 */
+	private static BufferedImage findCroppedImage( String innerPath, int x, int y, int w, int h ) {
+		BufferedImage result = imageCache.peek( innerPath, "crop:"+ x +","+ y +","+ w +","+ h );
+		if ( result != null ) return result;
+
+		return cropImage( innerPath, x, y, w, h );
+	}
+
+	private static BufferedImage cropImage( String innerPath, int x, int y, int w, int h ) {
+		String transform = "crop:"+ x +","+ y +","+ w +","+ h;
+		BufferedImage result = null;
+		log.trace( "Image not in cache, cropping...: "+ innerPath );
+
+		BufferedImage sheetImage = imageCache.peek( innerPath, "sheet" );
+		if ( sheetImage == null ) sheetImage = decodeSheetImage( innerPath );
+		if ( sheetImage != null ) {
+			try {
+				result = copyImage( sheetImage.getSubimage( x, y, w, h ) );
+			}
+			catch ( RasterFormatException e ) {
+				log.error( "Failed to crop image: "+ innerPath, e );
+			}
 		}
 
 		if ( result == null ) {  // Guarantee a returned image, with a stand-in.
@@ -416,69 +456,112 @@ public class ImageUtilities {
 			g2d.dispose();
 		}
 
-		if ( cachedImages != null ) {
-			if ( cacheMap == null ) {
-				cacheMap = new HashMap<Rectangle, BufferedImage>();
-				cachedImages.put( innerPath, cacheMap );
-			}
-			cacheMap.put( keyRect, result );
-		}
+		return imageCache.put( innerPath, transform, result );
+	}
 
-		return result;
+
+	/**
+	 * Gets an area of a base sheet drawn over the same area of a tinted
+	 * color sheet, and caches the result.
+	 *
+	 * As of FTL 1.5.4, crew sprites are split this way: "X_color" is a
+	 * silhouette recolored per faction, and "X_base" has the details.
+	 *
+	 * @param basePath
+	 * @param colorPath the sheet to tint, or null to use the base alone
+	 * @param colorTint
+	 * @param x
+	 * @param y
+	 * @param w
+	 * @param h
+	 */
+	public static BufferedImage getLayeredImage( String basePath, String colorPath, Tint colorTint, int x, int y, int w, int h ) {
+		if ( colorPath == null ) return getCroppedImage( basePath, x, y, w, h );
+
+		String transform = "crop:"+ x +","+ y +","+ w +","+ h +"|under:"+ colorPath +"|tint:"+ colorTint;
+		BufferedImage result = imageCache.get( basePath, transform );
+		if ( result != null ) return result;
+
+		BufferedImage colorImage = findTintedImage( findCroppedImage( colorPath, x, y, w, h ), colorTint );
+		BufferedImage baseImage = findCroppedImage( basePath, x, y, w, h );
+
+		result = gc.createCompatibleImage( w, h, Transparency.TRANSLUCENT );
+		Graphics2D g2d = result.createGraphics();
+		g2d.drawImage( colorImage, 0, 0, null );
+		g2d.drawImage( baseImage, 0, 0, null );
+		g2d.dispose();
+
+		return imageCache.put( basePath, transform, result );
 	}
 
 
 	/**
 	 * Applies a RescaleOp to the palette of an image, and caches the result.
 	 *
+	 * The result is only cached if the source image is.
+	 *
 	 * @param srcImage
 	 * @param tint
-	 * @param cachedTintedImages an existing cache to use, or null for no caching
 	 */
-	public static BufferedImage getTintedImage( BufferedImage srcImage, Tint tint, Map<BufferedImage, Map<Tint, BufferedImage>> cachedTintedImages ) {
-		BufferedImage result = null;
-		Map<Tint, BufferedImage> cacheMap = null;
+	public static BufferedImage getTintedImage( BufferedImage srcImage, Tint tint ) {
+		Object source = imageCache.getDerivedSource( srcImage );
+		String transform = imageCache.getDerivedTransform( srcImage, "tint:"+ tint );
+		if ( source != null ) {
+			BufferedImage result = imageCache.get( source, transform );
+			if ( result != null ) return result;
+		}
 
-		if ( cachedTintedImages != null ) {
-			cacheMap = cachedTintedImages.get( srcImage );
-			if ( cacheMap != null ) result = cacheMap.get( tint );
+		return tintImage( srcImage, tint, source, transform );
+	}
+
+	/**
+	 * Returns a cached tint without counting the lookup, or makes one.
+	 */
+	private static BufferedImage findTintedImage( BufferedImage srcImage, Tint tint ) {
+		Object source = imageCache.getDerivedSource( srcImage );
+		String transform = imageCache.getDerivedTransform( srcImage, "tint:"+ tint );
+		if ( source != null ) {
+			BufferedImage result = imageCache.peek( source, transform );
 			if ( result != null ) return result;
 		}
 
+		return tintImage( srcImage, tint, source, transform );
+	}
+
+	/**
+	 * Tints an image, caching the result under a key, unless source is null.
+	 */
+	private static BufferedImage tintImage( BufferedImage srcImage, Tint tint, Object source, String transform ) {
 		BufferedImage canvas = gc.createCompatibleImage( srcImage.getWidth(), srcImage.getHeight(), Transparency.TRANSLUCENT );
 		Graphics2D g2d = canvas.createGraphics();
 		g2d.drawImage( srcImage, 0, 0, null );
 		g2d.dispose();
 		RescaleOp op = new RescaleOp( tint.scaleFactors, tint.offsets, null );
-		result = op.filter( canvas, null );
-
-		if ( cachedTintedImages != null ) {
-			if ( cacheMap == null ) {
-				cacheMap = new HashMap<Tint, BufferedImage>();
-				cachedTintedImages.put( srcImage, cacheMap );
-			}
-			cacheMap.put( tint, result );
-		}
+		BufferedImage result = op.filter( canvas, null );
 
-		return result;
+		if ( source == null ) return result;
+		return imageCache.put( source, transform, result );
 	}
 
 
 	/**
 	 * Crops transparent pixels from an image, and caches the result.
 	 *
+	 * The trimmed area is a copy, not a view sharing the source's pixels.
+	 *
+	 * The result is only cached if the source image is.
+	 *
 	 * @param srcImage
-	 * @param cachedTrimmedImages an existing cache to use, or null for no caching
 	 */
-	public static BufferedImage getTrimmedImage( BufferedImage srcImage, Map<BufferedImage, BufferedImage> cachedTrimmedImages ) {
-		BufferedImage result = null;
-
-		if ( cachedTrimmedImages != null ) {
-			result = cachedTrimmedImages.get( srcImage );
+	public static BufferedImage getTrimmedImage( BufferedImage srcImage ) {
+		Object source = imageCache.getDerivedSource( srcImage );
+		String transform = imageCache.getDerivedTransform( srcImage, "trim" );
+		if ( source != null ) {
+			BufferedImage result = imageCache.get( source, transform );
 			if ( result != null ) return result;
 		}
 
-		result = srcImage;
+		BufferedImage result = srcImage;
 
 		// Shrink the crop area until non-transparent pixels are hit.
 		int origW = srcImage.getWidth(), origH = srcImage.getHeight();
@@ -498,13 +581,25 @@ public class ImageUtilities {
 		}
 		log.trace( String.format( "Image Trimmed to Bounds: %d,%d %dx%d", lowX, lowY, highX, highY ) );
 		if ( lowX >= 0 && lowY >= 0 && highX < origW && highY < origH && lowX < highX && lowY < highY ) {
-			result = result.getSubimage( lowX, lowY, highX-lowX+1, highY-lowY+1 );
+			result = copyImage( result.getSubimage( lowX, lowY, highX-lowX+1, highY-lowY+1 ) );
 		}
 
-		if ( cachedTrimmedImages != null ) {
-			cachedTrimmedImages.put( srcImage, result );
-		}
+		if ( source == null ) return result;
+		return imageCache.put( source, transform, result );
+	}
+
 
+	/**
+	 * Copies an image into a new one compatible with the screen.
+	 *
+	 * A subimage shares its parent's raster, so caching one would keep the
+	 * parent alive while the cache only counted the subimage's pixels.
+	 */
+	private static BufferedImage copyImage( BufferedImage srcImage ) {
+		BufferedImage result = gc.createCompatibleImage( srcImage.getWidth(), srcImage.getHeight(), Transparency.TRANSLUCENT );
+		Graphics2D g2d = result.createGraphics();
+		g2d.drawImage( srcImage, 0, 0, null );
+		g2d.dispose();
 		return result;
 	}
 
@@ -528,5 +623,9 @@ public class ImageUtilities {
 		public int hashCode() {
 			return ( java.util.Arrays.hashCode( scaleFactors ) ^ java.util.Arrays.hashCode( offsets ) );
 		}
+
+		public String toString() {
+			return java.util.Arrays.toString( scaleFactors ) + java.util.Arrays.toString( offsets );
+		}
 	}
 }
@@ -16,7 +16,6 @@ import net.blerf.ftl.constants.Difficulty;
 import net.blerf.ftl.constants.NewbieTipLevel;
 import net.blerf.ftl.model.AchievementRecord;
 import net.blerf.ftl.model.Profile;
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.ui.FieldEditorPanel;
 import net.blerf.ftl.ui.FTLFrame;
 import net.blerf.ftl.ui.IconCycleButton;
@@ -49,7 +48,7 @@ public class ProfileGeneralAchievementsPanel extends JPanel {
 
 		log.trace( "Creating General Achievements panel" );
 
-		List<Achievement> achievements = DataManager.get().getGeneralAchievements();
+		List<Achievement> achievements = frame.getDataManager().getGeneralAchievements();
 
 		// TODO: magic offsets.
 		this.add( createAchievementsSubPanel( "General Progression", achievements, 0 ) );
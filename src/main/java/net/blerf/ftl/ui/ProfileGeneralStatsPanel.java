@@ -1,13 +1,9 @@
 package net.blerf.ftl.ui;
 
 import java.awt.GridLayout;
-import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JPanel;
@@ -34,7 +30,6 @@ public class ProfileGeneralStatsPanel extends JPanel {
 
 	private FTLFrame frame;
 
-	private Map<String, Map<Rectangle, BufferedImage>> cachedImages = new HashMap<String, Map<Rectangle, BufferedImage>>();
 
 	private JPanel topScoresPanel;
 	private StatsSubPanel sessionRecordsPanel;
@@ -58,17 +53,17 @@ public class ProfileGeneralStatsPanel extends JPanel {
 		statsSubPanelsHolder.setLayout( new BoxLayout( statsSubPanelsHolder, BoxLayout.Y_AXIS ) );
 		this.add( statsSubPanelsHolder );
 
-		sessionRecordsPanel = new StatsSubPanel();
+		sessionRecordsPanel = new StatsSubPanel( frame.getDataManager() );
 		sessionRecordsPanel.addFillRow();
 		sessionRecordsPanel.setBorder( BorderFactory.createTitledBorder( "Session Records" ) );
 		statsSubPanelsHolder.add( sessionRecordsPanel );
 
-		crewRecordsPanel = new StatsSubPanel();
+		crewRecordsPanel = new StatsSubPanel( frame.getDataManager() );
 		crewRecordsPanel.addFillRow();
 		crewRecordsPanel.setBorder( BorderFactory.createTitledBorder( "Crew Records" ) );
 		statsSubPanelsHolder.add( crewRecordsPanel );
 
-		totalStatsPanel = new StatsSubPanel();
+		totalStatsPanel = new StatsSubPanel( frame.getDataManager() );
 		totalStatsPanel.addFillRow();
 		totalStatsPanel.setBorder( BorderFactory.createTitledBorder( "Totals" ) );
 		statsSubPanelsHolder.add( totalStatsPanel );
@@ -99,8 +94,7 @@ public class ProfileGeneralStatsPanel extends JPanel {
 
 		int i = 0;
 		for ( Score s : stats.getTopScores() ) {
-			ScorePanel tsp = new ScorePanel( ++i, s );
-			tsp.setCacheMap( cachedImages );
+			ScorePanel tsp = new ScorePanel( frame.getDataManager(), ++i, s );
 			tsp.setBlankable( true );
 			tsp.setEditable( true );
 			topScoresPanel.add( tsp );
@@ -108,7 +102,7 @@ public class ProfileGeneralStatsPanel extends JPanel {
 		}
 		// Add blank panels to fill all remaining slots.
 		while ( topScorePanels.size() < MAX_SCORE_PANELS ) {
-			ScorePanel tsp = new ScorePanel( topScorePanels.size()+1, null );
+			ScorePanel tsp = new ScorePanel( frame.getDataManager(), topScorePanels.size()+1, null );
 			tsp.setBlankable( true );
 			tsp.setEditable( true );
 			topScoresPanel.add( tsp );
@@ -3,7 +3,6 @@ package net.blerf.ftl.ui;
 import java.awt.GridBagLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridLayout;
-import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
@@ -26,7 +25,6 @@ import net.blerf.ftl.model.AchievementRecord;
 import net.blerf.ftl.model.Score;
 import net.blerf.ftl.model.Stats;
 import net.blerf.ftl.model.Profile;
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.ui.FTLFrame;
 import net.blerf.ftl.ui.ScorePanel;
 import net.blerf.ftl.ui.StatusbarMouseListener;
@@ -43,7 +41,6 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 
 	private FTLFrame frame;
 
-	private Map<String, Map<Rectangle, BufferedImage>> cachedImages = new HashMap<String, Map<Rectangle, BufferedImage>>();
 	private BufferedImage questImage = null;
 	private BufferedImage victoryAImage = null;
 	private BufferedImage victoryBImage = null;
@@ -108,7 +105,7 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 		rightPanel.setLayout( new BoxLayout( rightPanel, BoxLayout.Y_AXIS ) );
 		rightPanel.setBorder( BorderFactory.createTitledBorder( "Quest and Victory Achievements" ) );
 
-		for ( String baseId : DataManager.get().getPlayerShipBaseIds() ) {
+		for ( String baseId : frame.getDataManager().getPlayerShipBaseIds() ) {
 			JPanel panel = createQVAchPanel( baseId );
 			if ( panel != null ) rightPanel.add( panel );
 		}
@@ -121,14 +118,14 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 
 		log.trace( "Creating quest/victory achievement panel for: "+ baseId );
 
-		ShipBlueprint variantAShip = DataManager.get().getPlayerShipVariant( baseId, 0 );
-		ShipBlueprint variantBShip = DataManager.get().getPlayerShipVariant( baseId, 1 );
-		ShipBlueprint variantCShip = DataManager.get().getPlayerShipVariant( baseId, 2 );
+		ShipBlueprint variantAShip = frame.getDataManager().getPlayerShipVariant( baseId, 0 );
+		ShipBlueprint variantBShip = frame.getDataManager().getPlayerShipVariant( baseId, 1 );
+		ShipBlueprint variantCShip = frame.getDataManager().getPlayerShipVariant( baseId, 2 );
 		if ( variantAShip == null ) return null;
 
 		Achievement questAch = null;
 		Achievement victoryAch = null;
-		List<Achievement> shipAchs = DataManager.get().getShipAchievements( variantAShip );
+		List<Achievement> shipAchs = frame.getDataManager().getShipAchievements( variantAShip );
 		for ( Achievement ach : shipAchs ) {
 			if ( ach.isQuest() ) questAch = ach;
 			if ( ach.isVictory() ) victoryAch = ach;
@@ -240,8 +237,7 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 			if ( shipScoreList != null ) {
 				int i = 0;
 				for ( Score s : shipScoreList ) {
-					ScorePanel bsp = new ScorePanel( ++i, s );
-					bsp.setCacheMap( cachedImages );
+					ScorePanel bsp = new ScorePanel( frame.getDataManager(), ++i, s );
 					bsp.setShipId( currentShipId );
 					bsp.setShipIdEditingEnabled( false );
 					bsp.setBlankable( true );
@@ -253,8 +249,7 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 		}
 		// Add blank panels to fill all remaining slots.
 		while ( bestScorePanels.size() < MAX_SCORE_PANELS ) {
-			ScorePanel bsp = new ScorePanel( bestScorePanels.size()+1, null );
-			bsp.setCacheMap( cachedImages );
+			ScorePanel bsp = new ScorePanel( frame.getDataManager(), bestScorePanels.size()+1, null );
 			bsp.setShipId( currentShipId );
 			bsp.setShipIdEditingEnabled( false );
 			bsp.setBlankable( true );
@@ -318,7 +313,7 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 			shipScoreList.add( new Score( s ) );
 		}
 
-		Map<String, ShipBlueprint> playerShipIdMap = DataManager.get().getPlayerShips();
+		Map<String, ShipBlueprint> playerShipIdMap = frame.getDataManager().getPlayerShips();
 		for ( ShipBlueprint ship : playerShipIdMap.values() ) {
 			bestCombo.addItem( ship );
 		}
@@ -335,7 +330,7 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 			}
 		}
 
-		for ( String baseId : DataManager.get().getPlayerShipBaseIds() ) {
+		for ( String baseId : frame.getDataManager().getPlayerShipBaseIds() ) {
 			Achievement questAch = questAchs.get( baseId );
 			Achievement victoryAch = victoryAchs.get( baseId );
 			IconCycleButton questBox = questBoxes.get( baseId );
@@ -385,7 +380,7 @@ public class ProfileShipStatsPanel extends JPanel implements ActionListener {
 
 		stats.setShipBest( newBest );
 
-		for ( String baseId : DataManager.get().getPlayerShipBaseIds() ) {
+		for ( String baseId : frame.getDataManager().getPlayerShipBaseIds() ) {
 			Achievement questAch = questAchs.get( baseId );
 			Achievement victoryAch = victoryAchs.get( baseId );
 			IconCycleButton questBox = questBoxes.get( baseId );
@@ -17,7 +17,6 @@ import net.blerf.ftl.constants.Difficulty;
 import net.blerf.ftl.model.AchievementRecord;
 import net.blerf.ftl.model.ShipAvailability;
 import net.blerf.ftl.model.Profile;
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.ui.FTLFrame;
 import net.blerf.ftl.ui.IconCycleButton;
 import net.blerf.ftl.ui.ImageUtilities;
@@ -51,7 +50,7 @@ public class ProfileShipUnlockPanel extends JPanel {
 		shipsPanel.setBorder( BorderFactory.createTitledBorder( "Ship Unlocks" ) );
 		this.add( shipsPanel );
 
-		for ( String baseId : DataManager.get().getPlayerShipBaseIds() ) {
+		for ( String baseId : frame.getDataManager().getPlayerShipBaseIds() ) {
 			JPanel panel = createShipUnlockPanel( baseId );
 			if ( panel != null ) shipsPanel.add( panel );
 		}
@@ -62,7 +61,7 @@ public class ProfileShipUnlockPanel extends JPanel {
 		shipAchsPanel.setBorder( BorderFactory.createTitledBorder( "Ship Achievements" ) );
 		this.add( shipAchsPanel );
 
-		for ( String baseId : DataManager.get().getPlayerShipBaseIds() ) {
+		for ( String baseId : frame.getDataManager().getPlayerShipBaseIds() ) {
 			JPanel panel = createShipAchPanel( baseId );
 			if ( panel != null ) shipAchsPanel.add( panel );
 		}
@@ -72,9 +71,9 @@ public class ProfileShipUnlockPanel extends JPanel {
 
 		log.trace( "Creating ship unlock panel for: "+ baseId );
 
-		ShipBlueprint variantAShip = DataManager.get().getPlayerShipVariant( baseId, 0 );
-		ShipBlueprint variantBShip = DataManager.get().getPlayerShipVariant( baseId, 1 );
-		ShipBlueprint variantCShip = DataManager.get().getPlayerShipVariant( baseId, 2 );
+		ShipBlueprint variantAShip = frame.getDataManager().getPlayerShipVariant( baseId, 0 );
+		ShipBlueprint variantBShip = frame.getDataManager().getPlayerShipVariant( baseId, 1 );
+		ShipBlueprint variantCShip = frame.getDataManager().getPlayerShipVariant( baseId, 2 );
 		if ( variantAShip == null ) return null;
 
 		String shipClass = variantAShip.getShipClass();
@@ -117,7 +116,7 @@ public class ProfileShipUnlockPanel extends JPanel {
 
 		log.trace( "Creating ship achievements panel for: "+ baseId );
 
-		ShipBlueprint variantAShip = DataManager.get().getPlayerShipVariant( baseId, 0 );
+		ShipBlueprint variantAShip = frame.getDataManager().getPlayerShipVariant( baseId, 0 );
 		if ( variantAShip == null ) return null;
 
 		String shipClass = variantAShip.getShipClass();
@@ -126,7 +125,7 @@ public class ProfileShipUnlockPanel extends JPanel {
 		panel.setLayout( new BoxLayout(panel, BoxLayout.X_AXIS) );
 		panel.setBorder( BorderFactory.createTitledBorder( shipClass ) );
 
-		List<Achievement> shipAchs = DataManager.get().getShipAchievements( variantAShip );
+		List<Achievement> shipAchs = frame.getDataManager().getShipAchievements( variantAShip );
 		if ( shipAchs != null ) {
 			for ( Achievement shipAch : shipAchs ) {
 				if ( shipAch.isVictory() || shipAch.isQuest() ) continue;
@@ -178,7 +177,7 @@ public class ProfileShipUnlockPanel extends JPanel {
 
 	public void setProfile( Profile p ) {
 
-		for ( String baseId : DataManager.get().getPlayerShipBaseIds() ) {
+		for ( String baseId : frame.getDataManager().getPlayerShipBaseIds() ) {
 			IconCycleButton shipABox = shipABoxes.get( baseId );
 			IconCycleButton shipCBox = shipCBoxes.get( baseId );
 
@@ -237,7 +236,7 @@ public class ProfileShipUnlockPanel extends JPanel {
 		Map<String, ShipAvailability> shipUnlockMap = new LinkedHashMap<String, ShipAvailability>();
 		shipUnlockMap.putAll( p.getShipUnlockMap() );
 
-		for ( String baseId : DataManager.get().getPlayerShipBaseIds() ) {
+		for ( String baseId : frame.getDataManager().getPlayerShipBaseIds() ) {
 			IconCycleButton shipABox = shipABoxes.get( baseId );
 			IconCycleButton shipCBox = shipCBoxes.get( baseId );
 
@@ -255,7 +254,7 @@ public class ProfileShipUnlockPanel extends JPanel {
 			// TODO: FTL:AE permits Type-B and Type-C ships in the absense of Type-A.
 			// Original FTL's menus expected Type-A at least to be present.
 			if ( !unlockedA ) {
-				List<Achievement> shipAchs = DataManager.get().getShipAchievements( DataManager.get().getPlayerShipVariant( baseId, 0 ) );
+				List<Achievement> shipAchs = frame.getDataManager().getShipAchievements( frame.getDataManager().getPlayerShipVariant( baseId, 0 ) );
 				if ( shipAchs != null ) {
 					for ( Achievement shipAch : shipAchs ) {
 						if ( shipAch.isVictory() || shipAch.isQuest() ) continue;
@@ -26,17 +26,19 @@ import java.awt.event.ItemListener;
 import java.awt.event.MouseEvent;
 import java.awt.font.LineMetrics;
 import java.awt.image.BufferedImage;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
-import javax.imageio.ImageIO;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -66,7 +68,6 @@ import net.blerf.ftl.constants.AdvancedFTLConstants;
 import net.blerf.ftl.constants.FTLConstants;
 import net.blerf.ftl.constants.OriginalFTLConstants;
 import net.blerf.ftl.model.ShipLayout;
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.parser.SavedGameParser;
 import net.blerf.ftl.parser.SavedGameParser.BatteryInfo;
 import net.blerf.ftl.parser.SavedGameParser.CrewState;
@@ -125,6 +126,18 @@ public class SavedGameFloorplanPanel extends JPanel {
 	private static final int tileEdge = 1;
 	private static final int jambLength = 5;
 
+	// Decodes ship images off the EDT. Daemons, so they never delay exit.
+	private static final ExecutorService imageLoadExecutor = Executors.newFixedThreadPool( Math.max( 1, Math.min( 4, Runtime.getRuntime().availableProcessors() ) ), new ThreadFactory() {
+		private final AtomicInteger threadCount = new AtomicInteger( 0 );
+
+		@Override
+		public Thread newThread( Runnable r ) {
+			Thread t = new Thread( r, "ShipImageLoader-"+ threadCount.incrementAndGet() );
+			t.setDaemon( true );
+			return t;
+		}
+	});
+
 	private GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
 	private GraphicsDevice gs = ge.getDefaultScreenDevice();
 	private GraphicsConfiguration gc = gs.getDefaultConfiguration();
@@ -151,6 +164,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 	private boolean shipPlayerControlled = false;
 	private List<String> shipAugmentIdList = new ArrayList<String>();
 	private List<ExtendedSystemInfo> extendedSystemInfoList = new ArrayList<ExtendedSystemInfo>();
+	private boolean shipEdited = false;
 
 	private int originX = 0, originY = 0;
 	private Map<Rectangle, Integer> roomRegionRoomIdMap = new HashMap<Rectangle, Integer>();
@@ -158,6 +172,8 @@ public class SavedGameFloorplanPanel extends JPanel {
 	private Map<Rectangle, Integer> squareRegionSquareIdMap = new HashMap<Rectangle, Integer>();
 	private List<Rectangle> blockedRegions = new ArrayList<Rectangle>();
 	private List<JComponent> roomDecorations = new ArrayList<JComponent>();
+	private volatile int shipImageSerial = 0;
+	private boolean crewImagesPending = false;
 
 	private List<SpriteReference<DroneState>> droneRefs = new ArrayList<SpriteReference<DroneState>>();
 	private List<SpriteReference<WeaponState>> weaponRefs = new ArrayList<SpriteReference<WeaponState>>();
@@ -176,11 +192,6 @@ public class SavedGameFloorplanPanel extends JPanel {
 	private List<DoorSprite> doorSprites = new ArrayList<DoorSprite>();
 	private List<CrewSprite> crewSprites = new ArrayList<CrewSprite>();
 
-	private Map<String, Map<Rectangle, BufferedImage>> cachedImages = new HashMap<String, Map<Rectangle, BufferedImage>>();
-	private Map<BufferedImage, Map<Tint, BufferedImage>> cachedTintedImages = new HashMap<BufferedImage, Map<Tint, BufferedImage>>();
-	private Map<String, BufferedImage> cachedPlayerBodyImages = new HashMap<String, BufferedImage>();
-	private Map<String, BufferedImage> cachedEnemyBodyImages = new HashMap<String, BufferedImage>();
-
 	private JLayeredPane shipPanel = null;
 	private StatusViewport shipViewport = null;
 	private JPanel sidePanel = null;
@@ -325,8 +336,10 @@ public class SavedGameFloorplanPanel extends JPanel {
 					if ( !miscSelector.isCurrentSpriteValid() ) return;
 					boolean keepSelecting = false;
 					SpriteSelectionCallback callback = miscSelector.getCallback();
-					if ( callback != null )
+					if ( callback != null ) {
+						shipEdited = true;
 						keepSelecting = callback.spriteSelected( miscSelector, miscSelector.getSprite() );
+					}
 					if ( keepSelecting == false )
 						miscSelector.reset();
 				}
@@ -367,8 +380,10 @@ public class SavedGameFloorplanPanel extends JPanel {
 					if ( !squareSelector.isCurrentSquareValid() ) return;
 					boolean keepSelecting = false;
 					SquareSelectionCallback callback = squareSelector.getCallback();
-					if ( callback != null )
+					if ( callback != null ) {
+						shipEdited = true;
 						keepSelecting = callback.squareSelected( squareSelector, squareSelector.getRoomId(), squareSelector.getSquareId() );
+					}
 					if ( keepSelecting == false )
 						squareSelector.reset();
 				}
@@ -488,6 +503,8 @@ public class SavedGameFloorplanPanel extends JPanel {
 			public void actionPerformed( ActionEvent e ) {
 				if ( shipBlueprint == null ) return;  // No ship to edit!
 
+				shipEdited = true;
+
 				Object source = e.getSource();
 				if ( source == selectRoomBtn ) {
 					selectRoom();
@@ -653,6 +670,9 @@ public class SavedGameFloorplanPanel extends JPanel {
 		squareSelector.reset();
 		shipViewport.setStatusString( null );
 		clearSidePanel();
+		shipEdited = false;
+		shipImageSerial++;
+		crewImagesPending = false;
 
 		shipAugmentIdList.clear();
 		extendedSystemInfoList.clear();
@@ -745,9 +765,9 @@ public class SavedGameFloorplanPanel extends JPanel {
 			ftlConstants = new AdvancedFTLConstants();
 		}
 
-		shipBlueprint = DataManager.get().getShip( shipState.getShipBlueprintId() );
-		shipLayout = DataManager.get().getShipLayout( shipState.getShipLayoutId() );
-		shipChassis = DataManager.get().getShipChassis( shipState.getShipLayoutId() );
+		shipBlueprint = frame.getDataManager().getShip( shipState.getShipBlueprintId() );
+		shipLayout = frame.getDataManager().getShipLayout( shipState.getShipLayoutId() );
+		shipChassis = frame.getDataManager().getShipChassis( shipState.getShipLayoutId() );
 		shipGfxBaseName = shipState.getShipGraphicsBaseName();
 		shipReserveCapacity = shipState.getReservePowerCapacity();
 		shipName = shipState.getShipName();
@@ -767,6 +787,10 @@ public class SavedGameFloorplanPanel extends JPanel {
 		originY = shipChassis.getImageBounds().y * -1;
 		ShipBlueprint.SystemList blueprintSystems = shipBlueprint.getSystemList();
 
+		// Images are decoded in the background, and installed as they arrive.
+		List<ShipImageLoad> imageLoads = new ArrayList<ShipImageLoad>();
+		final String gfxBaseName = shipGfxBaseName;
+
 		if ( shipGfxBaseName != prevGfxBaseName ) {
 			// Associate graphical regions with roomIds and squareIds.
 			roomRegionRoomIdMap.clear();
@@ -824,65 +848,70 @@ public class SavedGameFloorplanPanel extends JPanel {
 
 			// Load the fuselage image.
 			baseLbl.setIcon( null );
-			InputStream in = null;
-			try {
-				String baseImagePath = null;
-				String[] candidatePaths = new String[2];
-				candidatePaths[0] = "img/ship/"+ shipGfxBaseName +"_base.png";  // FTL 1.01-1.03.3 (All ships), 1.5.4 (Player ships)
-				candidatePaths[1] = "img/ships_glow/"+ shipGfxBaseName +"_base.png";  // FTL 1.5.4 (Enemy ships)
-				for ( String candidatePath : candidatePaths ) {
-					if ( DataManager.get().hasResourceInputStream( candidatePath ) ) {
-						baseImagePath = candidatePath;
-					}
-				}
-				if ( baseImagePath == null ) {
-					throw new FileNotFoundException();
+			String baseImagePath = null;
+			String[] candidatePaths = new String[2];
+			candidatePaths[0] = "img/ship/"+ shipGfxBaseName +"_base.png";  // FTL 1.01-1.03.3 (All ships), 1.5.4 (Player ships)
+			candidatePaths[1] = "img/ships_glow/"+ shipGfxBaseName +"_base.png";  // FTL 1.5.4 (Enemy ships)
+			for ( String candidatePath : candidatePaths ) {
+				if ( frame.getDataManager().hasResourceInputStream( candidatePath ) ) {
+					baseImagePath = candidatePath;
 				}
+			}
+			if ( baseImagePath != null ) {
+				final String basePath = baseImagePath;
+				imageLoads.add(new ShipImageLoad() {
+					@Override
+					public void load() {
+						ImageUtilities.getSheetImage( basePath );
+					}
+
+					@Override
+					public void install() {
+						if ( gfxBaseName != shipGfxBaseName ) return;  // Another ship is shown now.
 
-				in = DataManager.get().getResourceInputStream( baseImagePath );
-				BufferedImage baseImage = ImageIO.read( in );
-				in.close();
-				baseLbl.setIcon( new ImageIcon( baseImage ) );
-				baseLbl.setSize( new Dimension( baseImage.getWidth(), baseImage.getHeight() ) );
+						BufferedImage baseImage = ImageUtilities.getSheetImage( basePath );
+						if ( baseImage == null ) return;
+						baseLbl.setIcon( new ImageIcon( baseImage ) );
+						baseLbl.setSize( new Dimension( baseImage.getWidth(), baseImage.getHeight() ) );
+					}
+				});
 			}
-			catch ( FileNotFoundException e ) {
+			else {
 				log.warn( "No ship base image for ("+ shipGfxBaseName +")" );
 			}
-			catch ( IOException e ) {
-				log.error( "Failed to load ship base image ("+ shipGfxBaseName +")", e );
-			}
-			finally {
-				try {if ( in != null ) in.close();}
-				catch ( IOException e ) {}
-			}
 
 			// Load the interior image.
 			floorLbl.setIcon( null );
 			floorLbl.setBounds( 0, 0, 50, 50 );
-			try {
-				in = DataManager.get().getResourceInputStream( "img/ship/"+ shipGfxBaseName +"_floor.png" );
-				BufferedImage floorImage = ImageIO.read( in );
-				in.close();
-				floorLbl.setIcon( new ImageIcon( floorImage ) );
-				floorLbl.setSize( new Dimension( floorImage.getWidth(), floorImage.getHeight() ) );
-
-				if ( shipChassis.getOffsets() != null ) {
-					Offset floorOffset = shipChassis.getOffsets().floorOffset;
-					if ( floorOffset != null ) {
-						floorLbl.setLocation( floorOffset.x, floorOffset.y );
+			final String floorPath = "img/ship/"+ shipGfxBaseName +"_floor.png";
+			if ( frame.getDataManager().hasResourceInputStream( floorPath ) ) {
+				imageLoads.add(new ShipImageLoad() {
+					@Override
+					public void load() {
+						ImageUtilities.getSheetImage( floorPath );
 					}
-				}
+
+					@Override
+					public void install() {
+						if ( gfxBaseName != shipGfxBaseName ) return;  // Another ship is shown now.
+
+						BufferedImage floorImage = ImageUtilities.getSheetImage( floorPath );
+						if ( floorImage == null ) return;
+						floorLbl.setIcon( new ImageIcon( floorImage ) );
+						floorLbl.setSize( new Dimension( floorImage.getWidth(), floorImage.getHeight() ) );
+
+						if ( shipChassis.getOffsets() != null ) {
+							Offset floorOffset = shipChassis.getOffsets().floorOffset;
+							if ( floorOffset != null ) {
+								floorLbl.setLocation( floorOffset.x, floorOffset.y );
+							}
+						}
+					}
+				});
 			}
-			catch ( FileNotFoundException e ) {
+			else {
 				log.debug( "No ship floor image for ("+ shipGfxBaseName +")" );
 			}
-			catch ( IOException e ) {
-				log.error( "Failed to load ship floor image ("+ shipGfxBaseName +")", e );
-			}
-			finally {
-				try {if ( in != null ) in.close();}
-				catch ( IOException e ) {}
-			}
 
 			for ( JComponent roomDecor : roomDecorations )
 				shipPanel.remove( roomDecor );
@@ -905,27 +934,58 @@ public class SavedGameFloorplanPanel extends JPanel {
 					// Gotta scale because Zoltan #2's got a tall Doors image for a wide room. :/
 					// FTL 1.5.4+ reportedly no longer scales, and even lets decor extend beyond room walls.
 
-					BufferedImage decorImage = ImageUtilities.getScaledImage( "img/ship/interior/"+ roomImgPath +".png", squaresH*squareSize, squaresV*squareSize, cachedImages );
-					JLabel decorLbl = new JLabel( new ImageIcon( decorImage ) );
+					final String decorPath = "img/ship/interior/"+ roomImgPath +".png";
+					final int decorW = squaresH*squareSize;
+					final int decorH = squaresV*squareSize;
+					final JLabel decorLbl = new JLabel();
 					decorLbl.setOpaque( false );
-					decorLbl.setBounds( roomX, roomY, squaresH*squareSize, squaresV*squareSize );
+					decorLbl.setBounds( roomX, roomY, decorW, decorH );
 					roomDecorations.add( decorLbl );
 					shipPanel.add( decorLbl, DECOR_LAYER );
+
+					imageLoads.add(new ShipImageLoad() {
+						@Override
+						public void load() {
+							ImageUtilities.getScaledImage( decorPath, decorW, decorH );
+						}
+
+						@Override
+						public void install() {
+							decorLbl.setIcon( new ImageIcon( ImageUtilities.getScaledImage( decorPath, decorW, decorH ) ) );
+						}
+					});
 				}
 
 				if ( systemRoom == blueprintSystems.getTeleporterRoom() ) {
+					final List<JLabel> padLbls = new ArrayList<JLabel>();
 					for ( int s=0; s < squaresH*squaresV; s++ ) {
 						int decorX = roomX + (s%squaresH)*squareSize + squareSize/2;
 						int decorY = roomY + (s/squaresH)*squareSize + squareSize/2;
 
-						BufferedImage decorImage = ImageUtilities.getScaledImage( "img/ship/interior/teleporter_off.png", 20, 20, cachedImages );
-						JLabel decorLbl = new JLabel( new ImageIcon( decorImage ) );
+						JLabel decorLbl = new JLabel();
 						decorLbl.setOpaque( false );
 						decorLbl.setSize( squaresH*squareSize, squaresV*squareSize );
 						placeSprite( decorX, decorY, decorLbl );
 						roomDecorations.add( decorLbl );
 						shipPanel.add( decorLbl, DECOR_LAYER );
+						padLbls.add( decorLbl );
 					}
+
+					// One image for every pad.
+					imageLoads.add(new ShipImageLoad() {
+						@Override
+						public void load() {
+							ImageUtilities.getScaledImage( "img/ship/interior/teleporter_off.png", 20, 20 );
+						}
+
+						@Override
+						public void install() {
+							ImageIcon padIcon = new ImageIcon( ImageUtilities.getScaledImage( "img/ship/interior/teleporter_off.png", 20, 20 ) );
+							for ( JLabel padLbl : padLbls ) {
+								padLbl.setIcon( padIcon );
+							}
+						}
+					});
 				}
 			}
 
@@ -1119,6 +1179,36 @@ public class SavedGameFloorplanPanel extends JPanel {
 		int hadesX = 100 - (int)(squareSize * 1.5);
 		int hadesY = shipChassis.getImageBounds().h;
 
+		// Crew are drawn without bodies until every body they need is decoded.
+		final int crewImageSerial = shipImageSerial;
+		final AtomicInteger crewLoadsLeft = new AtomicInteger( 0 );
+		Set<String> crewBodyKeys = new HashSet<String>();
+		for ( CrewState crewState : shipState.getCrewList() ) {
+			final String imgRace = getCrewImageRace( crewState );
+			final boolean playerControlled = crewState.isPlayerControlled();
+			if ( !crewBodyKeys.add( imgRace +"|"+ playerControlled ) ) continue;
+
+			crewLoadsLeft.incrementAndGet();
+			imageLoads.add(new ShipImageLoad() {
+				@Override
+				public void load() {
+					getBodyImage( imgRace, playerControlled );
+				}
+
+				@Override
+				public void install() {
+					if ( crewLoadsLeft.decrementAndGet() > 0 ) return;
+					if ( crewImageSerial != shipImageSerial ) return;  // Another ship is shown now.
+
+					crewImagesPending = false;
+					for ( CrewSprite crewSprite : crewSprites ) {
+						crewSprite.referenceChanged();
+					}
+				}
+			});
+		}
+		crewImagesPending = ( crewLoadsLeft.get() > 0 );
+
 		for ( CrewState crewState : shipState.getCrewList() ) {
 			SpriteReference<CrewState> crewRef = new SpriteReference<CrewState>( new CrewState( crewState ) );
 			crewRefs.add( crewRef );
@@ -1146,6 +1236,8 @@ public class SavedGameFloorplanPanel extends JPanel {
 			addCrewSprite( crewX, crewY, crewRef );
 		}
 
+		startImageLoads( imageLoads );
+
 		fitViewToViewport();
 
 		defaultSelector.setVisible( true );
@@ -1161,12 +1253,22 @@ public class SavedGameFloorplanPanel extends JPanel {
 		});
 	}
 
+	/**
+	 * Returns true if anything may have been edited since setShipState().
+	 *
+	 * This is conservative: opening an editor or starting a selection
+	 * counts, even if nothing was changed.
+	 */
+	public boolean isShipEdited() {
+		return shipEdited;
+	}
+
 	public void updateShipState( SavedGameParser.ShipState shipState ) {
 		if ( shipState == null ) return;
 
-		shipBlueprint = DataManager.get().getShip( shipState.getShipBlueprintId() );
-		shipLayout = DataManager.get().getShipLayout( shipState.getShipLayoutId() );
-		shipChassis = DataManager.get().getShipChassis( shipState.getShipLayoutId() );
+		shipBlueprint = frame.getDataManager().getShip( shipState.getShipBlueprintId() );
+		shipLayout = frame.getDataManager().getShipLayout( shipState.getShipLayoutId() );
+		shipChassis = frame.getDataManager().getShipChassis( shipState.getShipLayoutId() );
 
 		shipState.setReservePowerCapacity( shipReserveCapacity );
 
@@ -1515,8 +1617,8 @@ public class SavedGameFloorplanPanel extends JPanel {
 				crewState.setSpriteY( center.y - originY - tileEdge + shipLayout.getOffsetY()*squareSize );
 				crewState.setSavedRoomId( roomId );
 				crewState.setSavedRoomSquare( squareId );
-				crewState.setMale( DataManager.get().getCrewSex() );
-				crewState.setName( DataManager.get().getCrewName( crewState.isMale() ) );
+				crewState.setMale( frame.getDataManager().getCrewSex() );
+				crewState.setName( frame.getDataManager().getCrewName( crewState.isMale() ) );
 
 				SpriteReference<CrewState> crewRef = new SpriteReference<CrewState>( crewState );
 				crewRefs.add( crewRef );
@@ -1640,19 +1742,67 @@ public class SavedGameFloorplanPanel extends JPanel {
 		squareSelector.setVisible( true );
 	}
 
+	/**
+	 * Decodes images on worker threads, installing each on the EDT when ready.
+	 *
+	 * If a load fails, its install() still runs, to retry or to give up.
+	 */
+	private void startImageLoads( List<ShipImageLoad> imageLoads ) {
+		for ( final ShipImageLoad imageLoad : imageLoads ) {
+			imageLoadExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						imageLoad.load();
+					}
+					catch ( RuntimeException e ) {
+						log.error( "Failed to load a ship image in the background", e );
+					}
+
+					SwingUtilities.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							imageLoad.install();
+
+							fitViewToViewport();
+							shipPanel.revalidate();
+							shipViewport.repaint();
+						}
+					});
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns the race whose body images depict a crew member.
+	 */
+	private String getCrewImageRace( CrewState crewState ) {
+		String imgRace = crewState.getRace();
+
+		if ( CrewType.HUMAN.getId().equals( crewState.getRace() ) ) {
+			// Human females have a distinct sprite (Other races look the same either way).
+			if ( !crewState.isMale() ) {
+				imgRace = "female";  // Not an actual race.
+			}
+		}
+		else if ( CrewType.GHOST.getId().equals( crewState.getRace() ) ) {
+			// Ghosts look like translucent humans.
+			if ( crewState.isMale() ) {
+				imgRace = "human";
+			} else {
+				imgRace = "female";
+			}
+		}
+		return imgRace;
+	}
+
 	private BufferedImage getBodyImage( String imgRace, boolean playerControlled ) {
 		int offsetX = 0, offsetY = 0, w = 35, h = 35;
 		String suffix = "";
 		String innerPath;
 		BufferedImage result = null;
 
-		if ( playerControlled ) {
-			result = cachedPlayerBodyImages.get( imgRace );
-		} else {
-			result = cachedEnemyBodyImages.get( imgRace );
-		}
-		if ( result != null ) return result;
-
 		// As of 1.01, drone images were "X_sheet" and "X_enemy_sheet".
 		// As of 1.01, crew images were "X_player_[green|yellow]" and "X_enemy_red".
 		// As of 1.03.1, drone images could also be "X_player[no color]" vs "X_enemy_red".
@@ -1680,47 +1830,24 @@ public class SavedGameFloorplanPanel extends JPanel {
 		}
 
 		innerPath = "img/people/"+ imgRace + suffix +".png";
-		if ( DataManager.get().hasResourceInputStream( innerPath ) ) {
+		if ( frame.getDataManager().hasResourceInputStream( innerPath ) ) {
 			// FTL 1.01-1.03.3
-			result = ImageUtilities.getCroppedImage( innerPath, offsetX, offsetY, w, h, cachedImages );
+			result = ImageUtilities.getCroppedImage( innerPath, offsetX, offsetY, w, h );
 		}
 		else {
 			// FTL 1.5.4+
-			BufferedImage colorImage = null;
-			BufferedImage baseImage = null;
-
-			String colorPath = "img/people/"+ imgRace +"_color.png";
-			if ( DataManager.get().hasResourceInputStream( colorPath ) ) {
-				colorImage = ImageUtilities.getCroppedImage( colorPath, offsetX, offsetY, w, h, cachedImages );
-				float[] yellow = new float[] { 0.957f, 0.859f, 0.184f, 1f };
-				float[] red = new float[] { 1.0f, 0.286f, 0.145f, 1f };
-				Tint colorTint = new Tint( (playerControlled ? yellow: red), new float[] { 0, 0, 0, 0 } );
-				colorImage = ImageUtilities.getTintedImage( colorImage, colorTint, cachedTintedImages );
-			}
-
 			String basePath = "img/people/"+ imgRace +"_base.png";
-			if ( DataManager.get().hasResourceInputStream( basePath ) ) {
-				baseImage = ImageUtilities.getCroppedImage( basePath, offsetX, offsetY, w, h, cachedImages );
-			}
+			String colorPath = "img/people/"+ imgRace +"_color.png";
+			float[] yellow = new float[] { 0.957f, 0.859f, 0.184f, 1f };
+			float[] red = new float[] { 1.0f, 0.286f, 0.145f, 1f };
+			Tint colorTint = new Tint( (playerControlled ? yellow: red), new float[] { 0, 0, 0, 0 } );
 
-			if ( colorImage != null && baseImage != null ) {
-				result = gc.createCompatibleImage( w, h, Transparency.TRANSLUCENT );
-				Graphics2D g2d = result.createGraphics();
-				g2d.drawImage( colorImage, 0, 0, null );
-				g2d.drawImage( baseImage, 0, 0, null );
-				g2d.dispose();
-			}
-			else if ( baseImage != null ) {
+			if ( !frame.getDataManager().hasResourceInputStream( colorPath ) ) {
 				// No colorImage to tint and outline the sprite, probably a drone.
-				result = baseImage;
+				colorPath = null;
 			}
-		}
-
-		if ( result != null ) {
-			if ( playerControlled ) {
-				cachedPlayerBodyImages.put( imgRace, result );
-			} else {
-				cachedEnemyBodyImages.put( imgRace, result );
+			if ( frame.getDataManager().hasResourceInputStream( basePath ) ) {
+				result = ImageUtilities.getLayeredImage( basePath, colorPath, colorTint, offsetX, offsetY, w, h );
 			}
 		}
 
@@ -1763,7 +1890,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 		int levelCount = 5;  // FTL 1.01-1.03.3 only had 3 Doors system levels. FTL 1.5.4+ had 5.
 
 		// Don't scale the image, but pass negative size to define the fallback dummy image.
-		BufferedImage bigImage = ImageUtilities.getScaledImage( "img/effects/door_sheet.png", -1*(5*w), -1*(levelCount*h), cachedImages );
+		BufferedImage bigImage = ImageUtilities.getScaledImage( "img/effects/door_sheet.png", -1*(5*w), -1*(levelCount*h) );
 
 		Map<Integer, BufferedImage> closedImages = new TreeMap<Integer, BufferedImage>();
 		Map<Integer, BufferedImage>  openImages = new TreeMap<Integer, BufferedImage>();
@@ -1784,7 +1911,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 	private void addBreachSprite( int centerX, int centerY, int roomId, int squareId, int health ) {
 		int offsetX = 0, offsetY = 0, w = 19, h = 19;
 
-		BufferedImage breachImage = ImageUtilities.getCroppedImage( "img/effects/breach.png", offsetX+6*w, offsetY, w, h, cachedImages );
+		BufferedImage breachImage = ImageUtilities.getCroppedImage( "img/effects/breach.png", offsetX+6*w, offsetY, w, h );
 
 		BreachSprite breachSprite = new BreachSprite( breachImage, roomId, squareId, health );
 		breachSprite.setBounds( centerX-w/2, centerY-h/2, w, h );
@@ -1795,7 +1922,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 	private void addFireSprite( int centerX, int centerY, int roomId, int squareId, int health ) {
 		int offsetX = 0, offsetY = 0, w = 32, h = 32;
 
-		BufferedImage fireImage = ImageUtilities.getCroppedImage( "img/effects/fire_L1_strip8.png", offsetX, offsetY, w, h, cachedImages );
+		BufferedImage fireImage = ImageUtilities.getCroppedImage( "img/effects/fire_L1_strip8.png", offsetX, offsetY, w, h );
 
 		FireSprite fireSprite = new FireSprite( fireImage, roomId, squareId, health );
 		fireSprite.setBounds( centerX-w/2, centerY-h/2, w, h );
@@ -2178,6 +2305,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 	 */
 	private void createSidePanel( String title, final FieldEditorPanel editorPanel, final Runnable applyCallback ) {
 		clearSidePanel();
+		shipEdited = true;  // Side panels may have buttons that apply immediately.
 		JLabel titleLbl = new JLabel(title);
 		titleLbl.setAlignmentX( Component.CENTER_ALIGNMENT );
 		sidePanel.add( titleLbl );
@@ -2338,7 +2466,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 		final String ID_THREE = "#3";
 		final String[] augSlots = new String[] { ID_ONE, ID_TWO, ID_THREE };
 
-		final Map<String, AugBlueprint> allAugmentsMap = DataManager.get().getAugments();
+		final Map<String, AugBlueprint> allAugmentsMap = frame.getDataManager().getAugments();
 
 		String title = "Augments";
 
@@ -2415,7 +2543,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 		final String HEALTH = "Health";
 		final String PLAYER_CONTROLLED = "Player Ctrl";
 
-		final Map<String, DroneBlueprint> allDronesMap = DataManager.get().getDrones();
+		final Map<String, DroneBlueprint> allDronesMap = frame.getDataManager().getDrones();
 
 		SpriteReference<SystemState> droneSystemRef = getSystemRef( SystemType.DRONE_CTRL );
 		if ( droneSystemRef == null || droneSystemRef.get().getCapacity() == 0 ) {
@@ -2638,7 +2766,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 		final String ARMED = "Armed";
 		final String COOLDOWN_TICKS = "Cooldown Ticks";
 
-		final Map<String, WeaponBlueprint> allWeaponsMap = DataManager.get().getWeapons();
+		final Map<String, WeaponBlueprint> allWeaponsMap = frame.getDataManager().getWeapons();
 
 		SpriteReference<SystemState> weaponSystemRef = getSystemRef( SystemType.WEAPONS );
 		if ( weaponSystemRef == null || weaponSystemRef.get().getCapacity() == 0 ) {
@@ -2935,7 +3063,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 		final String DAMAGE_PROGRESS = "Damage Progress";
 		final String DEIONIZATION_TICKS = "Deionization Ticks";
 
-		final SystemBlueprint systemBlueprint = DataManager.get().getSystem( systemRef.get().getSystemType().getId() );
+		final SystemBlueprint systemBlueprint = frame.getDataManager().getSystem( systemRef.get().getSystemType().getId() );
 
 		int maxSystemCapacity = systemBlueprint.getMaxPower();
 		Integer maxPowerOverride = shipBlueprint.getSystemList().getSystemRoom( systemRef.get().getSystemType() )[0].getMaxPower();
@@ -3164,7 +3292,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 						int weaponPower = 0;
 						for ( SpriteReference<WeaponState> weaponRef : weaponRefs ) {
 							if ( weaponRef.get() != null && weaponRef.get().isArmed() ) {
-								weaponPower += DataManager.get().getWeapon( weaponRef.get().getWeaponId() ).getPower();
+								weaponPower += frame.getDataManager().getWeapon( weaponRef.get().getWeaponId() ).getPower();
 								if ( weaponPower > systemPower ) weaponRef.get().setArmed( false );
 							}
 						}
@@ -3172,7 +3300,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 						systemPower = 0;
 						for ( SpriteReference<WeaponState> weaponRef : weaponRefs ) {
 							if ( weaponRef.get() != null && weaponRef.get().isArmed() ) {
-								systemPower += DataManager.get().getWeapon( weaponRef.get().getWeaponId() ).getPower();
+								systemPower += frame.getDataManager().getWeapon( weaponRef.get().getWeaponId() ).getPower();
 							}
 						}
 						systemRef.get().setPower( systemPower );
@@ -3193,7 +3321,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 						int dronePower = 0;
 						for ( SpriteReference<DroneState> droneRef : droneRefs ) {
 							if ( droneRef.get() != null && droneRef.get().isArmed() ) {
-								dronePower += DataManager.get().getDrone( droneRef.get().getDroneId() ).getPower();
+								dronePower += frame.getDataManager().getDrone( droneRef.get().getDroneId() ).getPower();
 								if ( dronePower > systemPower ) {
 									droneRef.get().setArmed( false );
 									droneRef.fireReferenceChange();
@@ -3204,7 +3332,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 						systemPower = 0;
 						for ( SpriteReference<DroneState> droneRef : droneRefs ) {
 							if ( droneRef.get() != null && droneRef.get().isArmed() ) {
-								systemPower += DataManager.get().getDrone( droneRef.get().getDroneId() ).getPower();
+								systemPower += frame.getDataManager().getDrone( droneRef.get().getDroneId() ).getPower();
 							}
 						}
 						systemRef.get().setPower( systemPower );
@@ -3899,7 +4027,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 			int bodyX = -1, bodyY = -1;
 
 			if ( droneRef.get() != null ) {
-				DroneBlueprint droneBlueprint = DataManager.get().getDrone( droneRef.get().getDroneId() );
+				DroneBlueprint droneBlueprint = frame.getDataManager().getDrone( droneRef.get().getDroneId() );
 
 				if ( DroneType.BATTLE.getId().equals( droneBlueprint.getType() ) ) {
 					imgRace = "battle";
@@ -4167,7 +4295,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 
 			// Assuming these are interchangeable.
 			String iconBaseName = systemRef.get().getSystemType().getId();
-			overlayImage = ImageUtilities.getScaledImage( "img/icons/s_"+ iconBaseName +"_overlay.png", scaleW, scaleH, cachedImages );
+			overlayImage = ImageUtilities.getScaledImage( "img/icons/s_"+ iconBaseName +"_overlay.png", scaleW, scaleH );
 
 			this.setPreferredSize( new Dimension( scaleW, scaleH ) );
 			this.setOpaque( false );
@@ -4209,7 +4337,7 @@ public class SavedGameFloorplanPanel extends JPanel {
 
 			currentImage = overlayImage;
 			if ( tint != null ) {
-				currentImage = ImageUtilities.getTintedImage( currentImage, tint, cachedTintedImages );
+				currentImage = ImageUtilities.getTintedImage( currentImage, tint );
 			}
 			this.repaint();
 		}
@@ -4401,29 +4529,22 @@ public class SavedGameFloorplanPanel extends JPanel {
 
 		@Override
 		public void referenceChanged() {
-			String imgRace = crewRef.get().getRace();
-			Tint tint = null;
-
-			if ( CrewType.HUMAN.getId().equals( crewRef.get().getRace() ) ) {
-				// Human females have a distinct sprite (Other races look the same either way).
-				if ( !crewRef.get().isMale() ) {
-					imgRace = "female";  // Not an actual race.
-				}
+			if ( crewImagesPending ) {
+				crewImage = null;  // Bodies are still loading. One will be assigned later.
+				this.repaint();
+				return;
 			}
-			else if ( CrewType.GHOST.getId().equals( crewRef.get().getRace() ) ) {
-				// Ghosts look like translucent humans.
-				if ( crewRef.get().isMale() ) {
-					imgRace = "human";
-				} else {
-					imgRace = "female";
-				}
 
+			String imgRace = getCrewImageRace( crewRef.get() );
+			Tint tint = null;
+
+			if ( CrewType.GHOST.getId().equals( crewRef.get().getRace() ) ) {
 				tint = ghostTint;
 			}
 
 			crewImage = getBodyImage( imgRace, crewRef.get().isPlayerControlled() );
-			if ( tint != null ) {
-				crewImage = ImageUtilities.getTintedImage( crewImage, tint, cachedTintedImages );
+			if ( tint != null && crewImage != null ) {
+				crewImage = ImageUtilities.getTintedImage( crewImage, tint );
 			}
 
 			this.repaint();
@@ -4434,7 +4555,14 @@ public class SavedGameFloorplanPanel extends JPanel {
 			super.paintComponent(g);
 
 			Graphics2D g2d = (Graphics2D)g;
-			g2d.drawImage( crewImage, 0, 0, this.getWidth()-1, this.getHeight()-1, this);
+			if ( crewImage != null ) {
+				g2d.drawImage( crewImage, 0, 0, this.getWidth()-1, this.getHeight()-1, this);
+			}
+			else if ( crewImagesPending ) {
+				// Placeholder.
+				g2d.setColor( Color.GRAY );
+				g2d.drawOval( w/4, h/4, w/2, h/2 );
+			}
 		}
 
 		@Override
@@ -4617,6 +4745,22 @@ public class SavedGameFloorplanPanel extends JPanel {
 
 
 
+	/**
+	 * An image to decode on a worker thread, then install on the EDT.
+	 *
+	 * load() should leave its result in ImageUtilities' cache, so that the
+	 * same lookup in install() is a hit, rather than another decode.
+	 */
+	private abstract static class ShipImageLoad {
+		/** Decodes the image. Called on a worker thread. */
+		public abstract void load();
+
+		/** Puts the image on screen. Called on the EDT. */
+		public abstract void install();
+	}
+
+
+
 	public interface SquareSelectionCallback {
 		/** Responds to a clicked square, returning true to continue selecting. */
 		boolean squareSelected(SquareSelector squareSelector, int roomId, int squareId);
@@ -15,7 +15,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.blerf.ftl.constants.Difficulty;
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.parser.SavedGameParser;
 import net.blerf.ftl.ui.FieldEditorPanel;
 import net.blerf.ftl.ui.FTLFrame;
@@ -318,7 +317,7 @@ public class SavedGameGeneralPanel extends JPanel {
 
 		if ( gameState != null ) {
 			SavedGameParser.ShipState shipState = gameState.getPlayerShipState();
-			ShipBlueprint shipBlueprint = DataManager.get().getShip( shipState.getShipBlueprintId() );
+			ShipBlueprint shipBlueprint = frame.getDataManager().getShip( shipState.getShipBlueprintId() );
 			if ( shipBlueprint == null )
 				throw new RuntimeException( String.format("Could not find blueprint for%s ship: %s", (shipState.isAuto() ? " auto" : ""), shipState.getShipName()) );
 
@@ -338,25 +337,25 @@ public class SavedGameGeneralPanel extends JPanel {
 				cargoPanel.getCombo( cargoSlots[i] ).addItem( "" );
 				cargoPanel.getCombo( cargoSlots[i] ).addItem( "Weapons" );
 				cargoPanel.getCombo( cargoSlots[i] ).addItem( "-------" );
-				for ( WeaponBlueprint weaponBlueprint : DataManager.get().getWeapons().values() ) {
+				for ( WeaponBlueprint weaponBlueprint : frame.getDataManager().getWeapons().values() ) {
 					cargoPanel.getCombo( cargoSlots[i] ).addItem( weaponBlueprint );
 				}
 				cargoPanel.getCombo( cargoSlots[i] ).addItem( "" );
 				cargoPanel.getCombo( cargoSlots[i] ).addItem( "Drones" );
 				cargoPanel.getCombo( cargoSlots[i] ).addItem( "------" );
-				for ( DroneBlueprint droneBlueprint : DataManager.get().getDrones().values() ) {
+				for ( DroneBlueprint droneBlueprint : frame.getDataManager().getDrones().values() ) {
 					cargoPanel.getCombo( cargoSlots[i] ).addItem( droneBlueprint );
 				}
 
 				if ( gameState.getCargoIdList().size() > i ) {
 					String cargoId = gameState.getCargoIdList().get( i );
 
-					if ( DataManager.get().getWeapons().containsKey( cargoId ) ) {
-						WeaponBlueprint weaponBlueprint = DataManager.get().getWeapon( cargoId );
+					if ( frame.getDataManager().getWeapons().containsKey( cargoId ) ) {
+						WeaponBlueprint weaponBlueprint = frame.getDataManager().getWeapon( cargoId );
 						cargoPanel.getCombo(cargoSlots[i]).setSelectedItem( weaponBlueprint );
 					}
-					else if ( DataManager.get().getDrones().containsKey( cargoId ) ) {
-						DroneBlueprint droneBlueprint = DataManager.get().getDrone( cargoId );
+					else if ( frame.getDataManager().getDrones().containsKey( cargoId ) ) {
+						DroneBlueprint droneBlueprint = frame.getDataManager().getDrone( cargoId );
 						cargoPanel.getCombo(cargoSlots[i]).setSelectedItem( droneBlueprint );
 					}
 				}
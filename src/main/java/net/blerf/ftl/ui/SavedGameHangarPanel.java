@@ -18,7 +18,6 @@ import javax.swing.JPanel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.parser.SavedGameParser;
 import net.blerf.ftl.ui.FTLFrame;
 import net.blerf.ftl.ui.StatusbarMouseListener;
@@ -42,8 +41,8 @@ public class SavedGameHangarPanel extends JPanel {
 
 		this.frame = frame;
 
-		Map<String, ShipBlueprint> playerShipMap = DataManager.get().getPlayerShips();
-		Map<String, ShipBlueprint> autoShipMap = DataManager.get().getAutoShips();
+		Map<String, ShipBlueprint> playerShipMap = frame.getDataManager().getPlayerShips();
+		Map<String, ShipBlueprint> autoShipMap = frame.getDataManager().getAutoShips();
 
 		GridBagConstraints hangarC = new GridBagConstraints();
 		hangarC.fill = GridBagConstraints.NONE;
@@ -159,7 +158,7 @@ public class SavedGameHangarPanel extends JPanel {
 		if ( response != JOptionPane.YES_OPTION ) return;
 
 		SavedGameParser.ShipState shipState = new SavedGameParser.ShipState( "The Nameless One", shipBlueprint, auto );
-		shipState.refit();
+		shipState.refit( frame.getDataManager() );
 		gameState.setPlayerShipState( shipState );
 
 		// Sync session's redundant ship info with player ship.
@@ -196,6 +195,7 @@ public class SavedGameHangarPanel extends JPanel {
 		gameState.setPlayerShipState( shipState );
 
 		gameState.getProjectileList().clear();
+		gameState.markSectionDirty( SavedGameParser.SavedGameSection.PROJECTILES );
 
 		if ( gameState.isRebelFlagshipNearby() ) {
 			// Stole the flagship!? Have the enemy approach this beacon again.
@@ -11,7 +11,6 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.Point;
-import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
@@ -22,7 +21,6 @@ import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -55,11 +53,11 @@ import org.slf4j.LoggerFactory;
 import net.blerf.ftl.constants.AdvancedFTLConstants;
 import net.blerf.ftl.constants.FTLConstants;
 import net.blerf.ftl.constants.OriginalFTLConstants;
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.parser.SavedGameParser;
 import net.blerf.ftl.parser.SavedGameParser.BeaconState;
 import net.blerf.ftl.parser.SavedGameParser.FleetPresence;
 import net.blerf.ftl.parser.SavedGameParser.RebelFlagshipState;
+import net.blerf.ftl.parser.SavedGameParser.SavedGameSection;
 import net.blerf.ftl.parser.SavedGameParser.StoreShelf;
 import net.blerf.ftl.parser.SavedGameParser.StoreState;
 import net.blerf.ftl.parser.random.GNULibCRandom;
@@ -122,7 +120,6 @@ public class SavedGameSectorMapPanel extends JPanel {
 	private List<QuestSprite> questSprites = new ArrayList<QuestSprite>();
 	private List<PlayerShipSprite> playerShipSprites = new ArrayList<PlayerShipSprite>();
 
-	private Map<String, Map<Rectangle, BufferedImage>> cachedImages = new HashMap<String, Map<Rectangle, BufferedImage>>();
 
 	private Random javaRandom = new Random();
 	private int fileFormat = 2;
@@ -143,6 +140,7 @@ public class SavedGameSectorMapPanel extends JPanel {
 	private int flagshipBaseTurns = 0;
 	private boolean flagshipNearby = false;
 	private RebelFlagshipState flagship = null;
+	private boolean mapEdited = false;
 
 	private SectorMapLayout mapLayout = null;
 
@@ -192,8 +190,10 @@ public class SavedGameSectorMapPanel extends JPanel {
 					if ( !miscSelector.isCurrentSpriteValid() ) return;
 					boolean keepSelecting = false;
 					SpriteSelectionCallback callback = miscSelector.getCallback();
-					if ( callback != null )
+					if ( callback != null ) {
+						mapEdited = true;
 						keepSelecting = callback.spriteSelected( miscSelector, miscSelector.getSprite() );
+					}
 					if ( keepSelecting == false )
 						miscSelector.reset();
 				}
@@ -298,6 +298,8 @@ public class SavedGameSectorMapPanel extends JPanel {
 			public void actionPerformed( ActionEvent e ) {
 				//TODO: When there's a central object to edit, test for null here and return.
 
+				mapEdited = true;
+
 				Object source = e.getSource();
 				if ( source == selectBeaconBtn ) {
 					selectBeacon();
@@ -403,6 +405,7 @@ public class SavedGameSectorMapPanel extends JPanel {
 		miscSelector.setMousePoint( -1, -1 );
 		mapViewport.setStatusString( null );
 		clearSidePanel();
+		mapEdited = false;
 
 		// These were already removed from mapPanel.
 		beaconSprites.clear();
@@ -508,6 +511,12 @@ public class SavedGameSectorMapPanel extends JPanel {
 	public void updateGameState( SavedGameParser.SavedGameState gameState ) {
 		if ( gameState == null ) return;
 
+		// Beacons (and their stores) and the flagship are edited in place.
+		if ( mapEdited ) {
+			gameState.markSectionDirty( SavedGameSection.BEACONS );
+			gameState.markSectionDirty( SavedGameSection.REBEL_FLAGSHIP );
+		}
+
 		List<BeaconState> beaconStateList = gameState.getBeaconList();
 		beaconStateList.clear();
 
@@ -965,6 +974,7 @@ public class SavedGameSectorMapPanel extends JPanel {
 	 */
 	private void createSidePanel( String title, final FieldEditorPanel editorPanel, JComponent extraContent, final Runnable applyCallback ) {
 		clearSidePanel();
+		mapEdited = true;  // Side panels may have buttons that apply immediately.
 		JLabel titleLbl = new JLabel( title );
 		titleLbl.setAlignmentX( Component.CENTER_ALIGNMENT );
 		sidePanel.add( titleLbl );
@@ -1410,8 +1420,8 @@ public class SavedGameSectorMapPanel extends JPanel {
 		final String FLEET = "Fleet";
 		final String UNDER_ATTACK = "Under Attack";
 
-		final Map<String, BackgroundImageList> allImageListsMap = DataManager.get().getBackgroundImageLists();
-		final Map<String, ShipEvent> allShipEventsMap = DataManager.get().getShipEvents();
+		final Map<String, BackgroundImageList> allImageListsMap = frame.getDataManager().getBackgroundImageLists();
+		final Map<String, ShipEvent> allShipEventsMap = frame.getDataManager().getShipEvents();
 
 		int beaconId = mapLayout.getBeaconId( beaconRef.getSprite( BeaconSprite.class ) );
 		String title = String.format( "Beacon %02d", beaconId );
@@ -1954,7 +1964,7 @@ public class SavedGameSectorMapPanel extends JPanel {
 		final String ENCOUNTERS_FILE = "File";
 		final String EVENT = "Event";
 
-		final Map<String, Encounters> allEncountersMap = DataManager.get().getEncounters();
+		final Map<String, Encounters> allEncountersMap = frame.getDataManager().getEncounters();
 
 		String title = String.format("Quest (Beacon %02d)", mapLayout.getBeaconId( questSprite ) );
 
@@ -2095,13 +2105,13 @@ public class SavedGameSectorMapPanel extends JPanel {
 		@Override
 		public void referenceChanged() {
 			if ( FleetPresence.REBEL.equals( beaconRef.get().getFleetPresence() ) ) {
-				currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_warning.png", -1*32, -1*32, cachedImages );
+				currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_warning.png", -1*32, -1*32 );
 			}
 			else if ( beaconRef.get().getVisitCount() > 0 ) {
-				currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_diamond_blue.png", -1*32, -1*32, cachedImages );
+				currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_diamond_blue.png", -1*32, -1*32 );
 			}
 			else {
-				currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_diamond_yellow.png", -1*32, -1*32, cachedImages );
+				currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_diamond_yellow.png", -1*32, -1*32 );
 			}
 			this.setPreferredSize( new Dimension( currentImage.getWidth(), currentImage.getHeight() ) );
 		}
@@ -2133,7 +2143,7 @@ public class SavedGameSectorMapPanel extends JPanel {
 		public StoreSprite( SpriteReference<BeaconState> beaconRef ) {
 			this.beaconRef = beaconRef;
 
-			currentImage = ImageUtilities.getScaledImage( "img/map/map_box_store.png", -1*80, -1*40, cachedImages );
+			currentImage = ImageUtilities.getScaledImage( "img/map/map_box_store.png", -1*80, -1*40 );
 			this.setPreferredSize( new Dimension( currentImage.getWidth(), currentImage.getHeight() ) );
 
 			beaconRef.addSprite( this );
@@ -2166,7 +2176,7 @@ public class SavedGameSectorMapPanel extends JPanel {
 
 		public QuestSprite( String questId ) {
 			this.questId = questId;
-			currentImage = ImageUtilities.getScaledImage( "img/map/map_box_quest.png", -1*80, -1*40, cachedImages );
+			currentImage = ImageUtilities.getScaledImage( "img/map/map_box_quest.png", -1*80, -1*40 );
 			this.setPreferredSize( new Dimension( currentImage.getWidth(), currentImage.getHeight() ) );
 		}
 
@@ -2188,7 +2198,7 @@ public class SavedGameSectorMapPanel extends JPanel {
 		private BufferedImage currentImage = null;
 
 		public PlayerShipSprite() {
-			currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_ship.png", -1*64, -1*64, cachedImages );
+			currentImage = ImageUtilities.getScaledImage( "img/map/map_icon_ship.png", -1*64, -1*64 );
 			this.setPreferredSize( new Dimension( currentImage.getWidth(), currentImage.getHeight() ) );
 		}
 
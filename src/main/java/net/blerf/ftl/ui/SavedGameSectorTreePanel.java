@@ -203,7 +203,7 @@ public class SavedGameSectorTreePanel extends JPanel implements ActionListener {
 		});
 
 		linearTreeGen = new LinearSectorTreeGenerator();
-		expandedTreeGen = new RandomSectorTreeGenerator( new NativeRandom() );
+		expandedTreeGen = new RandomSectorTreeGenerator( new NativeRandom(), frame.getDataManager() );
 	}
 
 
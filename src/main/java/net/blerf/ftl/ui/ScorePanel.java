@@ -5,7 +5,6 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.image.BufferedImage;
 import java.awt.Insets;
-import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.Map;
@@ -41,7 +40,8 @@ public class ScorePanel extends JPanel {
 	private static final String DLC_ENABLED = "DLC Enabled";
 	private static final String REMOVE = "Remove";
 
-	private Map<String, Map<Rectangle, BufferedImage>> cachedImages = null;
+	private final DataManager dataManager;
+
 	private boolean blank = true;
 	private boolean shipIdEditingEnabled = true;
 	private boolean blankable = false;
@@ -71,11 +71,13 @@ public class ScorePanel extends JPanel {
 	/**
 	 * Constructs a ScorePanel.
 	 *
+	 * @param dataManager the resources to look up ships in.
 	 * @param rank a number to use as a #X label on the border.
 	 * @param s a score to represent, or null for a blank panel.
 	 */
-	public ScorePanel( int rank, Score s ) {
+	public ScorePanel( DataManager dataManager, int rank, Score s ) {
 		super();
+		this.dataManager = dataManager;
 		this.setBorder( BorderFactory.createTitledBorder( "" ) );
 		this.setLayout( new GridBagLayout() );
 
@@ -245,7 +247,7 @@ public class ScorePanel extends JPanel {
 
 		if ( shipId.length() > 0 ) {
 
-			ShipBlueprint ship = DataManager.get().getShip( shipId );
+			ShipBlueprint ship = dataManager.getShip( shipId );
 			if ( ship != null ) {
 				String shipGfxBaseName = ship.getGraphicsBaseName();
 
@@ -254,14 +256,14 @@ public class ScorePanel extends JPanel {
 				candidatePaths[0] = "img/ship/"+ shipGfxBaseName +"_base.png";  // FTL 1.01-1.03.3 (All ships), 1.5.4 (Player ships)
 				candidatePaths[1] = "img/ships_glow/"+ shipGfxBaseName +"_base.png";  // FTL 1.5.4 (Enemy ships)
 				for ( String candidatePath : candidatePaths ) {
-					if ( DataManager.get().hasResourceInputStream( candidatePath ) ) {
+					if ( dataManager.hasResourceInputStream( candidatePath ) ) {
 						innerPath = candidatePath;
 					}
 				}
 				if ( innerPath != null ) {
 					int maxW = ImageUtilities.getMaxIconWidth();
 					int maxH = ImageUtilities.getMaxIconHeight();
-					shipImage = ImageUtilities.getProportionallyScaledImage( innerPath, maxW, maxH, cachedImages );
+					shipImage = ImageUtilities.getProportionallyScaledImage( innerPath, maxW, maxH );
 					shipImageLbl.setIcon( new ImageIcon( shipImage ) );
 				}
 			}
@@ -301,8 +303,8 @@ public class ScorePanel extends JPanel {
 
 
 	private void showEditPopup() {
-		Map<String, ShipBlueprint> playerShipMap = DataManager.get().getPlayerShips();
-		Map<String, ShipBlueprint> autoShipMap = DataManager.get().getAutoShips();
+		Map<String, ShipBlueprint> playerShipMap = dataManager.getPlayerShips();
+		Map<String, ShipBlueprint> autoShipMap = dataManager.getAutoShips();
 
 		JPanel popupPanel = new JPanel( new BorderLayout() );
 
@@ -457,13 +459,4 @@ public class ScorePanel extends JPanel {
 		updateScore( s );
 		return s;
 	}
-
-	/**
-	 * Sets a shared cache to use.
-	 *
-	 * The cache maps innerPath to (0,0,maxW,0)/(0,0,0,maxH) rects to images.
-	 */
-	public void setCacheMap( Map<String, Map<Rectangle, BufferedImage>> cachedImages ) {
-		this.cachedImages = cachedImages;
-	}
 }
@@ -7,11 +7,7 @@ import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
-import java.awt.image.RasterFormatException;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
@@ -54,9 +50,12 @@ public class StatsSubPanel extends JPanel implements ActionListener {
 
 	private FTLConstants ftlConstants = new AdvancedFTLConstants();
 
+	private final DataManager dataManager;
 
-	public StatsSubPanel() {
+
+	public StatsSubPanel( DataManager dataManager ) {
 		super( new GridBagLayout() );
+		this.dataManager = dataManager;
 		removeAll();
 	}
 
@@ -185,7 +184,7 @@ public class StatsSubPanel extends JPanel implements ActionListener {
 		candidatePaths[0] = "img/people/"+ imgRace +"_player_yellow.png";  // FTL 1.01-1.03.3
 		candidatePaths[1] = "img/people/"+ imgRace +"_base.png";  // FTL 1.5.4
 		for ( String candidatePath : candidatePaths ) {
-			if ( DataManager.get().hasResourceInputStream( candidatePath ) ) {
+			if ( dataManager.hasResourceInputStream( candidatePath ) ) {
 				innerPath = candidatePath;
 			}
 		}
@@ -194,24 +193,9 @@ public class StatsSubPanel extends JPanel implements ActionListener {
 			return null;
 		}
 
-		InputStream in = null;
-		try {
-			in = DataManager.get().getResourceInputStream( innerPath );
-			BufferedImage bigImage = ImageIO.read( in );
-			BufferedImage croppedImage = bigImage.getSubimage( offsetX, offsetY, w, h );
+		BufferedImage croppedImage = ImageUtilities.getCroppedImage( innerPath, offsetX, offsetY, w, h );
+		result = new ImageIcon( ImageUtilities.getTrimmedImage( croppedImage ) );
 
-			result = new ImageIcon( ImageUtilities.getTrimmedImage( croppedImage, null ) );
-		}
-		catch ( RasterFormatException e ) {
-			log.error( String.format( "Failed to load and trim crew icon (%s)", imgRace ), e );
-		}
-		catch ( IOException e ) {
-			log.error( String.format( "Failed to load and trim crew icon (%s)", imgRace ), e );
-		}
-		finally {
-			try {if ( in != null ) in.close();}
-			catch ( IOException e ) {}
-    }
 		return result;
 	}
 
@@ -16,7 +16,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.blerf.ftl.constants.FTLConstants;
-import net.blerf.ftl.parser.DataManager;
 import net.blerf.ftl.parser.SavedGameParser.CrewType;
 import net.blerf.ftl.parser.SavedGameParser.StoreItem;
 import net.blerf.ftl.parser.SavedGameParser.StoreItemType;
@@ -102,9 +101,9 @@ public class StoreShelfPanel extends JPanel implements ActionListener {
 		itemLookups.clear();
 
 		// Build interchangeable id-vs-toStringable maps, mapped by item type.
-		Map<String, ?> weaponLookup = DataManager.get().getWeapons();
-		Map<String, ?> droneLookup = DataManager.get().getDrones();
-		Map<String, ?> augmentLookup = DataManager.get().getAugments();
+		Map<String, ?> weaponLookup = frame.getDataManager().getWeapons();
+		Map<String, ?> droneLookup = frame.getDataManager().getDrones();
+		Map<String, ?> augmentLookup = frame.getDataManager().getAugments();
 		Map<String, CrewType> crewLookup = new LinkedHashMap<String, CrewType>();
 		for ( CrewType crewType : ftlConstants.getCrewTypes() ) {
 			crewLookup.put( crewType.getId(), crewType );
@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -10,7 +12,8 @@ import javax.xml.bind.annotation.XmlTransient;
 
 @XmlRootElement(name = "achievement")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class Achievement {
+public class Achievement implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute
 	private String id;
@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -11,7 +13,8 @@ import net.blerf.ftl.xml.AnimSpec;
 
 @XmlRootElement(name = "anim")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class Anim {
+public class Anim implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "name")
 	private String id;
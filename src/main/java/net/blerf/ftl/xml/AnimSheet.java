@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -9,7 +11,8 @@ import javax.xml.bind.annotation.XmlValue;
 
 @XmlRootElement(name = "animSheet")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class AnimSheet {
+public class AnimSheet implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "name")
 	private String id;
@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -14,7 +16,8 @@ import javax.xml.bind.annotation.XmlRootElement;
  */
 @XmlRootElement(name = "desc")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class AnimSpec {
+public class AnimSpec implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "length")
 	public int frameCount;
@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -14,7 +15,8 @@ import net.blerf.ftl.xml.WeaponAnim;
 
 @XmlRootElement(name = "animations")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class Animations {
+public class Animations implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlElement(name = "animSheet", required = false)
 	private List<AnimSheet> sheets;
@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -9,7 +11,8 @@ import javax.xml.bind.annotation.XmlValue;
 
 @XmlRootElement(name = "img")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class BackgroundImage {
+public class BackgroundImage implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "w")
 	private int width;
@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -13,7 +14,9 @@ import net.blerf.ftl.xml.BackgroundImage;
 
 @XmlRootElement(name = "imageList")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class BackgroundImageList {
+public class BackgroundImageList implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	@XmlAttribute(name = "name")
 	private String id;
 
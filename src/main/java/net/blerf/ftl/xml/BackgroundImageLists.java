@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -12,7 +13,9 @@ import net.blerf.ftl.xml.BackgroundImageList;
 
 @XmlRootElement(name = "imageLists")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class BackgroundImageLists {
+public class BackgroundImageLists implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	@XmlElement(name = "imageList")
 	private List<BackgroundImageList> imageLists;
 
@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -9,7 +10,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "blueprints")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class Blueprints {
+public class Blueprints implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	private List<BlueprintList> blueprintList;
 	private List<CrewBlueprint> crewBlueprint;
@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -12,7 +13,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "crewBlueprint")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class CrewBlueprint {
+public class CrewBlueprint implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "name")
 	private String id;
@@ -39,13 +41,16 @@ public class CrewBlueprint {
 	private List<SpriteTintLayer> spriteTintLayerList;  // FTL 1.5.4 introduced sprite tinting.
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class SpriteTintLayer {
+	public static class SpriteTintLayer implements Serializable {
+		private static final long serialVersionUID = 1L;
 
 		@XmlElement(name="color")
 		public List<SpriteTintColor> tintList;
 
 		@XmlAccessorType(XmlAccessType.FIELD)
-		public static class SpriteTintColor {
+		public static class SpriteTintColor implements Serializable {
+			private static final long serialVersionUID = 1L;
+
 			@XmlAttribute
 			public int r, g, b;
 			@XmlAttribute
@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -10,7 +11,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "nameLists")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class CrewNameLists {
+public class CrewNameLists implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlElement(name = "nameList")
 	private List<CrewNameList> crewNameLists;
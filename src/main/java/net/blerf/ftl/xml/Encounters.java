@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -13,7 +14,9 @@ import net.blerf.ftl.xml.FTLEventList;
 
 @XmlRootElement(name = "events")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class Encounters {
+public class Encounters implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	@XmlElement(name = "event",required=false)
 	private List<FTLEvent> events;
 
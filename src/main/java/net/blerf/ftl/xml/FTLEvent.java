@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -8,7 +10,9 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "event")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class FTLEvent {
+public class FTLEvent implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	@XmlAttribute(name = "name", required = false)
 	private String id;
 
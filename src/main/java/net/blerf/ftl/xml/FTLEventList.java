@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -8,7 +10,9 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "eventList")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class FTLEventList {
+public class FTLEventList implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	@XmlAttribute(name = "name")
 	private String id;
 
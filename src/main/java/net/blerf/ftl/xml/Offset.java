@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -12,7 +14,8 @@ import javax.xml.bind.annotation.XmlAttribute;
  * @see net.blerf.ftl.xml.WeaponAnim
  */
 @XmlAccessorType(XmlAccessType.FIELD)
-public class Offset {
+public class Offset implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute
 	public int x, y;
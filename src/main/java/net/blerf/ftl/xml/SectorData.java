@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -10,7 +11,9 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "sectorData")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class SectorData {
+public class SectorData implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	@XmlElement(name = "sectorType")
 	private List<SectorType> sectorTypes;
 
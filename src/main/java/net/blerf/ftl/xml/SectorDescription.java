@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -11,7 +12,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "sectorDescription")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class SectorDescription {
+public class SectorDescription implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "name")
 	private String id;
@@ -33,19 +35,25 @@ public class SectorDescription {
 	private List<EventDistribution> eventDistributions;
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class NameList {
+	public static class NameList implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlElement(name = "name")
 		public List<String> names;
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class TrackList {
+	public static class TrackList implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlElement(name = "track")
 		public List<String> tracks;
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class EventDistribution {
+	public static class EventDistribution implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlAttribute
 		public String name;
 
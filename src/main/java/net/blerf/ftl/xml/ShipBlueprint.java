@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,7 +15,8 @@ import net.blerf.ftl.parser.SavedGameParser.SystemType;
 
 @XmlRootElement(name = "shipBlueprint")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class ShipBlueprint {
+public class ShipBlueprint implements Serializable {
+	private static final long serialVersionUID = 1L;
 	
 	@XmlAttribute(name = "name")
 	private String id;
@@ -53,10 +55,12 @@ public class ShipBlueprint {
 	private String boardingAI;  // Only present in autoBlueprints.xml.
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class SystemList {
+	public static class SystemList implements Serializable {
+		private static final long serialVersionUID = 1L;
 
 		@XmlAccessorType(XmlAccessType.FIELD)
-		public static class RoomSlot {
+		public static class RoomSlot implements Serializable {
+			private static final long serialVersionUID = 1L;
 
 			/**
 			 * The direction crew will face when standing at the terminal.
@@ -81,7 +85,8 @@ public class ShipBlueprint {
 		}
 		
 		@XmlAccessorType(XmlAccessType.FIELD)
-		public static class SystemRoom {
+		public static class SystemRoom implements Serializable {
+			private static final long serialVersionUID = 1L;
 
 			/**
 			 * Minimum random system capacity.
@@ -384,7 +389,8 @@ public class ShipBlueprint {
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class WeaponList {
+	public static class WeaponList implements Serializable {
+		private static final long serialVersionUID = 1L;
 
 		// 'count' isn't an independent field; a getter/setter calc's it (See below).
 
@@ -398,7 +404,9 @@ public class ShipBlueprint {
 		private List<WeaponId> weaponIds;
 
 		@XmlAccessorType(XmlAccessType.FIELD)
-		public static class WeaponId {
+		public static class WeaponId implements Serializable {
+			private static final long serialVersionUID = 1L;
+
 			@XmlAttribute
 			public String name;
 		}
@@ -420,13 +428,16 @@ public class ShipBlueprint {
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class AugmentId {
+	public static class AugmentId implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlAttribute
 		public String name;
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class DroneList {
+	public static class DroneList implements Serializable {
+		private static final long serialVersionUID = 1L;
 
 		// 'count' isn't an independent field; a getter/setter calc's it (See below).
 
@@ -440,7 +451,9 @@ public class ShipBlueprint {
 		private List<DroneId> droneIds;
 
 		@XmlAccessorType(XmlAccessType.FIELD)
-		public static class DroneId {
+		public static class DroneId implements Serializable {
+			private static final long serialVersionUID = 1L;
+
 			@XmlAttribute
 			public String name;
 		}
@@ -462,19 +475,25 @@ public class ShipBlueprint {
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class Health {
+	public static class Health implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlAttribute
 		public int amount;
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class MaxPower {
+	public static class MaxPower implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlAttribute
 		public int amount;
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class CrewCount {
+	public static class CrewCount implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlAttribute
 		public int amount;
 
@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,7 +18,8 @@ import net.blerf.ftl.xml.Offset;
 
 @XmlRootElement(name = "shipChassis")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class ShipChassis {
+public class ShipChassis implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlElement(name = "img")
 	private ChassisImageBounds imageBounds;
@@ -31,13 +33,16 @@ public class ShipChassis {
 	private Explosion explosion;
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class ChassisImageBounds {
+	public static class ChassisImageBounds implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlAttribute
 		public int x, y, w, h;
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class Offsets {
+	public static class Offsets implements Serializable {
+		private static final long serialVersionUID = 1L;
 
 		@XmlElement(name = "floor")
 		public Offset floorOffset;
@@ -47,7 +52,8 @@ public class ShipChassis {
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class WeaponMount {
+	public static class WeaponMount implements Serializable {
+		private static final long serialVersionUID = 1L;
 
 		@XmlAttribute
 		public int x, y, gib;
@@ -60,12 +66,16 @@ public class ShipChassis {
 	}
 
 	@XmlJavaTypeAdapter(ExplosionAdapter.class)
-	public static class Explosion {
+	public static class Explosion implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		public List<Gib> gibs = new ArrayList<Gib>();
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class Gib {
+	public static class Gib implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		public FloatRange velocity;
 		public FloatRange direction;
 		public FloatRange angular;
@@ -73,7 +83,9 @@ public class ShipChassis {
 	}
 
 	@XmlAccessorType(XmlAccessType.FIELD)
-	public static class FloatRange {
+	public static class FloatRange implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		@XmlAttribute
 		public float min, max;
 	}
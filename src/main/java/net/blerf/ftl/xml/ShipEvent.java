@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -8,7 +10,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "ship")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class ShipEvent {
+public class ShipEvent implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "name")
 	private String id;
@@ -1,5 +1,6 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessType;
@@ -12,7 +13,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement(name = "systemBlueprint")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class SystemBlueprint {
+public class SystemBlueprint implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "name")
 	private String id;
@@ -1,5 +1,7 @@
 package net.blerf.ftl.xml;
 
+import java.io.Serializable;
+
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -12,7 +14,8 @@ import net.blerf.ftl.xml.Offset;
 
 @XmlRootElement(name = "weaponAnim")
 @XmlAccessorType(XmlAccessType.FIELD)
-public class WeaponAnim {
+public class WeaponAnim implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	@XmlAttribute(name = "name")
 	private String id;
@@ -7,6 +7,7 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 
@@ -72,6 +73,18 @@ public abstract class AbstractPack {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Returns a read-only ByteBuffer holding the bytes of an innerFile.
+	 *
+	 * Memory-mapped dats return a slice of the mapping, without copying.
+	 * Others may copy the bytes into a new buffer.
+	 *
+	 * The same caveats as getInputStream() apply.
+	 */
+	public ByteBuffer getByteBuffer( String innerPath ) throws FileNotFoundException, IOException {
+		throw new UnsupportedOperationException();
+	}
+
 	/**
 	 * Closes this dat and releases any system resources associated with the stream.
 	 */
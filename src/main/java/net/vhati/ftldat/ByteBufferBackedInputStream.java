@@ -0,0 +1,56 @@
+package net.vhati.ftldat;
+
+import java.io.InputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+
+/**
+ * An InputStream that reads from a ByteBuffer, such as a memory-mapped
+ * region of a dat.
+ *
+ * Reading advances the buffer's position.
+ */
+public class ByteBufferBackedInputStream extends InputStream {
+
+	private ByteBuffer buf;
+
+
+	public ByteBufferBackedInputStream( ByteBuffer buf ) {
+		this.buf = buf;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return buf.remaining();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if ( !buf.hasRemaining() ) return -1;
+
+		// Interpret the byte as if it were unsigned.
+		return buf.get() & 0xff;
+	}
+
+	@Override
+	public int read( byte[] b, int bOff, int bLen ) throws IOException {
+		if ( bLen == 0 ) return 0;
+		if ( bOff < 0 ) throw new IndexOutOfBoundsException( String.format( "Index: %d, Size: %d", bOff, bLen ) );
+		if ( bOff + bLen > b.length ) throw new IndexOutOfBoundsException( String.format( "Index: %d, Size: %d", (bOff+bLen), bLen ) );
+		if ( !buf.hasRemaining() ) return -1;
+
+		int len = Math.min( bLen, buf.remaining() );
+		buf.get( b, bOff, len );
+		return len;
+	}
+
+	@Override
+	public long skip( long n ) throws IOException {
+		if ( n <= 0 ) return 0;
+
+		int len = (int)Math.min( n, buf.remaining() );
+		buf.position( buf.position() + len );
+		return len;
+	}
+}
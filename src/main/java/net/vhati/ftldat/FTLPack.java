@@ -11,8 +11,8 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-//import java.nio.MappedByteBuffer;      // For Memory-mapped streams
-//import java.nio.channels.FileChannel;  // For Memory-mapped streams
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.ArrayList;
@@ -25,6 +25,7 @@ import java.util.Map;
 import net.vhati.ftldat.AbstractPack;
 import net.vhati.ftldat.AbstractPack.PathAndSize;
 import net.vhati.ftldat.AbstractPack.RepackResult;
+import net.vhati.ftldat.ByteBufferBackedInputStream;
 import net.vhati.ftldat.FileChannelRegionInputStream;
 
 
@@ -42,6 +43,7 @@ public class FTLPack extends AbstractPack {
 	private ByteBuffer byteBuffer = null;
 	private File datFile = null;
 	private RandomAccessFile raf = null;
+	private MappedByteBuffer mappedBuf = null;
 	private List<DatEntry> entryList = null;
 	private Map<String, Integer> pathToIndexMap = null;
 
@@ -61,9 +63,15 @@ public class FTLPack extends AbstractPack {
 	 *
 	 * The mode must be one of the following:
 	 *   r  - opens an existing dat, read-only.
+	 *   rm - opens an existing dat, read-only, memory-mapped.
 	 *   r+ - opens an existing dat, read/write.
 	 *   w+ - creates a new empty dat, read/write.
 	 *
+	 * Memory-mapped dats parse their index and serve innerFiles straight
+	 * from the mapping, without seeks or intermediate buffers. The mapping
+	 * may outlive close() until it is garbage collected, which keeps the
+	 * file in use on some platforms.
+	 *
 	 * @param datFile a file to open/create
 	 * @param mode see above
 	 * @param indexSize size of the initial index if creating
@@ -81,6 +89,19 @@ public class FTLPack extends AbstractPack {
 			raf = new RandomAccessFile( datFile, "r" );
 			readIndex();
 		}
+		else if ( mode.equals( "rm" ) ) {
+			if ( !datFile.exists() )
+				throw new FileNotFoundException( String.format( "The datFile was not found: %s", datFile.getPath() ) );
+
+			this.datFile = datFile;
+			raf = new RandomAccessFile( datFile, "r" );
+			if ( raf.length() > Integer.MAX_VALUE ) {
+				raf.close();
+				throw new IOException( String.format( "The datFile is too large to memory-map: %s", datFile.getPath() ) );
+			}
+			mappedBuf = raf.getChannel().map( FileChannel.MapMode.READ_ONLY, 0, raf.length() );
+			readMappedIndex();
+		}
 		else if ( mode.equals( "r+" ) ) {
 			if ( !datFile.exists() )
 				throw new FileNotFoundException( String.format( "The datFile was not found: %s", datFile.getPath() ) );
@@ -95,7 +116,7 @@ public class FTLPack extends AbstractPack {
 			createIndex( indexSize );
 		}
 		else {
-			throw new IllegalArgumentException( String.format( "FTLPack constructor's mode arg was not 'r', 'r+', or 'w+' (%s)", mode ) );
+			throw new IllegalArgumentException( String.format( "FTLPack constructor's mode arg was not 'r', 'rm', 'r+', or 'w+' (%s)", mode ) );
 		}
 	}
 
@@ -215,6 +236,64 @@ public class FTLPack extends AbstractPack {
 		}
 	}
 
+	/**
+	 * Reads the index from a memory-mapped file.
+	 *
+	 * This is equivalent to readIndex(), without seeking around the file.
+	 */
+	private void readMappedIndex() throws IOException {
+		ByteBuffer buf = mappedBuf.duplicate();
+		buf.order( ByteOrder.LITTLE_ENDIAN );
+
+		if ( buf.limit() < 4 ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): too small to contain a header", getName() ) );
+		}
+		int indexSize = (int)(buf.getInt( 0 ) & 0x00000000FFFFFFFFL);
+		if ( indexSize < 0 || getHeaderIndexPosition( indexSize ) > buf.limit() ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): header claims to be larger than the entire file", getName() ) );
+		}
+
+		entryList = new ArrayList<DatEntry>( indexSize );
+		pathToIndexMap = new HashMap<String, Integer>( indexSize );
+
+		for ( int i=0; i < indexSize; i++ ) {
+			long entryOffset = buf.getInt( (int)getHeaderIndexPosition( i ) ) & 0x00000000FFFFFFFFL;
+
+			if ( entryOffset == 0 ) {
+				entryList.add( null );
+				continue;
+			}
+			if ( entryOffset + 8 > buf.limit() ) {
+				throw new IOException( String.format( "Corrupt dat file (%s): entry %d begins beyond the end of the file", getName(), i ) );
+			}
+
+			DatEntry entry = new DatEntry();
+			entry.entryOffset = entryOffset;
+
+			buf.position( (int)entryOffset );
+			entry.dataSize = buf.getInt() & 0x00000000FFFFFFFFL;
+
+			int strLen = buf.getInt();
+			if ( strLen < 0 || strLen > buf.remaining() ) {
+				throw new IOException( String.format( "Corrupt dat file (%s): entry %d has an innerPath beyond the end of the file", getName(), i ) );
+			}
+			byte[] strBytes = new byte[strLen];
+			buf.get( strBytes );
+			entry.innerPath = new String( strBytes, asciiEncoder.charset().name() );
+			entry.dataOffset = buf.position();
+
+			if ( entry.dataOffset + entry.dataSize > buf.limit() ) {
+				throw new IOException( String.format( "Corrupt dat file (%s): data extends beyond the end of the file: %s", getName(), entry.innerPath ) );
+			}
+
+			if ( pathToIndexMap.containsKey( entry.innerPath ) ) {
+				throw new IOException( "InnerPath occurs more than once: "+ entry.innerPath );
+			}
+			pathToIndexMap.put( entry.innerPath, i );
+			entryList.add( entry );
+		}
+	}
+
 	/**
 	 * Moves the nth index's entry to the end of the file.
 	 * It will still be nth in the header, however.
@@ -438,6 +517,11 @@ public class FTLPack extends AbstractPack {
 			throw new FileNotFoundException( "InnerPath does not exist: "+ innerPath );
 		}
 
+		if ( mappedBuf != null ) {
+			// Each stream gets its own slice (and position) of the mapping.
+			return new ByteBufferBackedInputStream( getByteBuffer( innerPath ) );
+		}
+
 		int entryIndex = pathToIndexMap.get(innerPath);
 		DatEntry entry = entryList.get( entryIndex );
 
@@ -445,20 +529,44 @@ public class FTLPack extends AbstractPack {
 		// Multiple read-only streams can coexist (each has its own position).
 		InputStream stream = new FileChannelRegionInputStream( raf.getChannel(), entry.dataOffset, entry.dataSize );
 
-		// Mapped regions may not garbage collect promptly.
-		// That would keep the file in use: bad.
-		// Closing raf doesn't affect them. :/
-		// This method has best I/O performance though.
-		//MappedByteBuffer buf = raf.getChannel().map( FileChannel.MapMode.READ_ONLY, entry.dataOffset, entry.dataSize );
-		//buf.load();
-		//InputStream stream = new ByteBufferBackedInputStream( buf );
-
 		return stream;
 	}
 
+	@Override
+	public ByteBuffer getByteBuffer( String innerPath ) throws FileNotFoundException, IOException {
+		if (innerPath.contains("\\")) {
+			throw new IllegalArgumentException( "InnerPath contains backslashes: "+ innerPath );
+		}
+		if ( !pathToIndexMap.containsKey( innerPath ) ) {
+			throw new FileNotFoundException( "InnerPath does not exist: "+ innerPath );
+		}
+
+		int entryIndex = pathToIndexMap.get(innerPath);
+		DatEntry entry = entryList.get( entryIndex );
+
+		if ( mappedBuf != null ) {
+			ByteBuffer buf = mappedBuf.duplicate();
+			buf.limit( (int)(entry.dataOffset + entry.dataSize) );
+			buf.position( (int)entry.dataOffset );
+			return buf.slice().asReadOnlyBuffer();
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate( (int)entry.dataSize );
+		FileChannel channel = raf.getChannel();
+		while ( buf.hasRemaining() ) {
+			int len = channel.read( buf, entry.dataOffset + buf.position() );
+			if ( len == -1 ) {
+				throw new IOException( "EOF prematurely reached reading innerPath: "+  entry.innerPath );
+			}
+		}
+		buf.flip();
+		return buf.asReadOnlyBuffer();
+	}
+
 	@Override
 	public void close() throws IOException {
 		raf.close();
+		mappedBuf = null;  // Let the mapping be garbage collected.
 	}
 
 	public List<DatEntry> listMetadata() {
@@ -11,6 +11,8 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
@@ -21,12 +23,15 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.DataFormatException;
 import java.util.zip.DeflaterInputStream;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 import net.vhati.ftldat.AbstractPack;
 import net.vhati.ftldat.AbstractPack.PathAndSize;
 import net.vhati.ftldat.AbstractPack.RepackResult;
+import net.vhati.ftldat.ByteBufferBackedInputStream;
 import net.vhati.ftldat.FileChannelRegionInputStream;
 import net.vhati.ftldat.MeteredInputStream;
 
@@ -74,6 +79,7 @@ public class PkgPack extends AbstractPack {
 
 	private File datFile = null;
 	private RandomAccessFile raf = null;
+	private MappedByteBuffer mappedBuf = null;
 	private List<PkgEntry> entryList = null;
 	private Map<String, Integer> pathToIndexMap = null;
 
@@ -96,9 +102,15 @@ public class PkgPack extends AbstractPack {
 	 *
 	 * The mode must be one of the following:
 	 *   r  - opens an existing dat, read-only.
+	 *   rm - opens an existing dat, read-only, memory-mapped.
 	 *   r+ - opens an existing dat, read/write.
 	 *   w+ - creates a new empty dat, read/write.
 	 *
+	 * Memory-mapped dats parse their index and serve innerFiles straight
+	 * from the mapping, without seeks or intermediate buffers. The mapping
+	 * may outlive close() until it is garbage collected, which keeps the
+	 * file in use on some platforms.
+	 *
 	 * @param datFile a file to open/create
 	 * @param mode see above
 	 * @param entryCount size of the initial index if creating
@@ -117,6 +129,19 @@ public class PkgPack extends AbstractPack {
 			raf = new RandomAccessFile( datFile, "r" );
 			readIndex();
 		}
+		else if ( mode.equals( "rm" ) ) {
+			if ( !datFile.exists() )
+				throw new FileNotFoundException( String.format( "The datFile was not found: %s", datFile.getPath() ) );
+
+			this.datFile = datFile;
+			raf = new RandomAccessFile( datFile, "r" );
+			if ( raf.length() > Integer.MAX_VALUE ) {
+				raf.close();
+				throw new IOException( String.format( "The datFile is too large to memory-map: %s", datFile.getPath() ) );
+			}
+			mappedBuf = raf.getChannel().map( FileChannel.MapMode.READ_ONLY, 0, raf.length() );
+			readMappedIndex();
+		}
 		else if ( mode.equals( "r+" ) ) {
 			if ( !datFile.exists() )
 				throw new FileNotFoundException( String.format( "The datFile was not found: %s", datFile.getPath() ) );
@@ -131,7 +156,7 @@ public class PkgPack extends AbstractPack {
 			createIndex( entryCount );
 		}
 		else {
-			throw new IllegalArgumentException( String.format( "FTLPack constructor's mode arg was not 'r', 'r+', or 'w+' (%s).", mode ) );
+			throw new IllegalArgumentException( String.format( "PkgPack constructor's mode arg was not 'r', 'rm', 'r+', or 'w+' (%s).", mode ) );
 		}
 	}
 
@@ -444,6 +469,92 @@ public class PkgPack extends AbstractPack {
 		}
 	}
 
+	/**
+	 * Reads the index from a memory-mapped file.
+	 *
+	 * This is equivalent to readIndex(), without seeking around the file
+	 * or copying the paths region.
+	 */
+	private void readMappedIndex() throws IOException {
+		ByteBuffer buf = mappedBuf.duplicate();  // Defaults to BIG_ENDIAN.
+
+		if ( buf.limit() < HEADER_SIZE ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): too small to contain a header", getName() ) );
+		}
+
+		// Check the file signature.
+		for ( int aSignature : signature ) {
+			if ( (buf.get() & 0xff) != aSignature ) {
+				throw new IOException( "Unexpected file signature" );
+			}
+		}
+
+		// Other header values.
+		int headerSize = buf.getShort() & 0x0000FFFF;
+		if ( headerSize != HEADER_SIZE ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): header claims header size is %d bytes (expected %d)", getName(), headerSize, HEADER_SIZE ) );
+		}
+		int entrySize = buf.getShort() & 0x0000FFFF;
+		if ( entrySize != ENTRY_SIZE ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): header claims entries are %d bytes (expected %d)", getName(), entrySize, ENTRY_SIZE ) );
+		}
+		int entryCount = buf.getInt();   // Risky casting to signed.
+		if ( entryCount < 0 || (long)entryCount * entrySize > buf.limit() ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): header claims entries combined are larger than the entire file", getName() ) );
+		}
+		pathsRegionSize = buf.getInt();  // Risky casting to signed.
+		if ( pathsRegionSize < 0 || pathsRegionSize > buf.limit() ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): header claims path strings are larger than the entire file", getName() ) );
+		}
+
+		// Buffer methods would throw unchecked exceptions past the end.
+		if ( (long)entryCount * entrySize + pathsRegionSize > buf.remaining() ) {
+			throw new IOException( String.format( "Corrupt dat file (%s): entries and path strings extend beyond the end of the file", getName() ) );
+		}
+
+		entryList = new ArrayList<PkgEntry>( entryCount );
+		for ( int i=0; i < entryCount; i++ ) {
+			PkgEntry entry = new PkgEntry();
+			entry.innerPathHash = buf.getInt() & 0x00000000FFFFFFFFL;
+
+			long pathOffsetAndFlags = buf.getInt() & 0x00000000FFFFFFFFL;
+			entry.innerPathOffset = (int)(pathOffsetAndFlags & 0x00FFFFFFL);
+			entry.dataDeflated = ((pathOffsetAndFlags & PKGF_DEFLATED) != 0);
+
+			entry.dataOffset = buf.getInt() & 0x00000000FFFFFFFFL;
+			entry.dataSize = buf.getInt() & 0x00000000FFFFFFFFL;
+			entry.unpackedSize = buf.getInt() & 0x00000000FFFFFFFFL;
+
+			if ( entry.dataSize == 0 ) {  // Null entry, dat wasn't repacked.
+				entryList.add( null );
+			} else {
+				if ( entry.dataOffset + entry.dataSize > buf.limit() ) {
+					throw new IOException( String.format( "Corrupt dat file (%s): entry %d data extends beyond the end of the file", getName(), i ) );
+				}
+				entryList.add( entry );
+			}
+		}
+
+		pathToIndexMap = new HashMap<String, Integer>( entryCount );
+
+		// The paths region immediately follows the entries.
+		ByteBuffer pathsBuf = buf.slice();
+		pathsBuf.limit( pathsRegionSize );
+
+		for ( int i=0; i < entryCount; i++ ) {
+			PkgEntry entry = entryList.get( i );
+			if ( entry == null ) continue;
+
+			if ( entry.innerPathOffset >= pathsRegionSize ) {
+				throw new IOException( String.format( "Corrupt dat file (%s): entry %d path is beyond the path strings", getName(), i ) );
+			}
+			pathsBuf.position( entry.innerPathOffset );
+			entry.innerPath = readNullTerminatedString( pathsBuf );
+
+			pathToIndexMap.put( entry.innerPath, i );
+		}
+	}
+
 	/**
 	 * Moves an entry's data to the end of the file.
 	 *
@@ -706,9 +817,17 @@ public class PkgPack extends AbstractPack {
 		int entryIndex = pathToIndexMap.get(innerPath);
 		PkgEntry entry = entryList.get( entryIndex );
 
-		// Create a stream that can only see this region.
-		// Multiple read-only streams can coexist (each has its own position).
-		InputStream stream = new FileChannelRegionInputStream( raf.getChannel(), entry.dataOffset, entry.dataSize );
+		InputStream stream = null;
+
+		if ( mappedBuf != null ) {
+			// Each stream gets its own slice (and position) of the mapping.
+			stream = new ByteBufferBackedInputStream( getPackedByteBuffer( entry ) );
+		}
+		else {
+			// Create a stream that can only see this region.
+			// Multiple read-only streams can coexist (each has its own position).
+			stream = new FileChannelRegionInputStream( raf.getChannel(), entry.dataOffset, entry.dataSize );
+		}
 
 		if ( entry.dataDeflated ) {
 			stream = new InflaterInputStream( stream );
@@ -717,9 +836,90 @@ public class PkgPack extends AbstractPack {
 		return stream;
 	}
 
+	/**
+	 * Returns a read-only ByteBuffer holding the bytes of an innerFile.
+	 *
+	 * Deflated innerFiles are always inflated into a new buffer.
+	 */
+	@Override
+	public ByteBuffer getByteBuffer( String innerPath ) throws FileNotFoundException, IOException {
+		if (innerPath.contains("\\")) {
+			throw new IllegalArgumentException( "InnerPath contains backslashes: "+ innerPath );
+		}
+		if ( !pathToIndexMap.containsKey( innerPath ) ) {
+			throw new FileNotFoundException( "InnerPath does not exist: "+ innerPath );
+		}
+
+		int entryIndex = pathToIndexMap.get(innerPath);
+		PkgEntry entry = entryList.get( entryIndex );
+
+		ByteBuffer packedBuf = getPackedByteBuffer( entry );
+		if ( !entry.dataDeflated ) return packedBuf.asReadOnlyBuffer();
+
+		byte[] packedBytes = null;
+		int packedOffset = 0;
+		if ( packedBuf.hasArray() ) {
+			packedBytes = packedBuf.array();
+			packedOffset = packedBuf.arrayOffset() + packedBuf.position();
+		} else {
+			packedBytes = new byte[packedBuf.remaining()];
+			packedBuf.get( packedBytes );
+		}
+
+		byte[] unpackedBytes = new byte[(int)entry.unpackedSize];
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput( packedBytes, packedOffset, (int)entry.dataSize );
+			int unpackedLength = 0;
+			while ( unpackedLength < unpackedBytes.length && !inflater.finished() ) {
+				int len = inflater.inflate( unpackedBytes, unpackedLength, unpackedBytes.length - unpackedLength );
+				if ( len == 0 && (inflater.needsInput() || inflater.needsDictionary()) ) break;
+				unpackedLength += len;
+			}
+			if ( unpackedLength != unpackedBytes.length ) {
+				throw new IOException( String.format( "Inflated %d of %d expected bytes for innerPath: %s", unpackedLength, unpackedBytes.length, entry.innerPath ) );
+			}
+		}
+		catch ( DataFormatException e ) {
+			throw new IOException( "Could not inflate innerPath: "+ entry.innerPath, e );
+		}
+		finally {
+			inflater.end();
+		}
+
+		return ByteBuffer.wrap( unpackedBytes ).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns a ByteBuffer holding an entry's data, as stored.
+	 *
+	 * Memory-mapped dats return a read-only slice of the mapping. Otherwise
+	 * the data is read into a new heap buffer.
+	 */
+	private ByteBuffer getPackedByteBuffer( PkgEntry entry ) throws IOException {
+		if ( mappedBuf != null ) {
+			ByteBuffer buf = mappedBuf.duplicate();
+			buf.limit( (int)(entry.dataOffset + entry.dataSize) );
+			buf.position( (int)entry.dataOffset );
+			return buf.slice().asReadOnlyBuffer();
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate( (int)entry.dataSize );
+		FileChannel channel = raf.getChannel();
+		while ( buf.hasRemaining() ) {
+			int len = channel.read( buf, entry.dataOffset + buf.position() );
+			if ( len == -1 ) {
+				throw new IOException( "EOF prematurely reached reading innerPath: "+  entry.innerPath );
+			}
+		}
+		buf.flip();
+		return buf;
+	}
+
 	@Override
 	public void close() throws IOException {
 		raf.close();
+		mappedBuf = null;  // Let the mapping be garbage collected.
 	}
 
 	public List<PkgEntry> listMetadata() {